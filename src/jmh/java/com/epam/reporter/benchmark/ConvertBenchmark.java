@@ -0,0 +1,38 @@
+package com.epam.reporter.benchmark;
+
+import com.epam.reporter.impl.SimpleReporter;
+import com.epam.reporter.impl.SimpleReporterFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@code SimpleReporterFactory.create(Map)}, that is converting the records to the linked entity graph.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConvertBenchmark {
+    private final SimpleReporterFactory factory = new SimpleReporterFactory();
+
+    /**
+     * Creates the reporter from the parsed records.
+     * @param organisation the generated organisation
+     * @return the created reporter
+     */
+    @Benchmark
+    public SimpleReporter create(Organisation organisation) {
+        return factory.create(organisation.records);
+    }
+}
@@ -0,0 +1,127 @@
+package com.epam.reporter.benchmark;
+
+import com.epam.reporter.api.Employee;
+import com.epam.reporter.impl.SimpleCsvFile;
+import com.epam.reporter.impl.SimpleReporter;
+import com.epam.reporter.impl.SimpleReporterFactory;
+import com.epam.reporter.tools.OrganisationGenerator;
+import com.epam.reporter.tools.OrganisationSettings;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * An organisation generated by {@code OrganisationGenerator}, shared by the benchmarks.
+ * <p>
+ * Managers have fanOut subordinates, the hierarchy is about depth levels deep below the CEO,
+ * and the given share of employees is followed by a malformed line. The levels grow by fanOut until they reach
+ * the width which spreads the employees over depth levels, so a large depth gives a deep and narrow hierarchy,
+ * where fewer than fanOut subordinates fit on a level.</p>
+ */
+@State(Scope.Benchmark)
+public class Organisation {
+    private static final long SEED = 42;
+    private static final int MIN_SALARY = 20_000;
+    private static final int MAX_SALARY = 120_000;
+
+    @Param({"10000", "1000000"})
+    public int employees;
+
+    @Param({"5", "50"})
+    public int fanOut;
+
+    @Param({"10", "1000"})
+    public int depth;
+
+    @Param({"0.0", "0.01"})
+    public double malformedShare;
+
+    Path file;
+    Map<Integer, Employee> records;
+    SimpleReporter reporter;
+
+    /**
+     * Writes the CSV file, and prepares the input of the later phases.
+     * @throws IOException if the file cannot be written
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        file = Files.createTempFile("organisation", ".csv");
+        new OrganisationGenerator(new OrganisationSettings(employees, SEED, fanOut, fanOut, depth,
+                levelWidth(employees, fanOut, depth), MIN_SALARY, MAX_SALARY, 0, 0, malformedShare)).write(file);
+        records = new SimpleCsvFile(open()).parse();
+        reporter = new SimpleReporterFactory().create(records);
+    }
+
+    /**
+     * Returns the lowest level width which holds the employees below the CEO on the given number of levels,
+     * when every level is at most fanOut times wider than the one above it.
+     * @param employees number of employees, including the CEO
+     * @param fanOut number of subordinates of every manager
+     * @param depth number of levels below the CEO
+     * @return the maximum width of a level
+     * @throws IllegalArgumentException if the levels cannot hold the employees, the generator would then
+     * put the rest on the deepest level with a larger fan-out
+     */
+    static int levelWidth(int employees, int fanOut, int depth) {
+        if (capacity(employees, fanOut, depth) < employees - 1L) {
+            throw new IllegalArgumentException("%d employees do not fit into %d levels with fan-out %d!"
+                    .formatted(employees, depth, fanOut));
+        }
+        int low = 1;
+        int high = employees;
+        while (low < high) {
+            int width = (low + high) >>> 1;
+            if (capacity(width, fanOut, depth) < employees - 1L) {
+                low = width + 1;
+            } else {
+                high = width;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Returns the number of employees below the CEO on the levels, when no level is wider than the width.
+     * @param width maximum width of a level
+     * @param fanOut number of subordinates of every manager
+     * @param depth number of levels below the CEO
+     * @return the number of employees the levels can hold
+     */
+    private static long capacity(int width, int fanOut, int depth) {
+        long capacity = 0;
+        long levelSize = 1;
+        for (int level = 1; level <= depth; level++) {
+            levelSize = Math.min(width, levelSize * fanOut);
+            capacity += levelSize;
+        }
+        return capacity;
+    }
+
+    /**
+     * Deletes the CSV file.
+     * @throws IOException if the file cannot be deleted
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    /**
+     * Opens the CSV file.
+     * @return stream of the CSV file
+     * @throws IOException if the file cannot be opened
+     */
+    InputStream open() throws IOException {
+        return Files.newInputStream(file);
+    }
+}
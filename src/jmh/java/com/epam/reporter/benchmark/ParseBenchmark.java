@@ -0,0 +1,40 @@
+package com.epam.reporter.benchmark;
+
+import com.epam.reporter.api.Employee;
+import com.epam.reporter.impl.SimpleCsvFile;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@code SimpleCsvFile.parse()}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ParseBenchmark {
+
+    /**
+     * Parses the CSV file into a map of employees.
+     * @param organisation the generated organisation
+     * @return the parsed employees
+     * @throws IOException if the file cannot be opened
+     */
+    @Benchmark
+    public Map<Integer, Employee> parse(Organisation organisation) throws IOException {
+        try (InputStream in = organisation.open()) {
+            return new SimpleCsvFile(in).parse();
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.epam.reporter.benchmark;
+
+import com.epam.reporter.api.ReportExecutor;
+import com.epam.reporter.impl.SimpleCsvFile;
+import com.epam.reporter.impl.SimpleReporterFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the whole run of {@code ReportExecutor}: parsing, converting, reporting and writing the report.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReportExecutorBenchmark {
+    private final SimpleReporterFactory factory = new SimpleReporterFactory();
+    private final WritableByteChannel output = Channels.newChannel(OutputStream.nullOutputStream());
+
+    /**
+     * Executes the report, writing it to a channel which discards it.
+     * @param organisation the generated organisation
+     * @throws IOException if the file cannot be opened
+     */
+    @Benchmark
+    public void execute(Organisation organisation) throws IOException {
+        try (InputStream in = organisation.open()) {
+            new ReportExecutor(new SimpleCsvFile(in), factory, output).execute();
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package com.epam.reporter;
+
+import com.epam.reporter.api.ErrorHandler;
+import com.epam.reporter.api.ReporterFactory;
+import com.epam.reporter.impl.Compression;
+import com.epam.reporter.impl.ParsingErrorHandlingStrategy;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Stream;
+
+/**
+ * Creates the reports of many CSV files concurrently, every file on its own virtual thread.
+ * <p>
+ * Parsing and reporting is CPU-bound, so at most the configured number of files are processed at the same time.
+ * The heap used by a file is estimated from its uncompressed size, and files are only started while their estimates fit
+ * into the memory budget. A single file larger than the budget is processed alone.
+ * The report of every file is written next to it, see {@code ReportFile}.
+ * A failing file does not stop the others, its failure is returned in its result.</p>
+ */
+final class BatchRunner {
+    private static final String GLOB_CHARACTERS = "*?[{";
+    private static final String GLOB_SYNTAX = "glob:";
+    private static final long MEMORY_PER_CSV_BYTE = 8;
+    private static final long MEBIBYTE = 1 << 20;
+    private static final String SUMMARY_HEADER = "file,result,millis";
+    private static final String OK = "OK";
+    private static final String SUMMARY = "Processed %d files in %d ms, %d failed.";
+
+    private final ParserType parserType;
+    private final ReporterFactory reporterFactory;
+    private final ErrorHandler errorHandler;
+    private final Semaphore processors;
+    private final Semaphore memory;
+    private final int memoryBudgetMiB;
+
+    /**
+     * Constructs a batch runner.
+     * @param parserType parser of the CSV files
+     * @param reporterFactory creates the reporters, it is used by many threads at the same time
+     * @param concurrency maximum number of files processed at the same time
+     * @param memoryBudgetMiB heap available for the files processed at the same time, in MiB
+     * @throws IllegalArgumentException if the concurrency or the memory budget is less than 1
+     */
+    BatchRunner(ParserType parserType, ReporterFactory reporterFactory, int concurrency, int memoryBudgetMiB) {
+        this(parserType, reporterFactory, ParsingErrorHandlingStrategy.NOOP, concurrency, memoryBudgetMiB);
+    }
+
+    /**
+     * Constructs a batch runner passing the invalid lines of every file to the same error handler,
+     * through its {@link ErrorHandler#forSource(String) handler} of the file.
+     * @param parserType parser of the CSV files
+     * @param reporterFactory creates the reporters, it is used by many threads at the same time
+     * @param errorHandler handler of the invalid lines, it is used by many threads at the same time
+     * @param concurrency maximum number of files processed at the same time
+     * @param memoryBudgetMiB heap available for the files processed at the same time, in MiB
+     * @throws IllegalArgumentException if the concurrency or the memory budget is less than 1
+     */
+    BatchRunner(ParserType parserType, ReporterFactory reporterFactory, ErrorHandler errorHandler,
+                int concurrency, int memoryBudgetMiB) {
+        if (concurrency < 1 || memoryBudgetMiB < 1) {
+            throw new IllegalArgumentException("Concurrency and memory budget should be at least 1!");
+        }
+        this.parserType = parserType;
+        this.reporterFactory = reporterFactory;
+        this.errorHandler = errorHandler;
+        this.processors = new Semaphore(concurrency, true);
+        this.memory = new Semaphore(memoryBudgetMiB, true);
+        this.memoryBudgetMiB = memoryBudgetMiB;
+    }
+
+    /**
+     * Expands the arguments to files. An argument containing glob characters is matched against the files
+     * under the directory before its first glob character, like {@code exports/*.csv} or {@code exports/**.csv},
+     * other arguments are taken as they are. Only CSV files are matched, so reports and snapshots written next to
+     * them by earlier runs are skipped.
+     * @param arguments file names and glob patterns
+     * @return the files in argument order, every file only once, matches of a pattern are sorted
+     * @throws IOException if a directory cannot be read
+     */
+    static List<Path> expand(List<String> arguments) throws IOException {
+        Set<Path> files = new LinkedHashSet<>();
+        for (String argument : arguments) {
+            int globStart = indexOfGlob(argument);
+            if (globStart < 0) {
+                files.add(Path.of(argument));
+                continue;
+            }
+            int separator = Math.max(argument.lastIndexOf('/', globStart), argument.lastIndexOf('\\', globStart));
+            Path directory = Path.of(separator < 0 ? "" : argument.substring(0, separator + 1));
+            PathMatcher matcher = FileSystems.getDefault().getPathMatcher(GLOB_SYNTAX + argument.substring(separator + 1));
+            try (Stream<Path> paths = Files.walk(directory)) {
+                paths.filter(Files::isRegularFile)
+                        .filter(ReportFile::isCsvFile)
+                        .filter(path -> matcher.matches(directory.relativize(path)))
+                        .sorted()
+                        .forEach(files::add);
+            }
+        }
+        return new ArrayList<>(files);
+    }
+
+    /**
+     * Creates the reports of the files, and waits until every file is finished.
+     * A file whose thread ended with an error, like an {@code OutOfMemoryError}, fails on its own as well.
+     * @param files the CSV files
+     * @return the result of every file, in the same order
+     * @throws InterruptedException if the thread is interrupted while waiting
+     */
+    List<FileResult> run(List<Path> files) throws InterruptedException {
+        List<Future<FileResult>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (Path file : files) {
+                futures.add(executor.submit(() -> process(file)));
+            }
+        }
+        List<FileResult> results = new ArrayList<>();
+        for (int i = 0; i < futures.size(); i++) {
+            Future<FileResult> future = futures.get(i);
+            results.add(future.state() == Future.State.SUCCESS
+                    ? future.resultNow()
+                    : new FileResult(files.get(i), Duration.ZERO, future.exceptionNow()));
+        }
+        return results;
+    }
+
+    /**
+     * Prints the summary of the batch: a CSV line for every file, followed by the totals.
+     * @param results results of the files
+     * @param elapsed wall time of the batch
+     * @param out receives the summary
+     */
+    static void printSummary(List<FileResult> results, Duration elapsed, PrintStream out) {
+        out.println(SUMMARY_HEADER);
+        for (FileResult result : results) {
+            String outcome = result.failure() == null ? OK : result.failure().getClass().getSimpleName() + ": " + result.failure().getMessage();
+            out.println(String.join(",", result.file().toString(), outcome.replace(',', ';'),
+                    String.valueOf(result.elapsed().toMillis())));
+        }
+        long failed = results.stream().filter(result -> result.failure() != null).count();
+        out.println(SUMMARY.formatted(results.size(), elapsed.toMillis(), failed));
+    }
+
+    /**
+     * Creates the report of a file, once its memory estimate and a processor are available.
+     * @param file the CSV file
+     * @return the result of the file
+     * @throws InterruptedException if the thread is interrupted while waiting
+     */
+    private FileResult process(Path file) throws InterruptedException {
+        int memoryMiB = estimateMemoryMiB(file);
+        memory.acquire(memoryMiB);
+        try {
+            processors.acquire();
+            try {
+                long start = System.nanoTime();
+                try {
+                    ReportFile.write(file, parserType.open(file, errorHandler.forSource(file.toString())), reporterFactory);
+                    return new FileResult(file, Duration.ofNanos(System.nanoTime() - start), null);
+                } catch (IOException | RuntimeException e) {
+                    return new FileResult(file, Duration.ofNanos(System.nanoTime() - start), e);
+                }
+            } finally {
+                processors.release();
+            }
+        } finally {
+            memory.release(memoryMiB);
+        }
+    }
+
+    /**
+     * Estimates the heap needed to process the file from its uncompressed size, at most the whole budget.
+     * @param file the CSV file, optionally compressed
+     * @return the estimate in MiB, at least 1
+     */
+    private int estimateMemoryMiB(Path file) {
+        long size;
+        try {
+            size = Compression.detect(file).uncompressedSize(file);
+        } catch (IOException e) {
+            size = 0;
+        }
+        long estimate = (size * MEMORY_PER_CSV_BYTE + MEBIBYTE - 1) / MEBIBYTE;
+        return Math.clamp(estimate, 1, memoryBudgetMiB);
+    }
+
+    /**
+     * Returns the index of the first glob character.
+     * @param argument a file name or a glob pattern
+     * @return the index, or -1 if it is a plain file name
+     */
+    private static int indexOfGlob(String argument) {
+        for (int i = 0; i < argument.length(); i++) {
+            if (GLOB_CHARACTERS.indexOf(argument.charAt(i)) >= 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * The result of a file.
+     * @param file the CSV file
+     * @param elapsed time of parsing and reporting, zero if the thread of the file ended with an error
+     * @param failure the exception or error if the report could not be created, null otherwise
+     */
+    record FileResult(Path file, Duration elapsed, Throwable failure) {
+    }
+}
@@ -0,0 +1,216 @@
+package com.epam.reporter;
+
+import com.epam.reporter.api.ReporterFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * Watches a directory, and creates a report of every CSV file written into it, in the same JVM.
+ * <p>
+ * A file is only processed after it has not changed for the quiet period, so partially written files are skipped.
+ * Files are processed by a bounded pool of workers, if every worker is busy and the queue is full,
+ * the watcher processes the file itself, so it does not pick up new files faster than they are processed.
+ * The report of {@code name.csv} is written to {@code name.report.txt} next to it, the report of a gzip or zip
+ * compressed {@code name.csv.gz} to {@code name.csv.gz.report.txt}, see {@code ReportFile}.
+ * CSV files already in the directory are processed at start, unless their report is newer.</p>
+ */
+final class DirectoryWatcher implements Closeable {
+    private static final int QUEUE_CAPACITY_PER_WORKER = 4;
+    private static final Logger LOGGER = Logger.getLogger(DirectoryWatcher.class.getName());
+
+    private final Path directory;
+    private final ParserType parserType;
+    private final ReporterFactory reporterFactory;
+    private final long quietPeriodNanos;
+    private final WatchService watchService;
+    private final ThreadPoolExecutor workers;
+    private final Map<Path, PendingFile> pendingFiles = new HashMap<>();
+
+    /**
+     * Constructs a watcher, and starts watching the directory.
+     * @param directory directory to be watched
+     * @param parserType parser of the CSV files
+     * @param reporterFactory creates the reporters
+     * @param workers number of files processed at the same time
+     * @param quietPeriod time a file should not change before it is processed
+     * @throws IOException if the directory cannot be watched
+     */
+    DirectoryWatcher(Path directory, ParserType parserType, ReporterFactory reporterFactory, int workers, Duration quietPeriod)
+            throws IOException {
+        this.directory = directory;
+        this.parserType = parserType;
+        this.reporterFactory = reporterFactory;
+        this.quietPeriodNanos = quietPeriod.toNanos();
+        this.watchService = directory.getFileSystem().newWatchService();
+        this.workers = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(workers * QUEUE_CAPACITY_PER_WORKER), new ThreadPoolExecutor.CallerRunsPolicy());
+        directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+    }
+
+    /**
+     * Watches the directory until the watcher is closed.
+     * @throws IOException if the directory cannot be read
+     */
+    void run() throws IOException {
+        scan();
+        try {
+            while (true) {
+                WatchKey key = watchService.poll(quietPeriodNanos, TimeUnit.NANOSECONDS);
+                if (key != null) {
+                    handleEvents(key);
+                }
+                submitQuietFiles();
+            }
+        } catch (ClosedWatchServiceException e) {
+            // the watcher is closed
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Stops watching the directory, and waits until the files being processed are finished.
+     */
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+        workers.shutdown();
+        try {
+            workers.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Schedules every CSV file in the directory whose report is missing or older.
+     * @throws IOException if the directory cannot be read
+     */
+    private void scan() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                if (ReportFile.isCsvFile(file) && !isReportUpToDate(file)) {
+                    schedule(file);
+                }
+            }
+        }
+    }
+
+    /**
+     * Schedules the CSV files created or modified, or rescans the directory if events were lost.
+     * @param key key of the watched directory
+     * @throws IOException if the directory cannot be read
+     */
+    private void handleEvents(WatchKey key) throws IOException {
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                scan();
+            } else {
+                Path file = directory.resolve((Path) event.context());
+                if (ReportFile.isCsvFile(file)) {
+                    schedule(file);
+                }
+            }
+        }
+        key.reset();
+    }
+
+    /**
+     * Starts or restarts the quiet period of the file.
+     * @param file path of the CSV file
+     */
+    private void schedule(Path file) {
+        pendingFiles.put(file, new PendingFile(System.nanoTime(), attributesOf(file)));
+    }
+
+    /**
+     * Submits the files which have not changed for the quiet period to the workers.
+     * The size and modification time of the file is also checked, as events can be coalesced.
+     */
+    private void submitQuietFiles() {
+        long now = System.nanoTime();
+        Iterator<Map.Entry<Path, PendingFile>> iterator = pendingFiles.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Path, PendingFile> entry = iterator.next();
+            if (now - entry.getValue().scheduled() < quietPeriodNanos) {
+                continue;
+            }
+            FileState state = attributesOf(entry.getKey());
+            if (state == null) {
+                iterator.remove();
+            } else if (!state.equals(entry.getValue().state())) {
+                entry.setValue(new PendingFile(now, state));
+            } else {
+                iterator.remove();
+                Path file = entry.getKey();
+                workers.execute(() -> process(file));
+            }
+        }
+    }
+
+    /**
+     * Creates the report of the CSV file. Failures are logged, and do not stop the watcher.
+     * @param file path of the CSV file
+     */
+    private void process(Path file) {
+        try {
+            ReportFile.write(file, parserType.open(file), reporterFactory);
+        } catch (IOException | RuntimeException e) {
+            LOGGER.log(Level.WARNING, e, () -> "Report of " + file + " cannot be created!");
+        }
+    }
+
+    /**
+     * Returns true if the report of the CSV file is newer than the file.
+     * @param file path of the CSV file
+     * @return true if the file does not need to be processed
+     * @throws IOException if the modification times cannot be read
+     */
+    private static boolean isReportUpToDate(Path file) throws IOException {
+        Path report = ReportFile.of(file);
+        return Files.exists(report) && Files.getLastModifiedTime(report).compareTo(Files.getLastModifiedTime(file)) >= 0;
+    }
+
+    /**
+     * Returns the size and modification time of the file.
+     * @param file path of the file
+     * @return the state of the file, null if it does not exist any more
+     */
+    private static FileState attributesOf(Path file) {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            return new FileState(attributes.size(), attributes.lastModifiedTime().toMillis());
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Size and modification time of a file.
+     * @param size size in bytes
+     * @param lastModified modification time in milliseconds
+     */
+    private record FileState(long size, long lastModified) {
+    }
+
+    /**
+     * A file waiting for its quiet period to pass.
+     * @param scheduled time of the last change in nanoseconds
+     * @param state state of the file at the last change
+     */
+    private record PendingFile(long scheduled, FileState state) {
+    }
+}
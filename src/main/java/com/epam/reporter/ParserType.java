@@ -0,0 +1,117 @@
+package com.epam.reporter;
+
+import com.epam.reporter.api.CsvFile;
+import com.epam.reporter.api.ErrorHandler;
+import com.epam.reporter.impl.Compression;
+import com.epam.reporter.impl.MappedCsvFile;
+import com.epam.reporter.impl.ParallelCsvFile;
+import com.epam.reporter.impl.ParsingErrorHandlingStrategy;
+import com.epam.reporter.impl.SimpleCsvFile;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * CSV parsers selectable from the command line with {@code --parser=<name>}.
+ * <p>
+ * Gzip and zip files are streamed through {@code SimpleCsvFile} whichever parser is selected,
+ * as the other parsers need the raw bytes of the file, see {@code Compression}.</p>
+ */
+enum ParserType {
+
+    /**
+     * Reads the file line by line, see {@code SimpleCsvFile}.
+     */
+    SIMPLE {
+        @Override
+        CsvFile openUncompressed(Path file, ErrorHandler errorHandler) throws IOException {
+            return new SimpleCsvFile(new FileInputStream(file.toFile()), errorHandler);
+        }
+    },
+
+    /**
+     * Memory-maps the file and parses the raw bytes, see {@code MappedCsvFile}.
+     */
+    MAPPED {
+        @Override
+        CsvFile openUncompressed(Path file, ErrorHandler errorHandler) throws IOException {
+            return new MappedCsvFile(requireReadable(file), errorHandler);
+        }
+    },
+
+    /**
+     * Splits the file into chunks and parses them on all available processors, see {@code ParallelCsvFile}.
+     */
+    PARALLEL {
+        @Override
+        CsvFile openUncompressed(Path file, ErrorHandler errorHandler) throws IOException {
+            return new ParallelCsvFile(requireReadable(file), errorHandler);
+        }
+    };
+
+    static final String OPTION_PREFIX = "--parser=";
+
+    /**
+     * Opens the given file with this parser, or streams it if it is compressed.
+     * @param file path of the CSV file, optionally compressed
+     * @return the CSV file ready to be parsed
+     * @throws IOException if the file cannot be opened
+     */
+    CsvFile open(Path file) throws IOException {
+        return open(file, ParsingErrorHandlingStrategy.NOOP);
+    }
+
+    /**
+     * Opens the given file with this parser and error handler, or streams it if it is compressed.
+     * @param file path of the CSV file, optionally compressed
+     * @param errorHandler handler of the invalid lines
+     * @return the CSV file ready to be parsed
+     * @throws IOException if the file cannot be opened
+     */
+    CsvFile open(Path file, ErrorHandler errorHandler) throws IOException {
+        Compression compression = Compression.detect(file);
+        if (compression == Compression.NONE) {
+            return openUncompressed(file, errorHandler);
+        }
+        return new SimpleCsvFile(compression.open(file), errorHandler);
+    }
+
+    /**
+     * Opens the given uncompressed file with this parser.
+     * @param file path of the CSV file
+     * @param errorHandler handler of the invalid lines
+     * @return the CSV file ready to be parsed
+     * @throws IOException if the file cannot be opened
+     */
+    abstract CsvFile openUncompressed(Path file, ErrorHandler errorHandler) throws IOException;
+
+    /**
+     * Checks that the file can be read, as parsers working on paths only open it when parsing.
+     * @param file path of the CSV file
+     * @return the path
+     * @throws NoSuchFileException if the file cannot be read
+     */
+    private static Path requireReadable(Path file) throws NoSuchFileException {
+        if (!Files.isReadable(file)) {
+            throw new NoSuchFileException(file.toString());
+        }
+        return file;
+    }
+
+    /**
+     * Returns the parser type named by the command line option.
+     * @param option command line option, e.g. {@code --parser=mapped}
+     * @return the selected parser type
+     * @throws IllegalArgumentException if the option does not name a parser
+     */
+    static ParserType fromOption(String option) {
+        if (!option.startsWith(OPTION_PREFIX)) {
+            throw new IllegalArgumentException(option);
+        }
+        return valueOf(option.substring(OPTION_PREFIX.length()).toUpperCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,250 @@
+package com.epam.reporter;
+
+import com.epam.reporter.api.CsvFile;
+import com.epam.reporter.api.ReportExecutor;
+import com.epam.reporter.api.ReporterFactory;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import static java.nio.file.StandardOpenOption.CREATE_NEW;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Content-addressed cache of finished reports in a local directory.
+ * <p>
+ * A report is stored under the XXH64 hash of the bytes of its CSV file, the range coefficients and the variant
+ * of the run (parser, reporter and encoding), so a byte-identical file is never parsed again: a hit costs hashing the file
+ * and copying the cached report. A report is written to a temporary file of its own next to the entry while it is
+ * streamed to the output, and moved into the cache only once it is complete, so readers never see a partial entry.
+ * The CSV file is hashed and parsed separately, so the report is only cached if the size and modification time of
+ * the file are still the ones read before it was hashed; otherwise the report may belong to other content.</p>
+ * <p>
+ * The last modification time of an entry is its last use: after every new entry, the least recently used entries
+ * are deleted until the cache fits into its size.</p>
+ * <p>
+ * Many processes can share the cache directory, an entry deleted by another process is simply a miss.</p>
+ */
+final class ReportCache {
+    private static final String ENTRY_SUFFIX = ".report";
+    private static final String TEMPORARY_FORMAT = "%s.%d-%d.tmp";
+    private static final String SEPARATOR = "_";
+    private static final String HEX_FORMAT = "%016x";
+    private static final AtomicLong TEMPORARY_FILES = new AtomicLong();
+
+    private final Path directory;
+    private final long maxBytes;
+
+    /**
+     * Constructs a cache, creating its directory if it does not exist.
+     * @param directory directory of the cached reports
+     * @param maxBytes size of the cache, the least recently used reports are deleted above it
+     * @throws IOException if the directory cannot be created
+     * @throws IllegalArgumentException if the size is less than 1
+     */
+    ReportCache(Path directory, long maxBytes) throws IOException {
+        if (maxBytes < 1) {
+            throw new IllegalArgumentException("Cache size should be at least 1!");
+        }
+        this.directory = Files.createDirectories(directory);
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Returns the key of the report of the CSV file. The size and modification time of the file are read
+     * before it is hashed, so a change before the report is cached can be detected.
+     * @param file path of the CSV file
+     * @param lowerRangeCoefficient lower range coefficient of the report
+     * @param upperRangeCoefficient upper range coefficient of the report
+     * @param variant name of anything else changing the report, like the parser, the reporter and the encoding
+     * @return the key of the report
+     * @throws IOException if the file cannot be read
+     */
+    static Key key(Path file, BigDecimal lowerRangeCoefficient, BigDecimal upperRangeCoefficient, String variant)
+            throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        String value = String.join(SEPARATOR, HEX_FORMAT.formatted(Xxh64.hash(file)), lowerRangeCoefficient.toPlainString(),
+                upperRangeCoefficient.toPlainString(), variant);
+        return new Key(value, file, attributes.size(), attributes.lastModifiedTime().toMillis());
+    }
+
+    /**
+     * Copies the cached report to the output, and marks it as used.
+     * @param key key of the report
+     * @param output receives the report, it is not closed
+     * @return false if the report is not cached
+     * @throws IOException if the report cannot be copied
+     */
+    boolean read(Key key, WritableByteChannel output) throws IOException {
+        Path entry = entry(key);
+        try (FileChannel input = FileChannel.open(entry, READ)) {
+            long size = input.size();
+            for (long position = 0; position < size; ) {
+                position += input.transferTo(position, size - position, output);
+            }
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+        try {
+            Files.setLastModifiedTime(entry, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (NoSuchFileException e) {
+            // evicted by another process meanwhile
+        }
+        return true;
+    }
+
+    /**
+     * Creates the report of the CSV file, streaming it to the output and into the cache at the same time.
+     * The report is only cached if it is complete, and the CSV file has not changed since the key was created.
+     * @param key key of the report
+     * @param csvFile the opened CSV file
+     * @param reporterFactory creates the reporter
+     * @param output receives the report, it is not closed
+     * @param charset encoding of the report, it should be part of the variant of the key
+     * @throws IOException if the report cannot be cached
+     * @throws IllegalArgumentException if the report cannot be created, like {@code CEONotFoundException}
+     */
+    void write(Key key, CsvFile csvFile, ReporterFactory reporterFactory, WritableByteChannel output, Charset charset)
+            throws IOException {
+        Path entry = entry(key);
+        Path temporary = entry.resolveSibling(TEMPORARY_FORMAT.formatted(entry.getFileName(),
+                ProcessHandle.current().pid(), TEMPORARY_FILES.incrementAndGet()));
+        try {
+            try (FileChannel cached = FileChannel.open(temporary, CREATE_NEW, WRITE)) {
+                new ReportExecutor(csvFile, reporterFactory, new TeeChannel(output, cached), charset).execute();
+            }
+            if (!key.isCurrent()) {
+                return;
+            }
+            Files.move(temporary, entry, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+        evict();
+    }
+
+    /**
+     * Deletes the least recently used reports until the cache fits into its size.
+     * @throws IOException if the directory cannot be listed
+     */
+    void evict() throws IOException {
+        List<CachedReport> reports = new ArrayList<>();
+        long total = 0;
+        List<Path> entries;
+        try (Stream<Path> files = Files.list(directory)) {
+            entries = files.filter(path -> path.getFileName().toString().endsWith(ENTRY_SUFFIX)).toList();
+        }
+        for (Path entry : entries) {
+            try {
+                BasicFileAttributes attributes = Files.readAttributes(entry, BasicFileAttributes.class);
+                reports.add(new CachedReport(entry, attributes.size(), attributes.lastModifiedTime()));
+                total += attributes.size();
+            } catch (NoSuchFileException e) {
+                // evicted by another process meanwhile
+            }
+        }
+        reports.sort(Comparator.comparing(CachedReport::lastUsed));
+        for (int i = 0; i < reports.size() && total > maxBytes; i++) {
+            Files.deleteIfExists(reports.get(i).file());
+            total -= reports.get(i).size();
+        }
+    }
+
+    /**
+     * Returns the path of the cached report.
+     * @param key key of the report
+     * @return path of the entry
+     */
+    private Path entry(Key key) {
+        return directory.resolve(key.value() + ENTRY_SUFFIX);
+    }
+
+    /**
+     * Key of a cached report, with the size and modification time of the CSV file read before it was hashed.
+     * @param value name of the entry: the hash of the file, the coefficients and the variant
+     * @param source path of the CSV file
+     * @param sourceSize size of the CSV file
+     * @param sourceModified modification time of the CSV file in milliseconds
+     */
+    record Key(String value, Path source, long sourceSize, long sourceModified) {
+
+        /**
+         * Returns true if the CSV file still has the size and modification time it had when it was hashed.
+         * @return false if the file has changed or it cannot be read
+         */
+        boolean isCurrent() {
+            try {
+                BasicFileAttributes attributes = Files.readAttributes(source, BasicFileAttributes.class);
+                return attributes.size() == sourceSize && attributes.lastModifiedTime().toMillis() == sourceModified;
+            } catch (IOException e) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * A report in the cache directory.
+     * @param file path of the entry
+     * @param size size of the entry in bytes
+     * @param lastUsed time of the last use
+     */
+    private record CachedReport(Path file, long size, FileTime lastUsed) {
+    }
+
+    /**
+     * Writes every byte to the output and to the cached file.
+     */
+    private static final class TeeChannel implements WritableByteChannel {
+        private final WritableByteChannel output;
+        private final FileChannel cached;
+
+        /**
+         * Constructs the channel.
+         * @param output receives the report
+         * @param cached the temporary file of the cache
+         */
+        TeeChannel(WritableByteChannel output, FileChannel cached) {
+            this.output = output;
+            this.cached = cached;
+        }
+
+        @Override
+        public int write(ByteBuffer source) throws IOException {
+            ByteBuffer copy = source.duplicate();
+            int written = 0;
+            while (source.hasRemaining()) {
+                written += output.write(source);
+            }
+            while (copy.hasRemaining()) {
+                cached.write(copy);
+            }
+            return written;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return output.isOpen() && cached.isOpen();
+        }
+
+        @Override
+        public void close() {
+            // both channels are closed by their owners
+        }
+    }
+}
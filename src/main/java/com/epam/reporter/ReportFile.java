@@ -0,0 +1,98 @@
+package com.epam.reporter;
+
+import com.epam.reporter.api.CsvFile;
+import com.epam.reporter.api.ReportExecutor;
+import com.epam.reporter.api.ReporterFactory;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.nio.file.StandardOpenOption.CREATE_NEW;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Report file written next to its CSV file: the report of {@code name.csv} is {@code name.report.txt},
+ * the report of {@code name.csv.gz} or {@code name.csv.zip} is named after the whole file name, like
+ * {@code name.csv.gz.report.txt}, so the reports of a plain and a compressed file of the same name do not overwrite
+ * each other.
+ * <p>
+ * The report is written to a temporary file first and then moved, so a report file is always complete.
+ * Every write has a temporary file of its own, so two changes of the same file can be processed at the same time:
+ * the report moved last wins.</p>
+ */
+final class ReportFile {
+    private static final String CSV_SUFFIX = ".csv";
+    static final String REPORT_SUFFIX = ".report.txt";
+    private static final List<String> COMPRESSED_SUFFIXES = List.of(".gz", ".zip");
+    private static final String TEMPORARY_FORMAT = "%s.%d-%d.tmp";
+    private static final AtomicLong TEMPORARY_FILES = new AtomicLong();
+
+    /**
+     * No instance of this class is required.
+     */
+    private ReportFile() {
+    }
+
+    /**
+     * Returns the path of the report of the CSV file.
+     * @param csvFile path of the CSV file
+     * @return path of the report next to it
+     */
+    static Path of(Path csvFile) {
+        String name = csvFile.getFileName().toString();
+        String baseName = name.endsWith(CSV_SUFFIX) ? name.substring(0, name.length() - CSV_SUFFIX.length()) : name;
+        return csvFile.resolveSibling(baseName + REPORT_SUFFIX);
+    }
+
+    /**
+     * Returns true if the path is a CSV file name, optionally compressed.
+     * @param file path of the file
+     * @return true if the name ends with {@code .csv}, {@code .csv.gz} or {@code .csv.zip}
+     */
+    static boolean isCsvFile(Path file) {
+        return withoutCompressedSuffix(file.getFileName().toString()).endsWith(CSV_SUFFIX);
+    }
+
+    /**
+     * Creates the report of the CSV file, and writes it next to the file.
+     * @param file path of the CSV file
+     * @param csvFile the opened CSV file
+     * @param reporterFactory creates the reporter
+     * @return path of the report
+     * @throws IOException if the report cannot be written
+     * @throws IllegalArgumentException if the report cannot be created, like {@code CEONotFoundException}
+     */
+    static Path write(Path file, CsvFile csvFile, ReporterFactory reporterFactory) throws IOException {
+        Path report = of(file);
+        Path temporary = report.resolveSibling(TEMPORARY_FORMAT.formatted(report.getFileName(),
+                ProcessHandle.current().pid(), TEMPORARY_FILES.incrementAndGet()));
+        try {
+            try (FileChannel output = FileChannel.open(temporary, CREATE_NEW, WRITE)) {
+                new ReportExecutor(csvFile, reporterFactory, output).execute();
+            }
+            Files.move(temporary, report, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return report;
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * Removes the compressed suffix from the file name.
+     * @param name name of the file
+     * @return the name without {@code .gz} or {@code .zip}
+     */
+    private static String withoutCompressedSuffix(String name) {
+        for (String suffix : COMPRESSED_SUFFIXES) {
+            if (name.endsWith(suffix)) {
+                return name.substring(0, name.length() - suffix.length());
+            }
+        }
+        return name;
+    }
+}
@@ -0,0 +1,473 @@
+package com.epam.reporter;
+
+import com.epam.reporter.api.CsvFile;
+import com.epam.reporter.api.Employee;
+import com.epam.reporter.api.ReportExecutor;
+import com.epam.reporter.api.Reporter;
+import com.epam.reporter.api.ReporterFactory;
+import com.epam.reporter.impl.CEONotFoundException;
+import com.epam.reporter.impl.InvalidRangesException;
+import com.epam.reporter.impl.MultipleEmployeesWithoutManagerException;
+import com.epam.reporter.impl.ParsingErrorHandlingStrategy;
+import com.epam.reporter.impl.SimpleCsvFile;
+import com.epam.reporter.impl.SimpleReporterFactory;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Serves reports over HTTP, every request on its own virtual thread.
+ * <p>
+ * {@code POST /report} creates the report of the CSV file in the request body, parsed by {@code SimpleCsvFile}.
+ * {@code GET /report?file=name.csv} creates the report of a CSV file under the root directory of the server,
+ * parsed by the configured parser. The optional {@code lower} and {@code upper} query parameters override
+ * the range coefficients, e.g. {@code lower=1.1&upper=1.6}.
+ * The report is streamed back as UTF-8 text while it is being created.</p>
+ * <p>
+ * Parsing and reporting is CPU-bound, so at most the configured number of reports are created at the same time,
+ * further requests wait in a bounded queue. If the queue is full, the request is rejected with 503. The body of
+ * a POST request is read into memory while the request waits, so a slow upload does not hold a processor.
+ * Uploads above the configured maximum size are rejected with 413, so the admitted requests hold at most
+ * {@code (concurrency + queueCapacity) * maxUploadBytes} bytes of uploads.
+ * Invalid coefficients are answered with 400, a missing file with 404, and an organisation without a single CEO
+ * or a file which cannot be parsed with 422, as long as no part of the report has been sent. A failure after that
+ * closes the connection before the end of the chunked response, so the client sees the report is truncated.</p>
+ */
+final class ReportServer implements AutoCloseable {
+    static final String REPORT_PATH = "/report";
+    static final int MAX_UPLOAD_LIMIT = Integer.MAX_VALUE - 1;
+    private static final String FILE_PARAMETER = "file";
+    private static final String LOWER_PARAMETER = "lower";
+    private static final String UPPER_PARAMETER = "upper";
+    private static final String GET = "GET";
+    private static final String POST = "POST";
+    private static final String CONTENT_TYPE = "Content-Type";
+    private static final String CONTENT_LENGTH = "Content-Length";
+    private static final String TEXT_PLAIN = "text/plain; charset=utf-8";
+    private static final String RETRY_AFTER = "Retry-After";
+    private static final String RETRY_AFTER_SECONDS = "1";
+    private static final int OK = 200;
+    private static final int BAD_REQUEST = 400;
+    private static final int NOT_FOUND = 404;
+    private static final int METHOD_NOT_ALLOWED = 405;
+    private static final int CONTENT_TOO_LARGE = 413;
+    private static final int UNPROCESSABLE_CONTENT = 422;
+    private static final int INTERNAL_SERVER_ERROR = 500;
+    private static final int SERVICE_UNAVAILABLE = 503;
+    private static final long CHUNKED = 0;
+    private static final long NO_BODY = -1;
+    private static final int STOP_DELAY_SECONDS = 1;
+    private static final Logger LOGGER = Logger.getLogger(ReportServer.class.getName());
+
+    private final Path root;
+    private final ParserType parserType;
+    private final SimpleReporterFactory reporterFactory;
+    private final Semaphore processors;
+    private final Semaphore admissions;
+    private final int maxUploadBytes;
+    private final ExecutorService executor;
+    private final HttpServer server;
+
+    /**
+     * Constructs a server, and starts serving on the address.
+     * @param address address to listen on, port 0 picks a free port
+     * @param root directory of the CSV files referenced by the requests
+     * @param parserType parser of the referenced CSV files
+     * @param reporterFactory creates the reporters, it is used by many threads at the same time
+     * @param concurrency maximum number of reports created at the same time
+     * @param queueCapacity maximum number of requests waiting for a report to finish
+     * @param maxUploadBytes maximum size of the CSV file uploaded by a POST request, at most {@link #MAX_UPLOAD_LIMIT}
+     * @throws IOException if the server cannot listen on the address
+     * @throws IllegalArgumentException if the concurrency or the maximum upload size is less than 1,
+     * the maximum upload size is above the limit, or the queue capacity is negative
+     */
+    ReportServer(InetSocketAddress address, Path root, ParserType parserType, SimpleReporterFactory reporterFactory,
+                 int concurrency, int queueCapacity, int maxUploadBytes) throws IOException {
+        if (concurrency < 1 || queueCapacity < 0 || maxUploadBytes < 1 || maxUploadBytes > MAX_UPLOAD_LIMIT) {
+            throw new IllegalArgumentException("Concurrency and maximum upload size should be at least 1, "
+                    + "maximum upload size at most " + MAX_UPLOAD_LIMIT + ", queue capacity should not be negative!");
+        }
+        this.root = root.toAbsolutePath().normalize();
+        this.parserType = parserType;
+        this.reporterFactory = reporterFactory;
+        this.processors = new Semaphore(concurrency, true);
+        this.admissions = new Semaphore(concurrency + queueCapacity);
+        this.maxUploadBytes = maxUploadBytes;
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        this.server = HttpServer.create(address, 0);
+        server.setExecutor(executor);
+        server.createContext(REPORT_PATH, this::handle);
+        server.start();
+    }
+
+    /**
+     * Returns the port the server is listening on.
+     * @return the port
+     */
+    int port() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Stops accepting requests, and waits for the running reports to finish.
+     */
+    @Override
+    public void close() {
+        server.stop(STOP_DELAY_SECONDS);
+        executor.close();
+    }
+
+    /**
+     * Handles a request, if it can be admitted.
+     * @param exchange the request and the response
+     * @throws IOException if the response cannot be sent
+     */
+    private void handle(HttpExchange exchange) throws IOException {
+        boolean aborted = false;
+        try {
+            admit(exchange);
+        } catch (ReportAbortedException e) {
+            aborted = true;
+            LOGGER.warning(e::getMessage);
+            throw e;
+        } finally {
+            if (!aborted) {
+                exchange.close();
+            }
+        }
+    }
+
+    /**
+     * Creates the report of the request, if it can be admitted. The uploaded file is read before a processor
+     * is taken, so a slow upload only holds a place in the queue. An upload declared larger than the maximum
+     * is rejected before it is admitted.
+     * @param exchange the request and the response
+     * @throws IOException if the request cannot be read or the response cannot be sent
+     */
+    private void admit(HttpExchange exchange) throws IOException {
+        boolean upload = POST.equals(exchange.getRequestMethod());
+        if (upload && declaredLength(exchange) > maxUploadBytes) {
+            sendError(exchange, CONTENT_TOO_LARGE, uploadTooLarge());
+            return;
+        }
+        if (!admissions.tryAcquire()) {
+            exchange.getResponseHeaders().set(RETRY_AFTER, RETRY_AFTER_SECONDS);
+            sendError(exchange, SERVICE_UNAVAILABLE, "Too many requests, try again later!");
+            return;
+        }
+        try {
+            byte[] body = upload ? readUpload(exchange) : null;
+            if (upload && body == null) {
+                sendError(exchange, CONTENT_TOO_LARGE, uploadTooLarge());
+                return;
+            }
+            processors.acquire();
+            try {
+                respond(exchange, body);
+            } finally {
+                processors.release();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            sendError(exchange, SERVICE_UNAVAILABLE, "Server is stopping!");
+        } finally {
+            admissions.release();
+        }
+    }
+
+    /**
+     * Returns the length of the request body declared by its Content-Length header.
+     * @param exchange the request and the response
+     * @return the declared length, or -1 if the length is not declared, e.g. the body is chunked
+     */
+    private static long declaredLength(HttpExchange exchange) {
+        String length = exchange.getRequestHeaders().getFirst(CONTENT_LENGTH);
+        if (length == null) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(length.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Reads the uploaded CSV file, but not more than the maximum upload size and one byte,
+     * so a chunked upload without declared length is also bounded.
+     * @param exchange the request and the response
+     * @return the uploaded file, or null if it is larger than the maximum upload size
+     * @throws IOException if the request cannot be read
+     */
+    private byte[] readUpload(HttpExchange exchange) throws IOException {
+        byte[] upload = exchange.getRequestBody().readNBytes(maxUploadBytes + 1);
+        return upload.length > maxUploadBytes ? null : upload;
+    }
+
+    /**
+     * Returns the message of an upload rejected for its size.
+     * @return the message
+     */
+    private String uploadTooLarge() {
+        return "The uploaded file should not be larger than " + maxUploadBytes + " bytes!";
+    }
+
+    /**
+     * Creates the report requested, and streams it into the response.
+     * Failures found before the first part of the report is sent are answered with an error status,
+     * later failures abort the response, so the client sees the report is cut short.
+     * @param exchange the request and the response
+     * @param upload the CSV file uploaded by a POST request, null for other requests
+     * @throws IOException if the response cannot be sent
+     * @throws ReportAbortedException if the report fails after its first part has been sent
+     */
+    private void respond(HttpExchange exchange, byte[] upload) throws IOException {
+        var output = new ResponseChannel(exchange);
+        try {
+            Map<String, String> parameters = parameters(exchange.getRequestURI().getRawQuery());
+            ReporterFactory factory = withCoefficients(coefficient(parameters, LOWER_PARAMETER, SimpleReporterFactory.TWENTY_PERCENT),
+                    coefficient(parameters, UPPER_PARAMETER, SimpleReporterFactory.FIFTY_PERCENT));
+            CsvFile csvFile = switch (exchange.getRequestMethod()) {
+                case POST -> new SimpleCsvFile(new ByteArrayInputStream(upload), ParsingErrorHandlingStrategy.NOOP);
+                case GET -> referencedFile(parameters.get(FILE_PARAMETER));
+                default -> throw new RequestException(METHOD_NOT_ALLOWED, "Only GET and POST are supported!");
+            };
+            new ReportExecutor(csvFile, factory, output).execute();
+            output.commit();
+        } catch (RequestException e) {
+            respondWithError(exchange, output, e.status, e.getMessage());
+        } catch (InvalidRangesException e) {
+            respondWithError(exchange, output, BAD_REQUEST, e.getMessage());
+        } catch (CEONotFoundException | MultipleEmployeesWithoutManagerException e) {
+            respondWithError(exchange, output, UNPROCESSABLE_CONTENT, e.getMessage());
+        } catch (UncheckedIOException e) {
+            if (output.started) {
+                throw new ReportAbortedException(e.getCause().getMessage());
+            }
+            throw e.getCause();
+        } catch (IllegalArgumentException e) {
+            respondWithError(exchange, output, UNPROCESSABLE_CONTENT, e.getMessage());
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Report cannot be created!", e);
+            respondWithError(exchange, output, INTERNAL_SERVER_ERROR, "Report cannot be created!");
+        }
+    }
+
+    /**
+     * Opens the CSV file referenced by the request, which should be under the root directory.
+     * @param name name of the file relative to the root directory
+     * @return the CSV file
+     * @throws RequestException if there is no such file under the root directory
+     * @throws IOException if the file cannot be opened
+     */
+    private CsvFile referencedFile(String name) throws IOException {
+        if (name == null) {
+            throw new RequestException(BAD_REQUEST, "The file parameter is required!");
+        }
+        Path file = root.resolve(name).normalize();
+        if (!file.startsWith(root) || !Files.isRegularFile(file)) {
+            throw new RequestException(NOT_FOUND, "File: " + name + " was not found!");
+        }
+        return parserType.open(file, ParsingErrorHandlingStrategy.NOOP);
+    }
+
+    /**
+     * Returns a factory creating the reporters with the given coefficients.
+     * The coefficients are validated by the factory when the reporter is created.
+     * @param lowerRangeCoefficient lower range coefficient
+     * @param upperRangeCoefficient upper range coefficient
+     * @return the factory
+     */
+    private ReporterFactory withCoefficients(BigDecimal lowerRangeCoefficient, BigDecimal upperRangeCoefficient) {
+        return new ReporterFactory() {
+            @Override
+            public Reporter create(Map<Integer, Employee> employees) {
+                return reporterFactory.create(lowerRangeCoefficient, upperRangeCoefficient, employees);
+            }
+
+            @Override
+            public Reporter create(CsvFile csvFile) {
+                return reporterFactory.create(lowerRangeCoefficient, upperRangeCoefficient, csvFile);
+            }
+        };
+    }
+
+    /**
+     * Returns the coefficient of the query parameter.
+     * @param parameters query parameters
+     * @param name name of the parameter
+     * @param defaultValue coefficient if the parameter is missing
+     * @return the coefficient
+     * @throws RequestException if the parameter is not a number
+     */
+    private static BigDecimal coefficient(Map<String, String> parameters, String name, BigDecimal defaultValue) {
+        String value = parameters.get(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return new BigDecimal(value);
+        } catch (NumberFormatException e) {
+            throw new RequestException(BAD_REQUEST, "Invalid coefficient: " + name + "=" + value + "!");
+        }
+    }
+
+    /**
+     * Decodes the query parameters, the first value of every parameter is kept.
+     * @param query the raw query, or null
+     * @return the parameters
+     */
+    private static Map<String, String> parameters(String query) {
+        Map<String, String> parameters = new HashMap<>();
+        if (query == null) {
+            return parameters;
+        }
+        for (String parameter : query.split("&")) {
+            int separator = parameter.indexOf('=');
+            String name = separator < 0 ? parameter : parameter.substring(0, separator);
+            String value = separator < 0 ? "" : parameter.substring(separator + 1);
+            parameters.putIfAbsent(URLDecoder.decode(name, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return parameters;
+    }
+
+    /**
+     * Sends the error, or aborts the response if the report has already been started.
+     * @param exchange the request and the response
+     * @param output the channel of the report
+     * @param status HTTP status of the error
+     * @param message description of the error
+     * @throws IOException if the response cannot be sent
+     * @throws ReportAbortedException if the report has already been started
+     */
+    private static void respondWithError(HttpExchange exchange, ResponseChannel output, int status, String message)
+            throws IOException {
+        if (output.started) {
+            throw new ReportAbortedException(message);
+        }
+        sendError(exchange, status, message);
+    }
+
+    /**
+     * Sends the status with the message as body.
+     * @param exchange the request and the response
+     * @param status HTTP status
+     * @param message the body
+     * @throws IOException if the response cannot be sent
+     */
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        byte[] body = (message == null ? "" : message + System.lineSeparator()).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set(CONTENT_TYPE, TEXT_PLAIN);
+        exchange.sendResponseHeaders(status, body.length == 0 ? NO_BODY : body.length);
+        exchange.getResponseBody().write(body);
+    }
+
+    /**
+     * Channel of the response body. The response headers are only sent before the first bytes of the report,
+     * so failures before it can still be answered with an error status.
+     */
+    private static final class ResponseChannel implements WritableByteChannel {
+        private final HttpExchange exchange;
+        private WritableByteChannel body;
+        private boolean started;
+
+        /**
+         * Constructs the channel of the response.
+         * @param exchange the request and the response
+         */
+        ResponseChannel(HttpExchange exchange) {
+            this.exchange = exchange;
+        }
+
+        @Override
+        public int write(ByteBuffer source) throws IOException {
+            start();
+            return body.write(source);
+        }
+
+        /**
+         * Sends the headers of an empty report, if nothing has been written.
+         * @throws IOException if the headers cannot be sent
+         */
+        void commit() throws IOException {
+            start();
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+            // the response body is closed with the exchange
+        }
+
+        /**
+         * Sends the headers of a chunked response.
+         * @throws IOException if the headers cannot be sent
+         */
+        private void start() throws IOException {
+            if (!started) {
+                started = true;
+                exchange.getResponseHeaders().set(CONTENT_TYPE, TEXT_PLAIN);
+                exchange.sendResponseHeaders(OK, CHUNKED);
+                OutputStream out = exchange.getResponseBody();
+                body = Channels.newChannel(out);
+            }
+        }
+    }
+
+    /**
+     * A report which failed after its first part had been sent. The exchange is left open, and the exception
+     * is passed on to the server, which then closes the connection without the last chunk of the response,
+     * so the client sees the report is truncated instead of a complete response.
+     */
+    private static final class ReportAbortedException extends IOException {
+
+        /**
+         * Constructs the exception.
+         * @param message description of the failure
+         */
+        ReportAbortedException(String message) {
+            super("Report aborted after it was started: " + message);
+        }
+    }
+
+    /**
+     * A request which cannot be served.
+     */
+    private static final class RequestException extends RuntimeException {
+        private final int status;
+
+        /**
+         * Constructs the exception.
+         * @param status HTTP status of the response
+         * @param message description of the problem
+         */
+        RequestException(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+}
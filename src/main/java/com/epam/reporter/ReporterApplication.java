@@ -1,17 +1,48 @@
 package com.epam.reporter;
 
 
+import com.epam.reporter.api.CsvFile;
+import com.epam.reporter.api.ErrorHandler;
 import com.epam.reporter.api.ReportExecutor;
-import com.epam.reporter.impl.SimpleCsvFile;
+import com.epam.reporter.api.ReporterFactory;
+import com.epam.reporter.impl.AsyncErrorSink;
+import com.epam.reporter.impl.OffHeapReporterFactory;
+import com.epam.reporter.impl.ParsingErrorHandlingStrategy;
 import com.epam.reporter.impl.SimpleReporterFactory;
+import com.epam.reporter.impl.SnapshotFile;
 
-import java.io.FileInputStream;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * ReporterApplication provides usage information and miscellaneous checks for argument.
  */
 public class ReporterApplication {
+    private static final String OPTION_PREFIX = "--";
+    private static final String WATCH_OPTION_PREFIX = "--watch=";
+    private static final String SNAPSHOT_OPTION = "--snapshot";
+    private static final String BATCH_OPTION = "--batch";
+    private static final String CONCURRENCY_OPTION_PREFIX = "--concurrency=";
+    private static final String MEMORY_OPTION_PREFIX = "--memory=";
+    private static final String ERROR_SUMMARY_OPTION = "--error-summary";
+    private static final String OFF_HEAP_OPTION = "--off-heap";
+    private static final String SERVE_OPTION_PREFIX = "--serve=";
+    private static final String CACHE_OPTION_PREFIX = "--cache=";
+    private static final String CACHE_SIZE_OPTION_PREFIX = "--cache-size=";
+    private static final String MAX_UPLOAD_OPTION_PREFIX = "--max-upload=";
+    private static final int DEFAULT_CACHE_SIZE_MIB = 1024;
+    private static final int DEFAULT_MAX_UPLOAD_MIB = 64;
+    private static final int QUEUE_CAPACITY_PER_REPORT = 4;
+    private static final long MEBIBYTE = 1 << 20;
+    private static final Duration QUIET_PERIOD = Duration.ofSeconds(2);
 
     /**
      * No instance of this class is required.
@@ -20,20 +51,287 @@ public class ReporterApplication {
     }
 
     /**
-     * Usage reporter application: csvFilename.csv
+     * Usage reporter application: [--parser=simple|mapped|parallel] [--off-heap]
+     * [--error-summary | [--snapshot] [--cache=directory [--cache-size=MiB]]] csvFilename.csv
+     * or [--parser=simple|mapped|parallel] [--off-heap] --watch=directory
+     * or [--parser=simple|mapped|parallel] [--off-heap] --batch [--concurrency=n] [--memory=MiB] [--error-summary] file.csv|'glob'...
+     * or [--parser=simple|mapped|parallel] --serve=port [--concurrency=n] [--max-upload=MiB]
      *
      * @param args program arguments
      */
     public static void main(String[] args) {
-        if (args.length != 1) {
-            System.out.println("Only one csv filename with employee data is required!");
-            System.out.println("Usage: java -jar target/reporter-0.0.1-SNAPSHOT.jar employee.csv ");
-            System.exit(-1);
+        ParserType parserType = ParserType.SIMPLE;
+        boolean snapshot = false;
+        boolean batch = false;
+        boolean errorSummary = false;
+        boolean offHeap = false;
+        ReporterFactory reporterFactory = new SimpleReporterFactory();
+        int concurrency = -1;
+        int memoryMiB = -1;
+        String watchedDirectory = null;
+        int port = -1;
+        String cacheDirectory = null;
+        int cacheSizeMiB = -1;
+        int maxUploadMiB = -1;
+        List<String> filenames = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith(ParserType.OPTION_PREFIX)) {
+                parserType = parserType(arg);
+            } else if (arg.startsWith(WATCH_OPTION_PREFIX)) {
+                watchedDirectory = arg.substring(WATCH_OPTION_PREFIX.length());
+            } else if (arg.equals(SNAPSHOT_OPTION)) {
+                snapshot = true;
+            } else if (arg.equals(BATCH_OPTION)) {
+                batch = true;
+            } else if (arg.equals(ERROR_SUMMARY_OPTION)) {
+                errorSummary = true;
+            } else if (arg.equals(OFF_HEAP_OPTION)) {
+                offHeap = true;
+                reporterFactory = new OffHeapReporterFactory();
+            } else if (arg.startsWith(CACHE_OPTION_PREFIX)) {
+                cacheDirectory = arg.substring(CACHE_OPTION_PREFIX.length());
+            } else if (arg.startsWith(CACHE_SIZE_OPTION_PREFIX)) {
+                cacheSizeMiB = positiveNumber(arg, CACHE_SIZE_OPTION_PREFIX);
+            } else if (arg.startsWith(MAX_UPLOAD_OPTION_PREFIX)) {
+                maxUploadMiB = positiveNumber(arg, MAX_UPLOAD_OPTION_PREFIX);
+            } else if (arg.startsWith(SERVE_OPTION_PREFIX)) {
+                port = port(arg);
+            } else if (arg.startsWith(CONCURRENCY_OPTION_PREFIX)) {
+                concurrency = positiveNumber(arg, CONCURRENCY_OPTION_PREFIX);
+            } else if (arg.startsWith(MEMORY_OPTION_PREFIX)) {
+                memoryMiB = positiveNumber(arg, MEMORY_OPTION_PREFIX);
+            } else if (!arg.startsWith(OPTION_PREFIX)) {
+                filenames.add(arg);
+            } else {
+                printUsageAndExit();
+            }
         }
-        try (var input = new FileInputStream(args[0])) {
-            new ReportExecutor(new SimpleCsvFile(input), new SimpleReporterFactory()).execute();
+        if (concurrency < 0) {
+            concurrency = Runtime.getRuntime().availableProcessors();
+        } else if (port < 0 && !batch) {
+            printUsageAndExit();
+        }
+        if (port >= 0) {
+            if (!filenames.isEmpty() || batch || watchedDirectory != null || snapshot || errorSummary || offHeap
+                    || cacheDirectory != null || cacheSizeMiB >= 0 || memoryMiB >= 0) {
+                printUsageAndExit();
+            }
+            serve(port, parserType, concurrency, maxUploadMiB < 0 ? DEFAULT_MAX_UPLOAD_MIB : maxUploadMiB);
+            return;
+        }
+        if (maxUploadMiB >= 0) {
+            printUsageAndExit();
+        }
+        if (batch) {
+            if (filenames.isEmpty() || watchedDirectory != null || snapshot || cacheDirectory != null
+                    || cacheSizeMiB >= 0) {
+                printUsageAndExit();
+            }
+            batch(filenames, parserType, reporterFactory, errorSummary, concurrency,
+                    memoryMiB < 0 ? (int) (Runtime.getRuntime().maxMemory() / 2 / MEBIBYTE) : memoryMiB);
+            return;
+        }
+        if (memoryMiB >= 0 || cacheSizeMiB >= 0 && cacheDirectory == null) {
+            printUsageAndExit();
+        }
+        if (filenames.size() > 1 || filenames.isEmpty() == (watchedDirectory == null)
+                || watchedDirectory != null && (snapshot || errorSummary || cacheDirectory != null)
+                || errorSummary && (snapshot || cacheDirectory != null)) {
+            printUsageAndExit();
+        }
+        if (watchedDirectory != null) {
+            watch(Path.of(watchedDirectory), parserType, reporterFactory);
+            return;
+        }
+        String filename = filenames.getFirst();
+        try (AsyncErrorSink errorSink = errorSummary ? new AsyncErrorSink(System.err) : null) {
+            Path file = Path.of(filename);
+            ReportCache cache = cacheDirectory == null ? null : new ReportCache(Path.of(cacheDirectory),
+                    (cacheSizeMiB < 0 ? DEFAULT_CACHE_SIZE_MIB : cacheSizeMiB) * MEBIBYTE);
+            ReportCache.Key key = cache == null ? null : ReportCache.key(file, SimpleReporterFactory.TWENTY_PERCENT,
+                    SimpleReporterFactory.FIFTY_PERCENT,
+                    parserType + "-" + reporterFactory.getClass().getSimpleName() + "-" + System.out.charset().name());
+            WritableByteChannel output = Channels.newChannel(new FileOutputStream(FileDescriptor.out));
+            if (cache != null && cache.read(key, output)) {
+                return;
+            }
+            ErrorHandler errorHandler = errorHandler(errorSink);
+            CsvFile csvFile = snapshot ? openSnapshot(file, parserType, errorHandler) : parserType.open(file, errorHandler);
+            if (cache == null) {
+                new ReportExecutor(csvFile, reporterFactory).execute();
+            } else {
+                cache.write(key, csvFile, reporterFactory, output, System.out.charset());
+            }
+        } catch (IOException e) {
+            System.err.println("File: " + filename + " was not found!");
+        }
+    }
+
+    /**
+     * Returns the parser type selected by the option, or prints the usage if there is no such parser.
+     *
+     * @param option command line option, e.g. {@code --parser=mapped}
+     * @return the selected parser type
+     */
+    private static ParserType parserType(String option) {
+        try {
+            return ParserType.fromOption(option);
+        } catch (IllegalArgumentException e) {
+            printUsageAndExit();
+            return ParserType.SIMPLE;
+        }
+    }
+
+    /**
+     * Returns the value of a numeric option, or prints the usage if it is not a positive number.
+     *
+     * @param option command line option, e.g. {@code --concurrency=4}
+     * @param prefix prefix of the option, including the equals sign
+     * @return the value of the option
+     */
+    private static int positiveNumber(String option, String prefix) {
+        try {
+            int value = Integer.parseInt(option.substring(prefix.length()));
+            if (value > 0) {
+                return value;
+            }
+        } catch (NumberFormatException e) {
+            // the usage is printed below
+        }
+        printUsageAndExit();
+        return 1;
+    }
+
+    /**
+     * Returns the port of the server option, or prints the usage if it is not a valid port.
+     *
+     * @param option command line option, e.g. {@code --serve=8080}
+     * @return the port, 0 picks a free port
+     */
+    private static int port(String option) {
+        try {
+            int port = Integer.parseInt(option.substring(SERVE_OPTION_PREFIX.length()));
+            if (port >= 0 && port <= 0xFFFF) {
+                return port;
+            }
+        } catch (NumberFormatException e) {
+            // the usage is printed below
+        }
+        printUsageAndExit();
+        return 0;
+    }
+
+    /**
+     * Returns the error handler of the run: the sink summarising the errors, or logging them one by one.
+     *
+     * @param errorSink the sink created by {@code --error-summary}, or null
+     * @return the error handler of the parsers
+     */
+    private static ErrorHandler errorHandler(AsyncErrorSink errorSink) {
+        return errorSink == null ? ParsingErrorHandlingStrategy.NOOP : errorSink;
+    }
+
+    /**
+     * Opens the binary snapshot of the CSV file. It is created with the selected parser on the first run,
+     * and recreated whenever the CSV file changes, or the snapshot is found corrupted. Invalid lines are only passed to the error handler when
+     * the snapshot is created, the snapshot itself holds the valid employees only.
+     *
+     * @param file         path of the CSV file
+     * @param parserType   parser of the CSV file
+     * @param errorHandler handler of the invalid lines of the CSV file
+     * @return the snapshot, which can be parsed instead of the CSV file
+     * @throws IOException if the CSV file cannot be read or the snapshot cannot be written
+     */
+    private static CsvFile openSnapshot(Path file, ParserType parserType, ErrorHandler errorHandler) throws IOException {
+        Path snapshot = SnapshotFile.snapshotOf(file);
+        if (!SnapshotFile.isUpToDate(snapshot, file) || !SnapshotFile.isIntact(snapshot)) {
+            SnapshotFile.create(parserType.open(file, errorHandler), file, snapshot);
+        }
+        return new SnapshotFile(snapshot);
+    }
+
+    /**
+     * Watches the directory until the JVM is stopped, and writes the report of every CSV file next to it.
+     *
+     * @param directory  directory to be watched
+     * @param parserType parser of the CSV files
+     * @param reporterFactory creates the reporter of every CSV file
+     */
+    private static void watch(Path directory, ParserType parserType, ReporterFactory reporterFactory) {
+        try {
+            var watcher = new DirectoryWatcher(directory, parserType, reporterFactory,
+                    Runtime.getRuntime().availableProcessors(), QUIET_PERIOD);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    watcher.close();
+                } catch (IOException e) {
+                    System.err.println("Directory: " + directory + " cannot be closed!");
+                }
+            }));
+            watcher.run();
         } catch (IOException e) {
-            System.err.println("File: " + args[0] + " was not found!");
+            System.err.println("Directory: " + directory + " cannot be watched!");
         }
     }
+
+    /**
+     * Serves reports over HTTP until the JVM is stopped. Referenced CSV files are resolved against the working directory.
+     *
+     * @param port        port to listen on
+     * @param parserType  parser of the referenced CSV files
+     * @param concurrency maximum number of reports created at the same time
+     * @param maxUploadMiB maximum size of an uploaded CSV file, in MiB
+     */
+    private static void serve(int port, ParserType parserType, int concurrency, int maxUploadMiB) {
+        try {
+            var server = new ReportServer(new InetSocketAddress(port), Path.of(""), parserType, new SimpleReporterFactory(),
+                    concurrency, concurrency * QUEUE_CAPACITY_PER_REPORT,
+                    (int) Math.min(maxUploadMiB * MEBIBYTE, ReportServer.MAX_UPLOAD_LIMIT));
+            Runtime.getRuntime().addShutdownHook(new Thread(server::close));
+            System.out.println("Serving reports on http://localhost:" + server.port() + ReportServer.REPORT_PATH);
+        } catch (IOException e) {
+            System.err.println("Port: " + port + " cannot be listened on!");
+        }
+    }
+
+    /**
+     * Writes the report of every file next to it, and prints a summary of the batch.
+     * Terminates the program with a non-zero status if any file failed.
+     *
+     * @param arguments    file names and glob patterns
+     * @param parserType   parser of the CSV files
+     * @param reporterFactory creates the reporter of every file
+     * @param errorSummary true if the errors of all files are summarised at the end
+     * @param concurrency  maximum number of files processed at the same time
+     * @param memoryMiB    heap available for the files processed at the same time, in MiB
+     */
+    private static void batch(List<String> arguments, ParserType parserType, ReporterFactory reporterFactory, boolean errorSummary, int concurrency, int memoryMiB) {
+        boolean failed = false;
+        try (AsyncErrorSink errorSink = errorSummary ? new AsyncErrorSink(System.err) : null) {
+            List<Path> files = BatchRunner.expand(arguments);
+            long start = System.nanoTime();
+            var results = new BatchRunner(parserType, reporterFactory, errorHandler(errorSink), concurrency, memoryMiB).run(files);
+            BatchRunner.printSummary(results, Duration.ofNanos(System.nanoTime() - start), System.out);
+            failed = results.stream().anyMatch(result -> result.failure() != null);
+        } catch (IOException e) {
+            System.err.println("Files: " + arguments + " cannot be listed!");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (failed) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Prints the usage information and terminates the program.
+     */
+    private static void printUsageAndExit() {
+        System.out.println("Invalid combination of options, or the csv files with employee data are missing!");
+        System.out.println("Usage: java -jar target/reporter-0.0.1-SNAPSHOT.jar [--parser=simple|mapped|parallel] [--off-heap] [--error-summary | [--snapshot] [--cache=directory [--cache-size=MiB]]] employee.csv ");
+        System.out.println("       java -jar target/reporter-0.0.1-SNAPSHOT.jar [--parser=simple|mapped|parallel] [--off-heap] --watch=directory");
+        System.out.println("       java -jar target/reporter-0.0.1-SNAPSHOT.jar [--parser=simple|mapped|parallel] [--off-heap] --batch [--concurrency=n] [--memory=MiB] [--error-summary] file.csv|'glob'...");
+        System.out.println("       java -jar target/reporter-0.0.1-SNAPSHOT.jar [--parser=simple|mapped|parallel] --serve=port [--concurrency=n] [--max-upload=MiB]");
+        System.exit(-1);
+    }
 }
@@ -0,0 +1,144 @@
+package com.epam.reporter;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+
+import static java.nio.file.StandardOpenOption.READ;
+
+/**
+ * The 64-bit xxHash (XXH64) of files, with seed 0.
+ * <p>
+ * The file is memory-mapped in large chunks, and hashed 32 bytes at a time with four independent accumulators,
+ * so hashing runs at about memory bandwidth. It is only used to recognise identical inputs, not for security.</p>
+ */
+final class Xxh64 {
+    private static final long PRIME_1 = 0x9E3779B185EBCA87L;
+    private static final long PRIME_2 = 0xC2B2AE3D27D4EB4FL;
+    private static final long PRIME_3 = 0x165667B19E3779F9L;
+    private static final long PRIME_4 = 0x85EBCA77C2B2AE63L;
+    private static final long PRIME_5 = 0x27D4EB2F165667C5L;
+    private static final int STRIPE = 32;
+    private static final long CHUNK_SIZE = 1L << 30;
+
+    private long accumulator1 = PRIME_1 + PRIME_2;
+    private long accumulator2 = PRIME_2;
+    private long accumulator3 = 0;
+    private long accumulator4 = -PRIME_1;
+
+    /**
+     * Only {@link #hash(Path)} and {@link #hash(ByteBuffer)} create instances.
+     */
+    private Xxh64() {
+    }
+
+    /**
+     * Returns the hash of the file.
+     * @param file path of the file
+     * @return the hash of its bytes
+     * @throws IOException if the file cannot be read
+     */
+    static long hash(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, READ)) {
+            long size = channel.size();
+            var state = new Xxh64();
+            long position = 0;
+            while (size - position > CHUNK_SIZE) {
+                ByteBuffer chunk = channel.map(FileChannel.MapMode.READ_ONLY, position, CHUNK_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+                state.stripes(chunk, (int) CHUNK_SIZE);
+                position += CHUNK_SIZE;
+            }
+            ByteBuffer last = channel.map(FileChannel.MapMode.READ_ONLY, position, size - position).order(ByteOrder.LITTLE_ENDIAN);
+            return state.finish(last, size);
+        }
+    }
+
+    /**
+     * Returns the hash of the remaining bytes of the buffer.
+     * @param bytes the bytes, from the position to the limit
+     * @return the hash of the bytes
+     */
+    static long hash(ByteBuffer bytes) {
+        ByteBuffer buffer = bytes.slice().order(ByteOrder.LITTLE_ENDIAN);
+        return new Xxh64().finish(buffer, buffer.remaining());
+    }
+
+    /**
+     * Adds the stripes of the buffer to the accumulators.
+     * @param buffer little-endian bytes, starting at index 0
+     * @param end index after the last stripe, a multiple of 32
+     */
+    private void stripes(ByteBuffer buffer, int end) {
+        for (int i = 0; i < end; i += STRIPE) {
+            accumulator1 = round(accumulator1, buffer.getLong(i));
+            accumulator2 = round(accumulator2, buffer.getLong(i + Long.BYTES));
+            accumulator3 = round(accumulator3, buffer.getLong(i + 2 * Long.BYTES));
+            accumulator4 = round(accumulator4, buffer.getLong(i + 3 * Long.BYTES));
+        }
+    }
+
+    /**
+     * Adds the last bytes, and returns the hash.
+     * @param buffer the last little-endian bytes, starting at index 0
+     * @param length length of the whole input
+     * @return the hash of the input
+     */
+    private long finish(ByteBuffer buffer, long length) {
+        int remaining = buffer.limit();
+        int position = remaining - remaining % STRIPE;
+        stripes(buffer, position);
+        long hash;
+        if (length >= STRIPE) {
+            hash = Long.rotateLeft(accumulator1, 1) + Long.rotateLeft(accumulator2, 7)
+                    + Long.rotateLeft(accumulator3, 12) + Long.rotateLeft(accumulator4, 18);
+            hash = merge(hash, accumulator1);
+            hash = merge(hash, accumulator2);
+            hash = merge(hash, accumulator3);
+            hash = merge(hash, accumulator4);
+        } else {
+            hash = PRIME_5;
+        }
+        hash += length;
+        for (; position + Long.BYTES <= remaining; position += Long.BYTES) {
+            hash ^= round(0, buffer.getLong(position));
+            hash = Long.rotateLeft(hash, 27) * PRIME_1 + PRIME_4;
+        }
+        if (position + Integer.BYTES <= remaining) {
+            hash ^= (buffer.getInt(position) & 0xFFFFFFFFL) * PRIME_1;
+            hash = Long.rotateLeft(hash, 23) * PRIME_2 + PRIME_3;
+            position += Integer.BYTES;
+        }
+        for (; position < remaining; position++) {
+            hash ^= (buffer.get(position) & 0xFFL) * PRIME_5;
+            hash = Long.rotateLeft(hash, 11) * PRIME_1;
+        }
+        hash ^= hash >>> 33;
+        hash *= PRIME_2;
+        hash ^= hash >>> 29;
+        hash *= PRIME_3;
+        hash ^= hash >>> 32;
+        return hash;
+    }
+
+    /**
+     * Mixes eight bytes of input into an accumulator.
+     * @param accumulator the accumulator
+     * @param input eight bytes of input
+     * @return the new accumulator
+     */
+    private static long round(long accumulator, long input) {
+        return Long.rotateLeft(accumulator + input * PRIME_2, 31) * PRIME_1;
+    }
+
+    /**
+     * Merges an accumulator into the hash.
+     * @param hash the hash
+     * @param accumulator the accumulator
+     * @return the new hash
+     */
+    private static long merge(long hash, long accumulator) {
+        return (hash ^ round(0, accumulator)) * PRIME_1 + PRIME_4;
+    }
+}
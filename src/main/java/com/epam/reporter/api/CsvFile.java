@@ -16,4 +16,16 @@ public interface CsvFile {
      * @throws IllegalArgumentException if there is a problem with the file
      */
     Map<Integer, Employee> parse();
+
+    /**
+     * Returns the employees contained in the file as a columnar {@code EmployeeTable}.
+     * By default, the map returned by {@link #parse()} is converted,
+     * implementations can fill the table directly to save heap.
+     *
+     * @return a table of employees
+     * @throws IllegalArgumentException if there is a problem with the file
+     */
+    default EmployeeTable parseTable() {
+        return EmployeeTable.of(parse().values());
+    }
 }
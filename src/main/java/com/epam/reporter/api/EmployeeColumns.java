@@ -0,0 +1,45 @@
+package com.epam.reporter.api;
+
+import java.math.BigDecimal;
+
+/**
+ * Encoding shared by the columnar employee stores, {@link EmployeeTable} and the off-heap store of the reporter:
+ * the home slot of an id in their open-addressing hash tables, and salaries packed into an unscaled {@code long}
+ * with a {@code byte} scale, which the binary snapshot stores as well.
+ */
+public final class EmployeeColumns {
+    /**
+     * Scale stored for a salary which does not fit into an unscaled long, and is kept as {@code BigDecimal}.
+     */
+    public static final byte NOT_COMPACT = Byte.MIN_VALUE;
+
+    private static final int HASH_MULTIPLIER = 0x9E3779B9;
+    private static final int MAX_COMPACT_PRECISION = 18;
+
+    private EmployeeColumns() {
+    }
+
+    /**
+     * Returns the slot where probing for the id starts. The slot is taken from the high bits of the
+     * multiplicative hash, so ids which share their low bits are spread over the table as well.
+     * The mask only matters for a single slot, where the shift distance would wrap around.
+     * @param id        primary key of the employee
+     * @param slotCount number of slots, a power of two
+     * @return index of the home slot
+     */
+    public static int homeSlot(int id, int slotCount) {
+        return (id * HASH_MULTIPLIER) >>> (Integer.SIZE - Integer.numberOfTrailingZeros(slotCount)) & (slotCount - 1);
+    }
+
+    /**
+     * Returns the scale to store with the unscaled value of the salary.
+     * @param salary salary of the employee
+     * @return the scale, or {@link #NOT_COMPACT} if the salary does not fit into an unscaled long with a byte scale
+     */
+    public static byte compactScale(BigDecimal salary) {
+        if (salary.precision() <= MAX_COMPACT_PRECISION && salary.scale() > NOT_COMPACT && salary.scale() <= Byte.MAX_VALUE) {
+            return (byte) salary.scale();
+        }
+        return NOT_COMPACT;
+    }
+}
@@ -0,0 +1,39 @@
+package com.epam.reporter.api;
+
+import java.math.BigDecimal;
+
+/**
+ * A change of the organisation, as received in the change feed.
+ */
+public sealed interface EmployeeDelta {
+
+    /**
+     * A new hire.
+     * @param employee the new employee, the manager is mandatory
+     */
+    record Insert(Employee employee) implements EmployeeDelta {
+    }
+
+    /**
+     * A salary change.
+     * @param id     id of the employee
+     * @param salary the new salary
+     */
+    record Update(int id, BigDecimal salary) implements EmployeeDelta {
+    }
+
+    /**
+     * A leaver, who does not have subordinates any more.
+     * @param id id of the employee
+     */
+    record Delete(int id) implements EmployeeDelta {
+    }
+
+    /**
+     * A move of the employee, together with his/her subordinates, to another manager.
+     * @param id        id of the employee
+     * @param managerId id of the new manager
+     */
+    record Move(int id, int managerId) implements EmployeeDelta {
+    }
+}
@@ -0,0 +1,299 @@
+package com.epam.reporter.api;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Columnar, primitive representation of the employees in the CSV file.
+ * <p>
+ * Every employee is a row identified by its index, in the order the rows were added.
+ * Ids, manager ids and manager indexes are stored in {@code int} arrays, salaries as unscaled {@code long}
+ * values with their scale, names as UTF-8 bytes packed into a single array.
+ * Ids are looked up through an open-addressing hash table of row indexes, so no boxing is needed.</p>
+ * <p>
+ * It takes a fraction of the heap of a {@code Map<Integer, Employee>}, names are only decoded on access.
+ * The table is not thread-safe.</p>
+ */
+public final class EmployeeTable {
+    /**
+     * Returned as index if there is no such employee.
+     */
+    public static final int NO_INDEX = -1;
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int INITIAL_NAMES_CAPACITY = 16 * INITIAL_CAPACITY;
+    private static final int EMPTY_SLOT = 0;
+    private static final int NO_MANAGER_ID = 0;
+    private static final String NAMES_TOO_LARGE = "Names do not fit into the table!";
+
+    private int size;
+    private int[] ids = new int[INITIAL_CAPACITY];
+    private int[] managerIds = new int[INITIAL_CAPACITY];
+    private final BitSet hasManager = new BitSet();
+    private int[] managerIndexes;
+    private long[] unscaledSalaries = new long[INITIAL_CAPACITY];
+    private byte[] salaryScales = new byte[INITIAL_CAPACITY];
+    private final Map<Integer, BigDecimal> largeSalaries = new HashMap<>();
+    private int[] nameOffsets = new int[2 * INITIAL_CAPACITY + 1];
+    private byte[] names = new byte[INITIAL_NAMES_CAPACITY];
+    private int[] slots = new int[2 * INITIAL_CAPACITY];
+
+    /**
+     * Creates a table from the given employee records.
+     * @param employees employee records
+     * @return the table containing the employees, in iteration order
+     */
+    public static EmployeeTable of(Collection<Employee> employees) {
+        var table = new EmployeeTable();
+        for (Employee employee : employees) {
+            table.add(employee.id(), employee.firstName(), employee.lastName(), employee.salary(), employee.managerId());
+        }
+        return table;
+    }
+
+    /**
+     * Adds a new row to the table, unless an employee with the same id has already been added.
+     * @param id        primary key for the employee
+     * @param firstName first name of the employee
+     * @param lastName  last name of the employee
+     * @param salary    salary of the employee
+     * @param managerId id of the manager, can be null for the CEO
+     * @return false if the id has already been added
+     */
+    public boolean add(int id, String firstName, String lastName, BigDecimal salary, Integer managerId) {
+        int slot = findSlot(id);
+        if (slots[slot] != EMPTY_SLOT) {
+            return false;
+        }
+        ensureCapacity();
+        int index = size++;
+        slots[slot] = index + 1;
+        ids[index] = id;
+        if (managerId != null) {
+            hasManager.set(index);
+            managerIds[index] = managerId;
+        }
+        setSalary(index, salary);
+        addName(2 * index, firstName);
+        addName(2 * index + 1, lastName);
+        managerIndexes = null;
+        if (2 * size > slots.length) {
+            rehash();
+        }
+        return true;
+    }
+
+    /**
+     * Returns the number of employees.
+     * @return number of rows
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the index of the employee with the given id.
+     * @param id primary key of the employee
+     * @return index of the row, or {@link #NO_INDEX} if there is no such employee
+     */
+    public int indexOf(int id) {
+        return slots[findSlot(id)] - 1;
+    }
+
+    /**
+     * Returns the id of the employee.
+     * @param index index of the row
+     * @return primary key of the employee
+     */
+    public int id(int index) {
+        return ids[checkIndex(index)];
+    }
+
+    /**
+     * Returns the first name of the employee.
+     * @param index index of the row
+     * @return first name
+     */
+    public String firstName(int index) {
+        return name(2 * checkIndex(index));
+    }
+
+    /**
+     * Returns the last name of the employee.
+     * @param index index of the row
+     * @return last name
+     */
+    public String lastName(int index) {
+        return name(2 * checkIndex(index) + 1);
+    }
+
+    /**
+     * Returns the salary of the employee.
+     * @param index index of the row
+     * @return salary, with the same scale as it was added
+     */
+    public BigDecimal salary(int index) {
+        checkIndex(index);
+        return salaryScales[index] == EmployeeColumns.NOT_COMPACT
+                ? largeSalaries.get(index)
+                : BigDecimal.valueOf(unscaledSalaries[index], salaryScales[index]);
+    }
+
+    /**
+     * Returns the id of the manager.
+     * @param index index of the row
+     * @return id of the manager, or null if the employee has no manager
+     */
+    public Integer managerId(int index) {
+        return hasManager.get(checkIndex(index)) ? Integer.valueOf(managerIds[index]) : null;
+    }
+
+    /**
+     * Returns the index of the manager of the employee.
+     * A manager id of 0 means no manager, the same way as in {@code ReporterFactory} implementations.
+     * @param index index of the row
+     * @return index of the manager, or {@link #NO_INDEX} if the employee has no manager,
+     * or the manager is not in the table
+     */
+    public int managerIndex(int index) {
+        checkIndex(index);
+        if (managerIndexes == null) {
+            resolveManagers();
+        }
+        return managerIndexes[index];
+    }
+
+    /**
+     * Returns the employee record of the row.
+     * @param index index of the row
+     * @return the employee record
+     */
+    public Employee employee(int index) {
+        return new Employee(id(index), firstName(index), lastName(index), salary(index), managerId(index));
+    }
+
+    /**
+     * Converts the table to a map of employee records.
+     * @return a map of employee records
+     */
+    public Map<Integer, Employee> toMap() {
+        Map<Integer, Employee> employees = new HashMap<>();
+        for (int index = 0; index < size; index++) {
+            employees.put(ids[index], employee(index));
+        }
+        return employees;
+    }
+
+    /**
+     * Resolves the index of every manager through the id lookup.
+     */
+    private void resolveManagers() {
+        int[] indexes = new int[size];
+        for (int index = 0; index < size; index++) {
+            indexes[index] = hasManager.get(index) && managerIds[index] != NO_MANAGER_ID
+                    ? indexOf(managerIds[index])
+                    : NO_INDEX;
+        }
+        managerIndexes = indexes;
+    }
+
+    /**
+     * Stores the salary as unscaled long if it fits, otherwise as {@code BigDecimal}.
+     * @param index index of the row
+     * @param salary salary of the employee
+     */
+    private void setSalary(int index, BigDecimal salary) {
+        byte scale = EmployeeColumns.compactScale(salary);
+        salaryScales[index] = scale;
+        if (scale != EmployeeColumns.NOT_COMPACT) {
+            unscaledSalaries[index] = salary.unscaledValue().longValue();
+        } else {
+            largeSalaries.put(index, salary);
+        }
+    }
+
+    /**
+     * Appends the UTF-8 bytes of the name.
+     * @param nameIndex index of the name, two for every row
+     * @param name the name
+     */
+    private void addName(int nameIndex, String name) {
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        int start = nameOffsets[nameIndex];
+        long end = (long) start + bytes.length;
+        if (end > Integer.MAX_VALUE - 8) {
+            throw new IllegalStateException(NAMES_TOO_LARGE);
+        }
+        if (end > names.length) {
+            names = Arrays.copyOf(names, (int) Math.min(Integer.MAX_VALUE - 8, Math.max(end, 2L * names.length)));
+        }
+        System.arraycopy(bytes, 0, names, start, bytes.length);
+        nameOffsets[nameIndex + 1] = (int) end;
+    }
+
+    /**
+     * Decodes the name.
+     * @param nameIndex index of the name, two for every row
+     * @return the name
+     */
+    private String name(int nameIndex) {
+        int start = nameOffsets[nameIndex];
+        return new String(names, start, nameOffsets[nameIndex + 1] - start, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Finds the slot of the id, or the empty slot where it should be inserted.
+     * The home slot is taken from the high bits of the multiplicative hash, which depend on every bit of the id,
+     * so ids sharing their low bits, like multiples of 4096, do not cluster.
+     * @param id primary key of the employee
+     * @return index of the slot
+     */
+    private int findSlot(int id) {
+        int mask = slots.length - 1;
+        int slot = EmployeeColumns.homeSlot(id, slots.length);
+        while (slots[slot] != EMPTY_SLOT && ids[slots[slot] - 1] != id) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Doubles the hash table and reinserts every row.
+     */
+    private void rehash() {
+        slots = new int[slots.length * 2];
+        for (int index = 0; index < size; index++) {
+            slots[findSlot(ids[index])] = index + 1;
+        }
+    }
+
+    /**
+     * Grows the columns if they are full.
+     */
+    private void ensureCapacity() {
+        if (size == ids.length) {
+            int capacity = size * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            managerIds = Arrays.copyOf(managerIds, capacity);
+            unscaledSalaries = Arrays.copyOf(unscaledSalaries, capacity);
+            salaryScales = Arrays.copyOf(salaryScales, capacity);
+            nameOffsets = Arrays.copyOf(nameOffsets, 2 * capacity + 1);
+        }
+    }
+
+    /**
+     * Checks that the index refers to a row.
+     * @param index index of the row
+     * @return the index
+     * @throws IndexOutOfBoundsException if there is no such row
+     */
+    private int checkIndex(int index) {
+        return Objects.checkIndex(index, size);
+    }
+}
@@ -2,6 +2,10 @@ package com.epam.reporter.api;
 
 /**
  * Customizable error handler.
+ * <p>
+ * Parsers pass a structured {@link ParseError} for every invalid line. By default, it is formatted
+ * and passed on to {@link #handle(String, long)}, so handlers implementing only the message based methods
+ * keep working. Handlers overriding {@link #handle(ParseError)} can avoid formatting.</p>
  */
 public interface ErrorHandler {
     /**
@@ -10,4 +14,33 @@ public interface ErrorHandler {
      * @param message information about the error.
      */
     void handle(String message);
+
+    /**
+     * This method should handle the error found on the given line of the input.
+     * By default, the line number is ignored and the error is passed to {@link #handle(String)}.
+     * @param message information about the error.
+     * @param lineNumber number of the line containing the error, the header is line 1.
+     */
+    default void handle(String message, long lineNumber) {
+        handle(message);
+    }
+
+    /**
+     * This method should handle the invalid line described by the error.
+     * By default, the message of the error is formatted and passed to {@link #handle(String, long)}.
+     * @param error the invalid line, its raw content should not be used after this method returns.
+     */
+    default void handle(ParseError error) {
+        handle(error.message(), error.lineNumber());
+    }
+
+    /**
+     * Returns the handler of the errors of one of many inputs handled by this handler, like the files of a batch.
+     * By default, the errors are handled by this handler, and the input is not told apart.
+     * @param source name of the input, e.g. the path of the file
+     * @return handler of the errors of the input
+     */
+    default ErrorHandler forSource(String source) {
+        return this;
+    }
 }
@@ -0,0 +1,53 @@
+package com.epam.reporter.api;
+
+import java.math.BigDecimal;
+
+/**
+ * Answers questions about the hierarchy of the organisation without walking it.
+ * <p>
+ * Only employees in the hierarchy can be queried, that is the CEO and the employees whose reporting line
+ * leads to the CEO. The employees of reporting cycles are not in the hierarchy.</p>
+ */
+public interface HierarchyIndex {
+
+    /**
+     * Checks if the employee is in the hierarchy.
+     * @param id id of the employee
+     * @return true if the employee can be queried
+     */
+    boolean contains(int id);
+
+    /**
+     * Returns the number of employees under the manager, directly or indirectly.
+     * @param managerId id of the manager
+     * @return number of employees under the manager, 0 if the employee is not a manager
+     * @throws IllegalArgumentException if the employee is not in the hierarchy
+     */
+    int headcount(int managerId);
+
+    /**
+     * Returns the total salary of the employees under the manager, directly or indirectly.
+     * @param managerId id of the manager
+     * @return total salary of the employees under the manager, 0 if the employee is not a manager
+     * @throws IllegalArgumentException if the employee is not in the hierarchy
+     */
+    BigDecimal salaryCost(int managerId);
+
+    /**
+     * Returns the average salary of the employees under the manager, directly or indirectly,
+     * rounded half up to the scale of the total.
+     * @param managerId id of the manager
+     * @return average salary of the employees under the manager, 0 if the employee is not a manager
+     * @throws IllegalArgumentException if the employee is not in the hierarchy
+     */
+    BigDecimal averageSalary(int managerId);
+
+    /**
+     * Checks if the manager is anywhere in the reporting line of the employee.
+     * @param managerId id of the manager
+     * @param employeeId id of the employee
+     * @return true if the manager is a direct or indirect manager of the employee, false for the employee itself
+     * @throws IllegalArgumentException if either employee is not in the hierarchy
+     */
+    boolean isInReportingLine(int managerId, int employeeId);
+}
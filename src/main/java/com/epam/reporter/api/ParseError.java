@@ -0,0 +1,43 @@
+package com.epam.reporter.api;
+
+/**
+ * An invalid line of a CSV file, passed to {@link ErrorHandler#handle(ParseError)}.
+ * <p>
+ * Nothing is formatted when the error is created: the raw line is decoded, and the message is built,
+ * only if a handler asks for them. Handlers which only count or sample the errors can use the code
+ * and the position without any formatting.</p>
+ */
+public interface ParseError {
+
+    /**
+     * Returns the kind of the error.
+     * @return the error code
+     */
+    ParseErrorCode code();
+
+    /**
+     * Returns the number of the invalid line.
+     * @return the line number, the header is line 1
+     */
+    long lineNumber();
+
+    /**
+     * Returns the position of the invalid line in the input.
+     * @return offset of the first byte of the line, or -1 if the parser does not know it
+     */
+    long byteOffset();
+
+    /**
+     * Returns the invalid line, without its line terminator. It is decoded when it is first used.
+     * @return the raw line
+     */
+    CharSequence line();
+
+    /**
+     * Returns the message of the error, formatted by its code.
+     * @return the formatted message
+     */
+    default String message() {
+        return code().format(this);
+    }
+}
@@ -0,0 +1,47 @@
+package com.epam.reporter.api;
+
+/**
+ * Kinds of invalid lines in a CSV file. Every code formats the message of its errors.
+ */
+public enum ParseErrorCode {
+
+    /**
+     * The line has less columns than required for an employee.
+     */
+    NOT_ENOUGH_COLUMNS {
+        @Override
+        public String format(ParseError error) {
+            return "Invalid line, not enough columns, skipping it! Line: %s!".formatted(error.line());
+        }
+    },
+
+    /**
+     * The id, the salary or the manager id of the line is not a valid number.
+     */
+    INVALID_NUMBER {
+        @Override
+        public String format(ParseError error) {
+            return "Skipping line because invalid number: %s!".formatted(error.line());
+        }
+    },
+
+    /**
+     * The id of the line has already been used by a previous line.
+     */
+    DUPLICATE_ID {
+        private static final String COLUMN_SEPARATOR = ",";
+
+        @Override
+        public String format(ParseError error) {
+            String id = error.line().toString().split(COLUMN_SEPARATOR, 2)[0].trim();
+            return "File contains multiple records for id: %d!".formatted(Integer.parseInt(id));
+        }
+    };
+
+    /**
+     * Formats the message of the error.
+     * @param error an error with this code
+     * @return the message
+     */
+    public abstract String format(ParseError error);
+}
@@ -1,30 +1,149 @@
 package com.epam.reporter.api;
 
+import com.epam.reporter.monitoring.ReportWrite;
+import com.epam.reporter.monitoring.ReporterMetrics;
+import com.epam.reporter.monitoring.ReporterMetrics.Phase;
+
+import java.io.BufferedWriter;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
 /**
  * Executes a report on the given CsvFile.
+ * <p>
+ * The report is streamed through a large buffer into a channel, line by line,
+ * while the reporter is creating it.</p>
+ * <p>
+ * Every run is counted in {@code ReporterMetrics}, which is registered as an MBean by the first executor.
+ * The time spent writing to the channel is recorded as the output phase, the rest of the report as the report phase.</p>
  */
 public class ReportExecutor {
+    private static final int BUFFER_SIZE = 1 << 16;
     private final CsvFile csvFile;
     private final ReporterFactory reporterFactory;
+    private final WritableByteChannel output;
+    private final Charset charset;
 
     /**
-     * Constructs a ReportExecutor.
+     * Constructs a ReportExecutor printing the report to standard output.
      * @param csvFile to be used for CSV parsing
      * @param reporterFactory creates a reporter to be used for reporting
      */
     public ReportExecutor(CsvFile csvFile,
                           ReporterFactory reporterFactory) {
+        this(csvFile, reporterFactory, Channels.newChannel(new FileOutputStream(FileDescriptor.out)), System.out.charset());
+    }
+
+    /**
+     * Constructs a ReportExecutor writing the report to the given channel, encoded as UTF-8.
+     * @param csvFile to be used for CSV parsing
+     * @param reporterFactory creates a reporter to be used for reporting
+     * @param output channel receiving the report, it is not closed by the executor
+     */
+    public ReportExecutor(CsvFile csvFile,
+                          ReporterFactory reporterFactory,
+                          WritableByteChannel output) {
+        this(csvFile, reporterFactory, output, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Constructs a ReportExecutor writing the report to the given channel.
+     * @param csvFile to be used for CSV parsing
+     * @param reporterFactory creates a reporter to be used for reporting
+     * @param output channel receiving the report, it is not closed by the executor
+     * @param charset encoding of the report
+     */
+    public ReportExecutor(CsvFile csvFile,
+                          ReporterFactory reporterFactory,
+                          WritableByteChannel output,
+                          Charset charset) {
         this.csvFile = csvFile;
         this.reporterFactory = reporterFactory;
+        this.output = output;
+        this.charset = charset;
+        ReporterMetrics.register();
     }
 
     /**
      * Generates the report.
-     * The report is printed to standard output.
+     * The report is written to the output channel while it is being created.
+     * @throws UncheckedIOException if the report cannot be written
      */
     public void execute() {
-        var employees = csvFile.parse();
-        var report = reporterFactory.create(employees).report();
-        report.forEach(System.out::println);
+        var metrics = ReporterMetrics.get();
+        metrics.recordRun();
+        var reporter = reporterFactory.create(csvFile);
+        System.out.flush();
+        var channelWriter = new TimedWriter(Channels.newWriter(output, charset.newEncoder(), BUFFER_SIZE));
+        Writer writer = new BufferedWriter(channelWriter, BUFFER_SIZE);
+        var event = new ReportWrite();
+        event.begin();
+        long start = System.nanoTime();
+        reporter.report(ReportSink.of(writer));
+        metrics.recordPhase(Phase.REPORT, System.nanoTime() - start - channelWriter.nanos);
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            metrics.recordPhase(Phase.OUTPUT, channelWriter.nanos);
+        }
+        if (event.shouldCommit()) {
+            event.characters = channelWriter.characters;
+            event.outputNanos = channelWriter.nanos;
+            event.commit();
+        }
+    }
+
+    /**
+     * Measures the time spent writing to the underlying writer, and counts the characters written.
+     */
+    private static final class TimedWriter extends Writer {
+        private final Writer writer;
+        private long nanos;
+        private long characters;
+
+        /**
+         * Constructs a timed writer.
+         * @param writer the writer to be measured
+         */
+        TimedWriter(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void write(char[] chars, int offset, int length) throws IOException {
+            long start = System.nanoTime();
+            writer.write(chars, offset, length);
+            nanos += System.nanoTime() - start;
+            characters += length;
+        }
+
+        @Override
+        public void write(String string, int offset, int length) throws IOException {
+            long start = System.nanoTime();
+            writer.write(string, offset, length);
+            nanos += System.nanoTime() - start;
+            characters += length;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            long start = System.nanoTime();
+            writer.flush();
+            nanos += System.nanoTime() - start;
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.close();
+        }
     }
 }
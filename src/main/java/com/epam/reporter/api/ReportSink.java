@@ -0,0 +1,92 @@
+package com.epam.reporter.api;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * Receives the report while it is being created, line by line.
+ * <p>
+ * A line can be appended in multiple pieces, so long lines do not have to be built in memory first.
+ * Reporters push every line as soon as it is found, the sink decides whether to keep or write it.</p>
+ */
+public interface ReportSink {
+
+    /**
+     * Appends a piece of the current line.
+     * @param text piece of the line
+     */
+    void append(CharSequence text);
+
+    /**
+     * Terminates the current line.
+     */
+    void endLine();
+
+    /**
+     * Appends a whole line.
+     * @param line the line, without line terminator
+     */
+    default void line(CharSequence line) {
+        append(line);
+        endLine();
+    }
+
+    /**
+     * Creates a sink collecting the lines into the given list.
+     * @param lines list receiving the lines
+     * @return the sink
+     */
+    static ReportSink into(List<String> lines) {
+        return new ReportSink() {
+            private final StringBuilder current = new StringBuilder();
+
+            @Override
+            public void append(CharSequence text) {
+                current.append(text);
+            }
+
+            @Override
+            public void endLine() {
+                lines.add(current.toString());
+                current.setLength(0);
+            }
+
+            @Override
+            public void line(CharSequence line) {
+                if (current.isEmpty()) {
+                    lines.add(line.toString());
+                } else {
+                    ReportSink.super.line(line);
+                }
+            }
+        };
+    }
+
+    /**
+     * Creates a sink writing the lines to the given writer, terminated by the line separator of the system.
+     * The writer is neither flushed nor closed by the sink.
+     * @param writer writer receiving the lines
+     * @return the sink
+     * @throws UncheckedIOException if the writer throws {@code IOException}
+     */
+    static ReportSink of(Writer writer) {
+        String lineSeparator = System.lineSeparator();
+        return new ReportSink() {
+            @Override
+            public void append(CharSequence text) {
+                try {
+                    writer.append(text);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+
+            @Override
+            public void endLine() {
+                append(lineSeparator);
+            }
+        };
+    }
+}
@@ -13,4 +13,14 @@ public interface Reporter {
      * @return list of lines that consist the report.
      */
     List<String> report();
+
+    /**
+     * Pushes the report to the sink, line by line.
+     * Implementations should override it to push the lines while they are found,
+     * without materializing the whole report.
+     * @param sink receives the lines of the report
+     */
+    default void report(ReportSink sink) {
+        report().forEach(sink::line);
+    }
 }
@@ -14,4 +14,25 @@ public interface ReporterFactory {
      * @return Reporter object
      */
     Reporter create(Map<Integer, Employee> employees);
+
+    /**
+     * Creates a new Reporter with the employees parsed from the CSV file.
+     * By default, the file is parsed into a map of employees which is passed to {@link #create(Map)}.
+     * Implementations can build their own representation while the file is being parsed.
+     * @param csvFile CSV file to be parsed.
+     * @return Reporter object
+     */
+    default Reporter create(CsvFile csvFile) {
+        return create(csvFile.parse());
+    }
+
+    /**
+     * Creates a new Reporter with the columnar table of employees.
+     * By default, the table is converted to a map of employees which is passed to {@link #create(Map)}.
+     * @param employees table of employees.
+     * @return Reporter object
+     */
+    default Reporter create(EmployeeTable employees) {
+        return create(employees.toMap());
+    }
 }
@@ -0,0 +1,9 @@
+package com.epam.reporter.api;
+
+/**
+ * A salary anomaly or a long reporting line of an employee.
+ * @param employeeId id of the employee
+ * @param line       the report line about the violation
+ */
+public record Violation(int employeeId, String line) {
+}
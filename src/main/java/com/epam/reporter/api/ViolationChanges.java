@@ -0,0 +1,12 @@
+package com.epam.reporter.api;
+
+import java.util.List;
+
+/**
+ * Violations which appeared and disappeared after applying changes of the organisation.
+ * A violation whose report line changed, for example because the salary changed, is both removed and added.
+ * @param added   new violations
+ * @param removed violations which are gone
+ */
+public record ViolationChanges(List<Violation> added, List<Violation> removed) {
+}
@@ -0,0 +1,359 @@
+package com.epam.reporter.impl;
+
+import com.epam.reporter.api.ErrorHandler;
+import com.epam.reporter.api.ParseError;
+import com.epam.reporter.api.ParseErrorCode;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * {@code ErrorHandler} collecting the errors of a run, and printing a summary of them when it is closed.
+ * <p>
+ * Parsing threads never wait for a lock or for the output: they put the error on a bounded, lock-free ring buffer,
+ * which is drained by a background thread. Only the first examples of every error code are formatted and kept
+ * verbatim, the rest are only counted. If the ring buffer is full, the error is counted on the parsing thread
+ * instead of being queued, so the counts are always exact. While there are no errors, the background thread
+ * parks for exponentially longer periods, up to a millisecond.</p>
+ * <p>
+ * The handlers returned by {@link #forSource(String)} share the sink, and put the name of their input
+ * in front of their examples, so the summary of a batch tells which file an example came from.</p>
+ * <p>
+ * It can be used by many parsing threads at the same time. It should be closed after every parser has returned.</p>
+ */
+public final class AsyncErrorSink implements ErrorHandler, AutoCloseable {
+    /**
+     * Number of examples kept for every error code by default.
+     */
+    public static final int DEFAULT_EXAMPLES = 5;
+    private static final int DEFAULT_CAPACITY = 1 << 14;
+    private static final long MIN_IDLE_PARK_NANOS = 10_000;
+    private static final long MAX_IDLE_PARK_NANOS = 1_000_000;
+    private static final int KINDS = ParseErrorCode.values().length + 1;
+    private static final int OTHER = KINDS - 1;
+
+    private final PrintStream out;
+    private final int examples;
+    private final int mask;
+    private final Event[] events;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicIntegerArray claimedExamples = new AtomicIntegerArray(KINDS);
+    private final LongAdder[] overflow = new LongAdder[KINDS];
+    private final long[] counts = new long[KINDS];
+    private final List<List<String>> kept = new ArrayList<>();
+    private final Thread drainer;
+    private volatile boolean closed;
+    private long head;
+
+    /**
+     * Constructs a sink printing its summary to the given stream, keeping the default number of examples.
+     * @param out stream of the summary
+     */
+    public AsyncErrorSink(PrintStream out) {
+        this(out, DEFAULT_EXAMPLES, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs a sink, and starts draining its ring buffer.
+     * @param out stream of the summary
+     * @param examples number of examples kept verbatim for every error code
+     * @param capacity size of the ring buffer, rounded up to a power of two
+     * @throws IllegalArgumentException if examples is negative or capacity is less than 1
+     */
+    public AsyncErrorSink(PrintStream out, int examples, int capacity) {
+        if (examples < 0 || capacity < 1 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Examples should not be negative, capacity should be at least 1!");
+        }
+        int size = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.out = out;
+        this.examples = examples;
+        this.mask = size - 1;
+        this.events = new Event[size];
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+        for (int i = 0; i < KINDS; i++) {
+            overflow[i] = new LongAdder();
+            kept.add(new ArrayList<>());
+        }
+        this.drainer = Thread.ofPlatform().name("reporter-errors").daemon().start(this::drain);
+    }
+
+    /**
+     * Handles an error without a code, it is summarised as other errors.
+     * @param message information about the error
+     */
+    @Override
+    public void handle(String message) {
+        handle(message, 0);
+    }
+
+    /**
+     * Handles an error without a code, it is summarised as other errors.
+     * @param message information about the error
+     * @param lineNumber number of the line containing the error
+     */
+    @Override
+    public void handle(String message, long lineNumber) {
+        publish(OTHER, lineNumber, null, claimExample(OTHER) ? message : null);
+    }
+
+    /**
+     * Queues the error. The message is formatted only if it is kept as an example.
+     * @param error the invalid line
+     */
+    @Override
+    public void handle(ParseError error) {
+        handle(error, null);
+    }
+
+    /**
+     * Returns a handler sharing this sink, whose examples start with the name of the input.
+     * @param source name of the input, e.g. the path of the file
+     * @return handler of the errors of the input
+     */
+    @Override
+    public ErrorHandler forSource(String source) {
+        return new SourceHandler(source);
+    }
+
+    /**
+     * Returns the number of errors with the given code. The count is final once the sink is closed.
+     * @param code the error code
+     * @return number of errors handled
+     */
+    public long count(ParseErrorCode code) {
+        return counts[code.ordinal()] + overflow[code.ordinal()].sum();
+    }
+
+    /**
+     * Stops the background thread after it has drained the ring buffer, and prints the summary if there were errors.
+     * It should only be called after every parser has returned.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        LockSupport.unpark(drainer);
+        boolean interrupted = false;
+        while (drainer.isAlive()) {
+            try {
+                drainer.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        printSummary();
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Queues the error of an input. The message is formatted only if it is kept as an example.
+     * @param error the invalid line
+     * @param source name of the input, or null
+     */
+    private void handle(ParseError error, String source) {
+        int kind = error.code().ordinal();
+        publish(kind, error.lineNumber(), source, claimExample(kind) ? error.message() : null);
+    }
+
+    /**
+     * Claims one of the examples of the kind, the counter is only incremented while there are examples left.
+     * @param kind index of the error code
+     * @return true if the error should be kept as an example
+     */
+    private boolean claimExample(int kind) {
+        return claimedExamples.get(kind) < examples && claimedExamples.getAndIncrement(kind) < examples;
+    }
+
+    /**
+     * Puts the error on the ring buffer. An error without example is counted here if the ring buffer is full,
+     * an example waits for a free slot, as there are only a few of them.
+     * @param kind index of the error code
+     * @param lineNumber number of the line
+     * @param source name of the input, or null
+     * @param example the message kept verbatim, or null
+     */
+    private void publish(int kind, long lineNumber, String source, String example) {
+        var event = new Event(kind, lineNumber, source, example);
+        while (!offer(event)) {
+            if (example == null) {
+                overflow[kind].increment();
+                return;
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * Claims the next slot of the ring buffer with a compare-and-set, and publishes the event in it.
+     * A slot is free for the position if its sequence equals the position.
+     * @param event the event
+     * @return false if the ring buffer is full
+     */
+    private boolean offer(Event event) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) position & mask;
+            long difference = sequences.getAcquire(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    events[index] = event;
+                    sequences.setRelease(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Takes the next published event from the ring buffer, only called by the background thread.
+     * @return the event, or null if the next slot is not published yet
+     */
+    private Event poll() {
+        int index = (int) head & mask;
+        if (sequences.getAcquire(index) != head + 1) {
+            return null;
+        }
+        Event event = events[index];
+        events[index] = null;
+        sequences.setRelease(index, head + mask + 1);
+        head++;
+        return event;
+    }
+
+    /**
+     * Aggregates the events until the sink is closed and the ring buffer is empty.
+     * The closed flag is read before polling: every event was published before the sink was closed,
+     * so if the flag was already set, an empty poll means that the ring buffer is drained.
+     * Every empty poll doubles the period of parking, up to a millisecond, and every event resets it;
+     * closing the sink unparks the thread.
+     */
+    private void drain() {
+        long parkNanos = MIN_IDLE_PARK_NANOS;
+        while (true) {
+            boolean wasClosed = closed;
+            Event event = poll();
+            if (event != null) {
+                parkNanos = MIN_IDLE_PARK_NANOS;
+                counts[event.kind()]++;
+                if (event.example() != null) {
+                    kept.get(event.kind()).add((event.source() == null ? "" : event.source() + " ")
+                            + "line " + event.lineNumber() + ": " + event.example());
+                }
+            } else if (wasClosed) {
+                return;
+            } else {
+                LockSupport.parkNanos(parkNanos);
+                parkNanos = Math.min(2 * parkNanos, MAX_IDLE_PARK_NANOS);
+            }
+        }
+    }
+
+    /**
+     * Prints the number of errors and the examples of every kind.
+     */
+    private void printSummary() {
+        long total = 0;
+        for (int kind = 0; kind < KINDS; kind++) {
+            total += counts[kind] + overflow[kind].sum();
+        }
+        if (total == 0) {
+            return;
+        }
+        out.printf("Skipped %d lines.%n", total);
+        for (int kind = 0; kind < KINDS; kind++) {
+            long count = counts[kind] + overflow[kind].sum();
+            if (count == 0) {
+                continue;
+            }
+            out.printf("%s: %d%n", kind == OTHER ? "OTHER" : ParseErrorCode.values()[kind], count);
+            List<String> lines = kept.get(kind);
+            lines.forEach(line -> out.println("  " + line));
+            if (count > lines.size()) {
+                out.printf("  ... and %d more%n", count - lines.size());
+            }
+        }
+        out.flush();
+    }
+
+    /**
+     * An error on the ring buffer.
+     * @param kind index of the error code
+     * @param lineNumber number of the line
+     * @param source name of the input, or null
+     * @param example the formatted message, or null if it is only counted
+     */
+    private record Event(int kind, long lineNumber, String source, String example) {
+    }
+
+    /**
+     * Handler of the errors of one input, publishing them to the sink with the name of the input.
+     */
+    private final class SourceHandler implements ErrorHandler {
+        private final String source;
+
+        /**
+         * Constructs a handler.
+         * @param source name of the input
+         */
+        SourceHandler(String source) {
+            this.source = source;
+        }
+
+        /**
+         * Handles an error without a code, it is summarised as other errors.
+         * @param message information about the error
+         */
+        @Override
+        public void handle(String message) {
+            handle(message, 0);
+        }
+
+        /**
+         * Handles an error without a code, it is summarised as other errors.
+         * @param message information about the error
+         * @param lineNumber number of the line containing the error
+         */
+        @Override
+        public void handle(String message, long lineNumber) {
+            publish(OTHER, lineNumber, source, claimExample(OTHER) ? message : null);
+        }
+
+        /**
+         * Queues the error. The message is formatted only if it is kept as an example.
+         * @param error the invalid line
+         */
+        @Override
+        public void handle(ParseError error) {
+            AsyncErrorSink.this.handle(error, source);
+        }
+
+        /**
+         * Returns a handler of the sink for another input.
+         * @param source name of the input
+         * @return handler of the errors of the input
+         */
+        @Override
+        public ErrorHandler forSource(String source) {
+            return AsyncErrorSink.this.forSource(source);
+        }
+    }
+}
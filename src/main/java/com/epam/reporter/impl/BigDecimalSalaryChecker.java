@@ -0,0 +1,160 @@
+package com.epam.reporter.impl;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.function.Consumer;
+
+/**
+ * Checks salaries with {@code BigDecimal} arithmetic.
+ * Also creates the report lines about salary anomalies for other checkers.
+ */
+final class BigDecimalSalaryChecker implements SalaryChecker {
+    private static final BigDecimal TWENTY_PERCENT = new BigDecimal("1.2");
+    private static final BigDecimal FIFTY_PERCENT = new BigDecimal("1.5");
+    private static final String MANAGERS_SALARY_IS_MORE_THAN_50_PERCENT_OF_SUBORDINATES_AVERAGE_SALARY = "Manager %s %s salary (%6.2f) is more than %s%% of subordinates average salary by %6.2f";
+    private static final String MANAGERS_SALARY_IS_LESS_THAN_20_PERCENT_OF_SUBORDINATES_AVERAGE_SALARY = "Manager %s %s salary (%6.2f) is less than %s%% of subordinates average salary by %6.2f";
+    private static final int SALARIES_SUMMARIZED_INDEX = 0;
+    private static final int SALARIES_COUNT_INDEX = 1;
+    private final BigDecimal lowerRangeCoefficient;
+    private final String lowerRangePercentage;
+    private final BigDecimal upperRangeCoefficient;
+    private final String upperRangePercentage;
+
+    /**
+     * Constructs a checker with variable range coefficients.
+     *
+     * @param lowerRangeCoefficient the lower range of the salary gap.
+     * @param lowerRangePercentage  the lower range in percentage.
+     * @param upperRangeCoefficient the upper range of the salary gap.
+     * @param upperRangePercentage  the upper range in percentage.
+     */
+    BigDecimalSalaryChecker(BigDecimal lowerRangeCoefficient,
+                            String lowerRangePercentage,
+                            BigDecimal upperRangeCoefficient,
+                            String upperRangePercentage) {
+        this.lowerRangeCoefficient = lowerRangeCoefficient;
+        this.lowerRangePercentage = lowerRangePercentage;
+        this.upperRangeCoefficient = upperRangeCoefficient;
+        this.upperRangePercentage = upperRangePercentage;
+    }
+
+    /**
+     * Checks if manager salary is between the lower and upper range
+     * of the average of its direct subordinates.
+     * Otherwise, it adds a line about it to the report.
+     *
+     * @param manager manager to be checked
+     * @param report  receives the report lines about the anomalies
+     */
+    @Override
+    public void check(EmployeeEntity manager, Consumer<String> report) {
+        check(manager, calculateSubordinatesAverageSalaryWithHighPrecision(manager), report);
+    }
+
+    /**
+     * Checks if manager salary is between the lower and upper range
+     * of the already known average salary of its direct subordinates.
+     *
+     * @param manager                   manager to be checked
+     * @param subordinatesAverageSalary the average salary of the manager subordinates
+     * @param report                    receives the report lines about the anomalies
+     */
+    void check(EmployeeEntity manager, BigDecimal subordinatesAverageSalary, Consumer<String> report) {
+        if (isLow(manager.getSalary(), subordinatesAverageSalary)) {
+            report.accept(getLowSalaryReport(manager, subordinatesAverageSalary));
+        }
+        if (isHigh(manager.getSalary(), subordinatesAverageSalary)) {
+            report.accept(getHighSalaryReport(manager, subordinatesAverageSalary));
+        }
+    }
+
+    /**
+     * Returns true if the salary is less than the lower range of the average salary of the subordinates.
+     *
+     * @param salary                    salary of the manager
+     * @param subordinatesAverageSalary the average salary of the manager subordinates
+     * @return true if the salary is too low
+     */
+    boolean isLow(BigDecimal salary, BigDecimal subordinatesAverageSalary) {
+        return salary.compareTo(subordinatesAverageSalary.multiply(lowerRangeCoefficient)) < 0;
+    }
+
+    /**
+     * Returns true if the salary is more than the upper range of the average salary of the subordinates.
+     *
+     * @param salary                    salary of the manager
+     * @param subordinatesAverageSalary the average salary of the manager subordinates
+     * @return true if the salary is too high
+     */
+    boolean isHigh(BigDecimal salary, BigDecimal subordinatesAverageSalary) {
+        return salary.compareTo(subordinatesAverageSalary.multiply(upperRangeCoefficient)) > 0;
+    }
+
+    /**
+     * Calculates the average salary of the subordinates of the given manager with high precision.
+     *
+     * @param manager whose subordinates average salary should be calculated.
+     * @return average salary of the subordinates
+     */
+    private static BigDecimal calculateSubordinatesAverageSalaryWithHighPrecision(EmployeeEntity manager) {
+        BigDecimal[] totalWithCount = manager.getSubordinates()
+                .stream()
+                .map(EmployeeEntity::getSalary)
+                .map(bd -> new BigDecimal[]{bd, BigDecimal.ONE})
+                .reduce((a, b) -> new BigDecimal[]{a[0].add(b[0]), a[1].add(BigDecimal.ONE)})
+                .orElseThrow();
+        return totalWithCount[SALARIES_SUMMARIZED_INDEX].divide(totalWithCount[SALARIES_COUNT_INDEX], RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Creates a report about a high salary, that is the manager earns more than 50% of his/her subordinates.
+     *
+     * @param manager                   whose salary should be checked
+     * @param subordinatesAverageSalary the average salary of the manager subordinates
+     * @return the report line about the anomaly
+     */
+    String getHighSalaryReport(EmployeeEntity manager, BigDecimal subordinatesAverageSalary) {
+        return getHighSalaryReport(manager.getFirstName(), manager.getLastName(), manager.getSalary(), subordinatesAverageSalary);
+    }
+
+    /**
+     * Creates a report about a high salary of the manager with the given name and salary.
+     *
+     * @param firstName                 first name of the manager
+     * @param lastName                  last name of the manager
+     * @param salary                    salary of the manager
+     * @param subordinatesAverageSalary the average salary of the manager subordinates
+     * @return the report line about the anomaly
+     */
+    String getHighSalaryReport(String firstName, String lastName, BigDecimal salary, BigDecimal subordinatesAverageSalary) {
+        return MANAGERS_SALARY_IS_MORE_THAN_50_PERCENT_OF_SUBORDINATES_AVERAGE_SALARY.formatted(
+                firstName, lastName, salary, upperRangePercentage,
+                salary.subtract(subordinatesAverageSalary.multiply(FIFTY_PERCENT)));
+    }
+
+    /**
+     * Creates a report about low salary, that is the manager earns less than 20% of his/her subordinates.
+     *
+     * @param manager                   whose salary should be checked
+     * @param subordinatesAverageSalary the average salary of the manager subordinates
+     * @return the report line about the anomaly
+     */
+    String getLowSalaryReport(EmployeeEntity manager, BigDecimal subordinatesAverageSalary) {
+        return getLowSalaryReport(manager.getFirstName(), manager.getLastName(), manager.getSalary(), subordinatesAverageSalary);
+    }
+
+    /**
+     * Creates a report about a low salary of the manager with the given name and salary.
+     *
+     * @param firstName                 first name of the manager
+     * @param lastName                  last name of the manager
+     * @param salary                    salary of the manager
+     * @param subordinatesAverageSalary the average salary of the manager subordinates
+     * @return the report line about the anomaly
+     */
+    String getLowSalaryReport(String firstName, String lastName, BigDecimal salary, BigDecimal subordinatesAverageSalary) {
+        return MANAGERS_SALARY_IS_LESS_THAN_20_PERCENT_OF_SUBORDINATES_AVERAGE_SALARY.formatted(
+                firstName, lastName, salary, lowerRangePercentage,
+                subordinatesAverageSalary.multiply(TWENTY_PERCENT).subtract(salary));
+    }
+}
@@ -0,0 +1,380 @@
+package com.epam.reporter.impl;
+
+import com.epam.reporter.api.ErrorHandler;
+import com.epam.reporter.api.ParseErrorCode;
+import com.epam.reporter.monitoring.ReporterMetrics;
+import com.epam.reporter.monitoring.ReporterMetrics.SkipReason;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static com.epam.reporter.impl.SimpleCsvFile.*;
+
+/**
+ * Parses employee records directly from the bytes of a {@code ByteBuffer}.
+ * <p>
+ * Ids, manager ids and salaries are parsed straight from the bytes, only the name columns are decoded to Strings,
+ * once for every distinct name, see {@code NamePool}.
+ * Lines which cannot be handled by the fast path are decoded and parsed the same way as {@code SimpleCsvFile} does,
+ * so the resulting records and the messages passed to the {@code ErrorHandler} are exactly the same.</p>
+ */
+final class ByteCsvParser {
+    private static final byte COLUMN_SEPARATOR = ',';
+    private static final byte LINE_FEED = '\n';
+    private static final byte CARRIAGE_RETURN = '\r';
+    private static final byte MINUS = '-';
+    private static final byte PLUS = '+';
+    private static final byte DECIMAL_POINT = '.';
+    private static final int WHITESPACE = ' ';
+    private static final int UNSIGNED_BYTE_MASK = 0xFF;
+    private static final int PARSED_COLUMNS = 5;
+    private static final int ID_COLUMN_INDEX = 0;
+    private static final int FIRST_NAME_COLUMN_INDEX = 1;
+    private static final int LAST_NAME_COLUMN_INDEX = 2;
+    private static final int SALARY_COLUMN_INDEX = 3;
+    private static final int MANAGER_COLUMN_INDEX = 4;
+    private static final int MAX_INT_DIGITS = 10;
+    private static final int MAX_LONG_DIGITS = 18;
+    private static final Integer NO_MANAGER = null;
+    private static final int INITIAL_SCRATCH_SIZE = 64;
+    private static final ReporterMetrics METRICS = ReporterMetrics.get();
+
+    private final ErrorHandler errorHandler;
+    private final CsvRow row = new CsvRow();
+    private final int[] columnStarts = new int[PARSED_COLUMNS];
+    private final int[] columnEnds = new int[PARSED_COLUMNS];
+    private final NamePool names = new NamePool();
+    private byte[] scratch = new byte[INITIAL_SCRATCH_SIZE];
+    private int columns;
+    private int trimmedStart;
+    private int trimmedEnd;
+    private boolean headerChecked;
+    private long lineNumber;
+    private long consumed;
+    private long bufferOffset;
+    private int currentLineStart;
+    private int currentLineEnd;
+
+    /**
+     * Constructs a parser reporting invalid lines to the given error handler.
+     * The first line parsed is checked as the header.
+     * @param errorHandler customizable error handler
+     */
+    ByteCsvParser(ErrorHandler errorHandler) {
+        this(errorHandler, true);
+    }
+
+    /**
+     * Constructs a parser reporting invalid lines to the given error handler.
+     * @param errorHandler customizable error handler
+     * @param expectHeader true if the first line parsed is the header
+     */
+    ByteCsvParser(ErrorHandler errorHandler, boolean expectHeader) {
+        this.errorHandler = errorHandler;
+        this.headerChecked = !expectHeader;
+    }
+
+    /**
+     * Returns the number of lines parsed so far, including the header and empty lines.
+     * @return number of lines parsed
+     */
+    long lineNumber() {
+        return lineNumber;
+    }
+
+    /**
+     * Returns the index of the first byte of the line parsed last, in the buffer it was parsed from.
+     * @return start of the line
+     */
+    int currentLineStart() {
+        return currentLineStart;
+    }
+
+    /**
+     * Returns the index after the last byte of the line parsed last, without its terminator.
+     * @return end of the line
+     */
+    int currentLineEnd() {
+        return currentLineEnd;
+    }
+
+    /**
+     * Parses every complete line between position and limit.
+     * The first line ever parsed is checked as the header.
+     * <p>
+     * A line is complete if it is terminated by a line feed, a carriage return or both, like in
+     * {@code BufferedReader.readLine()}. If endOfInput is true, the remaining bytes are parsed as the last line.</p>
+     * <p>
+     * The byte offsets of the errors assume that the input continues at position with the first byte
+     * not consumed by the previous call.</p>
+     *
+     * @param buffer     bytes to parse
+     * @param position   index of the first byte to parse
+     * @param limit      index after the last byte to parse
+     * @param endOfInput true if there are no more bytes after limit
+     * @param employees  collector of the parsed employees
+     * @return the index of the first byte which was not consumed, that is the start of an incomplete line
+     * @throws CsvParsingException if the header is invalid
+     */
+    int parse(ByteBuffer buffer, int position, int limit, boolean endOfInput, EmployeeCollector employees) {
+        int lineStart = position;
+        int index = position;
+        bufferOffset = consumed - position;
+        while (index < limit) {
+            byte current = buffer.get(index);
+            if (current == LINE_FEED) {
+                parseLine(buffer, lineStart, index, employees);
+                lineStart = ++index;
+            } else if (current == CARRIAGE_RETURN) {
+                if (index + 1 == limit && !endOfInput) {
+                    break;
+                }
+                parseLine(buffer, lineStart, index, employees);
+                index += index + 1 < limit && buffer.get(index + 1) == LINE_FEED ? 2 : 1;
+                lineStart = index;
+            } else {
+                index++;
+            }
+        }
+        if (endOfInput && lineStart < limit) {
+            parseLine(buffer, lineStart, limit, employees);
+            lineStart = limit;
+        }
+        METRICS.recordBytes(lineStart - position);
+        consumed += lineStart - position;
+        return lineStart;
+    }
+
+    /**
+     * Parses a single line, without its terminator.
+     * @param buffer    bytes to parse
+     * @param start     index of the first byte of the line
+     * @param end       index after the last byte of the line
+     * @param employees collector of the parsed employees
+     */
+    private void parseLine(ByteBuffer buffer, int start, int end, EmployeeCollector employees) {
+        lineNumber++;
+        currentLineStart = start;
+        currentLineEnd = end;
+        if (!headerChecked) {
+            headerChecked = true;
+            checkHeader(buffer, start, end);
+            return;
+        }
+        if (start == end) {
+            return;
+        }
+        METRICS.recordRow();
+        split(buffer, start, end);
+        if (columns < REQUIRED_COLUMNS) {
+            METRICS.recordSkipped(SkipReason.NOT_ENOUGH_COLUMNS);
+            handleError(ParseErrorCode.NOT_ENOUGH_COLUMNS, buffer, start, end);
+            return;
+        }
+        try {
+            int id = parseInt(buffer, ID_COLUMN_INDEX);
+            var firstName = internColumn(buffer, FIRST_NAME_COLUMN_INDEX);
+            var lastName = internColumn(buffer, LAST_NAME_COLUMN_INDEX);
+            var salary = parseDecimal(buffer, SALARY_COLUMN_INDEX);
+            var managerId = hasManagerId(buffer) ? Integer.valueOf(parseInt(buffer, MANAGER_COLUMN_INDEX)) : NO_MANAGER;
+
+            row.set(id, firstName, lastName, salary, managerId, lineNumber);
+            if (!employees.add(row)) {
+                METRICS.recordSkipped(SkipReason.DUPLICATE_ID);
+                handleError(ParseErrorCode.DUPLICATE_ID, buffer, start, end);
+            }
+        } catch (NumberFormatException e) {
+            METRICS.recordSkipped(SkipReason.INVALID_NUMBER);
+            handleError(ParseErrorCode.INVALID_NUMBER, buffer, start, end);
+        }
+    }
+
+    /**
+     * Passes the error of the line to the error handler. The line is only decoded if the handler uses it.
+     * @param code   kind of the error
+     * @param buffer bytes to parse
+     * @param start  index of the first byte of the line
+     * @param end    index after the last byte of the line
+     */
+    private void handleError(ParseErrorCode code, ByteBuffer buffer, int start, int end) {
+        errorHandler.handle(new CsvParseError(code, lineNumber, bufferOffset + start, new ByteLine(buffer, start, end)));
+    }
+
+    /**
+     * Checks the header for the appropriate number of columns.
+     * @param buffer bytes to parse
+     * @param start  index of the first byte of the header
+     * @param end    index after the last byte of the header
+     * @throws CsvParsingException if the header has not enough columns
+     */
+    private void checkHeader(ByteBuffer buffer, int start, int end) {
+        split(buffer, start, end);
+        if (columns < HEADER_COLUMNS) {
+            throw new CsvParsingException(INVALID_HEADER_S.formatted(decode(buffer, start, end)));
+        }
+    }
+
+    /**
+     * Finds the boundaries of the first columns of the line.
+     * Counts the columns the same way as {@code String.split}, that is trailing empty columns are not counted.
+     * @param buffer bytes to parse
+     * @param start  index of the first byte of the line
+     * @param end    index after the last byte of the line
+     */
+    private void split(ByteBuffer buffer, int start, int end) {
+        columns = 0;
+        int column = 0;
+        int columnStart = start;
+        for (int index = start; index <= end; index++) {
+            if (index == end || buffer.get(index) == COLUMN_SEPARATOR) {
+                if (column < PARSED_COLUMNS) {
+                    columnStarts[column] = columnStart;
+                    columnEnds[column] = index;
+                }
+                if (index > columnStart) {
+                    columns = column + 1;
+                }
+                column++;
+                columnStart = index + 1;
+            }
+        }
+    }
+
+    /**
+     * Returns true if the line contains a non-blank managerId column.
+     * @param buffer bytes to parse
+     * @return true if has a managerId
+     */
+    private boolean hasManagerId(ByteBuffer buffer) {
+        if (columns <= REQUIRED_COLUMNS) {
+            return false;
+        }
+        trim(buffer, MANAGER_COLUMN_INDEX);
+        return trimmedStart < trimmedEnd;
+    }
+
+    /**
+     * Parses an int from the given column.
+     * Anything other than an optional sign and ASCII digits is left to {@code Integer.parseInt}.
+     * @param buffer bytes to parse
+     * @param column index of the column
+     * @return the parsed number
+     * @throws NumberFormatException if the column does not contain a valid int
+     */
+    private int parseInt(ByteBuffer buffer, int column) {
+        trim(buffer, column);
+        int start = trimmedStart;
+        int end = trimmedEnd;
+        int index = start;
+        boolean negative = false;
+        if (index < end && (buffer.get(index) == MINUS || buffer.get(index) == PLUS)) {
+            negative = buffer.get(index) == MINUS;
+            index++;
+        }
+        if (index == end || end - index > MAX_INT_DIGITS) {
+            return Integer.parseInt(decode(buffer, start, end));
+        }
+        long value = 0;
+        for (; index < end; index++) {
+            int digit = buffer.get(index) - '0';
+            if (digit < 0 || digit > 9) {
+                return Integer.parseInt(decode(buffer, start, end));
+            }
+            value = value * 10 + digit;
+        }
+        value = negative ? -value : value;
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw new NumberFormatException();
+        }
+        return (int) value;
+    }
+
+    /**
+     * Parses a decimal number from the given column.
+     * Plain decimals with at most 18 digits are parsed into an unscaled long,
+     * anything else is left to {@code new BigDecimal(String)}.
+     * @param buffer bytes to parse
+     * @param column index of the column
+     * @return the parsed number with the same scale as {@code new BigDecimal(String)} would have
+     * @throws NumberFormatException if the column does not contain a valid number
+     */
+    private BigDecimal parseDecimal(ByteBuffer buffer, int column) {
+        trim(buffer, column);
+        int start = trimmedStart;
+        int end = trimmedEnd;
+        int index = start;
+        boolean negative = false;
+        if (index < end && (buffer.get(index) == MINUS || buffer.get(index) == PLUS)) {
+            negative = buffer.get(index) == MINUS;
+            index++;
+        }
+        long unscaled = 0;
+        int digits = 0;
+        int scale = 0;
+        boolean fraction = false;
+        for (; index < end; index++) {
+            byte current = buffer.get(index);
+            int digit = current - '0';
+            if (digit >= 0 && digit <= 9) {
+                unscaled = unscaled * 10 + digit;
+                digits++;
+                scale += fraction ? 1 : 0;
+            } else if (current == DECIMAL_POINT && !fraction) {
+                fraction = true;
+            } else {
+                return new BigDecimal(decode(buffer, start, end));
+            }
+        }
+        if (digits == 0 || digits > MAX_LONG_DIGITS) {
+            return new BigDecimal(decode(buffer, start, end));
+        }
+        return BigDecimal.valueOf(negative ? -unscaled : unscaled, scale);
+    }
+
+    /**
+     * Returns the canonical instance of the trimmed name in the given column, decoding it only the first time.
+     * @param buffer bytes to parse
+     * @param column index of the column
+     * @return the trimmed column
+     */
+    private String internColumn(ByteBuffer buffer, int column) {
+        trim(buffer, column);
+        return names.intern(buffer, trimmedStart, trimmedEnd);
+    }
+
+    /**
+     * Decodes the given range as UTF-8.
+     * @param buffer bytes to decode
+     * @param start  index of the first byte
+     * @param end    index after the last byte
+     * @return the decoded String
+     */
+    private String decode(ByteBuffer buffer, int start, int end) {
+        int length = end - start;
+        if (scratch.length < length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+        buffer.get(start, scratch, 0, length);
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Sets trimmedStart and trimmedEnd to the boundaries of the column without
+     * leading and trailing whitespace, the same way as {@code String.trim()}.
+     * @param buffer bytes to parse
+     * @param column index of the column
+     */
+    private void trim(ByteBuffer buffer, int column) {
+        int start = columnStarts[column];
+        int end = columnEnds[column];
+        while (start < end && (buffer.get(start) & UNSIGNED_BYTE_MASK) <= WHITESPACE) {
+            start++;
+        }
+        while (end > start && (buffer.get(end - 1) & UNSIGNED_BYTE_MASK) <= WHITESPACE) {
+            end--;
+        }
+        trimmedStart = start;
+        trimmedEnd = end;
+    }
+}
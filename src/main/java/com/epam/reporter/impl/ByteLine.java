@@ -0,0 +1,52 @@
+package com.epam.reporter.impl;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A line in a buffer, decoded as UTF-8 only when its characters are first used.
+ * The buffer should not change while the line is in use.
+ */
+final class ByteLine implements CharSequence {
+    private final ByteBuffer buffer;
+    private final int start;
+    private final int end;
+    private String decoded;
+
+    /**
+     * Constructs a line.
+     * @param buffer buffer containing the line
+     * @param start index of the first byte of the line
+     * @param end index after the last byte of the line
+     */
+    ByteLine(ByteBuffer buffer, int start, int end) {
+        this.buffer = buffer;
+        this.start = start;
+        this.end = end;
+    }
+
+    @Override
+    public int length() {
+        return toString().length();
+    }
+
+    @Override
+    public char charAt(int index) {
+        return toString().charAt(index);
+    }
+
+    @Override
+    public CharSequence subSequence(int from, int to) {
+        return toString().subSequence(from, to);
+    }
+
+    @Override
+    public String toString() {
+        if (decoded == null) {
+            byte[] bytes = new byte[end - start];
+            buffer.get(start, bytes);
+            decoded = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return decoded;
+    }
+}
@@ -0,0 +1,181 @@
+package com.epam.reporter.impl;
+
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Enumeration;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Compression of an input file, detected from its magic bytes instead of its name.
+ * <p>
+ * Compressed files are streamed: they are inflated on a background thread, which passes large buffers to the parser
+ * through a bounded queue, see {@code PipelinedInputStream}. Nothing is decompressed to disk.</p>
+ */
+public enum Compression {
+
+    /**
+     * Plain file.
+     */
+    NONE(new byte[0]) {
+        @Override
+        InputStream decompress(InputStream in) {
+            return in;
+        }
+
+        @Override
+        public long uncompressedSize(Path file) throws IOException {
+            return Files.size(file);
+        }
+    },
+
+    /**
+     * Gzip file, concatenated members are read one after the other.
+     */
+    GZIP(new byte[]{0x1f, (byte) 0x8b}) {
+        @Override
+        InputStream decompress(InputStream in) throws IOException {
+            return new GZIPInputStream(in, INPUT_BUFFER_SIZE);
+        }
+
+        /**
+         * Reads the size from the ISIZE trailer of the last member, the size modulo 2<sup>32</sup>.
+         * The trailer wraps above 4 GiB and only covers the last of concatenated members,
+         * so the result is never less than the compressed size.
+         */
+        @Override
+        public long uncompressedSize(Path file) throws IOException {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                long size = channel.size();
+                if (size < GZIP_MIN_SIZE) {
+                    return size;
+                }
+                ByteBuffer trailer = ByteBuffer.allocate(Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+                while (trailer.hasRemaining()) {
+                    if (channel.read(trailer, size - trailer.remaining()) < 0) {
+                        throw new EOFException();
+                    }
+                }
+                return Math.max(size, Integer.toUnsignedLong(trailer.getInt(0)));
+            }
+        }
+    },
+
+    /**
+     * Zip archive, its first file is read.
+     */
+    ZIP(new byte[]{'P', 'K', 0x03, 0x04}) {
+        @Override
+        InputStream decompress(InputStream in) throws IOException {
+            ZipInputStream zip = new ZipInputStream(in);
+            ZipEntry entry;
+            do {
+                entry = zip.getNextEntry();
+                if (entry == null) {
+                    throw new ZipException(NO_FILE_IN_ARCHIVE);
+                }
+            } while (entry.isDirectory());
+            return zip;
+        }
+
+        /**
+         * Reads the size of the first file from the central directory of the archive.
+         */
+        @Override
+        public long uncompressedSize(Path file) throws IOException {
+            long size = Files.size(file);
+            try (ZipFile zip = new ZipFile(file.toFile())) {
+                Enumeration<? extends ZipEntry> entries = zip.entries();
+                while (entries.hasMoreElements()) {
+                    ZipEntry entry = entries.nextElement();
+                    if (!entry.isDirectory()) {
+                        return Math.max(size, entry.getSize());
+                    }
+                }
+            }
+            return size;
+        }
+    };
+
+    private static final int MAGIC_LENGTH = 4;
+    private static final int GZIP_MIN_SIZE = 18;
+    private static final int INPUT_BUFFER_SIZE = 1 << 16;
+    private static final int PIPELINE_BUFFER_SIZE = 1 << 20;
+    private static final int PIPELINE_BUFFERS = 4;
+    private static final String NO_FILE_IN_ARCHIVE = "No file in the archive!";
+
+    private final byte[] magic;
+
+    Compression(byte[] magic) {
+        this.magic = magic;
+    }
+
+    /**
+     * Detects the compression of the file.
+     * @param file path of the file
+     * @return the compression, {@code NONE} if the file does not start with known magic bytes
+     * @throws IOException if the file cannot be read
+     */
+    public static Compression detect(Path file) throws IOException {
+        byte[] header;
+        try (InputStream in = Files.newInputStream(file)) {
+            header = in.readNBytes(MAGIC_LENGTH);
+        }
+        for (Compression compression : values()) {
+            if (compression != NONE && header.length >= compression.magic.length
+                    && Arrays.equals(header, 0, compression.magic.length, compression.magic, 0, compression.magic.length)) {
+                return compression;
+            }
+        }
+        return NONE;
+    }
+
+    /**
+     * Opens the file. A compressed file is inflated on a background thread while it is read.
+     * @param file path of the file with this compression
+     * @return the uncompressed content
+     * @throws IOException if the file cannot be opened
+     */
+    public InputStream open(Path file) throws IOException {
+        InputStream in = Files.newInputStream(file);
+        if (this == NONE) {
+            return in;
+        }
+        try {
+            return new PipelinedInputStream(decompress(new BufferedInputStream(in, INPUT_BUFFER_SIZE)),
+                    PIPELINE_BUFFER_SIZE, PIPELINE_BUFFERS);
+        } catch (IOException e) {
+            in.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the size of the uncompressed content of the file, without decompressing it.
+     * It is an estimate for sizing, read from the metadata of the format.
+     * @param file path of the file with this compression
+     * @return the uncompressed size in bytes, at least the size of the file
+     * @throws IOException if the file cannot be read
+     */
+    public abstract long uncompressedSize(Path file) throws IOException;
+
+    /**
+     * Wraps the compressed stream.
+     * @param in the compressed stream
+     * @return the uncompressed stream
+     * @throws IOException if the stream is not in this format
+     */
+    abstract InputStream decompress(InputStream in) throws IOException;
+}
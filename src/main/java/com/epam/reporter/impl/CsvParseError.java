@@ -0,0 +1,15 @@
+package com.epam.reporter.impl;
+
+import com.epam.reporter.api.ParseError;
+import com.epam.reporter.api.ParseErrorCode;
+
+/**
+ * An invalid line found by the parsers of this package.
+ * @param code kind of the error
+ * @param lineNumber number of the line, the header is line 1
+ * @param byteOffset offset of the first byte of the line, or -1 if it is not known
+ * @param line the raw line, possibly decoded lazily
+ */
+record CsvParseError(ParseErrorCode code, long lineNumber, long byteOffset, CharSequence line) implements ParseError {
+    static final long UNKNOWN_OFFSET = -1;
+}
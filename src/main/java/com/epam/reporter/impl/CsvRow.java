@@ -0,0 +1,110 @@
+package com.epam.reporter.impl;
+
+import com.epam.reporter.api.Employee;
+
+import java.math.BigDecimal;
+
+/**
+ * Mutable holder of the columns of a single parsed line.
+ * Parsers reuse one instance for every line, collectors copy what they need.
+ */
+final class CsvRow {
+    private int id;
+    private String firstName;
+    private String lastName;
+    private BigDecimal salary;
+    private boolean hasManager;
+    private int managerId;
+    private long lineNumber;
+
+    /**
+     * Sets the columns of the current line.
+     * @param id primary key for the employee
+     * @param firstName first name of the employee
+     * @param lastName last name of the employee
+     * @param salary salary of the employee
+     * @param managerId id of the manager, can be null for the CEO
+     * @param lineNumber number of the line in the input, the header is line 1
+     */
+    void set(int id, String firstName, String lastName, BigDecimal salary, Integer managerId, long lineNumber) {
+        this.id = id;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.salary = salary;
+        this.hasManager = managerId != null;
+        this.managerId = hasManager ? managerId : 0;
+        this.lineNumber = lineNumber;
+    }
+
+    /**
+     * Returns the primary key.
+     * @return primary key
+     */
+    int id() {
+        return id;
+    }
+
+    /**
+     * Returns the first name of the employee.
+     * @return first name
+     */
+    String firstName() {
+        return firstName;
+    }
+
+    /**
+     * Returns the last name of the employee.
+     * @return last name
+     */
+    String lastName() {
+        return lastName;
+    }
+
+    /**
+     * Returns the salary of the employee.
+     * @return salary
+     */
+    BigDecimal salary() {
+        return salary;
+    }
+
+    /**
+     * Returns true if the line contains a manager id.
+     * @return true if the employee has a manager
+     */
+    boolean hasManager() {
+        return hasManager;
+    }
+
+    /**
+     * Returns the manager id, only meaningful if {@link #hasManager()} is true.
+     * @return id of the manager
+     */
+    int managerId() {
+        return managerId;
+    }
+
+    /**
+     * Returns the manager id.
+     * @return id of the manager, or null if there is none
+     */
+    Integer nullableManagerId() {
+        return hasManager ? Integer.valueOf(managerId) : null;
+    }
+
+    /**
+     * Returns the number of the line in the input.
+     * @return line number, the header is line 1
+     */
+    long lineNumber() {
+        return lineNumber;
+    }
+
+    /**
+     * Creates an {@code Employee} record from the current line.
+     * @return the employee record
+     */
+    Employee toEmployee() {
+        return new Employee(id, firstName, lastName, salary, nullableManagerId());
+    }
+}
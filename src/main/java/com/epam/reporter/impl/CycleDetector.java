@@ -0,0 +1,307 @@
+package com.epam.reporter.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Finds the employees who are not in the hierarchy of the CEO: the reporting cycles,
+ * and the employees whose reporting line leads into a cycle.
+ * <p>
+ * Every employee has a single manager pointer, so walking up from any employee either reaches the CEO,
+ * or runs into a cycle. Every employee is walked over once: the walk marks the employees with its own number,
+ * and stops at the top, at an employee resolved by an earlier walk, or at an employee marked by itself, which closes
+ * a new cycle. The employees of the walk are then resolved the same way. The marks are primitive ints stored in the
+ * employees, so the pass is O(n) without any set of visited employees.</p>
+ * <p>
+ * The pass works on row indexes of {@link ReportingLines}, so {@code SimpleReporter} and {@code OffHeapReporter}
+ * share it: the former through the {@link EmployeeEntity} adapter of {@link #findCycles()}, the latter directly
+ * over the columns of its store.</p>
+ */
+final class CycleDetector {
+    private static final int UNVISITED = 0;
+    private static final int IN_HIERARCHY = -1;
+    private static final int FIRST_CYCLE_MARK = -2;
+    private static final int INITIAL_WALK_CAPACITY = 64;
+
+    private final Collection<EmployeeEntity> employees;
+
+    /**
+     * Constructs a detector.
+     * @param employees linked employees, including the manager of every employee
+     */
+    CycleDetector(Collection<EmployeeEntity> employees) {
+        this.employees = employees;
+    }
+
+    /**
+     * Finds the reporting cycles.
+     * @return the cycles in the order they are first reached from the employees, empty if every employee is in the hierarchy
+     */
+    List<Cycle> findCycles() {
+        EmployeeEntity[] rows = employees.toArray(EmployeeEntity[]::new);
+        for (int index = 0; index < rows.length; index++) {
+            rows[index].setMark(index);
+        }
+        int[] managers = new int[rows.length];
+        for (int index = 0; index < rows.length; index++) {
+            EmployeeEntity manager = rows[index].getManager();
+            managers[index] = manager == null ? -1 : manager.getMark();
+        }
+        List<Cycle> cycles = new ArrayList<>();
+        for (Rows cycle : findCycles(new EntityLines(rows, managers))) {
+            cycles.add(new Cycle(entities(rows, cycle.members()), entities(rows, cycle.subordinates())));
+        }
+        return cycles;
+    }
+
+    /**
+     * Returns the employees of the rows.
+     * @param rows    the employees by row index
+     * @param indexes row indexes
+     * @return the employees, in the order of the indexes
+     */
+    private static List<EmployeeEntity> entities(EmployeeEntity[] rows, int[] indexes) {
+        List<EmployeeEntity> entities = new ArrayList<>(indexes.length);
+        for (int index : indexes) {
+            entities.add(rows[index]);
+        }
+        return List.copyOf(entities);
+    }
+
+    /**
+     * Finds the reporting cycles among the rows. Overwrites the mark of every row.
+     * @param lines the manager and the mark of every row
+     * @return the cycles in the order they are first reached from the rows, empty if every row is in the hierarchy
+     */
+    static List<Rows> findCycles(ReportingLines lines) {
+        int size = lines.size();
+        for (int index = 0; index < size; index++) {
+            lines.setMark(index, UNVISITED);
+        }
+        List<int[]> members = new ArrayList<>();
+        int[] walk = new int[INITIAL_WALK_CAPACITY];
+        int walkMark = 0;
+        for (int start = 0; start < size; start++) {
+            if (lines.mark(start) != UNVISITED) {
+                continue;
+            }
+            walkMark++;
+            int length = 0;
+            int current = start;
+            while (current >= 0 && lines.mark(current) == UNVISITED) {
+                lines.setMark(current, walkMark);
+                if (length == walk.length) {
+                    walk = Arrays.copyOf(walk, 2 * length);
+                }
+                walk[length++] = current;
+                current = lines.managerIndex(current);
+            }
+            int end = length;
+            int walkTailMark;
+            if (current < 0) {
+                walkTailMark = IN_HIERARCHY;
+            } else if (lines.mark(current) == walkMark) {
+                end = lastIndexOf(walk, length, current);
+                int mark = cycleMark(members.size());
+                int[] cycle = Arrays.copyOfRange(walk, end, length);
+                for (int member : cycle) {
+                    lines.setMark(member, mark);
+                }
+                members.add(cycle);
+                walkTailMark = subordinateMark(mark);
+            } else {
+                int mark = lines.mark(current);
+                walkTailMark = mark == IN_HIERARCHY ? IN_HIERARCHY : subordinateMark(mark);
+            }
+            for (int i = 0; i < end; i++) {
+                lines.setMark(walk[i], walkTailMark);
+            }
+        }
+        return collectCycles(lines, members);
+    }
+
+    /**
+     * Creates the cycles, collecting the rows under every cycle in row order.
+     * @param lines   the marked rows
+     * @param members members of every cycle
+     * @return the cycles
+     */
+    private static List<Rows> collectCycles(ReportingLines lines, List<int[]> members) {
+        if (members.isEmpty()) {
+            return List.of();
+        }
+        int size = lines.size();
+        int[] starts = new int[members.size() + 1];
+        for (int index = 0; index < size; index++) {
+            int mark = lines.mark(index);
+            if (mark < FIRST_CYCLE_MARK && isSubordinateMark(mark)) {
+                starts[cycleIndex(mark) + 1]++;
+            }
+        }
+        for (int cycle = 0; cycle < members.size(); cycle++) {
+            starts[cycle + 1] += starts[cycle];
+        }
+        int[] subordinates = new int[starts[members.size()]];
+        int[] next = Arrays.copyOf(starts, members.size());
+        for (int index = 0; index < size; index++) {
+            int mark = lines.mark(index);
+            if (mark < FIRST_CYCLE_MARK && isSubordinateMark(mark)) {
+                subordinates[next[cycleIndex(mark)]++] = index;
+            }
+        }
+        List<Rows> cycles = new ArrayList<>();
+        for (int cycle = 0; cycle < members.size(); cycle++) {
+            cycles.add(new Rows(members.get(cycle), Arrays.copyOfRange(subordinates, starts[cycle], starts[cycle + 1])));
+        }
+        return cycles;
+    }
+
+    /**
+     * Returns the last position of the row in the walk.
+     * @param walk   rows of the walk
+     * @param length number of rows in the walk
+     * @param row    index of the row
+     * @return position of the row
+     */
+    private static int lastIndexOf(int[] walk, int length, int row) {
+        int position = length - 1;
+        while (walk[position] != row) {
+            position--;
+        }
+        return position;
+    }
+
+    /**
+     * Returns the mark of the members of a cycle. Members have even, subordinates odd negative marks.
+     * @param cycleIndex index of the cycle
+     * @return the mark of the members
+     */
+    private static int cycleMark(int cycleIndex) {
+        return FIRST_CYCLE_MARK - 2 * cycleIndex;
+    }
+
+    /**
+     * Returns the mark of the employees under a cycle.
+     * @param mark the mark of a member of, or an employee under the cycle
+     * @return the mark of the employees under the cycle
+     */
+    private static int subordinateMark(int mark) {
+        return isSubordinateMark(mark) ? mark : mark - 1;
+    }
+
+    /**
+     * Returns true if the mark belongs to an employee under a cycle.
+     * @param mark a cycle mark
+     * @return true if the employee is not a member of the cycle
+     */
+    private static boolean isSubordinateMark(int mark) {
+        return (FIRST_CYCLE_MARK - mark) % 2 == 1;
+    }
+
+    /**
+     * Returns the index of the cycle of the mark.
+     * @param mark a cycle mark
+     * @return index of the cycle
+     */
+    private static int cycleIndex(int mark) {
+        return (FIRST_CYCLE_MARK - mark) / 2;
+    }
+
+    /**
+     * Employees addressed by row index, with the row of their manager and a visitation mark.
+     */
+    interface ReportingLines {
+
+        /**
+         * Returns the number of rows.
+         * @return number of rows
+         */
+        int size();
+
+        /**
+         * Returns the row of the manager.
+         * @param index row of the employee
+         * @return row of the manager, negative if the employee has no manager
+         */
+        int managerIndex(int index);
+
+        /**
+         * Returns the visitation mark of the row.
+         * @param index row of the employee
+         * @return the mark
+         */
+        int mark(int index);
+
+        /**
+         * Sets the visitation mark of the row.
+         * @param index row of the employee
+         * @param mark  the mark
+         */
+        void setMark(int index, int mark);
+    }
+
+    /**
+     * The rows of employee entities, keeping the marks in the entities.
+     * @param rows     the employees by row index
+     * @param managers row of the manager of every employee, negative for the CEO
+     */
+    private record EntityLines(EmployeeEntity[] rows, int[] managers) implements ReportingLines {
+
+        /**
+         * Returns the number of employees.
+         * @return number of employees
+         */
+        @Override
+        public int size() {
+            return rows.length;
+        }
+
+        /**
+         * Returns the row of the manager, computed when the detector started.
+         * @param index row of the employee
+         * @return row of the manager, negative for the CEO
+         */
+        @Override
+        public int managerIndex(int index) {
+            return managers[index];
+        }
+
+        /**
+         * Returns the mark of the employee.
+         * @param index row of the employee
+         * @return the mark
+         */
+        @Override
+        public int mark(int index) {
+            return rows[index].getMark();
+        }
+
+        /**
+         * Sets the mark of the employee.
+         * @param index row of the employee
+         * @param mark  the mark
+         */
+        @Override
+        public void setMark(int index, int mark) {
+            rows[index].setMark(mark);
+        }
+    }
+
+    /**
+     * A reporting cycle of rows.
+     * @param members      rows of the cycle, every row is managed by the next one, the last one by the first one
+     * @param subordinates rows whose reporting line leads into the cycle, in row order
+     */
+    record Rows(int[] members, int[] subordinates) {
+    }
+
+    /**
+     * A reporting cycle.
+     * @param members      the employees of the cycle, every employee is managed by the next one, the last one by the first one
+     * @param subordinates the employees whose reporting line leads into the cycle
+     */
+    record Cycle(List<EmployeeEntity> members, List<EmployeeEntity> subordinates) {
+    }
+}
@@ -0,0 +1,35 @@
+package com.epam.reporter.impl;
+
+import com.epam.reporter.api.Employee;
+
+import java.util.Map;
+
+/**
+ * Receives the employees parsed from a CSV file, one line at a time.
+ */
+@FunctionalInterface
+interface EmployeeCollector {
+
+    /**
+     * Collects the employee on the given line.
+     * The row is reused by the parser, so implementations should copy what they need.
+     * @param row columns of the parsed line
+     * @return false if the id has already been collected, so the line should be reported as duplicate
+     */
+    boolean add(CsvRow row);
+
+    /**
+     * Returns a collector storing the employees in the given map, keeping the first record for every id.
+     * @param employees map of employees
+     * @return the collector
+     */
+    static EmployeeCollector into(Map<Integer, Employee> employees) {
+        return row -> {
+            if (employees.containsKey(row.id())) {
+                return false;
+            }
+            employees.put(row.id(), row.toEmployee());
+            return true;
+        };
+    }
+}
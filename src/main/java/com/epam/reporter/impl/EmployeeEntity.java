@@ -11,11 +11,21 @@ import java.util.List;
  * Also has access to his/her manager and his/her subordinates.
  */
 class EmployeeEntity {
+    private static final int MAX_COMPACT_PRECISION = 18;
+    private static final int NOT_COMPACT = Integer.MIN_VALUE;
+    private static final int UNKNOWN_LEVEL = -1;
+    private static final int LEVEL_IN_PROGRESS = -2;
+    private static final String CYCLE_IN_REPORTING_LINE = "Reporting line of employee %d contains a cycle!";
     private final int id;
     private final String firstName;
     private final String lastName;
-    private final BigDecimal salary;
+    private BigDecimal salary;
+    private long unscaledSalary;
+    private int salaryScale;
     private EmployeeEntity manager;
+    private int level = UNKNOWN_LEVEL;
+    private int subtreeSize;
+    private int mark;
     private final List<EmployeeEntity> subordinates;
 
     /**
@@ -29,7 +39,7 @@ class EmployeeEntity {
         this.id = id;
         this.firstName = firstName;
         this.lastName = lastName;
-        this.salary = salary;
+        setSalary(salary);
         this.subordinates = new ArrayList<>();
     }
 
@@ -47,6 +57,7 @@ class EmployeeEntity {
      */
     private void setManager(EmployeeEntity manager) {
         this.manager = manager;
+        this.level = UNKNOWN_LEVEL;
     }
 
     /**
@@ -67,6 +78,28 @@ class EmployeeEntity {
         this.subordinates.add(subordinate);
     }
 
+    /**
+     * Adds a subordinate to this manager at the given position among the other subordinates.
+     * Sets manager on subordinate.
+     * @param position position of the subordinate, at most the number of subordinates
+     * @param subordinate employee managed by this Employee.
+     */
+    void addSubordinate(int position, EmployeeEntity subordinate) {
+        subordinate.setManager(this);
+        this.subordinates.add(position, subordinate);
+    }
+
+    /**
+     * Removes a subordinate from this manager.
+     * The subordinate will not have a manager afterwards.
+     * @param subordinate employee managed by this Employee.
+     */
+    void removeSubordinate(EmployeeEntity subordinate) {
+        if (subordinates.remove(subordinate)) {
+            subordinate.setManager(null);
+        }
+    }
+
     /**
      * Returns subordinates for this employee.
      * @return list of subordinate employees
@@ -83,6 +116,41 @@ class EmployeeEntity {
         return salary;
     }
 
+    /**
+     * Sets the salary of the employee, and its unscaled value if it fits into a long.
+     * @param salary salary of the employee
+     */
+    void setSalary(BigDecimal salary) {
+        boolean compact = salary != null && salary.precision() <= MAX_COMPACT_PRECISION;
+        this.salary = salary;
+        this.unscaledSalary = compact ? salary.unscaledValue().longValue() : 0;
+        this.salaryScale = compact ? salary.scale() : NOT_COMPACT;
+    }
+
+    /**
+     * Returns true if the salary fits into an unscaled long.
+     * @return true if the salary is available as unscaled long
+     */
+    boolean hasCompactSalary() {
+        return salaryScale != NOT_COMPACT;
+    }
+
+    /**
+     * Returns the unscaled value of the salary, if it is compact.
+     * @return unscaled salary
+     */
+    long getUnscaledSalary() {
+        return unscaledSalary;
+    }
+
+    /**
+     * Returns the scale of the salary, if it is compact.
+     * @return scale of the salary
+     */
+    int getSalaryScale() {
+        return salaryScale;
+    }
+
     /**
      * Returns the first name of the employee
      * @return first name
@@ -112,19 +180,92 @@ class EmployeeEntity {
      * The CEO (top level employee without manager has level 0.
      * All direct subordinates of the CEO has level 1.
      * All subordinates below increment this level by 1.
+     * <p>
+     * The level is calculated iteratively, walking up only to the first manager whose level is already known,
+     * and it is cached for every manager on the way. The hierarchy above the employee should not change afterwards.</p>
      * @return the hierarchy level of the employee.
+     * @throws IllegalStateException if the reporting line contains a cycle
      */
     public int getLevel() {
-        return manager == null ? 0 : manager.getLevel() + 1;
+        if (level >= 0) {
+            return level;
+        }
+        List<EmployeeEntity> reportingLine = new ArrayList<>();
+        EmployeeEntity current = this;
+        while (current != null && current.level < 0) {
+            if (current.level == LEVEL_IN_PROGRESS) {
+                reportingLine.forEach(employee -> employee.level = UNKNOWN_LEVEL);
+                throw new IllegalStateException(CYCLE_IN_REPORTING_LINE.formatted(id));
+            }
+            current.level = LEVEL_IN_PROGRESS;
+            reportingLine.add(current);
+            current = current.manager;
+        }
+        int next = current == null ? 0 : current.level + 1;
+        for (int i = reportingLine.size() - 1; i >= 0; i--) {
+            reportingLine.get(i).level = next++;
+        }
+        return level;
+    }
+
+    /**
+     * Returns the level of the employee if it is already known, without calculating it.
+     * @return the hierarchy level of the employee, or a negative number if it is not known
+     */
+    int getKnownLevel() {
+        return level;
+    }
+
+    /**
+     * Sets the level of the employee, when it is already known from the level of the manager.
+     * @param level the hierarchy level of the employee
+     */
+    void setLevel(int level) {
+        this.level = level;
+    }
+
+    /**
+     * Returns the number of employees in the subtree of this employee, including him/her,
+     * as it was last set by a reporter.
+     * @return size of the subtree
+     */
+    int getSubtreeSize() {
+        return subtreeSize;
+    }
+
+    /**
+     * Sets the number of employees in the subtree of this employee.
+     * @param subtreeSize size of the subtree, including this employee
+     */
+    void setSubtreeSize(int subtreeSize) {
+        this.subtreeSize = subtreeSize;
+    }
+
+    /**
+     * Returns the visitation mark set by the last pass over the employees.
+     * @return the mark
+     */
+    int getMark() {
+        return mark;
+    }
+
+    /**
+     * Sets the visitation mark of a pass over the employees, like the one of {@code CycleDetector}.
+     * @param mark the mark
+     */
+    void setMark(int mark) {
+        this.mark = mark;
     }
 
     /**
-     * Factory method to instantiate Employee entities from records.
+     * Factory method to instantiate Employee entities from records, sharing the names already in the pool.
      * @param employee record to use for instances
+     * @param names pool of the names
      * @return the created employee entity
      */
-    static EmployeeEntity create(Employee employee) {
-        return new EmployeeEntity(employee.id(), employee.firstName(), employee.lastName(), employee.salary());
+    static EmployeeEntity create(Employee employee, NamePool names) {
+        return new EmployeeEntity(employee.id(), names.intern(employee.firstName()), names.intern(employee.lastName()),
+                employee.salary());
     }
 }
 
@@ -0,0 +1,70 @@
+package com.epam.reporter.impl;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds the linked {@code EmployeeEntity} graph while the CSV file is being parsed.
+ * <p>
+ * Every employee is linked to its manager as soon as both of them have been parsed.
+ * Employees referring to a manager which appears later in the file are kept in a pending table
+ * until the manager arrives. Subordinates are linked in file order.</p>
+ * <p>
+ * The same rules apply as in {@code SimpleReporterFactory}: the first record is kept for every id,
+ * a manager id of 0 means no manager, and employees whose manager is not in the file are left without manager.</p>
+ */
+final class EmployeeGraphBuilder implements EmployeeCollector {
+    private static final int NO_MANAGER_ID = 0;
+
+    private final Map<Integer, EmployeeEntity> employees = new HashMap<>();
+    private final Map<Integer, List<EmployeeEntity>> pendingSubordinates = new HashMap<>();
+
+    /**
+     * Creates the entity for the row and links it to its manager and its already parsed subordinates.
+     * @param row columns of the parsed line
+     * @return false if the id has already been collected
+     */
+    @Override
+    public boolean add(CsvRow row) {
+        if (employees.containsKey(row.id())) {
+            return false;
+        }
+        var employee = new EmployeeEntity(row.id(), row.firstName(), row.lastName(), row.salary());
+        employees.put(row.id(), employee);
+
+        var subordinates = pendingSubordinates.remove(row.id());
+        if (subordinates != null) {
+            subordinates.forEach(employee::addSubordinate);
+        }
+        if (row.hasManager() && row.managerId() != NO_MANAGER_ID) {
+            linkToManager(employee, row.managerId());
+        }
+        return true;
+    }
+
+    /**
+     * Links the employee to its manager, or waits for the manager if it has not been parsed yet.
+     * @param employee employee to be linked
+     * @param managerId id of the manager
+     */
+    private void linkToManager(EmployeeEntity employee, int managerId) {
+        var manager = employees.get(managerId);
+        if (manager != null) {
+            manager.addSubordinate(employee);
+        } else {
+            pendingSubordinates.computeIfAbsent(managerId, id -> new ArrayList<>()).add(employee);
+        }
+    }
+
+    /**
+     * Returns the linked employees.
+     * Employees still waiting for a manager which is not in the file remain without manager.
+     * @return map of employees, with references to their manager and subordinates
+     */
+    Map<Integer, EmployeeEntity> build() {
+        pendingSubordinates.clear();
+        return employees;
+    }
+}
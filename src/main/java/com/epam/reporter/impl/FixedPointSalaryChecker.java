@@ -0,0 +1,296 @@
+package com.epam.reporter.impl;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Checks salaries with exact fixed-point {@code long} arithmetic.
+ * <p>
+ * Salaries are unscaled {@code long} values with their own scale. The sum of the subordinates' salaries,
+ * the average rounded half up to the largest scale among them, and the range comparisons are all calculated
+ * exactly, giving the same results as {@code BigDecimalSalaryChecker}.
+ * If any of the values does not fit into a {@code long}, the manager is checked with {@code BigDecimal} instead.
+ * {@code BigDecimal} is only used to format the report lines.</p>
+ */
+final class FixedPointSalaryChecker implements SalaryChecker {
+    private static final int MAX_POWER_OF_TEN = 18;
+    private static final long[] POWERS_OF_TEN = new long[MAX_POWER_OF_TEN + 1];
+    private static final String DOES_NOT_FIT_INTO_LONG = "Does not fit into long!";
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    private final BigDecimalSalaryChecker fallback;
+    private final boolean compactCoefficients;
+    private final long lowerRangeUnscaled;
+    private final int lowerRangeScale;
+    private final long upperRangeUnscaled;
+    private final int upperRangeScale;
+
+    /**
+     * Constructs a checker with variable range coefficients.
+     *
+     * @param lowerRangeCoefficient the lower range of the salary gap.
+     * @param lowerRangePercentage  the lower range in percentage.
+     * @param upperRangeCoefficient the upper range of the salary gap.
+     * @param upperRangePercentage  the upper range in percentage.
+     */
+    FixedPointSalaryChecker(BigDecimal lowerRangeCoefficient,
+                            String lowerRangePercentage,
+                            BigDecimal upperRangeCoefficient,
+                            String upperRangePercentage) {
+        this.fallback = new BigDecimalSalaryChecker(lowerRangeCoefficient, lowerRangePercentage, upperRangeCoefficient, upperRangePercentage);
+        this.compactCoefficients = isCompact(lowerRangeCoefficient) && isCompact(upperRangeCoefficient);
+        this.lowerRangeUnscaled = compactCoefficients ? lowerRangeCoefficient.unscaledValue().longValue() : 0;
+        this.lowerRangeScale = lowerRangeCoefficient.scale();
+        this.upperRangeUnscaled = compactCoefficients ? upperRangeCoefficient.unscaledValue().longValue() : 0;
+        this.upperRangeScale = upperRangeCoefficient.scale();
+    }
+
+    /**
+     * Checks if manager salary is between the lower and upper range
+     * of the average of its direct subordinates, using fixed-point arithmetic.
+     * Falls back to {@code BigDecimal} if any value does not fit into a {@code long}.
+     *
+     * @param manager manager to be checked
+     * @param report  receives the report lines about the anomalies
+     */
+    @Override
+    public void check(EmployeeEntity manager, Consumer<String> report) {
+        if (!compactCoefficients || !manager.hasCompactSalary()) {
+            fallback.check(manager, report);
+            return;
+        }
+        try {
+            checkExactly(manager, report);
+        } catch (ArithmeticException e) {
+            fallback.check(manager, report);
+        }
+    }
+
+    /**
+     * Checks the manager with fixed-point arithmetic.
+     * Report lines are only created after every calculation succeeded.
+     *
+     * @param manager manager to be checked
+     * @param report  receives the report lines about the anomalies
+     * @throws ArithmeticException if any value does not fit into a {@code long}
+     */
+    private void checkExactly(EmployeeEntity manager, Consumer<String> report) {
+        List<EmployeeEntity> subordinates = manager.getSubordinates();
+        Average average = average(new CompactSalaries() {
+            @Override
+            public int count() {
+                return subordinates.size();
+            }
+
+            @Override
+            public boolean hasCompactSalary(int position) {
+                return subordinates.get(position).hasCompactSalary();
+            }
+
+            @Override
+            public long unscaledSalary(int position) {
+                return subordinates.get(position).getUnscaledSalary();
+            }
+
+            @Override
+            public int salaryScale(int position) {
+                return subordinates.get(position).getSalaryScale();
+            }
+        });
+
+        boolean low = isLow(manager.getUnscaledSalary(), manager.getSalaryScale(), average.unscaled(), average.scale());
+        boolean high = isHigh(manager.getUnscaledSalary(), manager.getSalaryScale(), average.unscaled(), average.scale());
+        if (low || high) {
+            BigDecimal subordinatesAverageSalary = average.toBigDecimal();
+            if (low) {
+                report.accept(fallback.getLowSalaryReport(manager, subordinatesAverageSalary));
+            }
+            if (high) {
+                report.accept(fallback.getHighSalaryReport(manager, subordinatesAverageSalary));
+            }
+        }
+    }
+
+    /**
+     * Calculates the average salary of the subordinates exactly: every salary is scaled up to the largest scale
+     * among them, and the sum is divided rounding half up, like {@code BigDecimalSalaryChecker} does.
+     * It is shared by the checks of {@code EmployeeEntity} managers and of {@code OffHeapReporter}.
+     *
+     * @param subordinates the salaries of the direct subordinates, at least one
+     * @return the average at the largest scale of the salaries
+     * @throws ArithmeticException if any salary or the sum does not fit into a {@code long}
+     */
+    static Average average(CompactSalaries subordinates) {
+        int count = subordinates.count();
+        int averageScale = Integer.MIN_VALUE;
+        for (int i = 0; i < count; i++) {
+            if (!subordinates.hasCompactSalary(i)) {
+                throw new ArithmeticException(DOES_NOT_FIT_INTO_LONG);
+            }
+            averageScale = Math.max(averageScale, subordinates.salaryScale(i));
+        }
+        long sum = 0;
+        for (int i = 0; i < count; i++) {
+            sum = Math.addExact(sum, scaleUp(subordinates.unscaledSalary(i), averageScale - subordinates.salaryScale(i)));
+        }
+        return new Average(divideHalfUp(sum, count), averageScale);
+    }
+
+    /**
+     * Compares the salary with the average multiplied by the coefficient.
+     *
+     * @param salary           unscaled salary
+     * @param salaryScale      scale of the salary
+     * @param average          unscaled average salary of the subordinates
+     * @param averageScale     scale of the average
+     * @param coefficient      unscaled range coefficient
+     * @param coefficientScale scale of the range coefficient
+     * @return negative, zero or positive if the salary is less than, equal to or greater than the product
+     * @throws ArithmeticException if any value does not fit into a {@code long}
+     */
+    private static int compare(long salary, int salaryScale, long average, int averageScale, long coefficient, int coefficientScale) {
+        long product = Math.multiplyExact(average, coefficient);
+        int productScale = averageScale + coefficientScale;
+        int scale = Math.max(productScale, salaryScale);
+        return Long.compare(scaleUp(salary, scale - salaryScale), scaleUp(product, scale - productScale));
+    }
+
+    /**
+     * Returns true if both range coefficients fit into an unscaled {@code long}, so salaries can be checked exactly.
+     * @return true if fixed-point arithmetic can be used
+     */
+    boolean hasCompactCoefficients() {
+        return compactCoefficients;
+    }
+
+    /**
+     * Returns true if the salary is less than the lower range of the average, with fixed-point arithmetic.
+     *
+     * @param salary       unscaled salary
+     * @param salaryScale  scale of the salary
+     * @param average      unscaled average salary of the subordinates
+     * @param averageScale scale of the average
+     * @return true if the salary is too low
+     * @throws ArithmeticException if any value does not fit into a {@code long}
+     */
+    boolean isLow(long salary, int salaryScale, long average, int averageScale) {
+        return compare(salary, salaryScale, average, averageScale, lowerRangeUnscaled, lowerRangeScale) < 0;
+    }
+
+    /**
+     * Returns true if the salary is more than the upper range of the average, with fixed-point arithmetic.
+     *
+     * @param salary       unscaled salary
+     * @param salaryScale  scale of the salary
+     * @param average      unscaled average salary of the subordinates
+     * @param averageScale scale of the average
+     * @return true if the salary is too high
+     * @throws ArithmeticException if any value does not fit into a {@code long}
+     */
+    boolean isHigh(long salary, int salaryScale, long average, int averageScale) {
+        return compare(salary, salaryScale, average, averageScale, upperRangeUnscaled, upperRangeScale) > 0;
+    }
+
+    /**
+     * Returns the {@code BigDecimal} checker, used when a value does not fit into a {@code long},
+     * and to format the report lines.
+     * @return the fallback checker
+     */
+    BigDecimalSalaryChecker getFallback() {
+        return fallback;
+    }
+
+    /**
+     * Divides and rounds half up, that is ties are rounded away from zero, like {@code RoundingMode.HALF_UP}.
+     * @param dividend the dividend
+     * @param divisor the positive divisor
+     * @return the rounded quotient
+     */
+    static long divideHalfUp(long dividend, int divisor) {
+        long quotient = dividend / divisor;
+        long remainder = dividend % divisor;
+        if (Math.abs(remainder) * 2 >= divisor) {
+            quotient += Long.signum(dividend);
+        }
+        return quotient;
+    }
+
+    /**
+     * Multiplies the value by the given power of ten.
+     * @param value value to be scaled
+     * @param digits non-negative exponent of ten
+     * @return the scaled value
+     * @throws ArithmeticException if the result does not fit into a {@code long}
+     */
+    static long scaleUp(long value, int digits) {
+        if (digits > MAX_POWER_OF_TEN) {
+            throw new ArithmeticException(DOES_NOT_FIT_INTO_LONG);
+        }
+        return Math.multiplyExact(value, POWERS_OF_TEN[digits]);
+    }
+
+    /**
+     * Returns true if the number can be represented as an unscaled {@code long}.
+     * @param number the number to check
+     * @return true if the unscaled value fits into a {@code long}
+     */
+    private static boolean isCompact(BigDecimal number) {
+        return number.precision() <= MAX_POWER_OF_TEN;
+    }
+
+    /**
+     * The salaries of the direct subordinates of a manager, as unscaled values with their scale.
+     */
+    interface CompactSalaries {
+
+        /**
+         * Returns the number of subordinates.
+         * @return number of subordinates
+         */
+        int count();
+
+        /**
+         * Returns true if the salary of the subordinate fits into an unscaled {@code long}.
+         * @param position position of the subordinate
+         * @return true if the unscaled salary can be used
+         */
+        boolean hasCompactSalary(int position);
+
+        /**
+         * Returns the unscaled salary of the subordinate.
+         * @param position position of the subordinate
+         * @return unscaled salary
+         */
+        long unscaledSalary(int position);
+
+        /**
+         * Returns the scale of the salary of the subordinate.
+         * @param position position of the subordinate
+         * @return scale of the salary
+         */
+        int salaryScale(int position);
+    }
+
+    /**
+     * An exact average salary.
+     * @param unscaled unscaled value of the average
+     * @param scale    scale of the average
+     */
+    record Average(long unscaled, int scale) {
+
+        /**
+         * Returns the average as {@code BigDecimal}, to format the report lines.
+         * @return the average
+         */
+        BigDecimal toBigDecimal() {
+            return BigDecimal.valueOf(unscaled, scale);
+        }
+    }
+}
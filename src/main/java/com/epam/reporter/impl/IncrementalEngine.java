@@ -0,0 +1,405 @@
+package com.epam.reporter.impl;
+
+import com.epam.reporter.api.Employee;
+import com.epam.reporter.api.EmployeeDelta;
+import com.epam.reporter.api.ReportSink;
+import com.epam.reporter.api.Violation;
+import com.epam.reporter.api.ViolationChanges;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+/**
+ * Keeps the violations of an organisation up to date while changes of the organisation are applied.
+ * <p>
+ * The linked employees of the hierarchy are kept together with the sum and count of the salaries of
+ * the direct subordinates of every manager. A change only rechecks the managers whose subordinates changed,
+ * the changed employee, and the levels of a moved subtree, instead of recreating the whole report.
+ * Employees who are not in the hierarchy when the engine is created are ignored.</p>
+ * <p>
+ * The violations are the same lines as the ones {@link SimpleReporter} reports about salaries and long reporting lines.
+ * The engine is not thread safe.</p>
+ */
+public class IncrementalEngine {
+    private static final String EMPLOYEE_D_ALREADY_EXISTS = "Employee %d already exists!";
+    private static final String EMPLOYEE_D_NOT_FOUND = "Employee %d not found!";
+    private static final String EMPLOYEE_D_SHOULD_HAVE_A_MANAGER = "Employee %d should have a manager, there can be only one CEO!";
+    private static final String EMPLOYEE_D_STILL_HAS_SUBORDINATES = "Employee %d still has subordinates, move them first!";
+    private static final String EMPLOYEE_D_CANNOT_BE_MOVED_UNDER_D = "Employee %d cannot be moved under his/her own subordinate %d!";
+    private static final String THE_CEO_CANNOT_BE_DELETED_OR_MOVED = "The CEO cannot be deleted or moved!";
+    private static final String SALARY_CANNOT_BE_NULL = "Salary cannot be null!";
+    private static final int LAST_POSITION = -1;
+    private final BigDecimalSalaryChecker salaryChecker;
+    private final EmployeeEntity ceo;
+    private final Map<Integer, EmployeeEntity> employees = new HashMap<>();
+    private final Map<Integer, SubordinateSalaries> subordinateSalaries = new HashMap<>();
+    private final Map<Integer, List<Violation>> violations = new HashMap<>();
+    private final NamePool names = new NamePool();
+
+    /**
+     * Constructs an engine, and checks the whole hierarchy once.
+     *
+     * @param salaryChecker checks the salary of the managers
+     * @param employees     linked employees
+     * @throws CEONotFoundException                     if no employee without manager
+     * @throws MultipleEmployeesWithoutManagerException if multiple employees without manager
+     */
+    IncrementalEngine(BigDecimalSalaryChecker salaryChecker, Collection<EmployeeEntity> employees) {
+        this.salaryChecker = salaryChecker;
+        this.ceo = findTheCeo(employees);
+        ceo.setLevel(0);
+        Deque<EmployeeEntity> stack = new ArrayDeque<>();
+        stack.push(ceo);
+        while (!stack.isEmpty()) {
+            EmployeeEntity employee = stack.pop();
+            this.employees.put(employee.getId(), employee);
+            names.intern(employee.getFirstName());
+            names.intern(employee.getLastName());
+            for (EmployeeEntity subordinate : employee.getSubordinates()) {
+                subordinate.setLevel(employee.getLevel() + 1);
+                subordinateSalaries.computeIfAbsent(employee.getId(), id -> new SubordinateSalaries()).add(subordinate.getSalary());
+                stack.push(subordinate);
+            }
+        }
+        this.employees.values().forEach(this::check);
+    }
+
+    /**
+     * Returns the current violations, in no particular order.
+     *
+     * @return every violation of the organisation
+     */
+    public List<Violation> violations() {
+        return violations.values().stream().flatMap(List::stream).toList();
+    }
+
+    /**
+     * Applies a single change.
+     *
+     * @param delta change of the organisation
+     * @return violations which appeared and disappeared
+     * @throws IllegalArgumentException if the change is invalid, the organisation is not changed in this case
+     */
+    public ViolationChanges apply(EmployeeDelta delta) {
+        return apply(List.of(delta));
+    }
+
+    /**
+     * Applies the changes in the given order.
+     * A violation which appears and disappears again within the changes is not returned.
+     * <p>
+     * The changes are applied all or nothing. Every change is validated before it is applied, and if a change is
+     * invalid, the changes before it are undone in reverse order, so the organisation and its violations are
+     * the same as before the call. A deleted or moved employee is put back at his/her former position among
+     * the subordinates of the manager, so the order of the report does not change either.</p>
+     *
+     * @param deltas changes of the organisation
+     * @return violations which appeared and disappeared
+     * @throws IllegalArgumentException if a change is invalid, the organisation is not changed in this case
+     */
+    public ViolationChanges apply(List<? extends EmployeeDelta> deltas) {
+        Map<Integer, List<Violation>> before = new LinkedHashMap<>();
+        Deque<Undo> undo = new ArrayDeque<>();
+        try {
+            for (EmployeeDelta delta : deltas) {
+                undo.push(applyOne(delta, LAST_POSITION, before));
+            }
+        } catch (IllegalArgumentException e) {
+            Map<Integer, List<Violation>> undone = new HashMap<>();
+            while (!undo.isEmpty()) {
+                Undo change = undo.pop();
+                applyOne(change.delta(), change.position(), undone);
+            }
+            throw e;
+        }
+        List<Violation> added = new ArrayList<>();
+        List<Violation> removed = new ArrayList<>();
+        before.forEach((id, previous) -> {
+            List<Violation> current = violations.getOrDefault(id, List.of());
+            current.stream().filter(violation -> !previous.contains(violation)).forEach(added::add);
+            previous.stream().filter(violation -> !current.contains(violation)).forEach(removed::add);
+        });
+        return new ViolationChanges(added, removed);
+    }
+
+    /**
+     * Applies a single change.
+     *
+     * @param delta    change of the organisation
+     * @param position position of an inserted or moved employee among the subordinates of the manager,
+     *                 or {@link #LAST_POSITION}
+     * @param before   violations of the affected employees before the changes
+     * @return the change undoing this one
+     * @throws IllegalArgumentException if the change is invalid, the organisation is not changed in this case
+     */
+    private Undo applyOne(EmployeeDelta delta, int position, Map<Integer, List<Violation>> before) {
+        return switch (delta) {
+            case EmployeeDelta.Insert insert -> insert(insert.employee(), position, before);
+            case EmployeeDelta.Update update -> update(update.id(), update.salary(), before);
+            case EmployeeDelta.Delete delete -> delete(delete.id(), before);
+            case EmployeeDelta.Move move -> move(move.id(), move.managerId(), position, before);
+        };
+    }
+
+    /**
+     * Adds a new employee under his/her manager.
+     *
+     * @param employee the new employee
+     * @param position position among the subordinates of the manager, or {@link #LAST_POSITION}
+     * @param before   violations of the affected employees before the changes
+     * @return the change undoing this one
+     */
+    private Undo insert(Employee employee, int position, Map<Integer, List<Violation>> before) {
+        if (employees.containsKey(employee.id())) {
+            throw new IllegalArgumentException(EMPLOYEE_D_ALREADY_EXISTS.formatted(employee.id()));
+        }
+        if (employee.managerId() == null) {
+            throw new IllegalArgumentException(EMPLOYEE_D_SHOULD_HAVE_A_MANAGER.formatted(employee.id()));
+        }
+        requireSalary(employee.salary());
+        EmployeeEntity manager = getEmployee(employee.managerId());
+        EmployeeEntity entity = EmployeeEntity.create(employee, names);
+        remember(manager, before);
+        remember(entity, before);
+        employees.put(entity.getId(), entity);
+        attach(entity, manager, position);
+        check(manager);
+        check(entity);
+        return new Undo(new EmployeeDelta.Delete(entity.getId()), LAST_POSITION);
+    }
+
+    /**
+     * Changes the salary of an employee.
+     *
+     * @param id     id of the employee
+     * @param salary the new salary
+     * @param before violations of the affected employees before the changes
+     * @return the change undoing this one
+     */
+    private Undo update(int id, BigDecimal salary, Map<Integer, List<Violation>> before) {
+        requireSalary(salary);
+        EmployeeEntity employee = getEmployee(id);
+        EmployeeEntity manager = employee.getManager();
+        BigDecimal oldSalary = employee.getSalary();
+        remember(employee, before);
+        if (manager != null) {
+            remember(manager, before);
+            SubordinateSalaries salaries = subordinateSalaries.get(manager.getId());
+            salaries.remove(employee.getSalary());
+            salaries.add(salary);
+        }
+        employee.setSalary(salary);
+        check(employee);
+        if (manager != null) {
+            check(manager);
+        }
+        return new Undo(new EmployeeDelta.Update(id, oldSalary), LAST_POSITION);
+    }
+
+    /**
+     * Removes an employee without subordinates.
+     *
+     * @param id     id of the employee
+     * @param before violations of the affected employees before the changes
+     * @return the change undoing this one
+     */
+    private Undo delete(int id, Map<Integer, List<Violation>> before) {
+        EmployeeEntity employee = getEmployee(id);
+        if (employee == ceo) {
+            throw new IllegalArgumentException(THE_CEO_CANNOT_BE_DELETED_OR_MOVED);
+        }
+        if (employee.isManager()) {
+            throw new IllegalArgumentException(EMPLOYEE_D_STILL_HAS_SUBORDINATES.formatted(id));
+        }
+        EmployeeEntity manager = employee.getManager();
+        remember(employee, before);
+        remember(manager, before);
+        int position = detach(employee);
+        employees.remove(id);
+        violations.remove(id);
+        check(manager);
+        return new Undo(new EmployeeDelta.Insert(new Employee(id, employee.getFirstName(), employee.getLastName(),
+                employee.getSalary(), manager.getId())), position);
+    }
+
+    /**
+     * Moves an employee, together with his/her subordinates, under another manager.
+     * The levels of the subtree are only recalculated if the level of the employee changes.
+     *
+     * @param id        id of the employee
+     * @param managerId id of the new manager
+     * @param position  position among the subordinates of the new manager, or {@link #LAST_POSITION}
+     * @param before    violations of the affected employees before the changes
+     * @return the change undoing this one
+     */
+    private Undo move(int id, int managerId, int position, Map<Integer, List<Violation>> before) {
+        EmployeeEntity employee = getEmployee(id);
+        EmployeeEntity newManager = getEmployee(managerId);
+        if (employee == ceo) {
+            throw new IllegalArgumentException(THE_CEO_CANNOT_BE_DELETED_OR_MOVED);
+        }
+        for (EmployeeEntity current = newManager; current != null; current = current.getManager()) {
+            if (current == employee) {
+                throw new IllegalArgumentException(EMPLOYEE_D_CANNOT_BE_MOVED_UNDER_D.formatted(id, managerId));
+            }
+        }
+        EmployeeEntity oldManager = employee.getManager();
+        EmployeeDelta back = new EmployeeDelta.Move(id, oldManager.getId());
+        if (oldManager == newManager) {
+            return new Undo(back, LAST_POSITION);
+        }
+        remember(oldManager, before);
+        remember(newManager, before);
+        int oldLevel = employee.getLevel();
+        int oldPosition = detach(employee);
+        attach(employee, newManager, position);
+        check(oldManager);
+        check(newManager);
+        if (employee.getLevel() != oldLevel) {
+            relevel(employee, before);
+        }
+        return new Undo(back, oldPosition);
+    }
+
+    /**
+     * Recalculates the levels of the subtree, whose root has already got its new level, and rechecks its employees.
+     *
+     * @param root   root of the moved subtree
+     * @param before violations of the affected employees before the changes
+     */
+    private void relevel(EmployeeEntity root, Map<Integer, List<Violation>> before) {
+        Deque<EmployeeEntity> stack = new ArrayDeque<>();
+        stack.push(root);
+        while (!stack.isEmpty()) {
+            EmployeeEntity employee = stack.pop();
+            remember(employee, before);
+            check(employee);
+            for (EmployeeEntity subordinate : employee.getSubordinates()) {
+                subordinate.setLevel(employee.getLevel() + 1);
+                stack.push(subordinate);
+            }
+        }
+    }
+
+    /**
+     * Links the employee to the manager, and adds his/her salary to the salaries of the manager's subordinates.
+     *
+     * @param employee employee without manager
+     * @param manager  the new manager
+     * @param position position among the subordinates of the manager, or {@link #LAST_POSITION}
+     */
+    private void attach(EmployeeEntity employee, EmployeeEntity manager, int position) {
+        if (position == LAST_POSITION) {
+            manager.addSubordinate(employee);
+        } else {
+            manager.addSubordinate(position, employee);
+        }
+        employee.setLevel(manager.getLevel() + 1);
+        subordinateSalaries.computeIfAbsent(manager.getId(), managerId -> new SubordinateSalaries()).add(employee.getSalary());
+    }
+
+    /**
+     * Unlinks the employee from his/her manager, and removes his/her salary from the salaries of the manager's subordinates.
+     *
+     * @param employee employee with a manager
+     * @return the former position of the employee among the subordinates of the manager
+     */
+    private int detach(EmployeeEntity employee) {
+        EmployeeEntity manager = employee.getManager();
+        int position = manager.getSubordinates().indexOf(employee);
+        SubordinateSalaries salaries = subordinateSalaries.get(manager.getId());
+        salaries.remove(employee.getSalary());
+        if (salaries.count() == 0) {
+            subordinateSalaries.remove(manager.getId());
+        }
+        manager.removeSubordinate(employee);
+        return position;
+    }
+
+    /**
+     * Checks the salary and the reporting line of the employee, and stores the violations found.
+     *
+     * @param employee employee in the hierarchy
+     */
+    private void check(EmployeeEntity employee) {
+        List<String> lines = new ArrayList<>();
+        if (employee.isManager()) {
+            salaryChecker.check(employee, subordinateSalaries.get(employee.getId()).average(), lines::add);
+        }
+        SimpleReporter.addLongReportingLine(employee, ReportSink.into(lines));
+        if (lines.isEmpty()) {
+            violations.remove(employee.getId());
+        } else {
+            violations.put(employee.getId(), lines.stream().map(line -> new Violation(employee.getId(), line)).toList());
+        }
+    }
+
+    /**
+     * Remembers the violations of the employee before the first change affecting him/her.
+     *
+     * @param employee affected employee
+     * @param before   violations of the affected employees before the changes
+     */
+    private void remember(EmployeeEntity employee, Map<Integer, List<Violation>> before) {
+        before.putIfAbsent(employee.getId(), violations.getOrDefault(employee.getId(), List.of()));
+    }
+
+    /**
+     * Returns the employee with the given id.
+     *
+     * @param id id of the employee
+     * @return the employee
+     * @throws IllegalArgumentException if the employee is not in the hierarchy
+     */
+    private EmployeeEntity getEmployee(int id) {
+        EmployeeEntity employee = employees.get(id);
+        if (employee == null) {
+            throw new IllegalArgumentException(EMPLOYEE_D_NOT_FOUND.formatted(id));
+        }
+        return employee;
+    }
+
+    /**
+     * Checks if the salary is given.
+     *
+     * @param salary the salary
+     * @throws IllegalArgumentException if the salary is null
+     */
+    private static void requireSalary(BigDecimal salary) {
+        if (salary == null) {
+            throw new IllegalArgumentException(SALARY_CANNOT_BE_NULL);
+        }
+    }
+
+    /**
+     * Finds the CEO, the single employee who has no manager.
+     *
+     * @param employees linked employees
+     * @return the CEO
+     * @throws CEONotFoundException                     if no employee without manager
+     * @throws MultipleEmployeesWithoutManagerException if multiple employees without manager
+     */
+    private static EmployeeEntity findTheCeo(Collection<EmployeeEntity> employees) {
+        List<EmployeeEntity> withoutManager = employees
+                .stream()
+                .filter(employee -> employee.getManager() == null)
+                .toList();
+        if (withoutManager.isEmpty()) {
+            throw new CEONotFoundException();
+        }
+        if (withoutManager.size() > 1) {
+            throw new MultipleEmployeesWithoutManagerException();
+        }
+        return withoutManager.getFirst();
+    }
+
+    /**
+     * A change undoing an applied change.
+     *
+     * @param delta    the undoing change
+     * @param position former position of a deleted or moved employee among the subordinates of the manager,
+     *                 or {@link #LAST_POSITION}
+     */
+    private record Undo(EmployeeDelta delta, int position) {
+    }
+}
@@ -0,0 +1,117 @@
+package com.epam.reporter.impl;
+
+import com.epam.reporter.api.Employee;
+import com.epam.reporter.api.ErrorHandler;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Class provides CSV parsing capability for large files.
+ * <p>
+ * The file is memory-mapped and scanned byte by byte for separators and line terminators,
+ * only the name columns are decoded to Strings.
+ * Files larger than the mapping window are mapped window by window.
+ * It returns the same employees and reports the same errors as {@code SimpleCsvFile}.</p>
+ */
+public final class MappedCsvFile implements StreamingCsvFile {
+    private static final int MAX_WINDOW_SIZE = Integer.MAX_VALUE;
+    private static final String LINE_LONGER_THAN_WINDOW_D = "Line is longer than the mapping window: %d bytes!";
+
+    private final Path file;
+    private final ErrorHandler errorHandler;
+    private final int windowSize;
+
+    /**
+     * Constructs a CSV file based on the supplied path with customizable ErrorHandler.
+     * @param file path of the CSV file
+     * @param errorHandler customizable error handler
+     */
+    public MappedCsvFile(Path file, ErrorHandler errorHandler) {
+        this(file, errorHandler, MAX_WINDOW_SIZE);
+    }
+
+    /**
+     * Constructs a CSV file based on the supplied path.
+     * Error handler is set to {@code ParsingErrorHandlerStrategy.NOOP}.
+     * @param file path of the CSV file
+     */
+    public MappedCsvFile(Path file) {
+        this(file, ParsingErrorHandlingStrategy.NOOP);
+    }
+
+    /**
+     * Constructs a CSV file with a custom mapping window size.
+     * @param file path of the CSV file
+     * @param errorHandler customizable error handler
+     * @param windowSize maximum number of bytes mapped at once
+     */
+    MappedCsvFile(Path file, ErrorHandler errorHandler, int windowSize) {
+        this.file = file;
+        this.errorHandler = errorHandler;
+        this.windowSize = windowSize;
+    }
+
+    /**
+     * Returns the size of the mapped file, so collectors can be sized before parsing.
+     *
+     * @return size of the file in bytes, or {@link #UNKNOWN_SIZE} if it cannot be read
+     */
+    @Override
+    public long inputSize() {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            return UNKNOWN_SIZE;
+        }
+    }
+
+    /**
+     * Parses the mapped file.
+     * It assumes that the first line is the header
+     * and the order of columns are:
+     * Id,firstName,lastName,salary,managerId
+     *
+     * @return a map of employee records, iterated in file order
+     * @throws IllegalArgumentException if there is a problem with the file
+     */
+    @Override
+    public Map<Integer, Employee> parse() {
+        Map<Integer, Employee> employeeMap = new LinkedHashMap<>();
+        parse(EmployeeCollector.into(employeeMap));
+        return employeeMap;
+    }
+
+    /**
+     * Parses the mapped file, passing every employee to the collector.
+     *
+     * @param employees collector of the parsed employees
+     * @throws IllegalArgumentException if there is a problem with the file
+     */
+    @Override
+    public void parse(EmployeeCollector employees) {
+        var parser = new ByteCsvParser(errorHandler);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long position = 0;
+            while (position < size) {
+                int length = (int) Math.min(windowSize, size - position);
+                boolean endOfInput = position + length == size;
+                MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                int consumed = parser.parse(window, 0, length, endOfInput, employees);
+                if (consumed == 0 && !endOfInput) {
+                    throw new CsvParsingException(LINE_LONGER_THAN_WINDOW_D.formatted(windowSize));
+                }
+                position += consumed;
+            }
+        } catch (IOException e) {
+            throw new CsvFileNotFoundException();
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.epam.reporter.impl;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Dictionary of the names of a parse, returning a single canonical {@code String} for every distinct name.
+ * <p>
+ * First and last names repeat heavily in a large organisation, so keeping one instance of each saves most of the
+ * heap retained by the names. Names are looked up in an open-addressing table by {@code String.hashCode()}.
+ * ASCII names can also be looked up straight from the bytes of the input, so a name is decoded only the first
+ * time it is seen.</p>
+ * <p>
+ * It is not thread safe, every parser uses its own.</p>
+ */
+final class NamePool {
+    private static final int INITIAL_CAPACITY = 1 << 10;
+    private static final int MAX_LOAD_PERCENT = 50;
+    private static final int INITIAL_SCRATCH_SIZE = 64;
+
+    private String[] names = new String[INITIAL_CAPACITY];
+    private byte[] scratch = new byte[INITIAL_SCRATCH_SIZE];
+    private int size;
+
+    /**
+     * Returns the canonical instance of the name.
+     * @param name the name
+     * @return an equal String, the same instance for every equal name
+     */
+    String intern(String name) {
+        int index = name.hashCode() & names.length - 1;
+        String candidate;
+        while ((candidate = names[index]) != null) {
+            if (candidate.equals(name)) {
+                return candidate;
+            }
+            index = index + 1 & names.length - 1;
+        }
+        add(index, name);
+        return name;
+    }
+
+    /**
+     * Returns the canonical instance of the UTF-8 encoded name. It is decoded only if it has not been seen yet.
+     * @param buffer bytes of the name
+     * @param start index of the first byte
+     * @param end index after the last byte
+     * @return the canonical name
+     */
+    String intern(ByteBuffer buffer, int start, int end) {
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            byte current = buffer.get(i);
+            if (current < 0) {
+                return intern(decode(buffer, start, end));
+            }
+            hash = 31 * hash + current;
+        }
+        int length = end - start;
+        int index = hash & names.length - 1;
+        String candidate;
+        while ((candidate = names[index]) != null) {
+            if (candidate.length() == length && matches(candidate, buffer, start)) {
+                return candidate;
+            }
+            index = index + 1 & names.length - 1;
+        }
+        String name = decode(buffer, start, end);
+        add(index, name);
+        return name;
+    }
+
+    /**
+     * Returns the number of distinct names.
+     * @return number of names in the pool
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Checks if the ASCII bytes are the characters of the name.
+     * @param name a name of the same length
+     * @param buffer bytes of the name
+     * @param start index of the first byte
+     * @return true if every byte equals the character at the same position
+     */
+    private static boolean matches(String name, ByteBuffer buffer, int start) {
+        for (int i = 0; i < name.length(); i++) {
+            if (name.charAt(i) != buffer.get(start + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Decodes the name.
+     * @param buffer bytes of the name
+     * @param start index of the first byte
+     * @param end index after the last byte
+     * @return the decoded name
+     */
+    private String decode(ByteBuffer buffer, int start, int end) {
+        int length = end - start;
+        if (scratch.length < length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+        buffer.get(start, scratch, 0, length);
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Stores the name in the free slot, and grows the table if it is more than half full.
+     * @param index the free slot found for the name
+     * @param name the name
+     */
+    private void add(int index, String name) {
+        names[index] = name;
+        size++;
+        if (size * 100L > (long) names.length * MAX_LOAD_PERCENT) {
+            String[] previous = names;
+            names = new String[previous.length * 2];
+            for (String existing : previous) {
+                if (existing != null) {
+                    int slot = existing.hashCode() & names.length - 1;
+                    while (names[slot] != null) {
+                        slot = slot + 1 & names.length - 1;
+                    }
+                    names[slot] = existing;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,543 @@
+package com.epam.reporter.impl;
+
+import com.epam.reporter.api.Employee;
+import com.epam.reporter.api.EmployeeColumns;
+import com.epam.reporter.api.EmployeeTable;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Employees stored in direct, off-heap buffers, for organisations too large for the linked {@code EmployeeEntity} graph.
+ * <p>
+ * Every employee is a row identified by its index, in the order the rows were added. Ids, manager ids,
+ * unscaled salaries with their scale and the offsets of the names are fixed width columns, names are UTF-8 bytes
+ * packed into a single buffer and decoded only on access. Ids are looked up through an open-addressing table
+ * of row indexes, which is off-heap as well. Only salaries with more than 18 digits are kept on the heap.</p>
+ * <p>
+ * Once every row has been added, {@link #link()} resolves the manager indexes, and stores the subordinates of every
+ * employee in row order as compressed sparse rows: the start of every employee's subordinates, followed by
+ * the subordinate indexes. The same rules apply as in {@code EmployeeGraphBuilder}: the first row is kept for every id,
+ * a manager id of 0 means no manager, and employees whose manager is not in the store are left without manager.</p>
+ * <p>
+ * The garbage collector only sees a few buffers, whatever the size of the organisation. Growing a column allocates
+ * a new direct buffer, and the old one is only freed once the garbage collector finds its small heap object, which
+ * is rare with the small heap this store is meant for. So the columns are sized up front whenever the number of rows
+ * or the size of the input is known, see {@link #forInputSize(long)}. Direct memory is limited by
+ * {@code -XX:MaxDirectMemorySize}, which defaults to the maximum heap size. The store is not thread-safe.</p>
+ */
+final class OffHeapEmployeeStore implements EmployeeCollector, CycleDetector.ReportingLines {
+    /**
+     * Returned as index if there is no such employee.
+     */
+    static final int NO_INDEX = -1;
+    /**
+     * Level of an employee who has not been reached from the CEO.
+     */
+    static final int UNKNOWN_LEVEL = -1;
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int ESTIMATED_NAME_BYTES = 16;
+    private static final int INITIAL_NAMES_CAPACITY = ESTIMATED_NAME_BYTES * INITIAL_CAPACITY;
+    private static final int ESTIMATED_ROW_BYTES = 24;
+    private static final int MAX_CAPACITY = 1 << 27;
+    private static final int EMPTY_SLOT = 0;
+    private static final int NO_MANAGER_ID = 0;
+    private static final long MAX_BUFFER_SIZE = Integer.MAX_VALUE - 8;
+    private static final int ASCII_LIMIT = 0x80;
+    private static final String STORE_IS_FULL = "Employees do not fit into the off-heap store!";
+    private static final String STORE_IS_LINKED = "Employees cannot be added after the store is linked!";
+    private static final String STORE_IS_NOT_LINKED = "Store is not linked yet!";
+
+    private int size;
+    private int capacity;
+    private ByteBuffer ids;
+    private ByteBuffer managerIds;
+    private ByteBuffer unscaledSalaries;
+    private ByteBuffer salaryScales;
+    private ByteBuffer nameOffsets;
+    private ByteBuffer names;
+    private ByteBuffer slots;
+    private int slotCount;
+    private final Map<Integer, BigDecimal> largeSalaries = new HashMap<>();
+    private ByteBuffer managerIndexes;
+    private ByteBuffer subordinateStarts;
+    private ByteBuffer subordinates;
+    private ByteBuffer levels;
+    private ByteBuffer marks;
+
+    /**
+     * Constructs an empty store with the initial capacity, its columns grow while rows are added.
+     */
+    OffHeapEmployeeStore() {
+        this(INITIAL_CAPACITY, INITIAL_NAMES_CAPACITY);
+    }
+
+    /**
+     * Constructs an empty store with room for the given number of rows and bytes of names.
+     * @param expectedRows      number of rows, the columns grow if more are added
+     * @param expectedNameBytes number of UTF-8 bytes of all names, the name buffer grows if more are added
+     */
+    OffHeapEmployeeStore(int expectedRows, long expectedNameBytes) {
+        capacity = Math.clamp(expectedRows, INITIAL_CAPACITY, MAX_CAPACITY);
+        ids = allocate(Integer.BYTES, capacity);
+        managerIds = allocate(Integer.BYTES, capacity);
+        unscaledSalaries = allocate(Long.BYTES, capacity);
+        salaryScales = allocate(Byte.BYTES, capacity);
+        nameOffsets = allocate(Integer.BYTES, 2L * capacity + 1);
+        names = allocate(Byte.BYTES, Math.clamp(expectedNameBytes, INITIAL_NAMES_CAPACITY, MAX_BUFFER_SIZE));
+        slotCount = Integer.highestOneBit(2 * capacity - 1) << 1;
+        slots = allocate(Integer.BYTES, slotCount);
+    }
+
+    /**
+     * Creates an empty store sized for a CSV file of the given size. Names cannot take more bytes than the file,
+     * and the rows are estimated from a short line of 24 bytes, so the columns rarely have to grow.
+     * @param inputSize size of the CSV file in bytes, or {@link StreamingCsvFile#UNKNOWN_SIZE}
+     * @return the empty store
+     */
+    static OffHeapEmployeeStore forInputSize(long inputSize) {
+        if (inputSize < 0) {
+            return new OffHeapEmployeeStore();
+        }
+        return new OffHeapEmployeeStore((int) Math.min(inputSize / ESTIMATED_ROW_BYTES, MAX_CAPACITY), inputSize);
+    }
+
+    /**
+     * Creates a linked store from the given employee records.
+     * @param employees employee records
+     * @return the linked store, rows are in iteration order
+     */
+    static OffHeapEmployeeStore of(Iterable<Employee> employees) {
+        var store = employees instanceof Collection<Employee> collection
+                ? new OffHeapEmployeeStore(collection.size(), (long) ESTIMATED_NAME_BYTES * collection.size())
+                : new OffHeapEmployeeStore();
+        for (Employee employee : employees) {
+            store.add(employee.id(), employee.firstName(), employee.lastName(), employee.salary(), employee.managerId());
+        }
+        store.link();
+        return store;
+    }
+
+    /**
+     * Creates a linked store from the given table of employees.
+     * @param employeeTable table of employees
+     * @return the linked store, rows are in table order
+     */
+    static OffHeapEmployeeStore of(EmployeeTable employeeTable) {
+        var store = new OffHeapEmployeeStore(employeeTable.size(), (long) ESTIMATED_NAME_BYTES * employeeTable.size());
+        for (int index = 0; index < employeeTable.size(); index++) {
+            store.add(employeeTable.id(index), employeeTable.firstName(index), employeeTable.lastName(index),
+                    employeeTable.salary(index), employeeTable.managerId(index));
+        }
+        store.link();
+        return store;
+    }
+
+    /**
+     * Stores the employee of the parsed line.
+     * @param row columns of the parsed line
+     * @return false if the id has already been added
+     */
+    @Override
+    public boolean add(CsvRow row) {
+        return add(row.id(), row.firstName(), row.lastName(), row.salary(), row.hasManager() ? row.managerId() : NO_MANAGER_ID);
+    }
+
+    /**
+     * Adds a new row, unless an employee with the same id has already been added.
+     * @param id        primary key for the employee
+     * @param firstName first name of the employee
+     * @param lastName  last name of the employee
+     * @param salary    salary of the employee
+     * @param managerId id of the manager, 0 or null if there is none
+     * @return false if the id has already been added
+     * @throws IllegalStateException if the store is already linked, or it is full
+     */
+    boolean add(int id, String firstName, String lastName, BigDecimal salary, Integer managerId) {
+        if (managerIndexes != null) {
+            throw new IllegalStateException(STORE_IS_LINKED);
+        }
+        int slot = findSlot(id);
+        if (slots.getInt(slot * Integer.BYTES) != EMPTY_SLOT) {
+            return false;
+        }
+        ensureCapacity();
+        int index = size++;
+        slots.putInt(slot * Integer.BYTES, index + 1);
+        ids.putInt(index * Integer.BYTES, id);
+        managerIds.putInt(index * Integer.BYTES, managerId == null ? NO_MANAGER_ID : managerId);
+        setSalary(index, salary);
+        addName(2 * index, firstName);
+        addName(2 * index + 1, lastName);
+        if (2L * size > slotCount) {
+            rehash();
+        }
+        return true;
+    }
+
+    /**
+     * Resolves the manager indexes and the subordinates of every employee. Subordinates are in row order.
+     * No employee can be added afterwards.
+     * @return this store
+     */
+    OffHeapEmployeeStore link() {
+        if (managerIndexes != null) {
+            return this;
+        }
+        managerIndexes = allocate(Integer.BYTES, size);
+        subordinateStarts = allocate(Integer.BYTES, size + 1L);
+        subordinates = allocate(Integer.BYTES, size);
+        levels = allocate(Integer.BYTES, size);
+        marks = allocate(Integer.BYTES, size);
+        for (int index = 0; index < size; index++) {
+            int managerId = managerIds.getInt(index * Integer.BYTES);
+            int managerIndex = managerId == NO_MANAGER_ID ? NO_INDEX : indexOf(managerId);
+            managerIndexes.putInt(index * Integer.BYTES, managerIndex);
+            if (managerIndex != NO_INDEX) {
+                int position = (managerIndex + 1) * Integer.BYTES;
+                subordinateStarts.putInt(position, subordinateStarts.getInt(position) + 1);
+            }
+        }
+        for (int index = 0; index < size; index++) {
+            int position = (index + 1) * Integer.BYTES;
+            subordinateStarts.putInt(position, subordinateStarts.getInt(position) + subordinateStarts.getInt(index * Integer.BYTES));
+        }
+        // the levels are used as the next free position of every manager's subordinates while they are filled
+        for (int index = 0; index < size; index++) {
+            levels.putInt(index * Integer.BYTES, subordinateStarts.getInt(index * Integer.BYTES));
+        }
+        for (int index = 0; index < size; index++) {
+            int managerIndex = managerIndex(index);
+            if (managerIndex != NO_INDEX) {
+                int next = levels.getInt(managerIndex * Integer.BYTES);
+                subordinates.putInt(next * Integer.BYTES, index);
+                levels.putInt(managerIndex * Integer.BYTES, next + 1);
+            }
+        }
+        for (int index = 0; index < size; index++) {
+            levels.putInt(index * Integer.BYTES, UNKNOWN_LEVEL);
+        }
+        return this;
+    }
+
+    /**
+     * Returns the number of employees.
+     * @return number of rows
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the index of the employee with the given id.
+     * @param id primary key of the employee
+     * @return index of the row, or {@link #NO_INDEX} if there is no such employee
+     */
+    int indexOf(int id) {
+        return slots.getInt(findSlot(id) * Integer.BYTES) - 1;
+    }
+
+    /**
+     * Returns the id of the employee.
+     * @param index index of the row
+     * @return primary key of the employee
+     */
+    int id(int index) {
+        return ids.getInt(index * Integer.BYTES);
+    }
+
+    /**
+     * Returns the first name of the employee, decoding it from the name buffer.
+     * @param index index of the row
+     * @return first name
+     */
+    String firstName(int index) {
+        return name(2 * index);
+    }
+
+    /**
+     * Returns the last name of the employee, decoding it from the name buffer.
+     * @param index index of the row
+     * @return last name
+     */
+    String lastName(int index) {
+        return name(2 * index + 1);
+    }
+
+    /**
+     * Returns the salary of the employee.
+     * @param index index of the row
+     * @return salary, with the same scale as it was added
+     */
+    BigDecimal salary(int index) {
+        return hasCompactSalary(index)
+                ? BigDecimal.valueOf(unscaledSalary(index), salaryScale(index))
+                : largeSalaries.get(index);
+    }
+
+    /**
+     * Returns true if the salary fits into an unscaled long.
+     * @param index index of the row
+     * @return true if the salary is available as unscaled long
+     */
+    boolean hasCompactSalary(int index) {
+        return salaryScales.get(index) != EmployeeColumns.NOT_COMPACT;
+    }
+
+    /**
+     * Returns the unscaled value of the salary, if it is compact.
+     * @param index index of the row
+     * @return unscaled salary
+     */
+    long unscaledSalary(int index) {
+        return unscaledSalaries.getLong(index * Long.BYTES);
+    }
+
+    /**
+     * Returns the scale of the salary, if it is compact.
+     * @param index index of the row
+     * @return scale of the salary
+     */
+    int salaryScale(int index) {
+        return salaryScales.get(index);
+    }
+
+    /**
+     * Returns the index of the manager.
+     * @param index index of the row
+     * @return index of the manager, or {@link #NO_INDEX} if the employee has no manager in the store
+     * @throws IllegalStateException if the store is not linked yet
+     */
+    @Override
+    public int managerIndex(int index) {
+        return linked(managerIndexes).getInt(index * Integer.BYTES);
+    }
+
+    /**
+     * Returns the number of direct subordinates.
+     * @param index index of the row
+     * @return number of subordinates
+     * @throws IllegalStateException if the store is not linked yet
+     */
+    int subordinateCount(int index) {
+        return linked(subordinateStarts).getInt((index + 1) * Integer.BYTES) - subordinateStarts.getInt(index * Integer.BYTES);
+    }
+
+    /**
+     * Returns a direct subordinate.
+     * @param index index of the row
+     * @param position position of the subordinate, less than the number of subordinates
+     * @return index of the subordinate
+     * @throws IllegalStateException if the store is not linked yet
+     */
+    int subordinate(int index, int position) {
+        return subordinates.getInt((linked(subordinateStarts).getInt(index * Integer.BYTES) + position) * Integer.BYTES);
+    }
+
+    /**
+     * Returns the level of the employee, as it was last set by a reporter.
+     * @param index index of the row
+     * @return the hierarchy level, or {@link #UNKNOWN_LEVEL}
+     */
+    int level(int index) {
+        return linked(levels).getInt(index * Integer.BYTES);
+    }
+
+    /**
+     * Sets the level of the employee.
+     * @param index index of the row
+     * @param level the hierarchy level of the employee
+     */
+    void setLevel(int index, int level) {
+        linked(levels).putInt(index * Integer.BYTES, level);
+    }
+
+    /**
+     * Returns the visitation mark set by the last pass over the employees.
+     * @param index index of the row
+     * @return the mark
+     */
+    @Override
+    public int mark(int index) {
+        return linked(marks).getInt(index * Integer.BYTES);
+    }
+
+    /**
+     * Sets the visitation mark of a pass over the employees.
+     * @param index index of the row
+     * @param mark the mark
+     */
+    @Override
+    public void setMark(int index, int mark) {
+        linked(marks).putInt(index * Integer.BYTES, mark);
+    }
+
+    /**
+     * Returns the number of off-heap bytes allocated by the store.
+     * @return capacity of all buffers
+     */
+    long offHeapBytes() {
+        long bytes = 0;
+        for (ByteBuffer buffer : new ByteBuffer[]{ids, managerIds, unscaledSalaries, salaryScales, nameOffsets, names,
+                slots, managerIndexes, subordinateStarts, subordinates, levels, marks}) {
+            bytes += buffer == null ? 0 : buffer.capacity();
+        }
+        return bytes;
+    }
+
+    /**
+     * Returns the column, if the store has been linked.
+     * @param column a column created by {@link #link()}
+     * @return the column
+     * @throws IllegalStateException if the store is not linked yet
+     */
+    private static ByteBuffer linked(ByteBuffer column) {
+        if (column == null) {
+            throw new IllegalStateException(STORE_IS_NOT_LINKED);
+        }
+        return column;
+    }
+
+    /**
+     * Stores the salary as unscaled long with its scale, or on the heap if it does not fit into a long.
+     * @param index index of the row
+     * @param salary salary of the employee
+     */
+    private void setSalary(int index, BigDecimal salary) {
+        byte scale = EmployeeColumns.compactScale(salary);
+        salaryScales.put(index, scale);
+        if (scale != EmployeeColumns.NOT_COMPACT) {
+            unscaledSalaries.putLong(index * Long.BYTES, salary.unscaledValue().longValue());
+        } else {
+            largeSalaries.put(index, salary);
+        }
+    }
+
+    /**
+     * Appends the UTF-8 bytes of the name to the name buffer. ASCII names are copied without encoding them first.
+     * @param nameIndex index of the name, two for every row
+     * @param name the name
+     */
+    private void addName(int nameIndex, String name) {
+        int start = nameOffsets.getInt(nameIndex * Integer.BYTES);
+        byte[] encoded = isAscii(name) ? null : name.getBytes(StandardCharsets.UTF_8);
+        int length = encoded == null ? name.length() : encoded.length;
+        long end = (long) start + length;
+        if (end > MAX_BUFFER_SIZE) {
+            throw new IllegalStateException(STORE_IS_FULL);
+        }
+        if (end > names.capacity()) {
+            names = grow(names, Math.min(MAX_BUFFER_SIZE, Math.max(end, 2L * names.capacity())));
+        }
+        if (encoded == null) {
+            for (int i = 0; i < length; i++) {
+                names.put(start + i, (byte) name.charAt(i));
+            }
+        } else {
+            names.put(start, encoded);
+        }
+        nameOffsets.putInt((nameIndex + 1) * Integer.BYTES, (int) end);
+    }
+
+    /**
+     * Returns true if every character of the name is ASCII, so it is encoded as the same bytes in UTF-8.
+     * @param name the name
+     * @return true if the name is ASCII
+     */
+    private static boolean isAscii(String name) {
+        for (int i = 0; i < name.length(); i++) {
+            if (name.charAt(i) >= ASCII_LIMIT) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Decodes the name.
+     * @param nameIndex index of the name, two for every row
+     * @return the name
+     */
+    private String name(int nameIndex) {
+        int start = nameOffsets.getInt(nameIndex * Integer.BYTES);
+        byte[] bytes = new byte[nameOffsets.getInt((nameIndex + 1) * Integer.BYTES) - start];
+        names.get(start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns the slot of the id in the hash table, or the empty slot where it should be stored.
+     * @param id primary key of the employee
+     * @return index of the slot
+     */
+    private int findSlot(int id) {
+        int mask = slotCount - 1;
+        int slot = EmployeeColumns.homeSlot(id, slotCount);
+        int stored;
+        while ((stored = slots.getInt(slot * Integer.BYTES)) != EMPTY_SLOT && ids.getInt((stored - 1) * Integer.BYTES) != id) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Doubles the hash table and reinserts every row.
+     */
+    private void rehash() {
+        if (2L * slotCount * Integer.BYTES > MAX_BUFFER_SIZE) {
+            throw new IllegalStateException(STORE_IS_FULL);
+        }
+        slotCount *= 2;
+        slots = allocate(Integer.BYTES, slotCount);
+        for (int index = 0; index < size; index++) {
+            slots.putInt(findSlot(id(index)) * Integer.BYTES, index + 1);
+        }
+    }
+
+    /**
+     * Grows the columns if they are full.
+     */
+    private void ensureCapacity() {
+        if (size == capacity) {
+            if (capacity >= MAX_CAPACITY) {
+                throw new IllegalStateException(STORE_IS_FULL);
+            }
+            capacity = (int) Math.min(2L * capacity, MAX_CAPACITY);
+            ids = grow(ids, (long) capacity * Integer.BYTES);
+            managerIds = grow(managerIds, (long) capacity * Integer.BYTES);
+            unscaledSalaries = grow(unscaledSalaries, (long) capacity * Long.BYTES);
+            salaryScales = grow(salaryScales, capacity);
+            nameOffsets = grow(nameOffsets, (2L * capacity + 1) * Integer.BYTES);
+        }
+    }
+
+    /**
+     * Allocates a zeroed direct buffer for the given number of elements, in native byte order.
+     * @param elementSize bytes of an element
+     * @param elements number of elements
+     * @return the buffer
+     */
+    private static ByteBuffer allocate(int elementSize, long elements) {
+        return ByteBuffer.allocateDirect((int) (elementSize * elements)).order(ByteOrder.nativeOrder());
+    }
+
+    /**
+     * Copies the buffer into a larger one. The old buffer is freed when it is garbage collected,
+     * so until then both of them take direct memory.
+     * @param buffer the full buffer
+     * @param bytes capacity of the new buffer
+     * @return the new buffer
+     */
+    private static ByteBuffer grow(ByteBuffer buffer, long bytes) {
+        ByteBuffer grown = allocate(Byte.BYTES, bytes);
+        grown.put(0, buffer, 0, buffer.capacity());
+        return grown;
+    }
+}
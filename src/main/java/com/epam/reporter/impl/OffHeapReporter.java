@@ -0,0 +1,315 @@
+package com.epam.reporter.impl;
+
+import com.epam.reporter.api.ReportSink;
+import com.epam.reporter.api.Reporter;
+import com.epam.reporter.monitoring.ManagerCheck;
+import com.epam.reporter.monitoring.ReporterMetrics;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Creates the same report as {@code SimpleReporter}, over the employees of an {@code OffHeapEmployeeStore}.
+ * <p>
+ * The hierarchy is traversed depth-first from the CEO with a stack of row indexes, levels and visitation marks
+ * are stored in the off-heap columns of the store, and salaries are checked with the fixed-point arithmetic
+ * of {@code FixedPointSalaryChecker}, falling back to {@code BigDecimal} if a value does not fit into a {@code long}.
+ * Names are only decoded for the lines of the report. The reporting cycles are found by {@code CycleDetector},
+ * and the lines are worded by the helpers of {@code SimpleReporter}, so the two reports cannot drift apart.</p>
+ */
+public final class OffHeapReporter implements Reporter {
+    private static final int INITIAL_STACK_CAPACITY = 64;
+    private static final ReporterMetrics METRICS = ReporterMetrics.get();
+    private final FixedPointSalaryChecker salaryChecker;
+    private final OffHeapEmployeeStore employees;
+    private long checkedManagers;
+
+    /**
+     * Constructs a new reporter checking salaries with the given checker.
+     *
+     * @param salaryChecker checks the salary of every manager
+     * @param employees     linked employees
+     */
+    OffHeapReporter(FixedPointSalaryChecker salaryChecker, OffHeapEmployeeStore employees) {
+        this.salaryChecker = salaryChecker;
+        this.employees = employees.link();
+    }
+
+    /**
+     * Creates the same report as {@code SimpleReporter.report()}.
+     *
+     * @return list of report lines
+     * @throws CEONotFoundException                     if no employee without manager
+     * @throws MultipleEmployeesWithoutManagerException if multiple employees without manager
+     */
+    @Override
+    public List<String> report() {
+        List<String> report = new ArrayList<>();
+        report(ReportSink.into(report));
+        return report;
+    }
+
+    /**
+     * Pushes the same report as {@link #report()} to the sink, every line as soon as it is found.
+     *
+     * @param sink receives the lines of the report
+     * @throws CEONotFoundException                     if no employee without manager
+     * @throws MultipleEmployeesWithoutManagerException if multiple employees without manager
+     */
+    @Override
+    public void report(ReportSink sink) {
+        int ceo = findTheCeo();
+        for (int index = 0; index < employees.size(); index++) {
+            employees.setLevel(index, OffHeapEmployeeStore.UNKNOWN_LEVEL);
+        }
+        if (employees.subordinateCount(ceo) > 0) {
+            checkManager(ceo, sink);
+            addReportAboutEmployeesNotInHierarchy(sink);
+        }
+        recordHierarchy();
+    }
+
+    /**
+     * Records the number of managers and the longest reporting line found by the report in the metrics.
+     */
+    private void recordHierarchy() {
+        long managers = 0;
+        int maxDepth = 0;
+        for (int index = 0; index < employees.size(); index++) {
+            if (employees.subordinateCount(index) > 0) {
+                managers++;
+            }
+            maxDepth = Math.max(maxDepth, employees.level(index));
+        }
+        METRICS.recordHierarchy(employees.size(), managers, maxDepth);
+    }
+
+    /**
+     * Finds the CEO, the single employee who has no manager.
+     *
+     * @return index of the CEO
+     * @throws CEONotFoundException                     if no employee without manager
+     * @throws MultipleEmployeesWithoutManagerException if multiple employees without manager
+     */
+    private int findTheCeo() {
+        int ceo = OffHeapEmployeeStore.NO_INDEX;
+        for (int index = 0; index < employees.size(); index++) {
+            if (employees.managerIndex(index) == OffHeapEmployeeStore.NO_INDEX) {
+                if (ceo != OffHeapEmployeeStore.NO_INDEX) {
+                    throw new MultipleEmployeesWithoutManagerException();
+                }
+                ceo = index;
+            }
+        }
+        if (ceo == OffHeapEmployeeStore.NO_INDEX) {
+            throw new CEONotFoundException();
+        }
+        return ceo;
+    }
+
+    /**
+     * Checks the hierarchy under the manager in the same order as {@code SimpleReporter.checkManager}:
+     * every manager is reported before its subordinates, and the long reporting line of an employee
+     * after the lines of his/her subordinates. The stack holds the manager and the position of the next subordinate.
+     *
+     * @param manager index of the manager to be checked
+     * @param report  receives the lines about issues found.
+     */
+    private void checkManager(int manager, ReportSink report) {
+        employees.setLevel(manager, 0);
+        int[] managers = new int[INITIAL_STACK_CAPACITY];
+        int[] positions = new int[INITIAL_STACK_CAPACITY];
+        int depth = 0;
+        checkSalary(manager, report);
+        managers[depth++] = manager;
+        while (depth > 0) {
+            int current = managers[depth - 1];
+            int position = positions[depth - 1];
+            if (position < employees.subordinateCount(current)) {
+                positions[depth - 1] = position + 1;
+                int employee = employees.subordinate(current, position);
+                employees.setLevel(employee, employees.level(current) + 1);
+                if (employees.subordinateCount(employee) > 0) {
+                    checkSalary(employee, report);
+                    if (depth == managers.length) {
+                        managers = Arrays.copyOf(managers, 2 * depth);
+                        positions = Arrays.copyOf(positions, 2 * depth);
+                    }
+                    managers[depth] = employee;
+                    positions[depth] = 0;
+                    depth++;
+                } else {
+                    addLongReportingLine(employee, report);
+                }
+            } else {
+                depth--;
+                if (depth > 0) {
+                    addLongReportingLine(current, report);
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks the salary of the manager, recording a sampled {@code ManagerCheck} flight recorder event.
+     *
+     * @param manager index of the manager to be checked
+     * @param report  receives the report lines
+     */
+    private void checkSalary(int manager, ReportSink report) {
+        if (!ManagerCheck.isSampled(checkedManagers++)) {
+            checkSalaryRange(manager, report);
+            return;
+        }
+        var event = new ManagerCheck();
+        event.begin();
+        checkSalaryRange(manager, report);
+        if (event.shouldCommit()) {
+            event.managerId = employees.id(manager);
+            event.subordinates = employees.subordinateCount(manager);
+            event.level = employees.level(manager);
+            event.commit();
+        }
+    }
+
+    /**
+     * Checks if the salary of the manager is within the range of the average of his/her direct subordinates,
+     * with fixed-point arithmetic if every value fits into a {@code long}.
+     *
+     * @param manager index of the manager to be checked
+     * @param report  receives the report lines
+     */
+    private void checkSalaryRange(int manager, ReportSink report) {
+        if (salaryChecker.hasCompactCoefficients() && employees.hasCompactSalary(manager)) {
+            try {
+                checkExactly(manager, report);
+                return;
+            } catch (ArithmeticException e) {
+                // checked with BigDecimal below
+            }
+        }
+        checkWithBigDecimal(manager, report);
+    }
+
+    /**
+     * Checks the salary with the fixed-point average and range checks of {@code FixedPointSalaryChecker}.
+     * Report lines are only created after every calculation succeeded.
+     *
+     * @param manager index of the manager to be checked
+     * @param report  receives the report lines
+     * @throws ArithmeticException if any value does not fit into a {@code long}
+     */
+    private void checkExactly(int manager, ReportSink report) {
+        var average = FixedPointSalaryChecker.average(new FixedPointSalaryChecker.CompactSalaries() {
+            @Override
+            public int count() {
+                return employees.subordinateCount(manager);
+            }
+
+            @Override
+            public boolean hasCompactSalary(int position) {
+                return employees.hasCompactSalary(employees.subordinate(manager, position));
+            }
+
+            @Override
+            public long unscaledSalary(int position) {
+                return employees.unscaledSalary(employees.subordinate(manager, position));
+            }
+
+            @Override
+            public int salaryScale(int position) {
+                return employees.salaryScale(employees.subordinate(manager, position));
+            }
+        });
+        long salary = employees.unscaledSalary(manager);
+        int salaryScale = employees.salaryScale(manager);
+        boolean low = salaryChecker.isLow(salary, salaryScale, average.unscaled(), average.scale());
+        boolean high = salaryChecker.isHigh(salary, salaryScale, average.unscaled(), average.scale());
+        addSalaryLines(manager, low, high, average.toBigDecimal(), report);
+    }
+
+    /**
+     * Checks the salary with {@code BigDecimal} arithmetic, like {@code BigDecimalSalaryChecker}.
+     *
+     * @param manager index of the manager to be checked
+     * @param report  receives the report lines
+     */
+    private void checkWithBigDecimal(int manager, ReportSink report) {
+        int count = employees.subordinateCount(manager);
+        BigDecimal total = employees.salary(employees.subordinate(manager, 0));
+        for (int i = 1; i < count; i++) {
+            total = total.add(employees.salary(employees.subordinate(manager, i)));
+        }
+        BigDecimal average = total.divide(BigDecimal.valueOf(count), RoundingMode.HALF_UP);
+        BigDecimal salary = employees.salary(manager);
+        var checker = salaryChecker.getFallback();
+        addSalaryLines(manager, checker.isLow(salary, average), checker.isHigh(salary, average), average, report);
+    }
+
+    /**
+     * Adds the lines about a salary out of range, decoding the name of the manager only if there is any.
+     *
+     * @param manager index of the manager
+     * @param low     true if the salary is too low
+     * @param high    true if the salary is too high
+     * @param average average salary of the subordinates
+     * @param report  receives the report lines
+     */
+    private void addSalaryLines(int manager, boolean low, boolean high, BigDecimal average, ReportSink report) {
+        if (!low && !high) {
+            return;
+        }
+        String firstName = employees.firstName(manager);
+        String lastName = employees.lastName(manager);
+        BigDecimal salary = employees.salary(manager);
+        var checker = salaryChecker.getFallback();
+        if (low) {
+            report.line(checker.getLowSalaryReport(firstName, lastName, salary, average));
+        }
+        if (high) {
+            report.line(checker.getHighSalaryReport(firstName, lastName, salary, average));
+        }
+    }
+
+    /**
+     * Adds a line about the employee to the report, if his/her reporting line is too long.
+     *
+     * @param employee index of the employee to be checked
+     * @param report   receives the report line
+     */
+    private void addLongReportingLine(int employee, ReportSink report) {
+        if (SimpleReporter.isReportingLineTooLong(employees.level(employee))) {
+            report.line(SimpleReporter.getLongReportingLine(employees.firstName(employee), employees.lastName(employee)));
+        }
+    }
+
+    /**
+     * Adds a line about every reporting cycle, followed by a line about the employees whose reporting line
+     * leads into the cycle, if any. The cycles are found by {@code CycleDetector} over the marks of the store.
+     *
+     * @param sink receives the report lines.
+     */
+    private void addReportAboutEmployeesNotInHierarchy(ReportSink sink) {
+        for (CycleDetector.Rows cycle : CycleDetector.findCycles(employees)) {
+            addEmployeesLine(SimpleReporter.THE_FOLLOWING_EMPLOYEES_FORM_A_REPORTING_CYCLE, cycle.members(), sink);
+            if (cycle.subordinates().length > 0) {
+                addEmployeesLine(SimpleReporter.THE_FOLLOWING_EMPLOYEES_REPORT_TO_THE_CYCLE, cycle.subordinates(), sink);
+            }
+        }
+    }
+
+    /**
+     * Adds a line listing the names of the employees.
+     *
+     * @param prefix  beginning of the line
+     * @param indexes indexes of the employees to be listed
+     * @param sink    receives the report line
+     */
+    private void addEmployeesLine(String prefix, int[] indexes, ReportSink sink) {
+        SimpleReporter.addEmployeesLine(prefix, indexes.length, i -> employees.firstName(indexes[i]),
+                i -> employees.lastName(indexes[i]), sink);
+    }
+}
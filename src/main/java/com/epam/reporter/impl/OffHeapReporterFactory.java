@@ -0,0 +1,161 @@
+package com.epam.reporter.impl;
+
+import com.epam.reporter.api.CsvFile;
+import com.epam.reporter.api.Employee;
+import com.epam.reporter.api.EmployeeTable;
+import com.epam.reporter.api.ReporterFactory;
+import com.epam.reporter.monitoring.HierarchyBuild;
+import com.epam.reporter.monitoring.ReporterMetrics;
+import com.epam.reporter.monitoring.ReporterMetrics.Phase;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+/**
+ * Creates an {@code OffHeapReporter} with configurable lower range coefficient and upper range coefficient.
+ * The default coefficients are the ones of {@code SimpleReporterFactory}.
+ * The employees are stored in an {@code OffHeapEmployeeStore}, outside the Java heap, so very large organisations
+ * can be checked without a large heap. Streaming CSV files are stored while they are parsed.
+ */
+public class OffHeapReporterFactory implements ReporterFactory {
+    private static final String EMPLOYEES_CANNOT_BE_NULL = "Employees cannot be null!";
+    private static final String CSV_FILE_CANNOT_BE_NULL = "CSV file cannot be null!";
+    private static final ReporterMetrics METRICS = ReporterMetrics.get();
+
+    /**
+     * Factory method for creating an {@code OffHeapReporter} with default values.
+     * @param employees map of employees.
+     * @return the created reporter
+     */
+    @Override
+    public OffHeapReporter create(Map<Integer, Employee> employees) {
+        return create(SimpleReporterFactory.TWENTY_PERCENT, SimpleReporterFactory.FIFTY_PERCENT, employees);
+    }
+
+    /**
+     * Creates a new instance of {@code OffHeapReporter} using the provided range coefficients and employees map.
+     *
+     * @param lowerRangeCoefficient the lower range coefficient used for calculations; must not be null
+     * @param upperRangeCoefficient the upper range coefficient used for calculations; must not be null
+     * @param employeeRecords a map of employees records; must not be null
+     * @return a new instance of {@code OffHeapReporter}
+     * @throws InvalidRangesException if any of the coefficients are null or invalid
+     * @throws IllegalArgumentException if the map is null
+     */
+    public OffHeapReporter create(BigDecimal lowerRangeCoefficient,
+                                  BigDecimal upperRangeCoefficient,
+                                  Map<Integer, Employee> employeeRecords) {
+        SimpleReporterFactory.validateRanges(lowerRangeCoefficient, upperRangeCoefficient);
+        if (employeeRecords == null) {
+            throw new IllegalArgumentException(EMPLOYEES_CANNOT_BE_NULL);
+        }
+        var event = new HierarchyBuild();
+        event.begin();
+        long start = System.nanoTime();
+        var employees = OffHeapEmployeeStore.of(employeeRecords.values());
+        METRICS.recordPhase(Phase.BUILD, System.nanoTime() - start);
+        SimpleReporterFactory.commit(event, employees.size(), false);
+        return newReporter(lowerRangeCoefficient, upperRangeCoefficient, employees);
+    }
+
+    /**
+     * Factory method for creating an {@code OffHeapReporter} with default values from a CSV file.
+     * @param csvFile CSV file to be parsed.
+     * @return the created reporter
+     */
+    @Override
+    public OffHeapReporter create(CsvFile csvFile) {
+        return create(SimpleReporterFactory.TWENTY_PERCENT, SimpleReporterFactory.FIFTY_PERCENT, csvFile);
+    }
+
+    /**
+     * Creates a new instance of {@code OffHeapReporter} using the provided range coefficients and CSV file.
+     * <p>
+     * If the CSV file can stream its employees, they are stored off-heap while parsing, without the intermediate
+     * map of records, and subordinates are linked in file order. The store is sized from the size of the file, if known.
+     * Otherwise, the file is parsed into a map which is stored as in {@link #create(BigDecimal, BigDecimal, Map)}.</p>
+     *
+     * @param lowerRangeCoefficient the lower range coefficient used for calculations; must not be null
+     * @param upperRangeCoefficient the upper range coefficient used for calculations; must not be null
+     * @param csvFile the CSV file containing the employees; must not be null
+     * @return a new instance of {@code OffHeapReporter}
+     * @throws InvalidRangesException if any of the coefficients are null or invalid
+     * @throws IllegalArgumentException if the CSV file is null or cannot be parsed
+     */
+    public OffHeapReporter create(BigDecimal lowerRangeCoefficient,
+                                  BigDecimal upperRangeCoefficient,
+                                  CsvFile csvFile) {
+        SimpleReporterFactory.validateRanges(lowerRangeCoefficient, upperRangeCoefficient);
+        if (csvFile == null) {
+            throw new IllegalArgumentException(CSV_FILE_CANNOT_BE_NULL);
+        }
+        long start = System.nanoTime();
+        if (!(csvFile instanceof StreamingCsvFile streamingCsvFile)) {
+            Map<Integer, Employee> employeeRecords = csvFile.parse();
+            METRICS.recordPhase(Phase.PARSE, System.nanoTime() - start);
+            return create(lowerRangeCoefficient, upperRangeCoefficient, employeeRecords);
+        }
+        var event = new HierarchyBuild();
+        event.begin();
+        var employees = OffHeapEmployeeStore.forInputSize(streamingCsvFile.inputSize());
+        streamingCsvFile.parse(employees);
+        long parsed = System.nanoTime();
+        METRICS.recordPhase(Phase.PARSE, parsed - start);
+        employees.link();
+        METRICS.recordPhase(Phase.BUILD, System.nanoTime() - parsed);
+        SimpleReporterFactory.commit(event, employees.size(), true);
+        return newReporter(lowerRangeCoefficient, upperRangeCoefficient, employees);
+    }
+
+    /**
+     * Factory method for creating an {@code OffHeapReporter} with default values from a table of employees.
+     * @param employees table of employees.
+     * @return the created reporter
+     */
+    @Override
+    public OffHeapReporter create(EmployeeTable employees) {
+        return create(SimpleReporterFactory.TWENTY_PERCENT, SimpleReporterFactory.FIFTY_PERCENT, employees);
+    }
+
+    /**
+     * Creates a new instance of {@code OffHeapReporter} using the provided range coefficients and table of employees.
+     * Subordinates are linked in table order.
+     *
+     * @param lowerRangeCoefficient the lower range coefficient used for calculations; must not be null
+     * @param upperRangeCoefficient the upper range coefficient used for calculations; must not be null
+     * @param employeeTable the table of employees; must not be null
+     * @return a new instance of {@code OffHeapReporter}
+     * @throws InvalidRangesException if any of the coefficients are null or invalid
+     * @throws IllegalArgumentException if the table is null
+     */
+    public OffHeapReporter create(BigDecimal lowerRangeCoefficient,
+                                  BigDecimal upperRangeCoefficient,
+                                  EmployeeTable employeeTable) {
+        SimpleReporterFactory.validateRanges(lowerRangeCoefficient, upperRangeCoefficient);
+        if (employeeTable == null) {
+            throw new IllegalArgumentException(EMPLOYEES_CANNOT_BE_NULL);
+        }
+        var event = new HierarchyBuild();
+        event.begin();
+        long start = System.nanoTime();
+        var employees = OffHeapEmployeeStore.of(employeeTable);
+        METRICS.recordPhase(Phase.BUILD, System.nanoTime() - start);
+        SimpleReporterFactory.commit(event, employees.size(), false);
+        return newReporter(lowerRangeCoefficient, upperRangeCoefficient, employees);
+    }
+
+    /**
+     * Creates the reporter with a fixed-point salary checker.
+     * @param lowerRangeCoefficient lower range coefficient
+     * @param upperRangeCoefficient upper range coefficient
+     * @param employees the stored employees
+     * @return the reporter
+     */
+    private static OffHeapReporter newReporter(BigDecimal lowerRangeCoefficient,
+                                               BigDecimal upperRangeCoefficient,
+                                               OffHeapEmployeeStore employees) {
+        var salaryChecker = new FixedPointSalaryChecker(lowerRangeCoefficient, SimpleReporterFactory.toPercentage(lowerRangeCoefficient),
+                upperRangeCoefficient, SimpleReporterFactory.toPercentage(upperRangeCoefficient));
+        return new OffHeapReporter(salaryChecker, employees);
+    }
+}
@@ -0,0 +1,360 @@
+package com.epam.reporter.impl;
+
+import com.epam.reporter.api.Employee;
+import com.epam.reporter.api.ErrorHandler;
+import com.epam.reporter.api.ParseError;
+import com.epam.reporter.api.ParseErrorCode;
+import com.epam.reporter.monitoring.ReporterMetrics;
+import com.epam.reporter.monitoring.ReporterMetrics.SkipReason;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Class provides parallel CSV parsing capability for large files.
+ * <p>
+ * The file is split into byte ranges, every split is moved to the next line boundary,
+ * and the chunks are memory-mapped and parsed on a {@code ForkJoinPool}.
+ * The partial results are merged in file order on the calling thread, so the first record
+ * for every id is kept, and the error handler is called in the same order, with the same errors
+ * and line numbers as {@code SimpleCsvFile} would do, and with the byte offsets of the lines in the file.</p>
+ */
+public final class ParallelCsvFile implements StreamingCsvFile {
+    private static final int CHUNKS_PER_THREAD = 4;
+    private static final int INITIAL_LINES_CAPACITY = 1024;
+    private static final long MIN_CHUNK_SIZE = 1L << 20;
+    private static final long MAX_CHUNK_SIZE = 1L << 30;
+    private static final int SCAN_BUFFER_SIZE = 8192;
+    private static final byte LINE_FEED = '\n';
+    private static final String LINE_LONGER_THAN_CHUNK_D = "Line is longer than the maximum chunk size: %d bytes!";
+    private static final ReporterMetrics METRICS = ReporterMetrics.get();
+
+    private final Path file;
+    private final ErrorHandler errorHandler;
+    private final int parallelism;
+    private final long minChunkSize;
+
+    /**
+     * Constructs a CSV file based on the supplied path with customizable ErrorHandler and parallelism.
+     * @param file path of the CSV file
+     * @param errorHandler customizable error handler
+     * @param parallelism number of threads parsing the chunks
+     */
+    public ParallelCsvFile(Path file, ErrorHandler errorHandler, int parallelism) {
+        this(file, errorHandler, parallelism, MIN_CHUNK_SIZE);
+    }
+
+    /**
+     * Constructs a CSV file based on the supplied path with customizable ErrorHandler,
+     * using all available processors.
+     * @param file path of the CSV file
+     * @param errorHandler customizable error handler
+     */
+    public ParallelCsvFile(Path file, ErrorHandler errorHandler) {
+        this(file, errorHandler, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructs a CSV file based on the supplied path, using all available processors.
+     * Error handler is set to {@code ParsingErrorHandlerStrategy.NOOP}.
+     * @param file path of the CSV file
+     */
+    public ParallelCsvFile(Path file) {
+        this(file, ParsingErrorHandlingStrategy.NOOP);
+    }
+
+    /**
+     * Constructs a CSV file with a custom minimum chunk size.
+     * @param file path of the CSV file
+     * @param errorHandler customizable error handler
+     * @param parallelism number of threads parsing the chunks
+     * @param minChunkSize minimum number of bytes in a chunk
+     */
+    ParallelCsvFile(Path file, ErrorHandler errorHandler, int parallelism, long minChunkSize) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism should be at least 1!");
+        }
+        this.file = file;
+        this.errorHandler = errorHandler;
+        this.parallelism = parallelism;
+        this.minChunkSize = minChunkSize;
+    }
+
+    /**
+     * Returns the size of the file, so collectors can be sized before parsing.
+     *
+     * @return size of the file in bytes, or {@link #UNKNOWN_SIZE} if it cannot be read
+     */
+    @Override
+    public long inputSize() {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            return UNKNOWN_SIZE;
+        }
+    }
+
+    /**
+     * Parses the file chunk by chunk in parallel.
+     * It assumes that the first line is the header
+     * and the order of columns are:
+     * Id,firstName,lastName,salary,managerId
+     *
+     * @return a map of employee records, iterated in file order
+     * @throws IllegalArgumentException if there is a problem with the file
+     */
+    @Override
+    public Map<Integer, Employee> parse() {
+        Map<Integer, Employee> employeeMap = new LinkedHashMap<>();
+        parse(EmployeeCollector.into(employeeMap));
+        return employeeMap;
+    }
+
+    /**
+     * Parses the file chunk by chunk in parallel, passing every employee to the collector in file order.
+     *
+     * @param employees collector of the parsed employees
+     * @throws IllegalArgumentException if there is a problem with the file
+     */
+    @Override
+    public void parse(EmployeeCollector employees) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+             ForkJoinPool pool = new ForkJoinPool(parallelism)) {
+            List<Callable<Chunk>> tasks = new ArrayList<>();
+            long[] boundaries = split(channel);
+            for (int i = 0; i + 1 < boundaries.length; i++) {
+                tasks.add(new Chunk(channel, boundaries[i], boundaries[i + 1], i == 0));
+            }
+            merge(pool.invokeAll(tasks), employees);
+        } catch (IOException e) {
+            throw new CsvFileNotFoundException();
+        }
+    }
+
+    /**
+     * Splits the file into chunks, every chunk but the last one ends with a line feed.
+     * @param channel channel of the file
+     * @return start of every chunk followed by the size of the file
+     * @throws IOException if the file cannot be read
+     */
+    private long[] split(FileChannel channel) throws IOException {
+        long size = channel.size();
+        long chunkSize = Math.min(MAX_CHUNK_SIZE, Math.max(minChunkSize, size / ((long) parallelism * CHUNKS_PER_THREAD)));
+        List<Long> boundaries = new ArrayList<>();
+        boundaries.add(0L);
+        long next = chunkSize;
+        while (next < size) {
+            long boundary = nextLineStart(channel, next);
+            if (boundary >= size) {
+                break;
+            }
+            if (boundary - boundaries.getLast() > MAX_CHUNK_SIZE) {
+                throw new CsvParsingException(LINE_LONGER_THAN_CHUNK_D.formatted(MAX_CHUNK_SIZE));
+            }
+            boundaries.add(boundary);
+            next = boundary + chunkSize;
+        }
+        if (size - boundaries.getLast() > MAX_CHUNK_SIZE) {
+            throw new CsvParsingException(LINE_LONGER_THAN_CHUNK_D.formatted(MAX_CHUNK_SIZE));
+        }
+        boundaries.add(size);
+        return boundaries.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    /**
+     * Returns the position after the first line feed at or after the given position.
+     * @param channel channel of the file
+     * @param position position to start the search from
+     * @return position after the line feed, or the size of the file if there is none
+     * @throws IOException if the file cannot be read
+     */
+    private static long nextLineStart(FileChannel channel, long position) throws IOException {
+        var buffer = ByteBuffer.allocate(SCAN_BUFFER_SIZE);
+        long current = position;
+        int read;
+        while ((read = channel.read(buffer.clear(), current)) > 0) {
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == LINE_FEED) {
+                    return current + i + 1;
+                }
+            }
+            current += read;
+        }
+        return channel.size();
+    }
+
+    /**
+     * Merges the parsed chunks in file order.
+     * Keeps the first record for every id and replays the errors of the chunks with their line numbers.
+     * Names are pooled again, as every chunk has its own pool.
+     * @param futures parsed chunks in file order
+     * @param employees collector of the parsed employees
+     */
+    private void merge(List<Future<Chunk>> futures, EmployeeCollector employees) {
+        var row = new CsvRow();
+        var names = new NamePool();
+        long linesBefore = 0;
+        for (Future<Chunk> future : futures) {
+            Chunk chunk = join(future);
+            int employeeIndex = 0;
+            int errorIndex = 0;
+            int employeeCount = chunk.employees.size();
+            int errorCount = chunk.errors.size();
+            while (employeeIndex < employeeCount || errorIndex < errorCount) {
+                if (errorIndex < errorCount && (employeeIndex == employeeCount
+                        || chunk.errors.get(errorIndex).lineNumber() < chunk.employeeLines[employeeIndex])) {
+                    ParseError error = chunk.errors.get(errorIndex);
+                    errorHandler.handle(new CsvParseError(error.code(), linesBefore + error.lineNumber(),
+                            chunk.start + error.byteOffset(), error.line()));
+                    errorIndex++;
+                } else {
+                    var employee = chunk.employees.get(employeeIndex);
+                    long lineNumber = linesBefore + chunk.employeeLines[employeeIndex];
+                    row.set(employee.id(), names.intern(employee.firstName()), names.intern(employee.lastName()),
+                            employee.salary(), employee.managerId(), lineNumber);
+                    if (!employees.add(row)) {
+                        METRICS.recordSkipped(SkipReason.DUPLICATE_ID);
+                        int lineStart = chunk.employeeStarts[employeeIndex];
+                        errorHandler.handle(new CsvParseError(ParseErrorCode.DUPLICATE_ID, lineNumber, chunk.start + lineStart,
+                                new ByteLine(chunk.buffer, lineStart, chunk.employeeEnds[employeeIndex])));
+                    }
+                    employeeIndex++;
+                }
+            }
+            linesBefore += chunk.lines;
+        }
+    }
+
+    /**
+     * Waits for the chunk to be parsed.
+     * @param future parsed chunk
+     * @return the chunk
+     * @throws RuntimeException thrown while parsing the chunk
+     */
+    private static Chunk join(Future<Chunk> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CsvParsingException("Parsing has been interrupted!");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new CsvFileNotFoundException();
+        }
+    }
+
+    /**
+     * A range of complete lines of the file, parsed on its own.
+     * Errors are recorded with their line number and byte offset within the chunk instead of being handled.
+     * The mapped buffer and the position of every employee line are kept, so duplicates found during the merge
+     * can refer to their raw line.
+     */
+    private static final class Chunk implements Callable<Chunk>, ErrorHandler {
+        private final FileChannel channel;
+        private final long start;
+        private final long end;
+        private final boolean first;
+        private final List<Employee> employees = new ArrayList<>();
+        private final List<ParseError> errors = new ArrayList<>();
+        private long[] employeeLines = new long[INITIAL_LINES_CAPACITY];
+        private int[] employeeStarts = new int[INITIAL_LINES_CAPACITY];
+        private int[] employeeEnds = new int[INITIAL_LINES_CAPACITY];
+        private ByteBuffer buffer;
+        private long lines;
+
+        /**
+         * Constructs a chunk.
+         * @param channel channel of the file
+         * @param start position of the first byte
+         * @param end position after the last byte
+         * @param first true if the chunk starts with the header
+         */
+        Chunk(FileChannel channel, long start, long end, boolean first) {
+            this.channel = channel;
+            this.start = start;
+            this.end = end;
+            this.first = first;
+        }
+
+        /**
+         * Parses the chunk.
+         * @return this chunk
+         * @throws IOException if the file cannot be mapped
+         */
+        @Override
+        public Chunk call() throws IOException {
+            int length = (int) (end - start);
+            var parser = new ByteCsvParser(this, first);
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+            parser.parse(buffer, 0, length, true, row -> {
+                int index = employees.size();
+                employeeLines = append(employeeLines, index, row.lineNumber());
+                employeeStarts = append(employeeStarts, index, parser.currentLineStart());
+                employeeEnds = append(employeeEnds, index, parser.currentLineEnd());
+                employees.add(row.toEmployee());
+                return true;
+            });
+            lines = parser.lineNumber();
+            return this;
+        }
+
+        /**
+         * Errors are always reported as a {@code ParseError}.
+         * @param message information about the error.
+         */
+        @Override
+        public void handle(String message) {
+            throw new IllegalStateException(message);
+        }
+
+        /**
+         * Records the error to be replayed during the merge. Its line stays valid, as the buffer is not changed.
+         * @param error the invalid line, with its line number and byte offset within the chunk.
+         */
+        @Override
+        public void handle(ParseError error) {
+            errors.add(error);
+        }
+
+        /**
+         * Stores the value at the given index, growing the array if needed.
+         * @param array array to store the value in
+         * @param index index of the value
+         * @param value value to store
+         * @return the array containing the value
+         */
+        private static long[] append(long[] array, int index, long value) {
+            long[] result = index < array.length ? array : Arrays.copyOf(array, array.length * 2);
+            result[index] = value;
+            return result;
+        }
+
+        /**
+         * Stores the value at the given index, growing the array if needed.
+         * @param array array to store the value in
+         * @param index index of the value
+         * @param value value to store
+         * @return the array containing the value
+         */
+        private static int[] append(int[] array, int index, int value) {
+            int[] result = index < array.length ? array : Arrays.copyOf(array, array.length * 2);
+            result[index] = value;
+            return result;
+        }
+    }
+}
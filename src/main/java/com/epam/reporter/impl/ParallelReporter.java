@@ -0,0 +1,250 @@
+package com.epam.reporter.impl;
+
+import com.epam.reporter.api.ReportSink;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Class for creating the same report as {@code SimpleReporter}, checking large subtrees in parallel.
+ * <p>
+ * The size of every subtree is counted first. The hierarchy is then checked on a {@code ForkJoinPool}:
+ * every task checks its subtree depth-first, and forks a new task for every subordinate whose subtree is larger
+ * than the threshold, except the largest one, which is checked by the task itself, so a long reporting line
+ * does not become a long chain of tasks.</p>
+ * <p>
+ * A task leaves a placeholder for every forked subtree in its list of report lines. The placeholders are resolved
+ * once, in order, on the calling thread, so every line is copied only once and the report has exactly the same
+ * order as the report of {@code SimpleReporter}.</p>
+ * <p>
+ * Salaries are checked the same way as by {@code SimpleReporter}, including the sampled {@code ManagerCheck}
+ * flight recorder events. Every task counts its own checks, so sampling needs no shared counter.</p>
+ */
+public class ParallelReporter extends SimpleReporter {
+    static final int DEFAULT_THRESHOLD = 10_000;
+    private static final String PARALLELISM_SHOULD_BE_AT_LEAST_1 = "Parallelism should be at least 1!";
+    private static final String THRESHOLD_SHOULD_BE_AT_LEAST_1 = "Threshold should be at least 1!";
+
+    private final int parallelism;
+    private final int threshold;
+
+    /**
+     * Constructs a new reporter checking salaries with the given checker.
+     *
+     * @param salaryChecker checks the salary of every manager, it must be thread-safe
+     * @param employees     linked employees
+     * @param parallelism   number of threads checking the subtrees
+     */
+    ParallelReporter(SalaryChecker salaryChecker, Collection<EmployeeEntity> employees, int parallelism) {
+        this(salaryChecker, employees, parallelism, DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * Constructs a new reporter with a custom subtree size threshold.
+     *
+     * @param salaryChecker checks the salary of every manager, it must be thread-safe
+     * @param employees     linked employees
+     * @param parallelism   number of threads checking the subtrees
+     * @param threshold     minimum size of a subtree checked by a separate task
+     */
+    ParallelReporter(SalaryChecker salaryChecker, Collection<EmployeeEntity> employees, int parallelism, int threshold) {
+        super(salaryChecker, employees);
+        if (parallelism < 1) {
+            throw new IllegalArgumentException(PARALLELISM_SHOULD_BE_AT_LEAST_1);
+        }
+        if (threshold < 1) {
+            throw new IllegalArgumentException(THRESHOLD_SHOULD_BE_AT_LEAST_1);
+        }
+        this.parallelism = parallelism;
+        this.threshold = threshold;
+    }
+
+    /**
+     * Checks the hierarchy under the manager in parallel.
+     *
+     * @param manager manager to be checked
+     * @param report  receives the lines about issues found, in the same order as {@code SimpleReporter} reports them.
+     */
+    @Override
+    void checkManager(EmployeeEntity manager, ReportSink report) {
+        countSubtrees(manager);
+        try (ForkJoinPool pool = new ForkJoinPool(parallelism)) {
+            merge(pool.invoke(new SubtreeTask(manager)), report);
+        }
+    }
+
+    /**
+     * Sets the size of every subtree under the manager, in reverse depth-first order.
+     *
+     * @param manager root of the hierarchy
+     */
+    private static void countSubtrees(EmployeeEntity manager) {
+        List<EmployeeEntity> preOrder = new ArrayList<>();
+        Deque<EmployeeEntity> stack = new ArrayDeque<>();
+        stack.push(manager);
+        while (!stack.isEmpty()) {
+            EmployeeEntity employee = stack.pop();
+            preOrder.add(employee);
+            employee.getSubordinates().forEach(stack::push);
+        }
+        for (int i = preOrder.size() - 1; i >= 0; i--) {
+            EmployeeEntity employee = preOrder.get(i);
+            int size = 1;
+            for (EmployeeEntity subordinate : employee.getSubordinates()) {
+                size += subordinate.getSubtreeSize();
+            }
+            employee.setSubtreeSize(size);
+        }
+    }
+
+    /**
+     * Resolves the placeholders of the fragments in order.
+     * Lines are pushed to the sink as soon as their fragment is resolved.
+     *
+     * @param root   fragment of the top level manager
+     * @param report receives the report lines
+     */
+    private void merge(Fragment root, ReportSink report) {
+        Deque<Iterator<Part>> fragments = new ArrayDeque<>();
+        fragments.push(root.parts().iterator());
+        while (!fragments.isEmpty()) {
+            Iterator<Part> parts = fragments.peek();
+            if (!parts.hasNext()) {
+                fragments.pop();
+                continue;
+            }
+            Part part = parts.next();
+            part.lines().forEach(report::line);
+            if (part.subtree() != null) {
+                Fragment fragment = part.subtree().join();
+                fragments.push(fragment.parts().iterator());
+            }
+        }
+    }
+
+    /**
+     * Report lines followed by the placeholder of a subtree checked by another task.
+     *
+     * @param lines   report lines
+     * @param subtree task checking the following subtree, or null if there is none
+     */
+    private record Part(List<String> lines, SubtreeTask subtree) {
+    }
+
+    /**
+     * The result of a task.
+     *
+     * @param parts report lines and placeholders, in order
+     */
+    private record Fragment(List<Part> parts) {
+    }
+
+    /**
+     * A manager on the traversal stack of a task.
+     *
+     * @param manager      the manager
+     * @param subordinates remaining subordinates of the manager
+     * @param largest      subordinate with the largest subtree, checked by the same task
+     */
+    private record ManagerFrame(EmployeeEntity manager, Iterator<EmployeeEntity> subordinates, EmployeeEntity largest) {
+    }
+
+    /**
+     * Checks a subtree, the same way as {@code SimpleReporter} does, forking the large subtrees.
+     */
+    private final class SubtreeTask extends RecursiveTask<Fragment> {
+        private final EmployeeEntity root;
+        private final List<Part> parts = new ArrayList<>();
+        private List<String> lines = new ArrayList<>();
+        private ReportSink sink = ReportSink.into(lines);
+        private long checkedManagers;
+
+        /**
+         * Constructs a task checking the subtree of the manager.
+         *
+         * @param root manager whose level has already been set
+         */
+        SubtreeTask(EmployeeEntity root) {
+            this.root = root;
+        }
+
+        /**
+         * Checks the subtree depth-first.
+         *
+         * @return the report lines and placeholders of the subtree
+         */
+        @Override
+        protected Fragment compute() {
+            Deque<ManagerFrame> managers = new ArrayDeque<>();
+            visitManager(root, managers);
+            while (!managers.isEmpty()) {
+                ManagerFrame frame = managers.peek();
+                if (frame.subordinates().hasNext()) {
+                    EmployeeEntity employee = frame.subordinates().next();
+                    employee.setLevel(frame.manager().getLevel() + 1);
+                    if (!employee.isManager()) {
+                        addLongReportingLine(employee, sink);
+                    } else if (employee != frame.largest() && employee.getSubtreeSize() >= threshold) {
+                        fork(employee);
+                        addLongReportingLine(employee, sink);
+                    } else {
+                        visitManager(employee, managers);
+                    }
+                } else {
+                    managers.pop();
+                    if (!managers.isEmpty()) {
+                        addLongReportingLine(frame.manager(), sink);
+                    }
+                }
+            }
+            parts.add(new Part(lines, null));
+            return new Fragment(parts);
+        }
+
+        /**
+         * Checks the salary of the manager, and pushes his/her subordinates onto the stack.
+         *
+         * @param manager  manager to be checked
+         * @param managers stack of managers whose subordinates are being checked
+         */
+        private void visitManager(EmployeeEntity manager, Deque<ManagerFrame> managers) {
+            checkSalary(manager, checkedManagers++, sink);
+            managers.push(new ManagerFrame(manager, manager.getSubordinates().iterator(), largestSubordinate(manager)));
+        }
+
+        /**
+         * Forks a task for the subtree of the manager, and leaves a placeholder for it.
+         *
+         * @param manager manager of the subtree
+         */
+        private void fork(EmployeeEntity manager) {
+            var task = new SubtreeTask(manager);
+            task.fork();
+            parts.add(new Part(lines, task));
+            lines = new ArrayList<>();
+            sink = ReportSink.into(lines);
+        }
+
+        /**
+         * Returns the subordinate with the largest subtree.
+         *
+         * @param manager manager with at least one subordinate
+         * @return the subordinate with the largest subtree
+         */
+        private static EmployeeEntity largestSubordinate(EmployeeEntity manager) {
+            EmployeeEntity largest = null;
+            for (EmployeeEntity subordinate : manager.getSubordinates()) {
+                if (largest == null || subordinate.getSubtreeSize() > largest.getSubtreeSize()) {
+                    largest = subordinate;
+                }
+            }
+            return largest;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.epam.reporter.impl;
 
 import com.epam.reporter.api.ErrorHandler;
+import com.epam.reporter.api.ParseError;
 
 import java.util.logging.Logger;
 
@@ -22,6 +23,15 @@ public enum ParsingErrorHandlingStrategy implements ErrorHandler {
         public void handle(String message) {
             LOGGER.warning(message);
         }
+
+        /**
+         * Handles the csv parsing error, formatting it only if the warning is logged.
+         * @param error the invalid line
+         */
+        @Override
+        public void handle(ParseError error) {
+            LOGGER.warning(error::message);
+        }
     },
 
     /**
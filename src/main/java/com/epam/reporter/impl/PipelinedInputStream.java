@@ -0,0 +1,142 @@
+package com.epam.reporter.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Input stream reading its source on a background thread, so producing the bytes (like inflating a compressed file)
+ * and consuming them (like parsing) overlap.
+ * <p>
+ * The background thread fills large buffers and passes them through a bounded queue. Consumed buffers are handed
+ * back and reused, so at most the given number of buffers are allocated, and the thread waits if the consumer
+ * falls behind. An exception of the source is thrown by the read after the buffers filled before it, unchecked
+ * exceptions and errors wrapped in an {@link IOException}, so the reader never waits for a thread which died.</p>
+ */
+final class PipelinedInputStream extends InputStream {
+    private static final Chunk END = new Chunk(new byte[0], 0);
+
+    private final InputStream source;
+    private final BlockingQueue<Chunk> filled;
+    private final BlockingQueue<byte[]> free;
+    private final Thread producer;
+    private volatile IOException failure;
+    private Chunk current;
+    private int position;
+
+    /**
+     * Constructs the stream, and starts reading the source.
+     * @param source the stream to be read on the background thread, it is closed when the stream is closed
+     * @param bufferSize size of a buffer
+     * @param buffers number of buffers
+     */
+    PipelinedInputStream(InputStream source, int bufferSize, int buffers) {
+        this.source = source;
+        this.filled = new ArrayBlockingQueue<>(buffers + 1);
+        this.free = new ArrayBlockingQueue<>(buffers);
+        for (int i = 0; i < buffers; i++) {
+            free.add(new byte[bufferSize]);
+        }
+        this.producer = Thread.ofPlatform().name("reporter-pipeline").daemon().start(this::produce);
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!ensureAvailable()) {
+            return -1;
+        }
+        return current.bytes()[position++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] bytes, int offset, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        if (!ensureAvailable()) {
+            return -1;
+        }
+        int count = Math.min(length, current.length() - position);
+        System.arraycopy(current.bytes(), position, bytes, offset, count);
+        position += count;
+        return count;
+    }
+
+    @Override
+    public int available() {
+        return current == null || current == END ? 0 : current.length() - position;
+    }
+
+    /**
+     * Stops the background thread, and closes the source.
+     */
+    @Override
+    public void close() throws IOException {
+        producer.interrupt();
+        try {
+            producer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Takes the next filled buffer if the current one is consumed, and hands the consumed one back.
+     * @return false at the end of the source
+     * @throws IOException if the source failed, or the thread is interrupted while waiting
+     */
+    private boolean ensureAvailable() throws IOException {
+        while (current == null || (current != END && position == current.length())) {
+            if (current != null) {
+                free.add(current.bytes());
+            }
+            try {
+                current = filled.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException();
+            }
+            position = 0;
+        }
+        if (current == END && failure != null) {
+            throw failure;
+        }
+        return current != END;
+    }
+
+    /**
+     * Reads the source into the free buffers until its end, a failure or an interrupt.
+     * The end is queued after every failure, only an interrupt by {@link #close()} leaves it out.
+     */
+    private void produce() {
+        try (source) {
+            while (true) {
+                byte[] bytes = free.take();
+                int length = source.readNBytes(bytes, 0, bytes.length);
+                if (length > 0) {
+                    filled.put(new Chunk(bytes, length));
+                }
+                if (length < bytes.length) {
+                    break;
+                }
+            }
+        } catch (InterruptedException e) {
+            return;
+        } catch (IOException e) {
+            failure = e;
+        } catch (Throwable e) {
+            failure = new IOException("Source cannot be read!", e);
+        }
+        filled.add(END);
+    }
+
+    /**
+     * A filled buffer.
+     * @param bytes the buffer
+     * @param length number of bytes read into it
+     */
+    private record Chunk(byte[] bytes, int length) {
+    }
+}
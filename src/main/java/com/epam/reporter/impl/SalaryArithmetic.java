@@ -0,0 +1,45 @@
+package com.epam.reporter.impl;
+
+import java.math.BigDecimal;
+
+/**
+ * Arithmetic used to check the salaries of the managers.
+ * Both produce exactly the same report lines.
+ */
+public enum SalaryArithmetic {
+
+    /**
+     * Every calculation is done with {@code BigDecimal}.
+     */
+    BIG_DECIMAL {
+        @Override
+        SalaryChecker checker(BigDecimal lowerRangeCoefficient, String lowerRangePercentage,
+                              BigDecimal upperRangeCoefficient, String upperRangePercentage) {
+            return new BigDecimalSalaryChecker(lowerRangeCoefficient, lowerRangePercentage, upperRangeCoefficient, upperRangePercentage);
+        }
+    },
+
+    /**
+     * Calculations are done with exact fixed-point {@code long} arithmetic,
+     * falling back to {@code BigDecimal} only on overflow.
+     */
+    FIXED_POINT {
+        @Override
+        SalaryChecker checker(BigDecimal lowerRangeCoefficient, String lowerRangePercentage,
+                              BigDecimal upperRangeCoefficient, String upperRangePercentage) {
+            return new FixedPointSalaryChecker(lowerRangeCoefficient, lowerRangePercentage, upperRangeCoefficient, upperRangePercentage);
+        }
+    };
+
+    /**
+     * Creates a salary checker using this arithmetic.
+     *
+     * @param lowerRangeCoefficient the lower range of the salary gap.
+     * @param lowerRangePercentage  the lower range in percentage.
+     * @param upperRangeCoefficient the upper range of the salary gap.
+     * @param upperRangePercentage  the upper range in percentage.
+     * @return the salary checker
+     */
+    abstract SalaryChecker checker(BigDecimal lowerRangeCoefficient, String lowerRangePercentage,
+                                   BigDecimal upperRangeCoefficient, String upperRangePercentage);
+}
@@ -0,0 +1,17 @@
+package com.epam.reporter.impl;
+
+import java.util.function.Consumer;
+
+/**
+ * Checks if the salary of a manager is within the configured range
+ * of the average salary of his/her direct subordinates.
+ */
+interface SalaryChecker {
+
+    /**
+     * Checks the salary of the manager, and reports the anomalies found.
+     * @param manager manager to be checked, who has at least one subordinate
+     * @param report receives the report lines about the anomalies
+     */
+    void check(EmployeeEntity manager, Consumer<String> report);
+}
@@ -1,38 +1,44 @@
 package com.epam.reporter.impl;
 
-import com.epam.reporter.api.CsvFile;
 import com.epam.reporter.api.Employee;
 import com.epam.reporter.api.ErrorHandler;
+import com.epam.reporter.api.ParseErrorCode;
+import com.epam.reporter.monitoring.CsvParseChunk;
+import com.epam.reporter.monitoring.ReporterMetrics;
+import com.epam.reporter.monitoring.ReporterMetrics.SkipReason;
 
 import java.io.BufferedReader;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.math.BigDecimal;
 import java.nio.charset.StandardCharsets;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 /**
  * Class provides CSV parsing capability.
+ * Equal names share a single String instance, see {@code NamePool}.
  */
-public final class SimpleCsvFile implements CsvFile {
-    private static final String INVALID_LINE_NOT_ENOUGH_COLUMNS_SKIPPING_IT_LINE_S = "Invalid line, not enough columns, skipping it! Line: %s!";
-    private static final String FILE_CONTAINS_MULTIPLE_RECORDS_FOR_ID_D = "File contains multiple records for id: %d!";
-    private static final String SKIPPING_LINE_BECAUSE_INVALID_NUMBER_S = "Skipping line because invalid number: %s!";
+public final class SimpleCsvFile implements StreamingCsvFile {
     private static final String COLUMN_SEPARATOR = ",";
-    private static final int REQUIRED_COLUMNS = 4;
+    static final int REQUIRED_COLUMNS = 4;
     private static final int ID_COLUMN_INDEX = 0;
     private static final int FIRST_NAME_COLUMN_INDEX = 1;
     private static final int LAST_NAME_COLUMN_INDEX = 2;
     private static final int SALARY_COLUMN_INDEX = 3;
     private static final int MANAGER_COLUMN_INDEX = 4;
     private static final Integer NO_MANAGER = null;
-    private static final String INVALID_HEADER_S = "Invalid header: %s!";
-    private static final int HEADER_COLUMNS = 5;
+    static final String INVALID_HEADER_S = "Invalid header: %s!";
+    static final int HEADER_COLUMNS = 5;
+    private static final ReporterMetrics METRICS = ReporterMetrics.get();
+    private static final int ROWS_PER_CHUNK_EVENT = 1 << 16;
 
     private final InputStream input;
     private final ErrorHandler errorHandler;
+    private final CsvRow row = new CsvRow();
+    private final NamePool names = new NamePool();
 
     /**
      * Constructs a CSV file based on the supplied InputStream with customizable ErrorHandler.
@@ -59,22 +65,41 @@ public final class SimpleCsvFile implements CsvFile {
      * and the order of columns are:
      * Id,firstName,lastName,salary,managerId
      *
-     * @return a map of employee records
+     * @return a map of employee records, iterated in file order
      * @throws IllegalArgumentException if there is a problem with the file
      */
     public Map<Integer, Employee> parse() {
-        Map<Integer, Employee> employeeMap = new HashMap<>();
-        try (BufferedReader br = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+        Map<Integer, Employee> employeeMap = new LinkedHashMap<>();
+        parse(EmployeeCollector.into(employeeMap));
+        return employeeMap;
+    }
+
+    /**
+     * Parses input from the given BufferedReader, passing every employee to the collector.
+     *
+     * @param employees collector of the parsed employees
+     * @throws IllegalArgumentException if there is a problem with the file
+     */
+    @Override
+    public void parse(EmployeeCollector employees) {
+        var countingInput = new CountingInputStream(input);
+        try (BufferedReader br = new BufferedReader(new InputStreamReader(countingInput, StandardCharsets.UTF_8))) {
+            var chunk = new ChunkRecorder(countingInput);
+            chunk.start(2);
             checkHeader(br);
             String line;
+            long lineNumber = 1;
             while ((line = br.readLine()) != null) {
+                lineNumber++;
                 if (line.isEmpty()) continue;
-                parseLine(employeeMap, line);
+                chunk.row(lineNumber, parseLine(employees, line, lineNumber));
             }
+            chunk.commit();
         } catch (IOException e) {
             throw new CsvFileNotFoundException();
+        } finally {
+            METRICS.recordBytes(countingInput.count);
         }
-        return employeeMap;
     }
 
     /**
@@ -91,50 +116,47 @@ public final class SimpleCsvFile implements CsvFile {
 
     /**
      * Parses a single line
-     * @param employeeMap map of employees to store the parsed one
+     * @param employees collector of the parsed employees
      * @param line line read from the input
+     * @param lineNumber number of the line in the input, the header is line 1
+     * @return false if the line has been passed to the error handler
      */
-    private void parseLine(Map<Integer, Employee> employeeMap, String line) {
+    private boolean parseLine(EmployeeCollector employees, String line, long lineNumber) {
+        METRICS.recordRow();
         String[] parts = line.split(COLUMN_SEPARATOR);
         if (parts.length < REQUIRED_COLUMNS) {
-            errorHandler.handle(INVALID_LINE_NOT_ENOUGH_COLUMNS_SKIPPING_IT_LINE_S.formatted(line));
+            METRICS.recordSkipped(SkipReason.NOT_ENOUGH_COLUMNS);
+            errorHandler.handle(new CsvParseError(ParseErrorCode.NOT_ENOUGH_COLUMNS, lineNumber, CsvParseError.UNKNOWN_OFFSET, line));
+            return false;
         } else {
             try {
                 int id = Integer.parseInt(parts[ID_COLUMN_INDEX].trim());
-                var firstName = parts[FIRST_NAME_COLUMN_INDEX].trim();
-                var lastName = parts[LAST_NAME_COLUMN_INDEX].trim();
+                var firstName = names.intern(parts[FIRST_NAME_COLUMN_INDEX].trim());
+                var lastName = names.intern(parts[LAST_NAME_COLUMN_INDEX].trim());
                 var salary = new BigDecimal(parts[SALARY_COLUMN_INDEX].trim());
 
-                var employee = createEmployee(parts, id, firstName, lastName, salary);
-                if (employeeMap.containsKey(id)) {
-                    errorHandler.handle(FILE_CONTAINS_MULTIPLE_RECORDS_FOR_ID_D.formatted(id));
-                    return;
+                row.set(id, firstName, lastName, salary, getManagerId(parts), lineNumber);
+                if (!employees.add(row)) {
+                    METRICS.recordSkipped(SkipReason.DUPLICATE_ID);
+                    errorHandler.handle(new CsvParseError(ParseErrorCode.DUPLICATE_ID, lineNumber, CsvParseError.UNKNOWN_OFFSET, line));
+                    return false;
                 }
-                employeeMap.put(id, employee);
+                return true;
             } catch (NumberFormatException e) {
-                errorHandler.handle(SKIPPING_LINE_BECAUSE_INVALID_NUMBER_S.formatted(line));
+                METRICS.recordSkipped(SkipReason.INVALID_NUMBER);
+                errorHandler.handle(new CsvParseError(ParseErrorCode.INVALID_NUMBER, lineNumber, CsvParseError.UNKNOWN_OFFSET, line));
+                return false;
             }
         }
     }
 
     /**
-     * Creates employee
+     * Returns the manager id
      * @param parts containing the managerId
-     * @param id primary key for the employee
-     * @param firstName first name of the employee
-     * @param lastName last name of the employee
-     * @param salary salary of the employee
-     * @return Employee record created
+     * @return id of the manager, or null if there is none
      */
-    private Employee createEmployee(String[] parts, int id, String firstName, String lastName, BigDecimal salary) {
-        Employee employee;
-        if (hasManagerId(parts)) {
-            int managerId = Integer.parseInt(parts[MANAGER_COLUMN_INDEX].trim());
-            employee = new Employee(id, firstName, lastName, salary, managerId);
-        } else {
-            employee = new Employee(id, firstName, lastName, salary, NO_MANAGER);
-        }
-        return employee;
+    private Integer getManagerId(String[] parts) {
+        return hasManagerId(parts) ? Integer.valueOf(parts[MANAGER_COLUMN_INDEX].trim()) : NO_MANAGER;
     }
 
     /**
@@ -145,4 +167,101 @@ public final class SimpleCsvFile implements CsvFile {
     private boolean hasManagerId(String[] parts) {
         return parts.length > REQUIRED_COLUMNS && !parts[MANAGER_COLUMN_INDEX].trim().isEmpty();
     }
+
+    /**
+     * Records a {@code CsvParseChunk} flight recorder event for every {@value #ROWS_PER_CHUNK_EVENT} rows.
+     * The counters are updated on every row, the event is only filled when it is recorded.
+     * The bytes are the ones read from the input during the chunk, the first chunk includes the header.
+     */
+    private static final class ChunkRecorder {
+        private final CountingInputStream input;
+        private CsvParseChunk event;
+        private long firstLine;
+        private long firstByte;
+        private long rows;
+        private long errors;
+
+        /**
+         * Constructs a recorder.
+         * @param input the input being parsed, counting its bytes
+         */
+        ChunkRecorder(CountingInputStream input) {
+            this.input = input;
+        }
+
+        /**
+         * Starts a new chunk.
+         * @param lineNumber number of the first line of the chunk
+         */
+        void start(long lineNumber) {
+            event = new CsvParseChunk();
+            event.begin();
+            firstLine = lineNumber;
+            firstByte = input.count;
+            rows = 0;
+            errors = 0;
+        }
+
+        /**
+         * Counts a row, and records the chunk if it is full.
+         * @param lineNumber number of the line
+         * @param valid false if the line has been passed to the error handler
+         */
+        void row(long lineNumber, boolean valid) {
+            rows++;
+            if (!valid) {
+                errors++;
+            }
+            if (rows == ROWS_PER_CHUNK_EVENT) {
+                commit();
+                start(lineNumber + 1);
+            }
+        }
+
+        /**
+         * Records the chunk, if it has rows and the event is enabled.
+         */
+        void commit() {
+            if (rows > 0 && event.shouldCommit()) {
+                event.firstLine = firstLine;
+                event.bytes = input.count - firstByte;
+                event.rows = rows;
+                event.errors = errors;
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * Counts the bytes read from the input.
+     */
+    private static final class CountingInputStream extends FilterInputStream {
+        private long count;
+
+        /**
+         * Constructs a counting stream.
+         * @param in the input stream
+         */
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int read = super.read();
+            if (read >= 0) {
+                count++;
+            }
+            return read;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            int read = super.read(bytes, offset, length);
+            if (read > 0) {
+                count += read;
+            }
+            return read;
+        }
+    }
 }
@@ -1,10 +1,13 @@
 package com.epam.reporter.impl;
 
+import com.epam.reporter.api.ReportSink;
 import com.epam.reporter.api.Reporter;
+import com.epam.reporter.monitoring.ManagerCheck;
+import com.epam.reporter.monitoring.ReporterMetrics;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.util.*;
+import java.util.function.IntFunction;
 
 /**
  * Class for creating a simple report about salary discrepancies
@@ -13,24 +16,17 @@ import java.util.*;
  * It requires a map of employees.</p>
  */
 public class SimpleReporter implements Reporter {
+    static final String THE_FOLLOWING_EMPLOYEES_FORM_A_REPORTING_CYCLE = "The following employees are not in the hierarchy, they form a reporting cycle:";
+    static final String THE_FOLLOWING_EMPLOYEES_REPORT_TO_THE_CYCLE = "The following employees are not in the hierarchy, they report to the cycle above:";
     private static final int MAXIMUM_LEVEL = 5;
-    private static final BigDecimal TWENTY_PERCENT = new BigDecimal("1.2");
-    private static final BigDecimal FIFTY_PERCENT = new BigDecimal("1.5");
-    private static final String THE_FOLLOWING_EMPLOYEES_ARE_NOT_IN_THE_HIERARCHY = "The following employees are not in the hierarchy:";
     private static final String EMPLOYEE_S_S_HAS_MORE_THAN_4_MANAGER_BETWEEN_HIM_AND_THE_CEO = "Employee (%s %s) has more than 4 manager between him and the CEO!";
-    private static final String MANAGERS_SALARY_IS_MORE_THAN_50_PERCENT_OF_SUBORDINATES_AVERAGE_SALARY = "Manager %s %s salary (%6.2f) is more than %s%% of subordinates average salary by %6.2f";
-    private static final String MANAGERS_SALARY_IS_LESS_THAN_20_PERCENT_OF_SUBORDINATES_AVERAGE_SALARY = "Manager %s %s salary (%6.2f) is less than %s%% of subordinates average salary by %6.2f";
     private static final String DELIMITER = ", ";
     private static final String SUFFIX = ".";
     private static final String SPACE = " ";
-    private static final int SALARIES_SUMMARIZED_INDEX = 0;
-    private static final int SALARIES_COUNT_INDEX = 1;
-    private final BigDecimal lowerRangeCoefficient;
-    private final String lowerRangePercentage;
-    private final BigDecimal upperRangeCoefficient;
-    private final String upperRangePercentage;
-    private final Map<Integer, EmployeeEntity> employees;
-    private final Set<EmployeeEntity> visitedEmployees = new HashSet<>();
+    private static final ReporterMetrics METRICS = ReporterMetrics.get();
+    private final SalaryChecker salaryChecker;
+    private final Collection<EmployeeEntity> employees;
+    private long checkedManagers;
 
 
     /**
@@ -47,10 +43,35 @@ public class SimpleReporter implements Reporter {
                            BigDecimal upperRangeCoefficient,
                            String upperRangePercentage,
                            Map<Integer, EmployeeEntity> employees) {
-        this.lowerRangeCoefficient = lowerRangeCoefficient;
-        this.lowerRangePercentage = lowerRangePercentage;
-        this.upperRangeCoefficient = upperRangeCoefficient;
-        this.upperRangePercentage = upperRangePercentage;
+        this(lowerRangeCoefficient, lowerRangePercentage, upperRangeCoefficient, upperRangePercentage, employees.values());
+    }
+
+    /**
+     * Constructs a new reporter with variable range coefficients.
+     *
+     * @param lowerRangeCoefficient the lower range of the salary gap.
+     * @param lowerRangePercentage  the lower range in percentage.
+     * @param upperRangeCoefficient the upper range of the salary gap.
+     * @param upperRangePercentage  the upper range in percentage.
+     * @param employees             linked employees
+     */
+    SimpleReporter(BigDecimal lowerRangeCoefficient,
+                   String lowerRangePercentage,
+                   BigDecimal upperRangeCoefficient,
+                   String upperRangePercentage,
+                   Collection<EmployeeEntity> employees) {
+        this(new BigDecimalSalaryChecker(lowerRangeCoefficient, lowerRangePercentage, upperRangeCoefficient, upperRangePercentage),
+                employees);
+    }
+
+    /**
+     * Constructs a new reporter checking salaries with the given checker.
+     *
+     * @param salaryChecker checks the salary of every manager
+     * @param employees     linked employees
+     */
+    SimpleReporter(SalaryChecker salaryChecker, Collection<EmployeeEntity> employees) {
+        this.salaryChecker = salaryChecker;
         this.employees = employees;
     }
 
@@ -68,14 +89,41 @@ public class SimpleReporter implements Reporter {
      */
     @Override
     public List<String> report() {
+        List<String> report = new ArrayList<>();
+        report(ReportSink.into(report));
+        return report;
+    }
+
+    /**
+     * Pushes the same report as {@link #report()} to the sink, every line as soon as it is found.
+     *
+     * @param sink receives the lines of the report
+     * @throws CEONotFoundException                     if no employee without manager
+     * @throws MultipleEmployeesWithoutManagerException if multiple employees without manager
+     */
+    @Override
+    public void report(ReportSink sink) {
         EmployeeEntity ceo = findTheCeo();
         if (ceo.isManager()) {
-            List<String> report = checkManager(ceo);
-            addReportAboutEmployeesNotInHierarchy(report);
-            return report;
-        } else {
-            return Collections.emptyList();
+            checkManager(ceo, sink);
+            addReportAboutEmployeesNotInHierarchy(sink);
+        }
+        recordHierarchy();
+    }
+
+    /**
+     * Records the number of managers and the longest reporting line found by the report in the metrics.
+     */
+    private void recordHierarchy() {
+        long managers = 0;
+        int maxDepth = 0;
+        for (EmployeeEntity employee : employees) {
+            if (employee.isManager()) {
+                managers++;
+            }
+            maxDepth = Math.max(maxDepth, employee.getKnownLevel());
         }
+        METRICS.recordHierarchy(employees.size(), managers, maxDepth);
     }
 
     /**
@@ -86,7 +134,7 @@ public class SimpleReporter implements Reporter {
      * @throws MultipleEmployeesWithoutManagerException if multiple employees without manager
      */
     private EmployeeEntity findTheCeo() {
-        List<EmployeeEntity> withoutManager = employees.values()
+        List<EmployeeEntity> withoutManager = employees
                 .stream()
                 .filter(employee -> employee.getManager() == null)
                 .toList();
@@ -100,20 +148,54 @@ public class SimpleReporter implements Reporter {
     }
 
     /**
-     * Adds a line about Employees not in the hierarchy.
+     * Adds a line about every reporting cycle, which is not in the hierarchy,
+     * followed by a line about the employees whose reporting line leads into the cycle, if any.
+     * The names are appended one by one, so the lines are not built in memory.
      *
-     * @param report the report.
+     * @param sink receives the report lines.
      */
-    private void addReportAboutEmployeesNotInHierarchy(List<String> report) {
-        List<EmployeeEntity> notVisitedEmployees = getNotVisitedEmployees();
+    private void addReportAboutEmployeesNotInHierarchy(ReportSink sink) {
+        for (CycleDetector.Cycle cycle : new CycleDetector(employees).findCycles()) {
+            addEmployeesLine(THE_FOLLOWING_EMPLOYEES_FORM_A_REPORTING_CYCLE, cycle.members(), sink);
+            if (!cycle.subordinates().isEmpty()) {
+                addEmployeesLine(THE_FOLLOWING_EMPLOYEES_REPORT_TO_THE_CYCLE, cycle.subordinates(), sink);
+            }
+        }
+    }
 
-        if (!notVisitedEmployees.isEmpty()) {
-            StringJoiner joiner = new StringJoiner(DELIMITER, THE_FOLLOWING_EMPLOYEES_ARE_NOT_IN_THE_HIERARCHY, SUFFIX);
-            for (EmployeeEntity employee : notVisitedEmployees) {
-                joiner.add(employee.getFirstName() + SPACE + employee.getLastName());
+    /**
+     * Adds a line listing the names of the employees.
+     *
+     * @param prefix    beginning of the line
+     * @param employees employees to be listed
+     * @param sink      receives the report line
+     */
+    private static void addEmployeesLine(String prefix, List<EmployeeEntity> employees, ReportSink sink) {
+        addEmployeesLine(prefix, employees.size(), i -> employees.get(i).getFirstName(), i -> employees.get(i).getLastName(), sink);
+    }
+
+    /**
+     * Adds a line listing the names of the employees, shared with {@code OffHeapReporter}.
+     *
+     * @param prefix    beginning of the line
+     * @param count     number of employees to be listed
+     * @param firstName first name of the employee at a position
+     * @param lastName  last name of the employee at a position
+     * @param sink      receives the report line
+     */
+    static void addEmployeesLine(String prefix, int count, IntFunction<String> firstName, IntFunction<String> lastName,
+                                 ReportSink sink) {
+        sink.append(prefix);
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                sink.append(DELIMITER);
             }
-            report.add(joiner.toString());
+            sink.append(firstName.apply(i));
+            sink.append(SPACE);
+            sink.append(lastName.apply(i));
         }
+        sink.append(SUFFIX);
+        sink.endLine();
     }
 
     /**
@@ -125,94 +207,122 @@ public class SimpleReporter implements Reporter {
      * than 4 managers between the CEO and the given employee.
      * If yes, adds a line about it to the report.
      * </p>
+     * <p>
+     * The hierarchy is traversed depth-first with an explicit stack, so deep reporting lines cannot overflow
+     * the call stack. The level of every subordinate is assigned once, from the level of its manager.
+     * Every manager is reported before its subordinates, and the long reporting line of an employee
+     * after the lines of his/her subordinates.</p>
      *
      * @param manager manager to be checked
-     * @return lines about issues found.
+     * @param report  receives the lines about issues found.
      */
-    private List<String> checkManager(EmployeeEntity manager) {
-        List<String> report = new ArrayList<>();
-        BigDecimal subordinatesAverageSalary = calculateSubordinatesAverageSalaryWithHighPrecision(manager);
-
-        if (manager.getSalary().compareTo(subordinatesAverageSalary.multiply(lowerRangeCoefficient)) < 0) {
-            report.add(getLowSalaryReport(manager, subordinatesAverageSalary));
-        }
-        if (manager.getSalary().compareTo(subordinatesAverageSalary.multiply(upperRangeCoefficient)) > 0) {
-            report.add(getHighSalaryReport(manager, subordinatesAverageSalary));
-        }
-        visitedEmployees.add(manager);
-        for (EmployeeEntity employee : manager.getSubordinates()) {
-            visitedEmployees.add(employee);
-            if (employee.isManager()) {
-                report.addAll(checkManager(employee));
-            }
-            if (employee.getLevel() > MAXIMUM_LEVEL) {
-                report.add(getLongReportingLine(employee));
+    void checkManager(EmployeeEntity manager, ReportSink report) {
+        Deque<ManagerFrame> managers = new ArrayDeque<>();
+        visitManager(manager, managers, report);
+        while (!managers.isEmpty()) {
+            ManagerFrame frame = managers.peek();
+            if (frame.subordinates().hasNext()) {
+                EmployeeEntity employee = frame.subordinates().next();
+                employee.setLevel(frame.manager().getLevel() + 1);
+                if (employee.isManager()) {
+                    visitManager(employee, managers, report);
+                } else {
+                    addLongReportingLine(employee, report);
+                }
+            } else {
+                managers.pop();
+                if (!managers.isEmpty()) {
+                    addLongReportingLine(frame.manager(), report);
+                }
             }
         }
-        return report;
     }
 
     /**
-     * Calculates the average salary of the subordinates of the given manager with high precision.
+     * Checks the salary of the manager, and pushes his/her subordinates onto the stack.
      *
-     * @param manager whose subordinates average salary should be calculated.
-     * @return average salary of the subordinates
+     * @param manager  manager to be checked
+     * @param managers stack of managers whose subordinates are being checked
+     * @param report   receives the report lines
      */
-    private static BigDecimal calculateSubordinatesAverageSalaryWithHighPrecision(EmployeeEntity manager) {
-        BigDecimal[] totalWithCount = manager.getSubordinates()
-                .stream()
-                .map(EmployeeEntity::getSalary)
-                .map(bd -> new BigDecimal[]{bd, BigDecimal.ONE})
-                .reduce((a, b) -> new BigDecimal[]{a[0].add(b[0]), a[1].add(BigDecimal.ONE)})
-                .orElseThrow();
-        return totalWithCount[SALARIES_SUMMARIZED_INDEX].divide(totalWithCount[SALARIES_COUNT_INDEX], RoundingMode.HALF_UP);
+    private void visitManager(EmployeeEntity manager, Deque<ManagerFrame> managers, ReportSink report) {
+        checkSalary(manager, checkedManagers++, report);
+        managers.push(new ManagerFrame(manager, manager.getSubordinates().iterator()));
+    }
+
+    /**
+     * Checks the salary of the manager. Every {@code ManagerCheck.SAMPLE_INTERVAL}th check is recorded
+     * as a flight recorder event.
+     *
+     * @param manager  manager to be checked
+     * @param sequence number of the check, counted by the caller
+     * @param report   receives the report lines
+     */
+    void checkSalary(EmployeeEntity manager, long sequence, ReportSink report) {
+        if (ManagerCheck.isSampled(sequence)) {
+            checkSampled(manager, report);
+        } else {
+            salaryChecker.check(manager, report::line);
+        }
     }
 
     /**
-     * Returns employees not in the hierarchy.
+     * Checks the salary of the manager, recording a {@code ManagerCheck} flight recorder event if it is enabled.
      *
-     * @return list of employees who cannot be reached from the CEO.
+     * @param manager manager to be checked
+     * @param report  receives the report lines
      */
-    private List<EmployeeEntity> getNotVisitedEmployees() {
-        List<EmployeeEntity> notVisitedEmployees = new ArrayList<>(employees.values());
-        notVisitedEmployees.removeAll(visitedEmployees);
-        return notVisitedEmployees;
+    private void checkSampled(EmployeeEntity manager, ReportSink report) {
+        var event = new ManagerCheck();
+        event.begin();
+        salaryChecker.check(manager, report::line);
+        if (event.shouldCommit()) {
+            event.managerId = manager.getId();
+            event.subordinates = manager.getSubordinates().size();
+            event.level = manager.getLevel();
+            event.commit();
+        }
     }
 
     /**
-     * Creates a report about long reporting lines.
+     * Adds a line about the employee to the report, if his/her reporting line is too long.
      *
-     * @param employee who has more than 4 manager.
-     * @return a report
+     * @param employee employee to be checked
+     * @param report   receives the report line
      */
-    private static String getLongReportingLine(EmployeeEntity employee) {
-        return EMPLOYEE_S_S_HAS_MORE_THAN_4_MANAGER_BETWEEN_HIM_AND_THE_CEO.formatted(
-                employee.getFirstName(), employee.getLastName());
+    static void addLongReportingLine(EmployeeEntity employee, ReportSink report) {
+        if (isReportingLineTooLong(employee.getLevel())) {
+            report.line(getLongReportingLine(employee.getFirstName(), employee.getLastName()));
+        }
     }
 
     /**
-     * Creates a report about a high salary, that is the manager earns more than 50% of his/her subordinates.
+     * Returns true if there are more than 4 managers between the CEO and an employee of the level.
      *
-     * @param manager                   whose salary should be checked
-     * @param subordinatesAverageSalary the average salary of the manager subordinates
-     * @return the report line about the anomaly
+     * @param level hierarchy level of the employee, 0 for the CEO
+     * @return true if the reporting line is too long
+     */
+    static boolean isReportingLineTooLong(int level) {
+        return level > MAXIMUM_LEVEL;
+    }
+
+    /**
+     * Creates a report about long reporting lines.
+     *
+     * @param firstName first name of the employee who has more than 4 manager
+     * @param lastName  last name of the employee
+     * @return a report
      */
-    private String getHighSalaryReport(EmployeeEntity manager, BigDecimal subordinatesAverageSalary) {
-        return MANAGERS_SALARY_IS_MORE_THAN_50_PERCENT_OF_SUBORDINATES_AVERAGE_SALARY.formatted(
-                manager.getFirstName(), manager.getLastName(), manager.getSalary(), upperRangePercentage,
-                manager.getSalary().subtract(subordinatesAverageSalary.multiply(FIFTY_PERCENT)));
+    static String getLongReportingLine(String firstName, String lastName) {
+        return EMPLOYEE_S_S_HAS_MORE_THAN_4_MANAGER_BETWEEN_HIM_AND_THE_CEO.formatted(firstName, lastName);
     }
 
     /**
-     * Creates a report about low salary, that is the manager earns less than 20% of his/her subordinates.
+     * A manager on the traversal stack, with his/her subordinates not checked yet.
      *
-     * @param manager                   whose salary should be checked
-     * @param subordinatesAverageSalary the average salary of the manager subordinates
-     * @return the report line about the anomaly
+     * @param manager      the manager
+     * @param subordinates remaining subordinates of the manager
      */
-    private String getLowSalaryReport(EmployeeEntity manager, BigDecimal subordinatesAverageSalary) {
-        return MANAGERS_SALARY_IS_LESS_THAN_20_PERCENT_OF_SUBORDINATES_AVERAGE_SALARY.formatted(
-                manager.getFirstName(), manager.getLastName(), manager.getSalary(), lowerRangePercentage,
-                subordinatesAverageSalary.multiply(TWENTY_PERCENT).subtract(manager.getSalary()));
+    private record ManagerFrame(EmployeeEntity manager, Iterator<EmployeeEntity> subordinates) {
     }
 }
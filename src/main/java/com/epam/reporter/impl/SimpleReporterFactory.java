@@ -1,9 +1,17 @@
 package com.epam.reporter.impl;
 
+import com.epam.reporter.api.CsvFile;
 import com.epam.reporter.api.Employee;
+import com.epam.reporter.api.EmployeeTable;
+import com.epam.reporter.api.HierarchyIndex;
 import com.epam.reporter.api.ReporterFactory;
+import com.epam.reporter.monitoring.HierarchyBuild;
+import com.epam.reporter.monitoring.ReporterMetrics;
+import com.epam.reporter.monitoring.ReporterMetrics.Phase;
 
 import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
@@ -11,6 +19,10 @@ import java.util.stream.Collectors;
 
 /**
  * Creates a {@code SimpleReporter} with configurable lower range coefficient and upper range coefficient.
+ * Salaries are checked with the {@code SalaryArithmetic} given to the factory.
+ * If the factory is created with a parallelism greater than 1, it creates a {@code ParallelReporter}.
+ * It also creates an {@code IncrementalEngine} for applying changes of the organisation,
+ * and a {@code SubtreeIndex} for querying the hierarchy.
  * Also converts {@code Employee} records to {@code EmployeeEntity} which is linked to his/her managers and subordinates.
  */
 public class SimpleReporterFactory implements ReporterFactory {
@@ -18,11 +30,56 @@ public class SimpleReporterFactory implements ReporterFactory {
     private static final String LOWER_RANGE_CANNOT_BE_LESS_THAN_0 = "Lower range cannot be less than 0!";
     private static final String UPPER_RANGE_CANNOT_BE_LESS_THAN_0 = "Upper range cannot be less than 0!";
     private static final String COEFFICIENT_CANNOT_BE_NULL = "Coefficient cannot be null!";
-    private static final BigDecimal TWENTY_PERCENT = new BigDecimal("1.2");
-    private static final BigDecimal FIFTY_PERCENT = new BigDecimal("1.5");
+    /**
+     * Default lower range coefficient: a manager should earn at least 20% more than the average of the subordinates.
+     */
+    public static final BigDecimal TWENTY_PERCENT = new BigDecimal("1.2");
+    /**
+     * Default upper range coefficient: a manager should earn at most 50% more than the average of the subordinates.
+     */
+    public static final BigDecimal FIFTY_PERCENT = new BigDecimal("1.5");
     private static final BigDecimal HUNDRED = new BigDecimal(100);
     private static final String EMPLOYEES_CANNOT_BE_NULL = "Employees cannot be null!";
+    private static final String CSV_FILE_CANNOT_BE_NULL = "CSV file cannot be null!";
     private static final int DEFAULT_MANAGER_ID_FOR_CEO = 0;
+    private static final String SALARY_ARITHMETIC_CANNOT_BE_NULL = "Salary arithmetic cannot be null!";
+    private static final String PARALLELISM_SHOULD_BE_AT_LEAST_1 = "Parallelism should be at least 1!";
+    private static final int SEQUENTIAL = 1;
+    private static final ReporterMetrics METRICS = ReporterMetrics.get();
+    private final SalaryArithmetic salaryArithmetic;
+    private final int parallelism;
+
+    /**
+     * Constructs a factory creating reporters which check salaries with {@code BigDecimal} arithmetic.
+     */
+    public SimpleReporterFactory() {
+        this(SalaryArithmetic.BIG_DECIMAL);
+    }
+
+    /**
+     * Constructs a factory creating reporters which check salaries with the given arithmetic.
+     * @param salaryArithmetic arithmetic used to check the salaries
+     */
+    public SimpleReporterFactory(SalaryArithmetic salaryArithmetic) {
+        this(salaryArithmetic, SEQUENTIAL);
+    }
+
+    /**
+     * Constructs a factory creating reporters which check salaries with the given arithmetic,
+     * and check large subtrees of the hierarchy in parallel if parallelism is greater than 1.
+     * @param salaryArithmetic arithmetic used to check the salaries
+     * @param parallelism number of threads checking the hierarchy, 1 creates a sequential {@code SimpleReporter}
+     */
+    public SimpleReporterFactory(SalaryArithmetic salaryArithmetic, int parallelism) {
+        if (salaryArithmetic == null) {
+            throw new IllegalArgumentException(SALARY_ARITHMETIC_CANNOT_BE_NULL);
+        }
+        if (parallelism < SEQUENTIAL) {
+            throw new IllegalArgumentException(PARALLELISM_SHOULD_BE_AT_LEAST_1);
+        }
+        this.salaryArithmetic = salaryArithmetic;
+        this.parallelism = parallelism;
+    }
 
     /**
      * Factory method for creating a {@code SimpleReporter} with default values.
@@ -36,6 +93,8 @@ public class SimpleReporterFactory implements ReporterFactory {
 
     /**
      * Creates a new instance of {@code SimpleReporter} using the provided range coefficients and employees map.
+     * Subordinates are linked in the iteration order of the map, which is file order for the maps of the parsers,
+     * so the report is the same as the one created from the CSV file.
      *
      * @param lowerRangeCoefficient the lower range coefficient used for calculations; must not be null
      * @param upperRangeCoefficient the upper range coefficient used for calculations; must not be null
@@ -49,10 +108,178 @@ public class SimpleReporterFactory implements ReporterFactory {
 
         validateRanges(lowerRangeCoefficient, upperRangeCoefficient);
         validateEmployeesMap(employeeRecords);
-        String lowerRangePercentage = toPercentage(lowerRangeCoefficient);
-        String upperRangePercentage = toPercentage(upperRangeCoefficient);
+        var event = new HierarchyBuild();
+        event.begin();
+        long start = System.nanoTime();
         Map<Integer, EmployeeEntity> employees = convert(employeeRecords);
-        return new SimpleReporter(lowerRangeCoefficient, lowerRangePercentage, upperRangeCoefficient, upperRangePercentage, employees);
+        METRICS.recordPhase(Phase.BUILD, System.nanoTime() - start);
+        commit(event, employees.size(), false);
+        return newReporter(lowerRangeCoefficient, upperRangeCoefficient, employees.values());
+    }
+
+    /**
+     * Factory method for creating a {@code SimpleReporter} with default values from a CSV file.
+     * @param csvFile CSV file to be parsed.
+     * @return the created reporter
+     */
+    @Override
+    public SimpleReporter create(CsvFile csvFile) {
+        return create(TWENTY_PERCENT, FIFTY_PERCENT, csvFile);
+    }
+
+    /**
+     * Creates a new instance of {@code SimpleReporter} using the provided range coefficients and CSV file.
+     * <p>
+     * If the CSV file can stream its employees, the linked {@code EmployeeEntity} graph is built in a single pass
+     * while parsing, without the intermediate map of records. Otherwise, the file is parsed into a map which is
+     * converted as in {@link #create(BigDecimal, BigDecimal, Map)}. Subordinates are linked in file order either way.</p>
+     *
+     * @param lowerRangeCoefficient the lower range coefficient used for calculations; must not be null
+     * @param upperRangeCoefficient the upper range coefficient used for calculations; must not be null
+     * @param csvFile the CSV file containing the employees; must not be null
+     * @return a new instance of {@code SimpleReporter}
+     * @throws InvalidRangesException if any of the coefficients are null or invalid
+     * @throws IllegalArgumentException if the CSV file is null or cannot be parsed
+     */
+    public SimpleReporter create(BigDecimal lowerRangeCoefficient,
+                                 BigDecimal upperRangeCoefficient,
+                                 CsvFile csvFile) {
+        validateRanges(lowerRangeCoefficient, upperRangeCoefficient);
+        if (csvFile == null) {
+            throw new IllegalArgumentException(CSV_FILE_CANNOT_BE_NULL);
+        }
+        long start = System.nanoTime();
+        if (!(csvFile instanceof StreamingCsvFile streamingCsvFile)) {
+            Map<Integer, Employee> employeeRecords = csvFile.parse();
+            METRICS.recordPhase(Phase.PARSE, System.nanoTime() - start);
+            return create(lowerRangeCoefficient, upperRangeCoefficient, employeeRecords);
+        }
+        var event = new HierarchyBuild();
+        event.begin();
+        var builder = new EmployeeGraphBuilder();
+        streamingCsvFile.parse(builder);
+        long parsed = System.nanoTime();
+        METRICS.recordPhase(Phase.PARSE, parsed - start);
+        var employees = builder.build().values();
+        METRICS.recordPhase(Phase.BUILD, System.nanoTime() - parsed);
+        commit(event, employees.size(), true);
+        return newReporter(lowerRangeCoefficient, upperRangeCoefficient, employees);
+    }
+
+    /**
+     * Factory method for creating a {@code SimpleReporter} with default values from a table of employees.
+     * @param employees table of employees.
+     * @return the created reporter
+     */
+    @Override
+    public SimpleReporter create(EmployeeTable employees) {
+        return create(TWENTY_PERCENT, FIFTY_PERCENT, employees);
+    }
+
+    /**
+     * Creates a new instance of {@code SimpleReporter} using the provided range coefficients and table of employees.
+     * Entities are linked through the manager indexes of the table, subordinates are linked in table order.
+     *
+     * @param lowerRangeCoefficient the lower range coefficient used for calculations; must not be null
+     * @param upperRangeCoefficient the upper range coefficient used for calculations; must not be null
+     * @param employeeTable the table of employees; must not be null
+     * @return a new instance of {@code SimpleReporter}
+     * @throws InvalidRangesException if any of the coefficients are null or invalid
+     * @throws IllegalArgumentException if the table is null
+     */
+    public SimpleReporter create(BigDecimal lowerRangeCoefficient,
+                                 BigDecimal upperRangeCoefficient,
+                                 EmployeeTable employeeTable) {
+        validateRanges(lowerRangeCoefficient, upperRangeCoefficient);
+        if (employeeTable == null) {
+            throw new IllegalArgumentException(EMPLOYEES_CANNOT_BE_NULL);
+        }
+        var event = new HierarchyBuild();
+        event.begin();
+        long start = System.nanoTime();
+        List<EmployeeEntity> employees = convert(employeeTable);
+        METRICS.recordPhase(Phase.BUILD, System.nanoTime() - start);
+        commit(event, employees.size(), false);
+        return newReporter(lowerRangeCoefficient, upperRangeCoefficient, employees);
+    }
+
+    /**
+     * Creates an {@code IncrementalEngine} with default values, which keeps the violations up to date
+     * while changes of the organisation are applied.
+     * @param employees map of employees.
+     * @return the created engine
+     */
+    public IncrementalEngine createIncrementalEngine(Map<Integer, Employee> employees) {
+        return createIncrementalEngine(TWENTY_PERCENT, FIFTY_PERCENT, employees);
+    }
+
+    /**
+     * Creates an {@code IncrementalEngine} using the provided range coefficients and employees map.
+     * Salaries are always checked with {@code BigDecimal} arithmetic, from the running sums of the subordinates' salaries.
+     *
+     * @param lowerRangeCoefficient the lower range coefficient used for calculations; must not be null
+     * @param upperRangeCoefficient the upper range coefficient used for calculations; must not be null
+     * @param employeeRecords a map of employees records; must not be null
+     * @return a new instance of {@code IncrementalEngine}
+     * @throws InvalidRangesException if any of the coefficients are null or invalid
+     */
+    public IncrementalEngine createIncrementalEngine(BigDecimal lowerRangeCoefficient,
+                                                     BigDecimal upperRangeCoefficient,
+                                                     Map<Integer, Employee> employeeRecords) {
+        validateRanges(lowerRangeCoefficient, upperRangeCoefficient);
+        validateEmployeesMap(employeeRecords);
+        var salaryChecker = new BigDecimalSalaryChecker(lowerRangeCoefficient, toPercentage(lowerRangeCoefficient),
+                upperRangeCoefficient, toPercentage(upperRangeCoefficient));
+        return new IncrementalEngine(salaryChecker, convert(employeeRecords).values());
+    }
+
+    /**
+     * Creates a {@code HierarchyIndex} over the hierarchy of the employees, a {@code SubtreeIndex} answering
+     * headcount, salary cost and reporting line queries in constant time.
+     * @param employeeRecords a map of employees records; must not be null
+     * @return the index
+     * @throws IllegalArgumentException if the map is null
+     * @throws CEONotFoundException                     if no employee without manager
+     * @throws MultipleEmployeesWithoutManagerException if multiple employees without manager
+     */
+    public HierarchyIndex createSubtreeIndex(Map<Integer, Employee> employeeRecords) {
+        validateEmployeesMap(employeeRecords);
+        return new SubtreeIndex(convert(employeeRecords).values());
+    }
+
+    /**
+     * Creates a {@code HierarchyIndex} over the hierarchy of the employees parsed from the CSV file.
+     * Streaming CSV files are linked while parsing, as in {@link #create(BigDecimal, BigDecimal, CsvFile)}.
+     * @param csvFile the CSV file containing the employees; must not be null
+     * @return the index
+     * @throws IllegalArgumentException if the CSV file is null or cannot be parsed
+     * @throws CEONotFoundException                     if no employee without manager
+     * @throws MultipleEmployeesWithoutManagerException if multiple employees without manager
+     */
+    public HierarchyIndex createSubtreeIndex(CsvFile csvFile) {
+        if (csvFile == null) {
+            throw new IllegalArgumentException(CSV_FILE_CANNOT_BE_NULL);
+        }
+        if (!(csvFile instanceof StreamingCsvFile streamingCsvFile)) {
+            return createSubtreeIndex(csvFile.parse());
+        }
+        var builder = new EmployeeGraphBuilder();
+        streamingCsvFile.parse(builder);
+        return new SubtreeIndex(builder.build().values());
+    }
+
+    /**
+     * Records the flight recorder event of building the graph, if it is enabled.
+     * @param event the event started before the build
+     * @param employees number of employees in the graph
+     * @param whileParsing true if the graph was built while parsing
+     */
+    static void commit(HierarchyBuild event, int employees, boolean whileParsing) {
+        if (event.shouldCommit()) {
+            event.employees = employees;
+            event.whileParsing = whileParsing;
+            event.commit();
+        }
     }
 
     /**
@@ -72,7 +299,7 @@ public class SimpleReporterFactory implements ReporterFactory {
      * @param upperRangeCoefficient upper range coefficient
      * @throws InvalidRangesException if the lower range is greater than the upper range
      */
-    private static void validateRanges(BigDecimal lowerRangeCoefficient, BigDecimal upperRangeCoefficient) {
+    static void validateRanges(BigDecimal lowerRangeCoefficient, BigDecimal upperRangeCoefficient) {
         if (lowerRangeCoefficient == null || upperRangeCoefficient == null) {
             throw new InvalidRangesException(COEFFICIENT_CANNOT_BE_NULL);
         }
@@ -88,19 +315,47 @@ public class SimpleReporterFactory implements ReporterFactory {
 
     }
 
+    /**
+     * Creates a sequential or parallel reporter, depending on the configured parallelism.
+     * @param lowerRangeCoefficient lower range coefficient
+     * @param upperRangeCoefficient upper range coefficient
+     * @param employees linked employees
+     * @return the reporter
+     */
+    private SimpleReporter newReporter(BigDecimal lowerRangeCoefficient,
+                                       BigDecimal upperRangeCoefficient,
+                                       Collection<EmployeeEntity> employees) {
+        var salaryChecker = salaryChecker(lowerRangeCoefficient, upperRangeCoefficient);
+        return parallelism == SEQUENTIAL
+                ? new SimpleReporter(salaryChecker, employees)
+                : new ParallelReporter(salaryChecker, employees, parallelism);
+    }
+
+    /**
+     * Creates the salary checker with the configured arithmetic.
+     * @param lowerRangeCoefficient lower range coefficient
+     * @param upperRangeCoefficient upper range coefficient
+     * @return the salary checker
+     */
+    private SalaryChecker salaryChecker(BigDecimal lowerRangeCoefficient, BigDecimal upperRangeCoefficient) {
+        return salaryArithmetic.checker(lowerRangeCoefficient, toPercentage(lowerRangeCoefficient),
+                upperRangeCoefficient, toPercentage(upperRangeCoefficient));
+    }
+
     /**
      * Converts number (1.2) to percentage (20%).
      *
      * @param coefficient number to be converted.
      * @return percentage.
      */
-    private static String toPercentage(BigDecimal coefficient) {
+    static String toPercentage(BigDecimal coefficient) {
         return coefficient.multiply(HUNDRED).subtract(HUNDRED).toPlainString();
     }
 
 
     /**
      * Converts a map of employee records to employee entities.
+     * Subordinates are linked in the iteration order of the map.
      * @param employeeRecords map of employees
      * @return map of employees, with references to their manager and subordinates.
      */
@@ -128,6 +383,27 @@ public class SimpleReporterFactory implements ReporterFactory {
         return employees;
     }
 
+    /**
+     * Converts a table of employees to employee entities.
+     * @param employeeTable table of employees
+     * @return list of employees in table order, with references to their manager and subordinates.
+     */
+    private static List<EmployeeEntity> convert(EmployeeTable employeeTable) {
+        var employees = new EmployeeEntity[employeeTable.size()];
+        var names = new NamePool();
+        for (int index = 0; index < employees.length; index++) {
+            employees[index] = new EmployeeEntity(employeeTable.id(index), names.intern(employeeTable.firstName(index)),
+                    names.intern(employeeTable.lastName(index)), employeeTable.salary(index));
+        }
+        for (int index = 0; index < employees.length; index++) {
+            int managerIndex = employeeTable.managerIndex(index);
+            if (managerIndex != EmployeeTable.NO_INDEX) {
+                employees[managerIndex].addSubordinate(employees[index]);
+            }
+        }
+        return Arrays.asList(employees);
+    }
+
     /**
      * Returns the manager id to be used for this {@code Map.Entry}.
      * @param entry employee
@@ -143,10 +419,11 @@ public class SimpleReporterFactory implements ReporterFactory {
      * @return map of employee entities
      */
     private static Map<Integer, EmployeeEntity> getEmployeeEntities(Map<Integer, Employee> employeeRecords) {
+        var names = new NamePool();
         return employeeRecords
                 .values()
                 .stream()
-                .map(EmployeeEntity::create)
+                .map(employee -> EmployeeEntity.create(employee, names))
                 .collect(Collectors.toMap(EmployeeEntity::getId, Function.identity()));
     }
 
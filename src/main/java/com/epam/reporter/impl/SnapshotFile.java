@@ -0,0 +1,492 @@
+package com.epam.reporter.impl;
+
+import com.epam.reporter.api.CsvFile;
+import com.epam.reporter.api.Employee;
+import com.epam.reporter.api.EmployeeColumns;
+import com.epam.reporter.api.EmployeeTable;
+import com.epam.reporter.monitoring.ReporterMetrics;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32C;
+
+/**
+ * Versioned binary snapshot of the employees parsed from a CSV file, which can be loaded much faster than the CSV file.
+ * <p>
+ * The snapshot is little-endian. The header contains a magic number, the format version, the size and modification
+ * time of the source CSV file, the number of employees and the sizes of the variable length sections.
+ * It is followed by fixed-width columns: ids, manager ids, unscaled salaries, salary scales and flags,
+ * then the offsets of the names into the UTF-8 string table, the string table itself, and finally the salaries
+ * which do not fit into an unscaled {@code long}. A CRC32C checksum covers the whole file.</p>
+ * <p>
+ * The snapshot is loaded with a single mapped read, and the employees are passed to the collector in the same order
+ * as they were in the CSV file, so the linked graph and the report are the same as with a streaming CSV parser.</p>
+ */
+public final class SnapshotFile implements StreamingCsvFile {
+    static final int MAGIC = 0x53545052;
+    static final int VERSION = 1;
+    private static final String SNAPSHOT_SUFFIX = ".snapshot";
+    private static final String TEMPORARY_FORMAT = "%s.%d-%d.tmp";
+    private static final int CHECKSUM_POSITION = 36;
+    private static final int HEADER_SIZE = 40;
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final byte HAS_MANAGER = 1;
+    private static final String SNAPSHOT_IS_CORRUPTED = "Snapshot is corrupted: %s!";
+    private static final String SNAPSHOT_IS_TOO_LARGE = "Snapshot is too large: %d bytes!";
+    private static final String SNAPSHOT_IS_TRUNCATED = "Snapshot header cannot be read back!";
+    private static final ReporterMetrics METRICS = ReporterMetrics.get();
+    private static final AtomicLong TEMPORARY_FILES = new AtomicLong();
+
+    private final Path file;
+
+    /**
+     * Constructs a snapshot file based on the supplied path.
+     * @param file path of the snapshot
+     */
+    public SnapshotFile(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Returns the path of the snapshot of the CSV file, next to it.
+     * @param csvFile path of the CSV file
+     * @return path of the snapshot
+     */
+    public static Path snapshotOf(Path csvFile) {
+        return csvFile.resolveSibling(csvFile.getFileName() + SNAPSHOT_SUFFIX);
+    }
+
+    /**
+     * Returns true if the snapshot exists, has the current version, and was created from the CSV file
+     * with its current size and modification time.
+     * @param snapshot path of the snapshot
+     * @param source path of the CSV file
+     * @return true if the snapshot can be used instead of the CSV file
+     */
+    public static boolean isUpToDate(Path snapshot, Path source) {
+        try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // reads the whole header
+            }
+            BasicFileAttributes attributes = Files.readAttributes(source, BasicFileAttributes.class);
+            return !header.hasRemaining()
+                    && header.getInt(0) == MAGIC
+                    && header.getInt(4) == VERSION
+                    && header.getLong(8) == attributes.size()
+                    && header.getLong(16) == attributes.lastModifiedTime().toMillis();
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Returns true if the snapshot can be loaded: it has the current version, and its checksum matches its content.
+     * The header alone is checked by {@link #isUpToDate(Path, Path)}, so a snapshot which was damaged after
+     * it had been written should be recreated if this check fails.
+     * @param snapshot path of the snapshot
+     * @return true if the snapshot is not corrupted
+     */
+    public static boolean isIntact(Path snapshot) {
+        try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (fileSize > Integer.MAX_VALUE) {
+                return false;
+            }
+            verify(channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize).order(ByteOrder.LITTLE_ENDIAN));
+            return true;
+        } catch (IOException | CsvParsingException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Parses the CSV file, and writes its employees into the snapshot.
+     * The size and modification time of the source are read before it is parsed,
+     * so a snapshot is never considered up-to-date with a source which has changed while it was being parsed.
+     * The snapshot is written to a temporary file of its own first, and moved into place when it is complete,
+     * so runs creating the snapshot of the same CSV file at the same time do not write into each other's file.
+     * @param csvFile the parser of the source
+     * @param source path of the CSV file
+     * @param snapshot path of the snapshot
+     * @throws IOException if the source attributes cannot be read or the snapshot cannot be written
+     * @throws IllegalArgumentException if there is a problem with the CSV file
+     */
+    public static void create(CsvFile csvFile, Path source, Path snapshot) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(source, BasicFileAttributes.class);
+        EmployeeTable employees = csvFile.parseTable();
+        Path temporary = snapshot.resolveSibling(TEMPORARY_FORMAT.formatted(snapshot.getFileName(),
+                ProcessHandle.current().pid(), TEMPORARY_FILES.incrementAndGet()));
+        try {
+            write(employees, temporary, attributes.size(), attributes.lastModifiedTime().toMillis());
+            Files.move(temporary, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * Writes the employees of the table into the snapshot, in table order.
+     * @param employees table of employees
+     * @param snapshot path of the snapshot
+     * @param sourceSize size of the source CSV file
+     * @param sourceModified modification time of the source CSV file in milliseconds
+     * @throws IOException if the snapshot cannot be written
+     */
+    static void write(EmployeeTable employees, Path snapshot, long sourceSize, long sourceModified) throws IOException {
+        int size = employees.size();
+        byte[][] names = new byte[2 * size][];
+        long namesLength = 0;
+        List<Integer> largeSalaries = new ArrayList<>();
+        for (int index = 0; index < size; index++) {
+            names[2 * index] = employees.firstName(index).getBytes(StandardCharsets.UTF_8);
+            names[2 * index + 1] = employees.lastName(index).getBytes(StandardCharsets.UTF_8);
+            namesLength += names[2 * index].length + names[2 * index + 1].length;
+            if (EmployeeColumns.compactScale(employees.salary(index)) == EmployeeColumns.NOT_COMPACT) {
+                largeSalaries.add(index);
+            }
+        }
+        if (namesLength > Integer.MAX_VALUE) {
+            throw new IllegalStateException(SNAPSHOT_IS_TOO_LARGE.formatted(namesLength));
+        }
+        try (var out = new ChecksumWriter(FileChannel.open(snapshot, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE))) {
+            out.putInt(MAGIC).putInt(VERSION).putLong(sourceSize).putLong(sourceModified)
+                    .putInt(size).putInt((int) namesLength).putInt(largeSalaries.size()).putInt(0);
+            for (int index = 0; index < size; index++) {
+                out.putInt(employees.id(index));
+            }
+            for (int index = 0; index < size; index++) {
+                Integer managerId = employees.managerId(index);
+                out.putInt(managerId == null ? 0 : managerId);
+            }
+            for (int index = 0; index < size; index++) {
+                BigDecimal salary = employees.salary(index);
+                boolean compact = EmployeeColumns.compactScale(salary) != EmployeeColumns.NOT_COMPACT;
+                out.putLong(compact ? salary.unscaledValue().longValue() : 0);
+            }
+            for (int index = 0; index < size; index++) {
+                out.putByte(EmployeeColumns.compactScale(employees.salary(index)));
+            }
+            for (int index = 0; index < size; index++) {
+                out.putByte(employees.managerId(index) == null ? 0 : HAS_MANAGER);
+            }
+            int offset = 0;
+            out.putInt(offset);
+            for (byte[] name : names) {
+                offset += name.length;
+                out.putInt(offset);
+            }
+            for (byte[] name : names) {
+                out.putBytes(name);
+            }
+            for (int index : largeSalaries) {
+                byte[] salary = employees.salary(index).toString().getBytes(StandardCharsets.US_ASCII);
+                out.putInt(index).putInt(salary.length).putBytes(salary);
+            }
+        }
+    }
+
+    /**
+     * Loads the snapshot.
+     *
+     * @return a map of employee records, iterated in the order of the original file
+     * @throws IllegalArgumentException if the snapshot cannot be read or it is corrupted
+     */
+    @Override
+    public Map<Integer, Employee> parse() {
+        Map<Integer, Employee> employeeMap = new LinkedHashMap<>();
+        parse(EmployeeCollector.into(employeeMap));
+        return employeeMap;
+    }
+
+    /**
+     * Maps the whole snapshot at once, verifies it, and passes every employee to the collector in the original order.
+     *
+     * @param employees collector of the employees
+     * @throws IllegalArgumentException if the snapshot cannot be read or it is corrupted
+     */
+    @Override
+    public void parse(EmployeeCollector employees) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (fileSize > Integer.MAX_VALUE) {
+                throw new CsvParsingException(SNAPSHOT_IS_TOO_LARGE.formatted(fileSize));
+            }
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize);
+            read(mapped.order(ByteOrder.LITTLE_ENDIAN), employees);
+            METRICS.recordBytes(fileSize);
+        } catch (IOException e) {
+            throw new CsvFileNotFoundException();
+        }
+    }
+
+    /**
+     * Verifies the snapshot and reads the employees from the buffer.
+     * @param buffer the whole snapshot
+     * @param employees collector of the employees
+     * @throws CsvParsingException if the snapshot is corrupted
+     */
+    private static void read(ByteBuffer buffer, EmployeeCollector employees) {
+        verify(buffer);
+        int size = buffer.getInt(24);
+        int namesLength = buffer.getInt(28);
+        int largeSalaryCount = buffer.getInt(32);
+        long namesPosition = namesPosition(size);
+        int position = HEADER_SIZE;
+        IntBuffer ids = buffer.slice(position, 4 * size).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+        position += 4 * size;
+        IntBuffer managerIds = buffer.slice(position, 4 * size).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+        position += 4 * size;
+        LongBuffer unscaledSalaries = buffer.slice(position, 8 * size).order(ByteOrder.LITTLE_ENDIAN).asLongBuffer();
+        position += 8 * size;
+        int scales = position;
+        int flags = scales + size;
+        position = flags + size;
+        IntBuffer nameOffsets = buffer.slice(position, 4 * (2 * size + 1)).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+        byte[] names = new byte[namesLength];
+        buffer.get((int) namesPosition, names);
+        var stringTable = ByteBuffer.wrap(names);
+        var pool = new NamePool();
+        Map<Integer, BigDecimal> largeSalaries = readLargeSalaries(buffer, (int) namesPosition + namesLength, largeSalaryCount);
+
+        var row = new CsvRow();
+        for (int index = 0; index < size; index++) {
+            byte scale = buffer.get(scales + index);
+            BigDecimal salary = scale == EmployeeColumns.NOT_COMPACT
+                    ? largeSalaries.get(index)
+                    : BigDecimal.valueOf(unscaledSalaries.get(index), scale);
+            Integer managerId = (buffer.get(flags + index) & HAS_MANAGER) != 0 ? Integer.valueOf(managerIds.get(index)) : null;
+            row.set(ids.get(index), name(pool, stringTable, nameOffsets, 2 * index), name(pool, stringTable, nameOffsets, 2 * index + 1),
+                    salary, managerId, index + 2L);
+            METRICS.recordRow();
+            employees.add(row);
+        }
+    }
+
+    /**
+     * Reads the salaries which do not fit into an unscaled {@code long}.
+     * @param buffer the whole snapshot
+     * @param position start of the section
+     * @param count number of salaries
+     * @return the salaries by row index
+     */
+    private static Map<Integer, BigDecimal> readLargeSalaries(ByteBuffer buffer, int position, int count) {
+        Map<Integer, BigDecimal> salaries = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            int index = buffer.getInt(position);
+            byte[] salary = new byte[buffer.getInt(position + 4)];
+            buffer.get(position + 8, salary);
+            salaries.put(index, new BigDecimal(new String(salary, StandardCharsets.US_ASCII)));
+            position += 8 + salary.length;
+        }
+        return salaries;
+    }
+
+    /**
+     * Returns a name of the string table, decoding it only the first time it is seen.
+     * @param pool the names already decoded
+     * @param names the string table
+     * @param offsets offsets of the names
+     * @param nameIndex index of the name, two for every row
+     * @return the name
+     */
+    private static String name(NamePool pool, ByteBuffer names, IntBuffer offsets, int nameIndex) {
+        return pool.intern(names, offsets.get(nameIndex), offsets.get(nameIndex + 1));
+    }
+
+    /**
+     * Calculates the checksum of the snapshot, every byte except the checksum itself.
+     * The part after the header comes first, so the writer can calculate it while writing.
+     * @param buffer the whole snapshot
+     * @return the CRC32C checksum
+     */
+    private static int checksum(ByteBuffer buffer) {
+        var crc = new CRC32C();
+        crc.update(buffer.slice(HEADER_SIZE, buffer.limit() - HEADER_SIZE));
+        crc.update(buffer.slice(0, CHECKSUM_POSITION));
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Verifies the header, the checksum and the sizes of the snapshot.
+     * @param buffer the whole snapshot
+     * @throws CsvParsingException if the snapshot is corrupted
+     */
+    private static void verify(ByteBuffer buffer) {
+        int fileSize = buffer.limit();
+        if (fileSize < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw corrupted("not a snapshot");
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw corrupted("unsupported version " + buffer.getInt(4));
+        }
+        if (buffer.getInt(CHECKSUM_POSITION) != checksum(buffer)) {
+            throw corrupted("checksum mismatch");
+        }
+        int size = buffer.getInt(24);
+        int namesLength = buffer.getInt(28);
+        int largeSalaryCount = buffer.getInt(32);
+        if (size < 0 || namesLength < 0 || largeSalaryCount < 0 || namesPosition(size) + namesLength > fileSize) {
+            throw corrupted("invalid sizes");
+        }
+    }
+
+    /**
+     * Returns the position of the names, after the fixed-width columns and the name offsets.
+     * @param size number of employees
+     * @return position of the first name
+     */
+    private static long namesPosition(int size) {
+        return HEADER_SIZE + 18L * size + 4L * (2L * size + 1);
+    }
+
+    /**
+     * Creates the exception about a corrupted snapshot.
+     * @param reason what is wrong with the snapshot
+     * @return the exception
+     */
+    private static CsvParsingException corrupted(String reason) {
+        return new CsvParsingException(SNAPSHOT_IS_CORRUPTED.formatted(reason));
+    }
+
+    /**
+     * Writes little-endian values through a buffer, and calculates the checksum of everything after the header.
+     * The checksum is written into the header when the writer is closed.
+     */
+    private static final class ChecksumWriter implements AutoCloseable {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        private final CRC32C crc = new CRC32C();
+        private long position;
+
+        /**
+         * Constructs the writer.
+         * @param channel receives the bytes, it is closed with the writer
+         */
+        ChecksumWriter(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        /**
+         * Writes an int.
+         * @param value the value
+         * @return this writer
+         * @throws IOException if the channel fails
+         */
+        ChecksumWriter putInt(int value) throws IOException {
+            ensureRemaining(Integer.BYTES);
+            buffer.putInt(value);
+            return this;
+        }
+
+        /**
+         * Writes a long.
+         * @param value the value
+         * @return this writer
+         * @throws IOException if the channel fails
+         */
+        ChecksumWriter putLong(long value) throws IOException {
+            ensureRemaining(Long.BYTES);
+            buffer.putLong(value);
+            return this;
+        }
+
+        /**
+         * Writes a byte.
+         * @param value the value
+         * @throws IOException if the channel fails
+         */
+        void putByte(byte value) throws IOException {
+            ensureRemaining(Byte.BYTES);
+            buffer.put(value);
+        }
+
+        /**
+         * Writes the bytes.
+         * @param bytes the bytes
+         * @throws IOException if the channel fails
+         */
+        void putBytes(byte[] bytes) throws IOException {
+            int offset = 0;
+            while (offset < bytes.length) {
+                ensureRemaining(1);
+                int length = Math.min(buffer.remaining(), bytes.length - offset);
+                buffer.put(bytes, offset, length);
+                offset += length;
+            }
+        }
+
+        /**
+         * Writes the buffer, and the checksum into the header, and closes the channel.
+         * @throws IOException if the channel fails
+         */
+        @Override
+        public void close() throws IOException {
+            try {
+                flush();
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+                while (header.hasRemaining()) {
+                    if (channel.read(header, header.position()) < 0) {
+                        throw new EOFException(SNAPSHOT_IS_TRUNCATED);
+                    }
+                }
+                crc.update(header.flip().limit(CHECKSUM_POSITION));
+                ByteBuffer checksum = ByteBuffer.allocate(Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN)
+                        .putInt(0, (int) crc.getValue());
+                while (checksum.hasRemaining()) {
+                    channel.write(checksum, CHECKSUM_POSITION + checksum.position());
+                }
+            } finally {
+                channel.close();
+            }
+        }
+
+        /**
+         * Flushes the buffer if it does not have enough space.
+         * @param bytes number of bytes to be written
+         * @throws IOException if the channel fails
+         */
+        private void ensureRemaining(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                flush();
+            }
+        }
+
+        /**
+         * Writes the buffer to the channel, the part after the header is added to the checksum.
+         * @throws IOException if the channel fails
+         */
+        private void flush() throws IOException {
+            buffer.flip();
+            if (position + buffer.limit() > HEADER_SIZE) {
+                int start = (int) Math.max(0, HEADER_SIZE - position);
+                crc.update(buffer.slice(start, buffer.limit() - start));
+            }
+            position += buffer.limit();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+}
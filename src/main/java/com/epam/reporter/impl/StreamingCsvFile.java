@@ -0,0 +1,46 @@
+package com.epam.reporter.impl;
+
+import com.epam.reporter.api.CsvFile;
+import com.epam.reporter.api.EmployeeTable;
+
+/**
+ * CSV file which can pass the parsed employees to a collector one by one,
+ * instead of returning them in a map.
+ */
+interface StreamingCsvFile extends CsvFile {
+    /**
+     * Returned as input size if it is not known before parsing.
+     */
+    long UNKNOWN_SIZE = -1;
+
+    /**
+     * Returns the number of bytes of the input, if it is known before parsing, so collectors can be sized up front.
+     *
+     * @return size of the input in bytes, or {@link #UNKNOWN_SIZE}
+     */
+    default long inputSize() {
+        return UNKNOWN_SIZE;
+    }
+
+    /**
+     * Parses the file and passes every employee to the collector in file order.
+     * Errors are reported the same way as in {@link #parse()}.
+     *
+     * @param employees collector of the parsed employees
+     * @throws IllegalArgumentException if there is a problem with the file
+     */
+    void parse(EmployeeCollector employees);
+
+    /**
+     * Parses the file straight into a columnar table, without a map of employee records.
+     *
+     * @return the table of employees, in file order
+     * @throws IllegalArgumentException if there is a problem with the file
+     */
+    @Override
+    default EmployeeTable parseTable() {
+        var table = new EmployeeTable();
+        parse(row -> table.add(row.id(), row.firstName(), row.lastName(), row.salary(), row.nullableManagerId()));
+        return table;
+    }
+}
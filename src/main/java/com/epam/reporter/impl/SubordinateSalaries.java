@@ -0,0 +1,55 @@
+package com.epam.reporter.impl;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Running sum and count of the salaries of the direct subordinates of a manager.
+ * <p>
+ * The number of salaries with every scale is also kept, so the average has exactly the same scale,
+ * and it is rounded exactly the same way as if it was calculated from scratch by {@code BigDecimalSalaryChecker}.</p>
+ */
+final class SubordinateSalaries {
+    private final NavigableMap<Integer, Integer> scales = new TreeMap<>();
+    private BigDecimal sum = BigDecimal.ZERO;
+    private int count;
+
+    /**
+     * Adds the salary of a new subordinate.
+     * @param salary salary of the subordinate
+     */
+    void add(BigDecimal salary) {
+        sum = sum.add(salary);
+        count++;
+        scales.merge(salary.scale(), 1, Integer::sum);
+    }
+
+    /**
+     * Removes the salary of a former subordinate.
+     * @param salary salary of the subordinate, as it was added
+     */
+    void remove(BigDecimal salary) {
+        sum = sum.subtract(salary);
+        count--;
+        scales.computeIfPresent(salary.scale(), (scale, salaries) -> salaries == 1 ? null : salaries - 1);
+    }
+
+    /**
+     * Returns the number of subordinates.
+     * @return number of salaries
+     */
+    int count() {
+        return count;
+    }
+
+    /**
+     * Returns the average salary, rounded half up to the largest scale of the salaries.
+     * @return average salary of the subordinates
+     */
+    BigDecimal average() {
+        return sum.setScale(scales.lastKey(), RoundingMode.UNNECESSARY)
+                .divide(BigDecimal.valueOf(count), RoundingMode.HALF_UP);
+    }
+}
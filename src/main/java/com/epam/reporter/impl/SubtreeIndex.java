@@ -0,0 +1,191 @@
+package com.epam.reporter.impl;
+
+import com.epam.reporter.api.HierarchyIndex;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * {@code HierarchyIndex} built once from the linked employees, answering every query in constant time.
+ * <p>
+ * The hierarchy is numbered in pre-order from the CEO, so the subtree of every employee is the range of the
+ * numbers from his/her own number to the number after his/her last subordinate. The salaries are summed up
+ * into a prefix-sum array in the same order: the salary cost under a manager is the difference of two prefix sums,
+ * and the manager is in the reporting line of an employee if the number of the employee is in the range of
+ * the manager. Every prefix sum has the largest scale of the salaries, so do the salary costs and the averages.</p>
+ * <p>
+ * The index is a snapshot, later changes of the employees are not reflected. It can be queried by many threads.</p>
+ */
+final class SubtreeIndex implements HierarchyIndex {
+    private static final String EMPLOYEE_IS_NOT_IN_THE_HIERARCHY = "Employee is not in the hierarchy: %d!";
+    private static final int INITIAL_STACK_CAPACITY = 64;
+    private final Map<Integer, Integer> positions;
+    private final int[] ends;
+    private final BigDecimal[] salaryPrefixSums;
+
+    /**
+     * Numbers the hierarchy of the CEO.
+     * @param employees linked employees
+     * @throws CEONotFoundException                     if no employee without manager
+     * @throws MultipleEmployeesWithoutManagerException if multiple employees without manager
+     */
+    SubtreeIndex(Collection<EmployeeEntity> employees) {
+        EmployeeEntity ceo = findTheCeo(employees);
+        this.positions = new HashMap<>();
+        int[] subtreeEnds = new int[employees.size()];
+        BigDecimal[] prefixSums = new BigDecimal[employees.size() + 1];
+        prefixSums[0] = BigDecimal.ZERO;
+        EmployeeEntity[] managers = new EmployeeEntity[INITIAL_STACK_CAPACITY];
+        int[] nextSubordinates = new int[INITIAL_STACK_CAPACITY];
+        int depth = 0;
+        int count = number(ceo, prefixSums, 0);
+        managers[depth++] = ceo;
+        while (depth > 0) {
+            EmployeeEntity manager = managers[depth - 1];
+            int next = nextSubordinates[depth - 1];
+            if (next < manager.getSubordinates().size()) {
+                nextSubordinates[depth - 1] = next + 1;
+                EmployeeEntity employee = manager.getSubordinates().get(next);
+                int position = count;
+                count = number(employee, prefixSums, count);
+                if (employee.isManager()) {
+                    if (depth == managers.length) {
+                        managers = Arrays.copyOf(managers, 2 * depth);
+                        nextSubordinates = Arrays.copyOf(nextSubordinates, 2 * depth);
+                    }
+                    managers[depth] = employee;
+                    nextSubordinates[depth] = 0;
+                    depth++;
+                } else {
+                    subtreeEnds[position] = count;
+                }
+            } else {
+                depth--;
+                subtreeEnds[positions.get(manager.getId())] = count;
+            }
+        }
+        this.ends = Arrays.copyOf(subtreeEnds, count);
+        this.salaryPrefixSums = Arrays.copyOf(prefixSums, count + 1);
+        int scale = salaryPrefixSums[count].scale();
+        for (int i = 0; i < count; i++) {
+            salaryPrefixSums[i] = salaryPrefixSums[i].setScale(scale);
+        }
+    }
+
+    /**
+     * Checks if the employee was numbered from the CEO.
+     * @param id id of the employee
+     * @return true if the employee can be queried
+     */
+    @Override
+    public boolean contains(int id) {
+        return positions.containsKey(id);
+    }
+
+    /**
+     * Returns the size of the range of the manager, without the manager.
+     * @param managerId id of the manager
+     * @return number of employees under the manager
+     * @throws IllegalArgumentException if the employee is not in the hierarchy
+     */
+    @Override
+    public int headcount(int managerId) {
+        int position = positionOf(managerId);
+        return ends[position] - position - 1;
+    }
+
+    /**
+     * Returns the difference of the prefix sums at the end of the range of the manager and right after the manager.
+     * @param managerId id of the manager
+     * @return total salary of the employees under the manager
+     * @throws IllegalArgumentException if the employee is not in the hierarchy
+     */
+    @Override
+    public BigDecimal salaryCost(int managerId) {
+        int position = positionOf(managerId);
+        return salaryPrefixSums[ends[position]].subtract(salaryPrefixSums[position + 1]);
+    }
+
+    /**
+     * Returns the salary cost divided by the headcount, rounded half up like the averages of the salary checkers.
+     * @param managerId id of the manager
+     * @return average salary of the employees under the manager, 0 if the employee is not a manager
+     * @throws IllegalArgumentException if the employee is not in the hierarchy
+     */
+    @Override
+    public BigDecimal averageSalary(int managerId) {
+        int headcount = headcount(managerId);
+        if (headcount == 0) {
+            return BigDecimal.ZERO;
+        }
+        return salaryCost(managerId).divide(BigDecimal.valueOf(headcount), RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Checks if the number of the employee is in the range of the manager.
+     * @param managerId id of the manager
+     * @param employeeId id of the employee
+     * @return true if the manager is a direct or indirect manager of the employee
+     * @throws IllegalArgumentException if either employee is not in the hierarchy
+     */
+    @Override
+    public boolean isInReportingLine(int managerId, int employeeId) {
+        int manager = positionOf(managerId);
+        int employee = positionOf(employeeId);
+        return manager < employee && employee < ends[manager];
+    }
+
+    /**
+     * Gives the next number to the employee, and adds his/her salary to the prefix sums.
+     * @param employee the employee reached by the walk
+     * @param prefixSums prefix sums of the salaries in pre-order
+     * @param position number of the employee
+     * @return the next number
+     */
+    private int number(EmployeeEntity employee, BigDecimal[] prefixSums, int position) {
+        positions.put(employee.getId(), position);
+        prefixSums[position + 1] = prefixSums[position].add(employee.getSalary());
+        return position + 1;
+    }
+
+    /**
+     * Returns the pre-order number of the employee.
+     * @param id id of the employee
+     * @return the number of the employee
+     * @throws IllegalArgumentException if the employee is not in the hierarchy
+     */
+    private int positionOf(int id) {
+        Integer position = positions.get(id);
+        if (position == null) {
+            throw new IllegalArgumentException(EMPLOYEE_IS_NOT_IN_THE_HIERARCHY.formatted(id));
+        }
+        return position;
+    }
+
+    /**
+     * Finds the CEO, the single employee who has no manager.
+     * @param employees linked employees
+     * @return the CEO
+     * @throws CEONotFoundException                     if no employee without manager
+     * @throws MultipleEmployeesWithoutManagerException if multiple employees without manager
+     */
+    private static EmployeeEntity findTheCeo(Collection<EmployeeEntity> employees) {
+        EmployeeEntity ceo = null;
+        for (EmployeeEntity employee : employees) {
+            if (employee.getManager() == null) {
+                if (ceo != null) {
+                    throw new MultipleEmployeesWithoutManagerException();
+                }
+                ceo = employee;
+            }
+        }
+        if (ceo == null) {
+            throw new CEONotFoundException();
+        }
+        return ceo;
+    }
+}
@@ -0,0 +1,43 @@
+package com.epam.reporter.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event of a chunk of lines parsed from a CSV file.
+ */
+@Name("com.epam.reporter.CsvParseChunk")
+@Label("CSV Parse Chunk")
+@Category("Reporter")
+@Description("A chunk of lines parsed from a CSV file")
+@StackTrace(false)
+public final class CsvParseChunk extends jdk.jfr.Event {
+    /**
+     * Number of the first line of the chunk, the header is line 1.
+     */
+    @Label("First Line")
+    public long firstLine;
+
+    /**
+     * Bytes read while parsing the chunk.
+     */
+    @Label("Bytes")
+    @DataAmount
+    public long bytes;
+
+    /**
+     * Data lines of the chunk, without the empty lines.
+     */
+    @Label("Rows")
+    public long rows;
+
+    /**
+     * Lines of the chunk passed to the error handler.
+     */
+    @Label("Errors")
+    public long errors;
+}
@@ -0,0 +1,29 @@
+package com.epam.reporter.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event of building the linked employee graph.
+ */
+@Name("com.epam.reporter.HierarchyBuild")
+@Label("Hierarchy Build")
+@Category("Reporter")
+@Description("Building the linked employee graph, including parsing if the graph is built while parsing")
+@StackTrace(false)
+public final class HierarchyBuild extends jdk.jfr.Event {
+    /**
+     * Number of employees in the graph.
+     */
+    @Label("Employees")
+    public int employees;
+
+    /**
+     * True if the graph is built while the CSV file is parsed.
+     */
+    @Label("While Parsing")
+    public boolean whileParsing;
+}
@@ -0,0 +1,49 @@
+package com.epam.reporter.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event of checking the salary of a manager. Only every {@link #SAMPLE_INTERVAL}th check is recorded.
+ */
+@Name("com.epam.reporter.ManagerCheck")
+@Label("Manager Check")
+@Category("Reporter")
+@Description("Salary check of a manager, sampled")
+@StackTrace(false)
+public final class ManagerCheck extends jdk.jfr.Event {
+    /**
+     * Number of checks per recorded event, a power of two.
+     */
+    public static final int SAMPLE_INTERVAL = 1024;
+
+    /**
+     * Id of the manager.
+     */
+    @Label("Manager Id")
+    public int managerId;
+
+    /**
+     * Number of direct subordinates of the manager.
+     */
+    @Label("Subordinates")
+    public int subordinates;
+
+    /**
+     * Level of the manager, the CEO is on level 0.
+     */
+    @Label("Level")
+    public int level;
+
+    /**
+     * Returns true if the check with the given sequence number is sampled.
+     * @param sequence number of the check
+     * @return true for every {@link #SAMPLE_INTERVAL}th check
+     */
+    public static boolean isSampled(long sequence) {
+        return (sequence & (SAMPLE_INTERVAL - 1)) == 0;
+    }
+}
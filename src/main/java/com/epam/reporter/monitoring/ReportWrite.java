@@ -0,0 +1,31 @@
+package com.epam.reporter.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight recorder event of creating and writing a report.
+ */
+@Name("com.epam.reporter.ReportWrite")
+@Label("Report Write")
+@Category("Reporter")
+@Description("Creating the report and writing it to its output")
+@StackTrace(false)
+public final class ReportWrite extends jdk.jfr.Event {
+    /**
+     * Characters written.
+     */
+    @Label("Characters")
+    public long characters;
+
+    /**
+     * Time spent writing to the output, in nanoseconds.
+     */
+    @Label("Output Nanos")
+    @Timespan
+    public long outputNanos;
+}
@@ -0,0 +1,275 @@
+package com.epam.reporter.monitoring;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Counters of the reporting runs of the JVM, registered as an MBean by {@code ReportExecutor}.
+ * <p>
+ * Every counter is a {@code LongAdder}, so concurrent parsers and reporters can update them on the hot path
+ * without contending on a single memory location. Parsers count their rows one by one,
+ * times are recorded once per phase.</p>
+ */
+public final class ReporterMetrics implements ReporterMetricsMBean {
+    /**
+     * Name of the MBean.
+     */
+    public static final String OBJECT_NAME = "com.epam.reporter:type=ReporterMetrics";
+    private static final Logger LOGGER = Logger.getLogger(ReporterMetrics.class.getName());
+    private static final ReporterMetrics INSTANCE = new ReporterMetrics();
+    private static final double NANOS_PER_SECOND = 1e9;
+
+    private final LongAdder runs = new LongAdder();
+    private final LongAdder[] phaseNanos = newAdders(Phase.values().length);
+    private final LongAdder rowsRead = new LongAdder();
+    private final LongAdder bytesProcessed = new LongAdder();
+    private final LongAdder[] skipped = newAdders(SkipReason.values().length);
+    private volatile Hierarchy lastHierarchy = Hierarchy.EMPTY;
+    private boolean registered;
+
+    /**
+     * Phases of a reporting run.
+     */
+    public enum Phase {
+        /**
+         * Parsing the CSV file, including linking the employees if it is done while parsing.
+         */
+        PARSE,
+        /**
+         * Converting the parsed records to the linked employee graph.
+         */
+        BUILD,
+        /**
+         * Checking the hierarchy and creating the report lines.
+         */
+        REPORT,
+        /**
+         * Writing the report to its output.
+         */
+        OUTPUT
+    }
+
+    /**
+     * Reasons of skipping a line of the CSV file.
+     */
+    public enum SkipReason {
+        /**
+         * The line has not enough columns.
+         */
+        NOT_ENOUGH_COLUMNS,
+        /**
+         * The line contains an invalid number.
+         */
+        INVALID_NUMBER,
+        /**
+         * The id of the line has already been read.
+         */
+        DUPLICATE_ID
+    }
+
+    /**
+     * Only the shared instance is required.
+     */
+    private ReporterMetrics() {
+    }
+
+    /**
+     * Returns the metrics of the JVM.
+     * @return the shared instance
+     */
+    public static ReporterMetrics get() {
+        return INSTANCE;
+    }
+
+    /**
+     * Registers the metrics on the platform MBean server under {@link #OBJECT_NAME}, unless it is already registered.
+     * A failure is logged, as the metrics are not required for the report.
+     */
+    public static void register() {
+        synchronized (INSTANCE) {
+            if (INSTANCE.registered) {
+                return;
+            }
+            try {
+                ManagementFactory.getPlatformMBeanServer().registerMBean(INSTANCE, new ObjectName(OBJECT_NAME));
+            } catch (InstanceAlreadyExistsException e) {
+                // registered by another class loader
+            } catch (JMException e) {
+                LOGGER.log(Level.WARNING, e, () -> "Metrics cannot be registered!");
+            }
+            INSTANCE.registered = true;
+        }
+    }
+
+    /**
+     * Counts a reporting run.
+     */
+    public void recordRun() {
+        runs.increment();
+    }
+
+    /**
+     * Adds the time spent in the phase.
+     * @param phase phase of the run
+     * @param nanos elapsed time in nanoseconds
+     */
+    public void recordPhase(Phase phase, long nanos) {
+        phaseNanos[phase.ordinal()].add(nanos);
+    }
+
+    /**
+     * Counts a data line read.
+     */
+    public void recordRow() {
+        rowsRead.increment();
+    }
+
+    /**
+     * Adds the bytes parsed.
+     * @param bytes number of bytes
+     */
+    public void recordBytes(long bytes) {
+        bytesProcessed.add(bytes);
+    }
+
+    /**
+     * Counts a line skipped.
+     * @param reason reason of skipping the line
+     */
+    public void recordSkipped(SkipReason reason) {
+        skipped[reason.ordinal()].increment();
+    }
+
+    /**
+     * Records the size of the hierarchy of the last report.
+     * @param employees number of employees
+     * @param managers number of employees having subordinates
+     * @param maxDepth level of the deepest employee
+     */
+    public void recordHierarchy(long employees, long managers, long maxDepth) {
+        lastHierarchy = new Hierarchy(employees, managers, maxDepth);
+    }
+
+    @Override
+    public long getRuns() {
+        return runs.sum();
+    }
+
+    @Override
+    public long getParseMillis() {
+        return millis(Phase.PARSE);
+    }
+
+    @Override
+    public long getBuildMillis() {
+        return millis(Phase.BUILD);
+    }
+
+    @Override
+    public long getReportMillis() {
+        return millis(Phase.REPORT);
+    }
+
+    @Override
+    public long getOutputMillis() {
+        return millis(Phase.OUTPUT);
+    }
+
+    @Override
+    public long getRowsRead() {
+        return rowsRead.sum();
+    }
+
+    @Override
+    public double getRowsPerSecond() {
+        long nanos = phaseNanos[Phase.PARSE.ordinal()].sum();
+        return nanos == 0 ? 0 : rowsRead.sum() * NANOS_PER_SECOND / nanos;
+    }
+
+    @Override
+    public long getBytesProcessed() {
+        return bytesProcessed.sum();
+    }
+
+    @Override
+    public long getSkippedNotEnoughColumns() {
+        return skipped[SkipReason.NOT_ENOUGH_COLUMNS.ordinal()].sum();
+    }
+
+    @Override
+    public long getSkippedInvalidNumber() {
+        return skipped[SkipReason.INVALID_NUMBER.ordinal()].sum();
+    }
+
+    @Override
+    public long getDuplicateIds() {
+        return skipped[SkipReason.DUPLICATE_ID.ordinal()].sum();
+    }
+
+    @Override
+    public long getEmployeeCount() {
+        return lastHierarchy.employees();
+    }
+
+    @Override
+    public long getManagerCount() {
+        return lastHierarchy.managers();
+    }
+
+    @Override
+    public long getMaxDepth() {
+        return lastHierarchy.maxDepth();
+    }
+
+    @Override
+    public void reset() {
+        runs.reset();
+        rowsRead.reset();
+        bytesProcessed.reset();
+        for (LongAdder adder : phaseNanos) {
+            adder.reset();
+        }
+        for (LongAdder adder : skipped) {
+            adder.reset();
+        }
+        lastHierarchy = Hierarchy.EMPTY;
+    }
+
+    /**
+     * Returns the time spent in the phase.
+     * @param phase phase of the run
+     * @return time in milliseconds
+     */
+    private long millis(Phase phase) {
+        return TimeUnit.NANOSECONDS.toMillis(phaseNanos[phase.ordinal()].sum());
+    }
+
+    /**
+     * Creates the adders of an enum.
+     * @param count number of constants
+     * @return an adder for every constant
+     */
+    private static LongAdder[] newAdders(int count) {
+        LongAdder[] adders = new LongAdder[count];
+        for (int i = 0; i < count; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+    /**
+     * Size of the hierarchy of a report, replaced at once so the values are consistent.
+     * @param employees number of employees
+     * @param managers number of managers
+     * @param maxDepth level of the deepest employee
+     */
+    private record Hierarchy(long employees, long managers, long maxDepth) {
+        private static final Hierarchy EMPTY = new Hierarchy(0, 0, 0);
+    }
+}
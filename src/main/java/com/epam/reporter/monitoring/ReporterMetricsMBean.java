@@ -0,0 +1,98 @@
+package com.epam.reporter.monitoring;
+
+/**
+ * Management interface of {@code ReporterMetrics}, exposing the counters of the reporting runs over JMX.
+ * Times and counters are summed over every run since the start or the last reset,
+ * the size of the hierarchy is the one of the last run.
+ */
+public interface ReporterMetricsMBean {
+
+    /**
+     * Returns the number of reports executed.
+     * @return number of runs
+     */
+    long getRuns();
+
+    /**
+     * Returns the time spent parsing the CSV files. If the employees are linked while parsing, it is included.
+     * @return time in milliseconds
+     */
+    long getParseMillis();
+
+    /**
+     * Returns the time spent converting the parsed records to the linked employee graph.
+     * @return time in milliseconds
+     */
+    long getBuildMillis();
+
+    /**
+     * Returns the time spent creating the reports, without writing them.
+     * @return time in milliseconds
+     */
+    long getReportMillis();
+
+    /**
+     * Returns the time spent writing the reports to their output.
+     * @return time in milliseconds
+     */
+    long getOutputMillis();
+
+    /**
+     * Returns the number of data lines read, without the headers and the empty lines.
+     * @return number of rows
+     */
+    long getRowsRead();
+
+    /**
+     * Returns the rows read per second of parsing.
+     * @return rows per second, 0 if nothing has been parsed yet
+     */
+    double getRowsPerSecond();
+
+    /**
+     * Returns the number of bytes parsed.
+     * @return number of bytes
+     */
+    long getBytesProcessed();
+
+    /**
+     * Returns the number of lines skipped because they have not enough columns.
+     * @return number of lines
+     */
+    long getSkippedNotEnoughColumns();
+
+    /**
+     * Returns the number of lines skipped because they contain an invalid number.
+     * @return number of lines
+     */
+    long getSkippedInvalidNumber();
+
+    /**
+     * Returns the number of lines skipped because their id has already been read.
+     * @return number of lines
+     */
+    long getDuplicateIds();
+
+    /**
+     * Returns the number of employees in the last report.
+     * @return number of employees
+     */
+    long getEmployeeCount();
+
+    /**
+     * Returns the number of managers in the last report.
+     * @return number of employees having subordinates
+     */
+    long getManagerCount();
+
+    /**
+     * Returns the longest reporting line in the last report.
+     * @return level of the deepest employee, the CEO is on level 0
+     */
+    long getMaxDepth();
+
+    /**
+     * Resets every counter to zero.
+     */
+    void reset();
+}
@@ -0,0 +1,216 @@
+package com.epam.reporter.tools;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Generates synthetic organisations as CSV files in the format {@code SimpleCsvFile} expects.
+ * <p>
+ * Employees are written level by level, and ids are assigned in file order, starting with the CEO.
+ * Every manager of a level gets a uniformly distributed number of subordinates on the next level, until the next
+ * level reaches the maximum width, so only the id range of the current level has to be kept, and files with hundreds of millions of rows
+ * can be written in constant memory. If the hierarchy reaches the maximum depth, or a level has no subordinates
+ * at all, the remaining employees are spread evenly over the managers of the deepest allowed level.</p>
+ * <p>
+ * Cycles are written after the hierarchy, duplicate and malformed lines are written as extra lines,
+ * so they never break the hierarchy. The same settings always generate the same file.</p>
+ */
+public final class OrganisationGenerator {
+    private static final String HEADER = "Id,firstName,lastName,salary,managerId";
+    private static final String USAGE = "Usage: java -cp reporter.jar com.epam.reporter.tools.OrganisationGenerator "
+            + "[--employees=n] [--seed=n] [--minFanOut=n] [--maxFanOut=n] [--maxDepth=n] [--maxLevelWidth=n] [--minSalary=n] [--maxSalary=n] "
+            + "[--cycles=n] [--duplicateShare=x] [--malformedShare=x] output.csv";
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int CENTS = 100;
+    private static final int NO_MANAGER = 0;
+
+    private final OrganisationSettings settings;
+
+    /**
+     * Constructs a generator.
+     * @param settings settings of the organisation
+     */
+    public OrganisationGenerator(OrganisationSettings settings) {
+        this.settings = settings;
+    }
+
+    /**
+     * Generates a CSV file with the given settings.
+     * @param args options as in {@link OrganisationSettings#parse(String...)}, followed by the output file
+     * @throws IOException if the file cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.out.println(USAGE);
+            System.exit(-1);
+        }
+        var settings = OrganisationSettings.parse(Arrays.copyOf(args, args.length - 1));
+        new OrganisationGenerator(settings).write(Path.of(args[args.length - 1]));
+    }
+
+    /**
+     * Writes the organisation to the file.
+     * @param file path of the CSV file
+     * @throws IOException if the file cannot be written
+     */
+    public void write(Path file) throws IOException {
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(file), StandardCharsets.UTF_8), BUFFER_SIZE)) {
+            write(writer);
+        }
+    }
+
+    /**
+     * Writes the organisation to the writer.
+     * @param writer receives the CSV lines, it is not closed
+     * @throws IOException if the writer fails
+     */
+    public void write(Writer writer) throws IOException {
+        var lines = new Lines(writer, new SplittableRandom(settings.seed()));
+        writer.write(HEADER);
+        writer.write('\n');
+        writeHierarchy(lines);
+        writeCycles(lines, settings.hierarchyEmployees() + 1);
+    }
+
+    /**
+     * Writes the hierarchy level by level.
+     * @param lines writes the employees
+     * @throws IOException if the writer fails
+     */
+    private void writeHierarchy(Lines lines) throws IOException {
+        int last = settings.hierarchyEmployees();
+        lines.employee(1, NO_MANAGER);
+        int nextId = 2;
+        int level = 0;
+        int managersStart = 1;
+        int managersEnd = 2;
+        int previousStart = 1;
+        int previousEnd = 2;
+        while (nextId <= last) {
+            if (level < settings.maxDepth()) {
+                int subordinatesStart = nextId;
+                int levelEnd = (int) Math.min(last + 1L, (long) subordinatesStart + settings.maxLevelWidth());
+                for (int manager = managersStart; manager < managersEnd && nextId < levelEnd; manager++) {
+                    int fanOut = lines.fanOut();
+                    for (int i = 0; i < fanOut && nextId < levelEnd; i++) {
+                        lines.employee(nextId++, manager);
+                    }
+                }
+                if (nextId > subordinatesStart) {
+                    previousStart = managersStart;
+                    previousEnd = managersEnd;
+                    managersStart = subordinatesStart;
+                    managersEnd = nextId;
+                    level++;
+                    continue;
+                }
+                previousStart = managersStart;
+                previousEnd = managersEnd;
+            }
+            for (int manager = previousStart; nextId <= last; manager = manager + 1 == previousEnd ? previousStart : manager + 1) {
+                lines.employee(nextId++, manager);
+            }
+        }
+    }
+
+    /**
+     * Writes the cycles, every employee is the manager of the previous one.
+     * @param lines writes the employees
+     * @param firstId id of the first employee in a cycle
+     * @throws IOException if the writer fails
+     */
+    private void writeCycles(Lines lines, int firstId) throws IOException {
+        for (int cycle = 0; cycle < settings.cycles(); cycle++) {
+            int start = firstId + cycle * OrganisationSettings.CYCLE_LENGTH;
+            for (int i = 0; i < OrganisationSettings.CYCLE_LENGTH; i++) {
+                lines.employee(start + i, start + (i + 1) % OrganisationSettings.CYCLE_LENGTH);
+            }
+        }
+    }
+
+    /**
+     * Formats the lines, and injects the duplicate and malformed lines.
+     */
+    private final class Lines {
+        private final Writer writer;
+        private final SplittableRandom random;
+        private final StringBuilder line = new StringBuilder();
+        private boolean invalidNumber;
+
+        /**
+         * Constructs the line writer.
+         * @param writer receives the lines
+         * @param random source of randomness
+         */
+        Lines(Writer writer, SplittableRandom random) {
+            this.writer = writer;
+            this.random = random;
+        }
+
+        /**
+         * Returns the number of subordinates of the next manager.
+         * @return the fan-out
+         */
+        int fanOut() {
+            return random.nextInt(settings.minFanOut(), settings.maxFanOut() + 1);
+        }
+
+        /**
+         * Writes an employee, followed by the duplicate and malformed lines, if any.
+         * @param id id of the employee
+         * @param managerId id of the manager, 0 for the CEO
+         * @throws IOException if the writer fails
+         */
+        void employee(int id, int managerId) throws IOException {
+            write(id, "First" + id, "Last" + id, managerId);
+            if (random.nextDouble() < settings.duplicateShare()) {
+                write(id, "Duplicate" + id, "Last" + id, managerId);
+            }
+            if (random.nextDouble() < settings.malformedShare()) {
+                malformed(id);
+            }
+        }
+
+        /**
+         * Writes an employee line with a random salary.
+         * @param id id of the employee
+         * @param firstName first name
+         * @param lastName last name
+         * @param managerId id of the manager, 0 for the CEO
+         * @throws IOException if the writer fails
+         */
+        private void write(int id, String firstName, String lastName, int managerId) throws IOException {
+            long cents = random.nextLong((long) settings.minSalary() * CENTS, (long) settings.maxSalary() * CENTS + 1);
+            line.setLength(0);
+            line.append(id).append(',').append(firstName).append(',').append(lastName).append(',')
+                    .append(cents / CENTS).append('.');
+            long fraction = cents % CENTS;
+            if (fraction < 10) {
+                line.append('0');
+            }
+            line.append(fraction).append(',');
+            if (managerId != NO_MANAGER) {
+                line.append(managerId);
+            }
+            line.append('\n');
+            writer.append(line);
+        }
+
+        /**
+         * Writes a malformed line, alternating between too few columns and an invalid number.
+         * @param id id of the employee before the line
+         * @throws IOException if the writer fails
+         */
+        private void malformed(int id) throws IOException {
+            writer.write(invalidNumber ? id + ",Broken,Salary,abc,\n" : id + ",Broken\n");
+            invalidNumber = !invalidNumber;
+        }
+    }
+}
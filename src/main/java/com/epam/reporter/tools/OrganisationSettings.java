@@ -0,0 +1,138 @@
+package com.epam.reporter.tools;
+
+import java.util.Locale;
+
+/**
+ * Settings of a generated organisation.
+ *
+ * @param employees      number of distinct employees, including the ones in cycles
+ * @param seed           seed of the random generator, the same settings always generate the same file
+ * @param minFanOut      minimum number of direct subordinates of a manager, can be 0
+ * @param maxFanOut      maximum number of direct subordinates of a manager
+ * @param maxDepth       maximum level of an employee, the CEO has level 0
+ * @param maxLevelWidth  maximum number of employees on a level, managers beyond it get no subordinates
+ * @param minSalary      minimum salary
+ * @param maxSalary      maximum salary, salaries are uniformly distributed with two decimal digits
+ * @param cycles         number of three-employee management cycles, which are not in the hierarchy
+ * @param duplicateShare probability of an extra line repeating the id of the previous employee
+ * @param malformedShare probability of an extra malformed line after an employee
+ */
+public record OrganisationSettings(int employees,
+                                   long seed,
+                                   int minFanOut,
+                                   int maxFanOut,
+                                   int maxDepth,
+                                   int maxLevelWidth,
+                                   int minSalary,
+                                   int maxSalary,
+                                   int cycles,
+                                   double duplicateShare,
+                                   double malformedShare) {
+    static final int CYCLE_LENGTH = 3;
+    private static final int DEFAULT_EMPLOYEES = 10_000;
+    private static final long DEFAULT_SEED = 42;
+    private static final int DEFAULT_MIN_FAN_OUT = 2;
+    private static final int DEFAULT_MAX_FAN_OUT = 10;
+    private static final int DEFAULT_MAX_DEPTH = 8;
+    private static final int DEFAULT_MAX_LEVEL_WIDTH = Integer.MAX_VALUE;
+    private static final int DEFAULT_MIN_SALARY = 20_000;
+    private static final int DEFAULT_MAX_SALARY = 120_000;
+    private static final String OPTION_PREFIX = "--";
+    private static final String OPTION_SEPARATOR = "=";
+    private static final String UNKNOWN_OPTION_S = "Unknown option: %s!";
+
+    /**
+     * Validates the settings.
+     * @throws IllegalArgumentException if any of the settings is invalid
+     */
+    public OrganisationSettings {
+        if (employees < 1 + cycles * CYCLE_LENGTH) {
+            throw new IllegalArgumentException("There should be at least one employee besides the cycles!");
+        }
+        if (minFanOut < 0 || maxFanOut < 1 || minFanOut > maxFanOut) {
+            throw new IllegalArgumentException("Fan-out should be between 0 and the maximum fan-out, which is at least 1!");
+        }
+        if (maxDepth < 1 || maxLevelWidth < 1) {
+            throw new IllegalArgumentException("Maximum depth and maximum level width should be at least 1!");
+        }
+        if (minSalary < 0 || minSalary > maxSalary) {
+            throw new IllegalArgumentException("Salary range is invalid!");
+        }
+        if (cycles < 0 || !isShare(duplicateShare) || !isShare(malformedShare)) {
+            throw new IllegalArgumentException("Cycles and shares cannot be negative, shares cannot be greater than 1!");
+        }
+    }
+
+    /**
+     * Returns the default settings for the given number of employees: no cycles, duplicates or malformed lines.
+     * @param employees number of employees
+     * @return the default settings
+     */
+    public static OrganisationSettings defaults(int employees) {
+        return new OrganisationSettings(employees, DEFAULT_SEED, DEFAULT_MIN_FAN_OUT, DEFAULT_MAX_FAN_OUT, DEFAULT_MAX_DEPTH,
+                DEFAULT_MAX_LEVEL_WIDTH,
+                DEFAULT_MIN_SALARY, DEFAULT_MAX_SALARY, 0, 0, 0);
+    }
+
+    /**
+     * Overrides the default settings with command line options, like {@code --employees=1000000}.
+     * The option names are the names of the record components, the default number of employees is 10000.
+     * @param options command line options
+     * @return the settings
+     * @throws IllegalArgumentException if an option is unknown or invalid
+     */
+    public static OrganisationSettings parse(String... options) {
+        var defaults = defaults(DEFAULT_EMPLOYEES);
+        int employees = defaults.employees();
+        long seed = defaults.seed();
+        int minFanOut = defaults.minFanOut();
+        int maxFanOut = defaults.maxFanOut();
+        int maxDepth = defaults.maxDepth();
+        int maxLevelWidth = defaults.maxLevelWidth();
+        int minSalary = defaults.minSalary();
+        int maxSalary = defaults.maxSalary();
+        int cycles = defaults.cycles();
+        double duplicateShare = defaults.duplicateShare();
+        double malformedShare = defaults.malformedShare();
+        for (String option : options) {
+            int separator = option.indexOf(OPTION_SEPARATOR);
+            if (!option.startsWith(OPTION_PREFIX) || separator < 0) {
+                throw new IllegalArgumentException(UNKNOWN_OPTION_S.formatted(option));
+            }
+            String value = option.substring(separator + 1);
+            switch (option.substring(OPTION_PREFIX.length(), separator).toLowerCase(Locale.ROOT)) {
+                case "employees" -> employees = Integer.parseInt(value);
+                case "seed" -> seed = Long.parseLong(value);
+                case "minfanout" -> minFanOut = Integer.parseInt(value);
+                case "maxfanout" -> maxFanOut = Integer.parseInt(value);
+                case "maxdepth" -> maxDepth = Integer.parseInt(value);
+                case "maxlevelwidth" -> maxLevelWidth = Integer.parseInt(value);
+                case "minsalary" -> minSalary = Integer.parseInt(value);
+                case "maxsalary" -> maxSalary = Integer.parseInt(value);
+                case "cycles" -> cycles = Integer.parseInt(value);
+                case "duplicateshare" -> duplicateShare = Double.parseDouble(value);
+                case "malformedshare" -> malformedShare = Double.parseDouble(value);
+                default -> throw new IllegalArgumentException(UNKNOWN_OPTION_S.formatted(option));
+            }
+        }
+        return new OrganisationSettings(employees, seed, minFanOut, maxFanOut, maxDepth, maxLevelWidth, minSalary, maxSalary,
+                cycles, duplicateShare, malformedShare);
+    }
+
+    /**
+     * Returns the total number of hierarchy employees, that is the employees not in cycles.
+     * @return number of employees in the hierarchy
+     */
+    int hierarchyEmployees() {
+        return employees - cycles * CYCLE_LENGTH;
+    }
+
+    /**
+     * Returns true if the value is a valid probability.
+     * @param share the value
+     * @return true if it is between 0 and 1
+     */
+    private static boolean isShare(double share) {
+        return share >= 0 && share <= 1;
+    }
+}
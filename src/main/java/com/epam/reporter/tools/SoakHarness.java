@@ -0,0 +1,222 @@
+package com.epam.reporter.tools;
+
+import com.epam.reporter.api.ReportExecutor;
+import com.epam.reporter.impl.MappedCsvFile;
+import com.epam.reporter.impl.SimpleReporterFactory;
+import com.sun.management.GarbageCollectionNotificationInfo;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs {@code ReportExecutor} over generated organisations of growing size, to find where it hits scaling limits.
+ * <p>
+ * Every organisation is generated into the work directory, unless it is already there.
+ * The report is written to a channel which discards it. For every run a CSV line is printed with the wall time,
+ * the peak resident set size of the process and the GC pauses during the run. The longest pause only counts
+ * stop-the-world collections, cycles running concurrently with the application, like G1 concurrent marking
+ * or the cycles of ZGC and Shenandoah, are left out.
+ * The peak RSS is read from {@code /proc/self/status} and reset before every run, so it is only available on Linux,
+ * otherwise -1 is printed.</p>
+ */
+public final class SoakHarness {
+    private static final String USAGE = "Usage: java -cp reporter.jar com.epam.reporter.tools.SoakHarness "
+            + "[generator options] workDirectory employees...";
+    private static final String RESULT_HEADER = "employees,fileBytes,wallMillis,peakRssKiB,gcCount,gcMillis,maxGcPauseMillis";
+    private static final String OPTION_PREFIX = "--";
+    private static final Path PROC_STATUS = Path.of("/proc/self/status");
+    private static final Path PROC_CLEAR_REFS = Path.of("/proc/self/clear_refs");
+    private static final String PEAK_RSS_PREFIX = "VmHWM:";
+    private static final String RESET_PEAK_RSS = "5";
+    private static final long UNKNOWN = -1;
+    private static final String CONCURRENT = "concurrent";
+    private static final String CYCLE = "cycle";
+
+    private final OrganisationSettings settings;
+    private final Path workDirectory;
+
+    /**
+     * Constructs a harness.
+     * @param settings settings of the organisations, the number of employees is overridden by every run
+     * @param workDirectory directory of the generated files
+     */
+    public SoakHarness(OrganisationSettings settings, Path workDirectory) {
+        this.settings = settings;
+        this.workDirectory = workDirectory;
+    }
+
+    /**
+     * Runs the harness.
+     * @param args generator options, the work directory and the number of employees of every run
+     * @throws IOException if a file cannot be generated or read
+     */
+    public static void main(String[] args) throws IOException {
+        int firstArgument = 0;
+        while (firstArgument < args.length && args[firstArgument].startsWith(OPTION_PREFIX)) {
+            firstArgument++;
+        }
+        if (args.length - firstArgument < 2) {
+            System.out.println(USAGE);
+            System.exit(-1);
+        }
+        var settings = OrganisationSettings.parse(Arrays.copyOf(args, firstArgument));
+        var harness = new SoakHarness(settings, Path.of(args[firstArgument]));
+        System.out.println(RESULT_HEADER);
+        for (int i = firstArgument + 1; i < args.length; i++) {
+            System.out.println(harness.run(Integer.parseInt(args[i])));
+        }
+    }
+
+    /**
+     * Generates the organisation if needed, and runs the report over it.
+     * @param employees number of employees
+     * @return the CSV line of the results
+     * @throws IOException if the file cannot be generated or read
+     */
+    public String run(int employees) throws IOException {
+        Path file = generate(employees);
+        List<GarbageCollectorMXBean> collectors = ManagementFactory.getGarbageCollectorMXBeans();
+        var maxPause = new AtomicLong();
+        NotificationListener listener = (notification, handback) -> recordPause(notification, maxPause);
+        collectors.forEach(collector -> ((NotificationEmitter) collector).addNotificationListener(listener, null, null));
+        try {
+            System.gc();
+            resetPeakRss();
+            long gcCount = gcCount(collectors);
+            long gcMillis = gcMillis(collectors);
+            maxPause.set(0);
+            long start = System.nanoTime();
+            new ReportExecutor(new MappedCsvFile(file), new SimpleReporterFactory(),
+                    Channels.newChannel(OutputStream.nullOutputStream())).execute();
+            long wallMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            return String.join(",", List.of(String.valueOf(employees), String.valueOf(Files.size(file)),
+                    String.valueOf(wallMillis), String.valueOf(peakRss()),
+                    String.valueOf(gcCount(collectors) - gcCount), String.valueOf(gcMillis(collectors) - gcMillis),
+                    String.valueOf(maxPause.get())));
+        } finally {
+            for (GarbageCollectorMXBean collector : collectors) {
+                removeListener(collector, listener);
+            }
+        }
+    }
+
+    /**
+     * Generates the organisation, unless it has already been generated.
+     * @param employees number of employees
+     * @return path of the CSV file
+     * @throws IOException if the file cannot be written
+     */
+    private Path generate(int employees) throws IOException {
+        var runSettings = new OrganisationSettings(employees, settings.seed(), settings.minFanOut(), settings.maxFanOut(),
+                settings.maxDepth(), settings.maxLevelWidth(), settings.minSalary(), settings.maxSalary(),
+                Math.min(settings.cycles(), (employees - 1) / OrganisationSettings.CYCLE_LENGTH),
+                settings.duplicateShare(), settings.malformedShare());
+        Files.createDirectories(workDirectory);
+        Path file = workDirectory.resolve("organisation-%d-%d.csv".formatted(employees, Math.abs(runSettings.hashCode())));
+        if (!Files.exists(file)) {
+            new OrganisationGenerator(runSettings).write(file);
+        }
+        return file;
+    }
+
+    /**
+     * Records the duration of a GC pause, if it is longer than the longest so far.
+     * Concurrent cycles are skipped, their duration is not a pause of the application.
+     * @param notification notification of the garbage collector
+     * @param maxPause longest pause in milliseconds
+     */
+    private static void recordPause(Notification notification, AtomicLong maxPause) {
+        if (GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+            var info = GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+            if (!isConcurrent(info)) {
+                maxPause.accumulateAndGet(info.getGcInfo().getDuration(), Math::max);
+            }
+        }
+    }
+
+    /**
+     * Returns true if the notification is about a cycle running concurrently with the application, e.g.
+     * "G1 Concurrent GC" ("end of concurrent GC pause"), "ZGC Major Cycles" or "Shenandoah Cycles" ("end of GC cycle").
+     * @param info notification of the garbage collector
+     * @return true if the collection was not a stop-the-world pause
+     */
+    private static boolean isConcurrent(GarbageCollectionNotificationInfo info) {
+        String name = info.getGcName().toLowerCase(Locale.ROOT);
+        String action = info.getGcAction().toLowerCase(Locale.ROOT);
+        return name.contains(CONCURRENT) || name.contains(CYCLE) || action.contains(CONCURRENT) || action.contains(CYCLE);
+    }
+
+    /**
+     * Removes the listener from the garbage collector.
+     * @param collector garbage collector
+     * @param listener listener of GC notifications
+     */
+    private static void removeListener(GarbageCollectorMXBean collector, NotificationListener listener) {
+        try {
+            ((NotificationEmitter) collector).removeNotificationListener(listener);
+        } catch (ListenerNotFoundException e) {
+            // already removed
+        }
+    }
+
+    /**
+     * Returns the number of collections so far.
+     * @param collectors garbage collectors
+     * @return number of collections
+     */
+    private static long gcCount(List<GarbageCollectorMXBean> collectors) {
+        return collectors.stream().mapToLong(collector -> Math.max(0, collector.getCollectionCount())).sum();
+    }
+
+    /**
+     * Returns the accumulated collection time so far.
+     * @param collectors garbage collectors
+     * @return collection time in milliseconds
+     */
+    private static long gcMillis(List<GarbageCollectorMXBean> collectors) {
+        return collectors.stream().mapToLong(collector -> Math.max(0, collector.getCollectionTime())).sum();
+    }
+
+    /**
+     * Resets the peak resident set size of the process, if the platform supports it.
+     */
+    private static void resetPeakRss() {
+        try {
+            Files.writeString(PROC_CLEAR_REFS, RESET_PEAK_RSS);
+        } catch (IOException | UnsupportedOperationException | SecurityException e) {
+            // peak RSS is then measured since the start of the process
+        }
+    }
+
+    /**
+     * Returns the peak resident set size of the process.
+     * @return peak RSS in KiB, or -1 if it is not available
+     */
+    private static long peakRss() {
+        try {
+            for (String line : Files.readAllLines(PROC_STATUS)) {
+                if (line.startsWith(PEAK_RSS_PREFIX)) {
+                    return Long.parseLong(line.substring(PEAK_RSS_PREFIX.length()).replace("kB", "").trim());
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            return UNKNOWN;
+        }
+        return UNKNOWN;
+    }
+}
@@ -0,0 +1,123 @@
+package com.epam.reporter;
+
+import com.epam.reporter.api.ReporterFactory;
+import com.epam.reporter.impl.CEONotFoundException;
+import com.epam.reporter.impl.SimpleReporterFactory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchRunnerTest {
+    private static final String CONTENT = """
+            Id,firstName,lastName,salary,managerId
+            123,Joe,Doe,60000,
+            124,Martin,Chekov,45000,123
+            125,Bob,Ronstad,47000,123
+            300,Alice,Hasacat,50000,124
+            305,Brett,Hardleaf,34000,300
+            """;
+    private static final List<String> REPORT = List.of(
+            "Manager Martin Chekov salary (45000.00) is less than 20.0% of subordinates average salary by 15000.00");
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void runWritesTheReportOfEveryFileAndIsolatesFailures() throws Exception {
+        List<Path> files = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            Path file = directory.resolve("export" + i + ".csv");
+            Files.writeString(file, i == 7 ? "Id,firstName,lastName,salary,managerId\n" : CONTENT);
+            files.add(file);
+        }
+        Path missing = directory.resolve("missing.csv");
+        files.add(missing);
+
+        var results = new BatchRunner(ParserType.MAPPED, new SimpleReporterFactory(), 2, 16).run(files);
+
+        assertEquals(files.size(), results.size());
+        for (int i = 0; i < files.size(); i++) {
+            assertEquals(files.get(i), results.get(i).file());
+        }
+        assertInstanceOf(CEONotFoundException.class, results.get(7).failure());
+        assertInstanceOf(IOException.class, results.get(20).failure());
+        assertFalse(Files.exists(directory.resolve("export7.report.txt")));
+        for (int i = 0; i < 20; i++) {
+            if (i != 7) {
+                assertNull(results.get(i).failure());
+                assertEquals(REPORT, Files.readAllLines(directory.resolve("export" + i + ".report.txt")));
+            }
+        }
+    }
+
+    @Test
+    void errorOfOneFileDoesNotStopTheBatch() throws Exception {
+        Path large = Files.writeString(directory.resolve("large.csv"), CONTENT + "999,Jane,Doe,50000,123\n");
+        Path small = Files.writeString(directory.resolve("small.csv"), CONTENT);
+        var delegate = new SimpleReporterFactory();
+        ReporterFactory factory = employees -> {
+            if (employees.containsKey(999)) {
+                throw new OutOfMemoryError("Java heap space");
+            }
+            return delegate.create(employees);
+        };
+
+        var results = new BatchRunner(ParserType.SIMPLE, factory, 2, 16).run(List.of(large, small));
+
+        assertInstanceOf(OutOfMemoryError.class, results.get(0).failure());
+        assertEquals(large, results.get(0).file());
+        assertNull(results.get(1).failure());
+        assertEquals(REPORT, Files.readAllLines(directory.resolve("small.report.txt")));
+    }
+
+    @Test
+    void expandMatchesGlobPatternsAndKeepsPlainNames() throws Exception {
+        Files.createDirectories(directory.resolve("daily"));
+        Files.writeString(directory.resolve("b.csv"), CONTENT);
+        Files.writeString(directory.resolve("a.csv"), CONTENT);
+        Files.writeString(directory.resolve("a.report.txt"), "");
+        Files.writeString(directory.resolve("daily/c.csv"), CONTENT);
+
+        assertEquals(List.of(directory.resolve("a.csv"), directory.resolve("b.csv")),
+                BatchRunner.expand(List.of(directory + "/*.csv")));
+        assertEquals(List.of(directory.resolve("b.csv"), directory.resolve("a.csv"), directory.resolve("daily/c.csv")),
+                BatchRunner.expand(List.of(directory + "/b.csv", directory + "/**.csv")));
+        assertEquals(List.of(), BatchRunner.expand(List.of(directory + "/*.txt.csv")));
+        assertEquals(List.of(directory.resolve("a.csv"), directory.resolve("b.csv")),
+                BatchRunner.expand(List.of(directory + "/*")));
+    }
+
+    @Test
+    void printSummaryListsEveryFileAndTheTotals() {
+        var output = new ByteArrayOutputStream();
+        var results = List.of(
+                new BatchRunner.FileResult(Path.of("a.csv"), Duration.ofMillis(12), null),
+                new BatchRunner.FileResult(Path.of("b.csv"), Duration.ofMillis(3), new IllegalArgumentException("Line 3, too few columns")));
+
+        BatchRunner.printSummary(results, Duration.ofMillis(20), new PrintStream(output, true, StandardCharsets.UTF_8));
+
+        assertEquals(List.of(
+                "file,result,millis",
+                "a.csv,OK,12",
+                "b.csv,IllegalArgumentException: Line 3; too few columns,3",
+                "Processed 2 files in 20 ms, 1 failed."), output.toString(StandardCharsets.UTF_8).lines().toList());
+    }
+
+    @Test
+    void constructorRejectsNonPositiveLimits() {
+        var factory = new SimpleReporterFactory();
+        assertThrows(IllegalArgumentException.class, () -> new BatchRunner(ParserType.SIMPLE, factory, 0, 16));
+        assertThrows(IllegalArgumentException.class, () -> new BatchRunner(ParserType.SIMPLE, factory, 1, 0));
+    }
+}
@@ -0,0 +1,83 @@
+package com.epam.reporter;
+
+import com.epam.reporter.impl.SimpleReporterFactory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DirectoryWatcherTest {
+    private static final String CONTENT = """
+            Id,firstName,lastName,salary,managerId
+            123,Joe,Doe,60000,
+            124,Martin,Chekov,45000,123
+            125,Bob,Ronstad,47000,123
+            300,Alice,Hasacat,50000,124
+            305,Brett,Hardleaf,34000,300
+            """;
+    private static final List<String> REPORT = List.of(
+            "Manager Martin Chekov salary (45000.00) is less than 20.0% of subordinates average salary by 15000.00");
+    private static final Duration QUIET_PERIOD = Duration.ofMillis(100);
+    private static final long TIMEOUT_MILLIS = 10_000;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void watcherWritesTheReportOfNewAndExistingFiles() throws Exception {
+        Files.writeString(directory.resolve("existing.csv"), CONTENT);
+        var watcher = new DirectoryWatcher(directory, ParserType.MAPPED, new SimpleReporterFactory(), 2, QUIET_PERIOD);
+        Thread thread = Thread.ofPlatform().start(() -> run(watcher));
+        try {
+            Files.writeString(directory.resolve("new.csv"), CONTENT);
+
+            assertEquals(REPORT, awaitReport(directory.resolve("existing.report.txt")));
+            assertEquals(REPORT, awaitReport(directory.resolve("new.report.txt")));
+        } finally {
+            watcher.close();
+        }
+        thread.join(TIMEOUT_MILLIS);
+        assertFalse(thread.isAlive());
+    }
+
+    @Test
+    void watcherSkipsFilesWhoseReportIsUpToDate() throws Exception {
+        Files.writeString(directory.resolve("done.csv"), CONTENT);
+        Files.writeString(directory.resolve("done.report.txt"), "previous report");
+        var watcher = new DirectoryWatcher(directory, ParserType.SIMPLE, new SimpleReporterFactory(), 1, QUIET_PERIOD);
+        Thread thread = Thread.ofPlatform().start(() -> run(watcher));
+        try {
+            Files.writeString(directory.resolve("broken.csv"), "Id,firstName,lastName,salary,managerId\n");
+            Files.writeString(directory.resolve("next.csv"), CONTENT);
+
+            assertEquals(REPORT, awaitReport(directory.resolve("next.report.txt")));
+            assertEquals("previous report", Files.readString(directory.resolve("done.report.txt")));
+            assertFalse(Files.exists(directory.resolve("broken.report.txt")));
+        } finally {
+            watcher.close();
+        }
+        thread.join(TIMEOUT_MILLIS);
+    }
+
+    private static void run(DirectoryWatcher watcher) {
+        try {
+            watcher.run();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static List<String> awaitReport(Path report) throws IOException, InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (!Files.exists(report) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        return Files.readAllLines(report);
+    }
+}
@@ -0,0 +1,122 @@
+package com.epam.reporter;
+
+import com.epam.reporter.impl.CEONotFoundException;
+import com.epam.reporter.impl.SimpleReporterFactory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReportCacheTest {
+    private static final String CONTENT = """
+            Id,firstName,lastName,salary,managerId
+            123,Joe,Doe,60000,
+            124,Martin,Chekov,45000,123
+            125,Bob,Ronstad,47000,123
+            300,Alice,Hasacat,50000,124
+            305,Brett,Hardleaf,34000,300
+            """;
+    private static final String REPORT =
+            "Manager Martin Chekov salary (45000.00) is less than 20.0% of subordinates average salary by 15000.00" + System.lineSeparator();
+    private static final BigDecimal LOWER = new BigDecimal("1.2");
+    private static final BigDecimal UPPER = new BigDecimal("1.5");
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void hashMatchesTheXxh64TestVectors() throws Exception {
+        assertEquals(0xEF46DB3751D8E999L, Xxh64.hash(ByteBuffer.allocate(0)));
+        assertEquals(0x44BC2CF5AD770999L, Xxh64.hash(ByteBuffer.wrap("abc".getBytes(StandardCharsets.US_ASCII))));
+        byte[] sentence = "Nobody inspects the spammish repetition".getBytes(StandardCharsets.US_ASCII);
+        assertEquals(0xFBCEA83C8A378BF1L, Xxh64.hash(ByteBuffer.wrap(sentence)));
+        Path file = Files.write(directory.resolve("sentence.txt"), sentence);
+        assertEquals(0xFBCEA83C8A378BF1L, Xxh64.hash(file));
+    }
+
+    @Test
+    void secondRunIsServedFromTheCache() throws Exception {
+        Path file = Files.writeString(directory.resolve("employees.csv"), CONTENT);
+        var cache = new ReportCache(directory.resolve("cache"), 1 << 20);
+        ReportCache.Key key = ReportCache.key(file, LOWER, UPPER, "SIMPLE");
+        var first = new ByteArrayOutputStream();
+
+        assertFalse(cache.read(key, Channels.newChannel(first)));
+        cache.write(key, ParserType.SIMPLE.open(file), new SimpleReporterFactory(), Channels.newChannel(first), StandardCharsets.UTF_8);
+        var second = new ByteArrayOutputStream();
+        assertTrue(cache.read(ReportCache.key(file, LOWER, UPPER, "SIMPLE"), Channels.newChannel(second)));
+
+        assertEquals(REPORT, first.toString(StandardCharsets.UTF_8));
+        assertEquals(REPORT, second.toString(StandardCharsets.UTF_8));
+        assertNotEquals(key.value(), ReportCache.key(file, new BigDecimal("1.20"), UPPER, "SIMPLE").value());
+        assertNotEquals(key.value(), ReportCache.key(file, LOWER, UPPER, "MAPPED").value());
+        Files.writeString(file, CONTENT.replace("34000", "34001"));
+        assertNotEquals(key.value(), ReportCache.key(file, LOWER, UPPER, "SIMPLE").value());
+    }
+
+    @Test
+    void failedReportsAreNotCached() throws Exception {
+        Path file = Files.writeString(directory.resolve("no-ceo.csv"),
+                "Id,firstName,lastName,salary,managerId\n1,Joe,Doe,60000,2\n2,Jane,Doe,50000,1\n");
+        Path cacheDirectory = directory.resolve("cache");
+        var cache = new ReportCache(cacheDirectory, 1 << 20);
+        ReportCache.Key key = ReportCache.key(file, LOWER, UPPER, "SIMPLE");
+
+        assertThrows(CEONotFoundException.class, () -> cache.write(key, ParserType.SIMPLE.open(file),
+                new SimpleReporterFactory(), Channels.newChannel(new ByteArrayOutputStream()), StandardCharsets.UTF_8));
+
+        assertFalse(cache.read(key, Channels.newChannel(new ByteArrayOutputStream())));
+        try (var files = Files.list(cacheDirectory)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void reportOfAFileChangedAfterHashingIsNotCached() throws Exception {
+        Path file = Files.writeString(directory.resolve("employees.csv"), CONTENT);
+        Path cacheDirectory = directory.resolve("cache");
+        var cache = new ReportCache(cacheDirectory, 1 << 20);
+        ReportCache.Key key = ReportCache.key(file, LOWER, UPPER, "SIMPLE");
+        Files.writeString(file, CONTENT + "\n");
+        var output = new ByteArrayOutputStream();
+
+        cache.write(key, ParserType.SIMPLE.open(file), new SimpleReporterFactory(), Channels.newChannel(output), StandardCharsets.UTF_8);
+
+        assertEquals(REPORT, output.toString(StandardCharsets.UTF_8));
+        assertFalse(cache.read(key, Channels.newChannel(new ByteArrayOutputStream())));
+        try (var files = Files.list(cacheDirectory)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void leastRecentlyUsedReportsAreEvicted() throws Exception {
+        long entrySize = REPORT.getBytes(StandardCharsets.UTF_8).length;
+        var cache = new ReportCache(directory.resolve("cache"), 2 * entrySize);
+        ReportCache.Key[] keys = new ReportCache.Key[3];
+        for (int i = 0; i < keys.length; i++) {
+            Path file = Files.writeString(directory.resolve("employees" + i + ".csv"), CONTENT + "\n".repeat(i));
+            keys[i] = ReportCache.key(file, LOWER, UPPER, "SIMPLE");
+            cache.write(keys[i], ParserType.SIMPLE.open(file), new SimpleReporterFactory(),
+                    Channels.newChannel(new ByteArrayOutputStream()), StandardCharsets.UTF_8);
+            Files.setLastModifiedTime(directory.resolve("cache").resolve(keys[i].value() + ".report"), FileTime.fromMillis(1_000L * (i + 1)));
+            if (i == 1) {
+                assertTrue(cache.read(keys[0], Channels.newChannel(new ByteArrayOutputStream())));
+            }
+        }
+        cache.evict();
+
+        assertTrue(cache.read(keys[0], Channels.newChannel(new ByteArrayOutputStream())));
+        assertFalse(cache.read(keys[1], Channels.newChannel(new ByteArrayOutputStream())));
+        assertTrue(cache.read(keys[2], Channels.newChannel(new ByteArrayOutputStream())));
+    }
+}
@@ -0,0 +1,65 @@
+package com.epam.reporter;
+
+import com.epam.reporter.impl.SimpleReporterFactory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReportFileTest {
+    private static final String CONTENT = """
+            Id,firstName,lastName,salary,managerId
+            123,Joe,Doe,60000,
+            124,Martin,Chekov,45000,123
+            125,Bob,Ronstad,47000,123
+            300,Alice,Hasacat,50000,124
+            305,Brett,Hardleaf,34000,300
+            """;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void plainAndCompressedFilesOfTheSameNameHaveReportsOfTheirOwn() throws Exception {
+        Path plain = Files.writeString(directory.resolve("employees.csv"), CONTENT);
+        Path compressed = directory.resolve("employees.csv.gz");
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(compressed))) {
+            out.write(CONTENT.replace("45000", "46000").getBytes(StandardCharsets.UTF_8));
+        }
+        List<String> plainReport = report(plain);
+        List<String> compressedReport = report(compressed);
+        assertNotEquals(plainReport, compressedReport);
+
+        List<Future<Path>> writes = new ArrayList<>();
+        try (var executor = Executors.newFixedThreadPool(8)) {
+            for (int i = 0; i < 200; i++) {
+                Path file = i % 2 == 0 ? plain : compressed;
+                writes.add(executor.submit(() -> ReportFile.write(file, ParserType.SIMPLE.open(file), new SimpleReporterFactory())));
+            }
+        }
+        for (int i = 0; i < writes.size(); i++) {
+            assertEquals(directory.resolve(i % 2 == 0 ? "employees.report.txt" : "employees.csv.gz.report.txt"), writes.get(i).get());
+        }
+
+        assertEquals(plainReport, Files.readAllLines(directory.resolve("employees.report.txt")));
+        assertEquals(compressedReport, Files.readAllLines(directory.resolve("employees.csv.gz.report.txt")));
+        try (var files = Files.list(directory)) {
+            assertEquals(4, files.count());
+        }
+    }
+
+    private List<String> report(Path file) throws IOException {
+        return Files.readAllLines(ReportFile.write(file, ParserType.SIMPLE.open(file), new SimpleReporterFactory()));
+    }
+}
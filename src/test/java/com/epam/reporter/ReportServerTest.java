@@ -0,0 +1,136 @@
+package com.epam.reporter;
+
+import com.epam.reporter.impl.SimpleReporterFactory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReportServerTest {
+    private static final String CONTENT = """
+            Id,firstName,lastName,salary,managerId
+            123,Joe,Doe,60000,
+            124,Martin,Chekov,45000,123
+            125,Bob,Ronstad,47000,123
+            300,Alice,Hasacat,50000,124
+            305,Brett,Hardleaf,34000,300
+            """;
+    private static final String REPORT =
+            "Manager Martin Chekov salary (45000.00) is less than 20.0% of subordinates average salary by 15000.00" + System.lineSeparator();
+
+    @TempDir
+    Path directory;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @Test
+    void postReturnsTheReportOfTheUploadedFile() throws Exception {
+        try (var server = newServer(2, 4)) {
+            var response = send(server, "", HttpRequest.BodyPublishers.ofString(CONTENT));
+
+            assertEquals(200, response.statusCode());
+            assertEquals(REPORT, response.body());
+        }
+    }
+
+    @Test
+    void getReturnsTheReportOfTheReferencedFileWithOverriddenCoefficients() throws Exception {
+        Files.writeString(directory.resolve("employees.csv"), CONTENT);
+        try (var server = newServer(2, 4)) {
+            var response = get(server, "?file=employees.csv&lower=1.1&upper=1.6");
+
+            assertEquals(200, response.statusCode());
+            assertTrue(response.body().startsWith("Manager Martin Chekov salary (45000.00) is less than 10.0% of subordinates average salary"));
+        }
+    }
+
+    @Test
+    void invalidRequestsAreAnsweredWithErrorStatuses() throws Exception {
+        Files.writeString(directory.resolve("employees.csv"), CONTENT);
+        Files.writeString(directory.resolve("no-ceo.csv"), "Id,firstName,lastName,salary,managerId\n1,Joe,Doe,60000,2\n2,Jane,Doe,50000,1\n");
+        try (var server = newServer(1, 0)) {
+            assertEquals(400, get(server, "?file=employees.csv&lower=x").statusCode());
+            assertEquals(400, get(server, "?file=employees.csv&lower=2&upper=1").statusCode());
+            assertEquals(400, get(server, "").statusCode());
+            assertEquals(404, get(server, "?file=missing.csv").statusCode());
+            assertEquals(404, get(server, "?file=../" + directory.getFileName() + "/../secret.csv").statusCode());
+            assertEquals(422, get(server, "?file=no-ceo.csv").statusCode());
+            assertEquals(405, send(server, "", HttpRequest.BodyPublishers.noBody(), "PUT").statusCode());
+        }
+    }
+
+    @Test
+    void concurrentRequestsAreServedOrRejectedWhenTheQueueIsFull() throws Exception {
+        try (var server = newServer(1, 1)) {
+            List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                responses.add(client.sendAsync(request(server, "").POST(HttpRequest.BodyPublishers.ofString(CONTENT)).build(),
+                        HttpResponse.BodyHandlers.ofString()));
+            }
+            for (var response : responses) {
+                var result = response.join();
+                if (result.statusCode() == 200) {
+                    assertEquals(REPORT, result.body());
+                } else {
+                    assertEquals(503, result.statusCode());
+                }
+            }
+            assertEquals(200, send(server, "", HttpRequest.BodyPublishers.ofString(CONTENT)).statusCode());
+        }
+    }
+
+    @Test
+    void oversizedUploadsAreRejected() throws Exception {
+        int maxUploadBytes = CONTENT.length() - 1;
+        try (var server = newServer(1, 0, maxUploadBytes)) {
+            var declared = send(server, "", HttpRequest.BodyPublishers.ofString(CONTENT));
+            var chunked = send(server, "", HttpRequest.BodyPublishers.ofInputStream(
+                    () -> new ByteArrayInputStream(CONTENT.getBytes(StandardCharsets.UTF_8))));
+
+            assertEquals(413, declared.statusCode());
+            assertEquals(413, chunked.statusCode());
+            assertEquals(200, send(server, "", HttpRequest.BodyPublishers.ofString(CONTENT.substring(0, maxUploadBytes)))
+                    .statusCode());
+        }
+    }
+
+    private ReportServer newServer(int concurrency, int queueCapacity) throws IOException {
+        return newServer(concurrency, queueCapacity, 1 << 20);
+    }
+
+    private ReportServer newServer(int concurrency, int queueCapacity, int maxUploadBytes) throws IOException {
+        return new ReportServer(new InetSocketAddress("localhost", 0), directory, ParserType.SIMPLE,
+                new SimpleReporterFactory(), concurrency, queueCapacity, maxUploadBytes);
+    }
+
+    private HttpResponse<String> get(ReportServer server, String query) throws Exception {
+        return client.send(request(server, query).GET().build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> send(ReportServer server, String query, HttpRequest.BodyPublisher body) throws Exception {
+        return send(server, query, body, "POST");
+    }
+
+    private HttpResponse<String> send(ReportServer server, String query, HttpRequest.BodyPublisher body, String method)
+            throws Exception {
+        return client.send(request(server, query).method(method, body).build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static HttpRequest.Builder request(ReportServer server, String query) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + server.port() + ReportServer.REPORT_PATH + query));
+    }
+}
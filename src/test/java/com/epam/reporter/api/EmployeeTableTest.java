@@ -0,0 +1,77 @@
+package com.epam.reporter.api;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmployeeTableTest {
+
+    @Test
+    void addRejectsDuplicateIds() {
+        var table = new EmployeeTable();
+
+        assertTrue(table.add(1, "Joe", "Doe", new BigDecimal("60000"), null));
+        assertFalse(table.add(1, "Jane", "Doe", new BigDecimal("60000"), null));
+        assertEquals(1, table.size());
+        assertEquals("Joe", table.firstName(0));
+    }
+
+    @Test
+    void tableReturnsTheSameRecordsAsTheyWereAdded() {
+        Map<Integer, Employee> employees = new HashMap<>();
+        for (int id = -5000; id < 5000; id += 3) {
+            employees.put(id, new Employee(id, "First" + id, "Läst" + id, new BigDecimal(id + ".5"), id % 2 == 0 ? id - 3 : null));
+        }
+        employees.put(Integer.MAX_VALUE, new Employee(Integer.MAX_VALUE, "", "", new BigDecimal("123456789012345678901234.125"), 0));
+        employees.put(Integer.MIN_VALUE, new Employee(Integer.MIN_VALUE, "Big", "Scale", new BigDecimal("1E+200"), 1));
+
+        var table = EmployeeTable.of(employees.values());
+
+        assertEquals(employees.size(), table.size());
+        assertEquals(employees, table.toMap());
+        for (Employee employee : employees.values()) {
+            assertEquals(employee, table.employee(table.indexOf(employee.id())));
+        }
+        assertEquals(EmployeeTable.NO_INDEX, table.indexOf(2));
+    }
+
+    @Test
+    void idsSharingTheirLowBitsAreFound() {
+        var table = new EmployeeTable();
+        for (int k = 0; k < 200_000; k++) {
+            assertTrue(table.add(k << 12, "First", "Last", BigDecimal.ONE, null));
+        }
+
+        for (int k = 0; k < 200_000; k++) {
+            assertEquals(k, table.indexOf(k << 12));
+        }
+        assertEquals(EmployeeTable.NO_INDEX, table.indexOf(1 << 12 | 1));
+    }
+
+    @Test
+    void managerIndexResolvesManagersAddedLater() {
+        var table = new EmployeeTable();
+        table.add(300, "Alice", "Hasacat", new BigDecimal("50000"), 124);
+        table.add(123, "Joe", "Doe", new BigDecimal("60000"), null);
+        table.add(124, "Martin", "Chekov", new BigDecimal("45000"), 123);
+        table.add(125, "Bob", "Ronstad", new BigDecimal("47000"), 0);
+        table.add(126, "Brett", "Hardleaf", new BigDecimal("34000"), 999);
+
+        assertEquals(2, table.managerIndex(0));
+        assertEquals(EmployeeTable.NO_INDEX, table.managerIndex(1));
+        assertEquals(1, table.managerIndex(2));
+        assertEquals(EmployeeTable.NO_INDEX, table.managerIndex(3));
+        assertEquals(EmployeeTable.NO_INDEX, table.managerIndex(4));
+        assertEquals(999, table.managerId(4));
+    }
+
+    @Test
+    void accessOutsideTheTableThrowsException() {
+        var table = new EmployeeTable();
+        assertThrows(IndexOutOfBoundsException.class, () -> table.id(0));
+    }
+}
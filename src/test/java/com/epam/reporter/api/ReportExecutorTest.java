@@ -3,8 +3,13 @@ package com.epam.reporter.api;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 
-import java.util.ArrayList;
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
 
 class ReportExecutorTest {
 
@@ -14,18 +19,34 @@ class ReportExecutorTest {
         var reporterFactory = Mockito.mock(ReporterFactory.class);
         var reporter = Mockito.mock(Reporter.class);
         var employees = new HashMap<Integer, Employee>();
-        var report = new ArrayList<String>();
 
         Mockito.when(csvParser.parse()).thenReturn(employees);
+        Mockito.when(reporterFactory.create(csvParser)).thenCallRealMethod();
         Mockito.when(reporterFactory.create(employees)).thenReturn(reporter);
-        Mockito.when(reporter.report()).thenReturn(report);
 
-        var underTest = new ReportExecutor(csvParser, reporterFactory);
+        var underTest = new ReportExecutor(csvParser, reporterFactory, Channels.newChannel(new ByteArrayOutputStream()));
 
         underTest.execute();
 
         Mockito.verify(csvParser).parse();
         Mockito.verify(reporterFactory).create(employees);
-        Mockito.verify(reporter).report();
+        Mockito.verify(reporter).report(Mockito.any(ReportSink.class));
+    }
+
+    @Test
+    void executeShouldWriteTheReportToTheChannel() {
+        var csvParser = Mockito.mock(CsvFile.class);
+        var reporterFactory = Mockito.mock(ReporterFactory.class);
+        var reporter = Mockito.mock(Reporter.class);
+        var output = new ByteArrayOutputStream();
+
+        Mockito.when(reporterFactory.create(csvParser)).thenReturn(reporter);
+        Mockito.when(reporter.report()).thenReturn(List.of("first", "second"));
+        Mockito.doCallRealMethod().when(reporter).report(Mockito.any(ReportSink.class));
+
+        new ReportExecutor(csvParser, reporterFactory, Channels.newChannel(output)).execute();
+
+        String separator = System.lineSeparator();
+        assertEquals("first" + separator + "second" + separator, output.toString(StandardCharsets.UTF_8));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,141 @@
+package com.epam.reporter.impl;
+
+import com.epam.reporter.api.ParseErrorCode;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsyncErrorSinkTest {
+
+    @Test
+    void closePrintsTheCountsAndTheFirstExamples() {
+        String content = """
+                Id,firstName,lastName,salary,managerId
+                1,Joe,Doe,60000,
+                2,Short
+                3,Bad,Salary,x,1
+                4,Too,Few
+                1,Dup,Licate,1,1
+                5,Also,Short
+                """;
+        var output = new ByteArrayOutputStream();
+
+        try (var sink = new AsyncErrorSink(new PrintStream(output, true, StandardCharsets.UTF_8), 2, 16)) {
+            new SimpleCsvFile(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), sink).parse();
+            sink.handle("Custom error", 9);
+        }
+
+        assertEquals(String.join(System.lineSeparator(),
+                "Skipped 6 lines.",
+                "NOT_ENOUGH_COLUMNS: 3",
+                "  line 3: Invalid line, not enough columns, skipping it! Line: 2,Short!",
+                "  line 5: Invalid line, not enough columns, skipping it! Line: 4,Too,Few!",
+                "  ... and 1 more",
+                "INVALID_NUMBER: 1",
+                "  line 4: Skipping line because invalid number: 3,Bad,Salary,x,1!",
+                "DUPLICATE_ID: 1",
+                "  line 6: File contains multiple records for id: 1!",
+                "OTHER: 1",
+                "  line 9: Custom error",
+                ""), output.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void examplesOfASourceStartWithItsName() {
+        var output = new ByteArrayOutputStream();
+
+        try (var sink = new AsyncErrorSink(new PrintStream(output, true, StandardCharsets.UTF_8), 2, 16)) {
+            sink.forSource("a.csv").handle(new CsvParseError(ParseErrorCode.INVALID_NUMBER, 4, CsvParseError.UNKNOWN_OFFSET, "1,x"));
+            sink.forSource("b.csv").handle("Custom error", 7);
+            sink.handle(new CsvParseError(ParseErrorCode.INVALID_NUMBER, 5, CsvParseError.UNKNOWN_OFFSET, "2,y"));
+        }
+
+        assertEquals(String.join(System.lineSeparator(),
+                "Skipped 3 lines.",
+                "INVALID_NUMBER: 2",
+                "  a.csv line 4: Skipping line because invalid number: 1,x!",
+                "  line 5: Skipping line because invalid number: 2,y!",
+                "OTHER: 1",
+                "  b.csv line 7: Custom error",
+                ""), output.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void countsAreExactWhenManyThreadsOverflowTheRingBuffer() throws InterruptedException {
+        int threads = 8;
+        int errorsPerThread = 20_000;
+        var output = new ByteArrayOutputStream();
+        var sink = new AsyncErrorSink(new PrintStream(output, true, StandardCharsets.UTF_8), 3, 64);
+        var start = new CountDownLatch(1);
+        List<Thread> parsers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            parsers.add(Thread.ofPlatform().start(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                for (int i = 0; i < errorsPerThread; i++) {
+                    ParseErrorCode code = i % 2 == 0 ? ParseErrorCode.INVALID_NUMBER : ParseErrorCode.NOT_ENOUGH_COLUMNS;
+                    sink.handle(new CsvParseError(code, i, CsvParseError.UNKNOWN_OFFSET, "1,x"));
+                }
+            }));
+        }
+        start.countDown();
+        for (Thread parser : parsers) {
+            parser.join();
+        }
+        sink.close();
+
+        long half = (long) threads * errorsPerThread / 2;
+        assertEquals(half, sink.count(ParseErrorCode.INVALID_NUMBER));
+        assertEquals(half, sink.count(ParseErrorCode.NOT_ENOUGH_COLUMNS));
+        assertEquals(0, sink.count(ParseErrorCode.DUPLICATE_ID));
+        String summary = output.toString(StandardCharsets.UTF_8);
+        assertTrue(summary.startsWith("Skipped " + 2 * half + " lines."));
+        assertEquals(6, summary.lines().filter(line -> line.startsWith("  line ")).count());
+        assertTrue(summary.contains("  ... and " + (half - 3) + " more"));
+    }
+
+    @Test
+    void closeRightAfterTheLastErrorCountsEveryError() throws InterruptedException {
+        for (int run = 0; run < 2_000; run++) {
+            var sink = new AsyncErrorSink(new PrintStream(OutputStream.nullOutputStream()), 0, 1024);
+            List<Thread> parsers = new ArrayList<>();
+            for (int t = 0; t < 2; t++) {
+                parsers.add(Thread.ofPlatform().start(() -> {
+                    for (int i = 0; i < 10; i++) {
+                        Thread.onSpinWait();
+                    }
+                    sink.handle(new CsvParseError(ParseErrorCode.INVALID_NUMBER, 1, CsvParseError.UNKNOWN_OFFSET, "1,x"));
+                }));
+            }
+            for (Thread parser : parsers) {
+                parser.join();
+            }
+            sink.close();
+
+            assertEquals(2, sink.count(ParseErrorCode.INVALID_NUMBER), "run " + run);
+        }
+    }
+
+    @Test
+    void closePrintsNothingWithoutErrors() {
+        var output = new ByteArrayOutputStream();
+        var sink = new AsyncErrorSink(new PrintStream(output, true, StandardCharsets.UTF_8));
+
+        sink.close();
+        sink.close();
+
+        assertEquals("", output.toString(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,180 @@
+package com.epam.reporter.impl;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompressionTest {
+    private static final String CONTENT = """
+            Id,firstName,lastName,salary,managerId
+            123,Joe,Doe,60000,
+            124,Martin,Chekov,45000,123
+            125,Bob,Ronstad,47000,123
+            """;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void detectUsesTheMagicBytesInsteadOfTheName() throws IOException {
+        Path plain = directory.resolve("plain.gz");
+        Files.writeString(plain, CONTENT);
+        Path gzip = directory.resolve("gzip.csv");
+        Files.write(gzip, gzip(CONTENT.getBytes(StandardCharsets.UTF_8)));
+        Path zip = directory.resolve("zip.csv");
+        Files.write(zip, zip(CONTENT.getBytes(StandardCharsets.UTF_8)));
+        Path empty = directory.resolve("empty.csv");
+        Files.write(empty, new byte[0]);
+
+        assertEquals(Compression.NONE, Compression.detect(plain));
+        assertEquals(Compression.GZIP, Compression.detect(gzip));
+        assertEquals(Compression.ZIP, Compression.detect(zip));
+        assertEquals(Compression.NONE, Compression.detect(empty));
+    }
+
+    @Test
+    void compressedFilesAreParsedLikeThePlainFile() throws IOException {
+        Path gzip = directory.resolve("employees.csv.gz");
+        Files.write(gzip, gzip(CONTENT.getBytes(StandardCharsets.UTF_8)));
+        Path zip = directory.resolve("employees.csv.zip");
+        Files.write(zip, zip(CONTENT.getBytes(StandardCharsets.UTF_8)));
+        var expected = new SimpleCsvFile(new ByteArrayInputStream(CONTENT.getBytes(StandardCharsets.UTF_8))).parse();
+
+        assertEquals(expected, new SimpleCsvFile(Compression.GZIP.open(gzip)).parse());
+        assertEquals(expected, new SimpleCsvFile(Compression.ZIP.open(zip)).parse());
+    }
+
+    @Test
+    void uncompressedSizeIsReadFromTheMetadataOfTheFormat() throws IOException {
+        byte[] bytes = CONTENT.repeat(1000).getBytes(StandardCharsets.UTF_8);
+        Path plain = Files.write(directory.resolve("employees.csv"), bytes);
+        Path gzip = Files.write(directory.resolve("employees.csv.gz"), gzip(bytes));
+        Path zip = Files.write(directory.resolve("employees.csv.zip"), zip(bytes));
+
+        assertEquals(bytes.length, Compression.NONE.uncompressedSize(plain));
+        assertEquals(bytes.length, Compression.GZIP.uncompressedSize(gzip));
+        assertEquals(bytes.length, Compression.ZIP.uncompressedSize(zip));
+        assertTrue(Files.size(gzip) < bytes.length / 10);
+    }
+
+    @Test
+    void emptyArchiveCannotBeOpened() throws IOException {
+        Path zip = directory.resolve("empty.zip");
+        try (var out = new ZipOutputStream(Files.newOutputStream(zip))) {
+            out.putNextEntry(new ZipEntry("directory/"));
+            out.closeEntry();
+        }
+
+        assertThrows(ZipException.class, () -> Compression.ZIP.open(zip));
+    }
+
+    @Test
+    void pipelinedStreamPassesEveryByteThroughFewSmallBuffers() throws IOException {
+        byte[] bytes = new byte[100_003];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) (i * 31);
+        }
+
+        try (var in = new PipelinedInputStream(new ByteArrayInputStream(bytes), 1000, 2)) {
+            var out = new ByteArrayOutputStream();
+            int first = in.read();
+            out.write(first);
+            in.transferTo(out);
+            assertArrayEquals(bytes, out.toByteArray());
+            assertEquals(-1, in.read());
+        }
+    }
+
+    @Test
+    void pipelinedStreamThrowsTheFailureOfTheSourceAfterTheBytesBeforeIt() throws IOException {
+        byte[] compressed = gzip(new byte[50_000]);
+        byte[] truncated = Arrays.copyOf(compressed, compressed.length - 10);
+
+        try (InputStream in = new PipelinedInputStream(Compression.GZIP.decompress(new ByteArrayInputStream(truncated)), 1000, 2)) {
+            assertEquals(1000, in.readNBytes(1000).length);
+            assertThrows(EOFException.class, in::readAllBytes);
+        }
+    }
+
+    @Test
+    void pipelinedStreamThrowsAnUncheckedFailureOfTheSourceInsteadOfWaiting() throws IOException {
+        var failure = new IllegalStateException("corrupt block");
+        var source = new InputStream() {
+            int count;
+
+            @Override
+            public int read() {
+                if (++count > 1500) {
+                    throw failure;
+                }
+                return 'x';
+            }
+        };
+
+        try (InputStream in = new PipelinedInputStream(source, 1000, 2)) {
+            assertEquals(1000, in.readNBytes(1000).length);
+            var thrown = assertTimeoutPreemptively(Duration.ofSeconds(10), () -> assertThrows(IOException.class, in::readAllBytes));
+            assertSame(failure, thrown.getCause());
+        }
+    }
+
+    @Test
+    void closingThePipelinedStreamStopsTheBackgroundThread() throws IOException {
+        var source = new InputStream() {
+            boolean closed;
+
+            @Override
+            public int read() {
+                return 'x';
+            }
+
+            @Override
+            public void close() {
+                closed = true;
+            }
+        };
+
+        var in = new PipelinedInputStream(source, 100, 2);
+        assertEquals('x', in.read());
+        in.close();
+
+        assertTrue(source.closed);
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        var out = new ByteArrayOutputStream();
+        try (OutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] zip(byte[] bytes) throws IOException {
+        var out = new ByteArrayOutputStream();
+        try (var zip = new ZipOutputStream(out)) {
+            zip.putNextEntry(new ZipEntry("export/"));
+            zip.closeEntry();
+            zip.putNextEntry(new ZipEntry("export/employees.csv"));
+            zip.write(bytes);
+            zip.closeEntry();
+        }
+        return out.toByteArray();
+    }
+}
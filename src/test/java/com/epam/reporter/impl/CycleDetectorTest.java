@@ -0,0 +1,72 @@
+package com.epam.reporter.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.epam.reporter.impl.TestConstants.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class CycleDetectorTest {
+
+    @Test
+    void findCyclesReturnsNothingIfEveryEmployeeIsInTheHierarchy() {
+        var ceo = new EmployeeEntity(1, JOHN, DOE, CEO_SALARY);
+        var manager = new EmployeeEntity(2, JANE, DOE, MANAGER_SALARY);
+        var employee = new EmployeeEntity(3, JACK, DOE, EMPLOYEE_SALARY);
+        ceo.addSubordinate(manager);
+        manager.addSubordinate(employee);
+
+        assertEquals(List.of(), new CycleDetector(List.of(employee, manager, ceo)).findCycles());
+    }
+
+    @Test
+    void findCyclesReportsEveryCycleWithTheEmployeesUnderIt() {
+        var ceo = new EmployeeEntity(1, JOHN, DOE, CEO_SALARY);
+        var first = new EmployeeEntity(2, JANE, DOE, MANAGER_SALARY);
+        var second = new EmployeeEntity(3, JACK, DOE, MANAGER_SALARY);
+        var third = new EmployeeEntity(4, DAN, DOE, MANAGER_SALARY);
+        var underFirst = new EmployeeEntity(5, NOAH, DOE, EMPLOYEE_SALARY);
+        var underUnderFirst = new EmployeeEntity(6, ROBERT, DOE, EMPLOYEE_SALARY);
+        var selfManaged = new EmployeeEntity(7, EMILY, TAYLOR, EMPLOYEE_SALARY);
+        first.addSubordinate(second);
+        second.addSubordinate(third);
+        third.addSubordinate(first);
+        first.addSubordinate(underFirst);
+        underFirst.addSubordinate(underUnderFirst);
+        selfManaged.addSubordinate(selfManaged);
+
+        var cycles = new CycleDetector(List.of(underUnderFirst, ceo, selfManaged, second, underFirst, first, third)).findCycles();
+
+        assertEquals(List.of(
+                new CycleDetector.Cycle(List.of(first, third, second), List.of(underUnderFirst, underFirst)),
+                new CycleDetector.Cycle(List.of(selfManaged), List.of())), cycles);
+    }
+
+    @Test
+    void findCyclesHandlesLongCyclesAndChains() {
+        List<EmployeeEntity> employees = new ArrayList<>();
+        var ceo = new EmployeeEntity(0, JOHN, DOE, CEO_SALARY);
+        employees.add(ceo);
+        EmployeeEntity manager = null;
+        for (int id = 1; id <= 100_000; id++) {
+            var employee = new EmployeeEntity(id, JANE, DOE, EMPLOYEE_SALARY);
+            if (manager != null) {
+                manager.addSubordinate(employee);
+            }
+            employees.add(employee);
+            manager = employee;
+        }
+        manager.addSubordinate(employees.get(1));
+        var hanging = new EmployeeEntity(100_001, JACK, DOE, EMPLOYEE_SALARY);
+        employees.get(50_000).addSubordinate(hanging);
+        employees.add(hanging);
+
+        var cycles = new CycleDetector(employees).findCycles();
+
+        assertEquals(1, cycles.size());
+        assertEquals(100_000, cycles.getFirst().members().size());
+        assertEquals(List.of(hanging), cycles.getFirst().subordinates());
+    }
+}
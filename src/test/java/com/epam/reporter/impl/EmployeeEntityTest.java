@@ -39,4 +39,29 @@ class EmployeeEntityTest {
 
         assertEquals(1, employee.getLevel());
     }
-}
\ No newline at end of file
+
+    @Test
+    void getLevelHandlesDeepReportingLines() {
+        EmployeeEntity ceo = new EmployeeEntity(1, JOHN, DOE, EMPLOYEE_SALARY);
+        EmployeeEntity employee = ceo;
+        for (int id = 2; id <= 100_000; id++) {
+            EmployeeEntity subordinate = new EmployeeEntity(id, JOHN, DOE, EMPLOYEE_SALARY);
+            employee.addSubordinate(subordinate);
+            employee = subordinate;
+        }
+
+        assertEquals(99_999, employee.getLevel());
+        assertEquals(99_998, employee.getManager().getLevel());
+    }
+
+    @Test
+    void getLevelThrowsExceptionIfReportingLineContainsCycle() {
+        EmployeeEntity employee1 = new EmployeeEntity(1, JOHN, DOE, EMPLOYEE_SALARY);
+        EmployeeEntity employee2 = new EmployeeEntity(2, JANE, DOE, EMPLOYEE_SALARY);
+        employee1.addSubordinate(employee2);
+        employee2.addSubordinate(employee1);
+
+        assertThrows(IllegalStateException.class, employee1::getLevel);
+        assertThrows(IllegalStateException.class, employee2::getLevel);
+    }
+}
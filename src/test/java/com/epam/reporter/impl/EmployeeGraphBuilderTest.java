@@ -0,0 +1,66 @@
+package com.epam.reporter.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmployeeGraphBuilderTest {
+
+    @Test
+    void buildLinksManagersAppearingBeforeAndAfterTheirSubordinates() {
+        var employees = build("""
+                Id,firstName,lastName,salary,managerId
+                300,Alice,Hasacat,50000,124
+                123,Joe,Doe,60000,
+                124,Martin,Chekov,45000,123
+                125,Bob,Ronstad,47000,123
+                305,Brett,Hardleaf,34000,300""");
+
+        assertNull(employees.get(123).getManager());
+        assertEquals(List.of(employees.get(124), employees.get(125)), employees.get(123).getSubordinates());
+        assertSame(employees.get(124), employees.get(300).getManager());
+        assertSame(employees.get(300), employees.get(305).getManager());
+        assertEquals(3, employees.get(305).getLevel());
+    }
+
+    @Test
+    void buildKeepsTheFirstRecordAndReportsDuplicates() {
+        var errors = new ArrayList<String>();
+        var employees = build("""
+                Id,firstName,lastName,salary,managerId
+                1,Joe,Doe,60000,
+                1,Jane,Doe,60000,""", errors);
+
+        assertEquals(1, employees.size());
+        assertEquals("Joe", employees.get(1).getFirstName());
+        assertEquals(List.of("File contains multiple records for id: 1!"), errors);
+    }
+
+    @Test
+    void buildLeavesEmployeesWithUnknownOrZeroManagerWithoutManager() {
+        var employees = build("""
+                Id,firstName,lastName,salary,managerId
+                1,Joe,Doe,60000,0
+                2,Jane,Doe,60000,42""");
+
+        assertNull(employees.get(1).getManager());
+        assertNull(employees.get(2).getManager());
+        assertFalse(employees.get(1).isManager());
+    }
+
+    private static Map<Integer, EmployeeEntity> build(String content) {
+        return build(content, new ArrayList<>());
+    }
+
+    private static Map<Integer, EmployeeEntity> build(String content, List<String> errors) {
+        var builder = new EmployeeGraphBuilder();
+        new SimpleCsvFile(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), errors::add).parse(builder);
+        return builder.build();
+    }
+}
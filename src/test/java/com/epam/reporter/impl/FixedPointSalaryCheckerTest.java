@@ -0,0 +1,108 @@
+package com.epam.reporter.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static com.epam.reporter.impl.TestConstants.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class FixedPointSalaryCheckerTest {
+    private static final BigDecimal LOWER_RANGE_COEFFICIENT = new BigDecimal("1.2");
+    private static final BigDecimal UPPER_RANGE_COEFFICIENT = new BigDecimal("1.5");
+    private static final String LOWER_RANGE_PERCENTAGE = "20.0";
+    private static final String UPPER_RANGE_PERCENTAGE = "50.0";
+
+    @Test
+    void checkReportsLowSalary() {
+        var manager = managerWith(new BigDecimal("80"), new BigDecimal("80"));
+
+        assertEquals(List.of("Manager John Doe salary ( 80.00) is less than 20.0% of subordinates average salary by  16.00"),
+                check(fixedPoint(LOWER_RANGE_COEFFICIENT, UPPER_RANGE_COEFFICIENT), manager));
+    }
+
+    @Test
+    void checkReportsHighSalary() {
+        var manager = managerWith(new BigDecimal("239"), new BigDecimal("80"));
+
+        assertEquals(List.of("Manager John Doe salary (239.00) is more than 50.0% of subordinates average salary by 119.00"),
+                check(fixedPoint(LOWER_RANGE_COEFFICIENT, UPPER_RANGE_COEFFICIENT), manager));
+    }
+
+    @Test
+    void checkDoesNotReportSalaryOnTheBoundaries() {
+        var lowerBoundary = managerWith(new BigDecimal("96.00"), new BigDecimal("80"));
+        var upperBoundary = managerWith(new BigDecimal("120"), new BigDecimal("80.0"));
+        var checker = fixedPoint(LOWER_RANGE_COEFFICIENT, UPPER_RANGE_COEFFICIENT);
+
+        assertTrue(check(checker, lowerBoundary).isEmpty());
+        assertTrue(check(checker, upperBoundary).isEmpty());
+    }
+
+    @Test
+    void checkRoundsAverageHalfUpLikeBigDecimal() {
+        var manager = managerWith(new BigDecimal("1.00"), new BigDecimal("0.01"), new BigDecimal("0.02"),
+                new BigDecimal("-0.01"), new BigDecimal("-0.005"));
+
+        assertEquals(check(bigDecimal(LOWER_RANGE_COEFFICIENT, UPPER_RANGE_COEFFICIENT), manager),
+                check(fixedPoint(LOWER_RANGE_COEFFICIENT, UPPER_RANGE_COEFFICIENT), manager));
+    }
+
+    @Test
+    void checkFallsBackToBigDecimalOnOverflow() {
+        var manager = managerWith(new BigDecimal("1"), new BigDecimal(Long.MAX_VALUE), new BigDecimal(Long.MAX_VALUE));
+        var scaledManager = managerWith(new BigDecimal("1"), new BigDecimal("1E+30"), new BigDecimal("1.000000000000000001"));
+        var hugeManager = managerWith(new BigDecimal("123456789012345678901234567890"), new BigDecimal("1"));
+
+        for (var employee : List.of(manager, scaledManager, hugeManager)) {
+            assertEquals(check(bigDecimal(LOWER_RANGE_COEFFICIENT, UPPER_RANGE_COEFFICIENT), employee),
+                    check(fixedPoint(LOWER_RANGE_COEFFICIENT, UPPER_RANGE_COEFFICIENT), employee));
+        }
+        assertFalse(check(fixedPoint(LOWER_RANGE_COEFFICIENT, UPPER_RANGE_COEFFICIENT), manager).isEmpty());
+    }
+
+    @Test
+    void checkReportsTheSameAsBigDecimalForRandomSalariesAndCoefficients() {
+        var random = new Random(42);
+        for (int i = 0; i < 10_000; i++) {
+            var lower = randomDecimal(random, 1_000, 3);
+            var upper = lower.add(randomDecimal(random, 1_000, 3));
+            var subordinates = new BigDecimal[1 + random.nextInt(5)];
+            for (int j = 0; j < subordinates.length; j++) {
+                subordinates[j] = randomDecimal(random, 1_000_000, 4);
+            }
+            var manager = managerWith(randomDecimal(random, 3_000_000, 4), subordinates);
+
+            assertEquals(check(bigDecimal(lower, upper), manager), check(fixedPoint(lower, upper), manager));
+        }
+    }
+
+    private static BigDecimal randomDecimal(Random random, int bound, int maxScale) {
+        return BigDecimal.valueOf(random.nextInt(bound), random.nextInt(maxScale + 1));
+    }
+
+    private static EmployeeEntity managerWith(BigDecimal salary, BigDecimal... subordinateSalaries) {
+        var manager = new EmployeeEntity(1, JOHN, DOE, salary);
+        for (int i = 0; i < subordinateSalaries.length; i++) {
+            manager.addSubordinate(new EmployeeEntity(i + 2, JANE, DOE, subordinateSalaries[i]));
+        }
+        return manager;
+    }
+
+    private static SalaryChecker fixedPoint(BigDecimal lower, BigDecimal upper) {
+        return SalaryArithmetic.FIXED_POINT.checker(lower, LOWER_RANGE_PERCENTAGE, upper, UPPER_RANGE_PERCENTAGE);
+    }
+
+    private static SalaryChecker bigDecimal(BigDecimal lower, BigDecimal upper) {
+        return SalaryArithmetic.BIG_DECIMAL.checker(lower, LOWER_RANGE_PERCENTAGE, upper, UPPER_RANGE_PERCENTAGE);
+    }
+
+    private static List<String> check(SalaryChecker checker, EmployeeEntity manager) {
+        List<String> report = new ArrayList<>();
+        checker.check(manager, report::add);
+        return report;
+    }
+}
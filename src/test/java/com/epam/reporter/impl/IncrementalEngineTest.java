@@ -0,0 +1,231 @@
+package com.epam.reporter.impl;
+
+import com.epam.reporter.api.Employee;
+import com.epam.reporter.api.EmployeeDelta;
+import com.epam.reporter.api.Violation;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static com.epam.reporter.impl.TestConstants.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class IncrementalEngineTest {
+    private static final String LOW_SALARY = "Manager Jane Doe salary ( 80.00) is less than 20.0% of subordinates average salary by  16.00";
+    private static final String LONG_REPORTING_LINE = "Employee (Jack Doe) has more than 4 manager between him and the CEO!";
+
+    private final SimpleReporterFactory factory = new SimpleReporterFactory();
+
+    @Test
+    void engineStartsWithTheViolationsOfTheReport() {
+        var employees = chain();
+
+        var engine = factory.createIncrementalEngine(employees);
+
+        assertEquals(Set.copyOf(factory.create(employees).report()), lines(engine.violations()));
+    }
+
+    @Test
+    void updateReturnsAddedAndRemovedViolations() {
+        var engine = factory.createIncrementalEngine(records(
+                new Employee(1, JOHN, DOE, new BigDecimal("120"), null),
+                new Employee(2, JANE, DOE, MANAGER_SALARY, 1),
+                new Employee(3, JACK, DOE, EMPLOYEE_SALARY, 2)));
+
+        var changes = engine.apply(new EmployeeDelta.Update(2, EMPLOYEE_SALARY));
+
+        assertEquals(List.of(new Violation(2, LOW_SALARY)), changes.added());
+        assertEquals(List.of(), changes.removed());
+
+        changes = engine.apply(new EmployeeDelta.Update(2, MANAGER_SALARY));
+
+        assertEquals(List.of(), changes.added());
+        assertEquals(List.of(new Violation(2, LOW_SALARY)), changes.removed());
+    }
+
+    @Test
+    void moveRechecksTheLevelsOfTheSubtree() {
+        var employees = chain();
+        var engine = factory.createIncrementalEngine(employees);
+
+        var changes = engine.apply(new EmployeeDelta.Move(7, 1));
+
+        assertTrue(changes.removed().contains(new Violation(7, LONG_REPORTING_LINE)));
+        employees.put(7, new Employee(7, JACK, DOE, EMPLOYEE_SALARY, 1));
+        assertEquals(Set.copyOf(factory.create(employees).report()), lines(engine.violations()));
+    }
+
+    @Test
+    void violationsWhichAppearAndDisappearInTheSameBatchAreNotReturned() {
+        var engine = factory.createIncrementalEngine(chain());
+
+        var changes = engine.apply(List.of(
+                new EmployeeDelta.Insert(new Employee(8, NOAH, SMITH, EMPLOYEE_SALARY, 7)),
+                new EmployeeDelta.Delete(8)));
+
+        assertTrue(changes.added().isEmpty());
+        assertTrue(changes.removed().isEmpty());
+    }
+
+    @Test
+    void applyThrowsExceptionForInvalidChanges() {
+        var engine = factory.createIncrementalEngine(chain());
+        var violations = Set.copyOf(engine.violations());
+
+        assertThrows(IllegalArgumentException.class, () -> engine.apply(new EmployeeDelta.Insert(new Employee(2, JANE, DOE, EMPLOYEE_SALARY, 1))));
+        assertThrows(IllegalArgumentException.class, () -> engine.apply(new EmployeeDelta.Insert(new Employee(8, JANE, DOE, EMPLOYEE_SALARY, null))));
+        assertThrows(IllegalArgumentException.class, () -> engine.apply(new EmployeeDelta.Update(9, EMPLOYEE_SALARY)));
+        assertThrows(IllegalArgumentException.class, () -> engine.apply(new EmployeeDelta.Delete(6)));
+        assertThrows(IllegalArgumentException.class, () -> engine.apply(new EmployeeDelta.Delete(1)));
+        assertThrows(IllegalArgumentException.class, () -> engine.apply(new EmployeeDelta.Move(2, 5)));
+        assertEquals(violations, Set.copyOf(engine.violations()));
+    }
+
+    @Test
+    void batchWithAnInvalidChangeIsUndoneCompletely() {
+        var random = new Random(7);
+        var employees = new HashMap<Integer, Employee>();
+        employees.put(1, new Employee(1, "First1", "Last1", salary(random), null));
+        for (int id = 2; id <= 100; id++) {
+            employees.put(id, new Employee(id, "First" + id, "Last" + id, salary(random), 1 + random.nextInt(id - 1)));
+        }
+        var engine = factory.createIncrementalEngine(employees);
+        var violations = Set.copyOf(engine.violations());
+        var changed = new HashMap<>(employees);
+        List<EmployeeDelta> batch = new ArrayList<>();
+        for (int nextId = 101; batch.size() < 50; ) {
+            var delta = randomDelta(random, changed, nextId);
+            if (delta != null) {
+                batch.add(delta);
+                apply(delta, changed);
+                nextId += delta instanceof EmployeeDelta.Insert ? 1 : 0;
+            }
+        }
+        batch.add(new EmployeeDelta.Delete(1));
+
+        assertThrows(IllegalArgumentException.class, () -> engine.apply(batch));
+
+        assertEquals(violations, Set.copyOf(engine.violations()));
+        var changes = engine.apply(batch.subList(0, batch.size() - 1));
+        assertEquals(Set.copyOf(factory.create(changed).report()), lines(engine.violations()));
+        var expected = new HashSet<>(violations);
+        changes.removed().forEach(expected::remove);
+        expected.addAll(changes.added());
+        assertEquals(expected, Set.copyOf(engine.violations()));
+    }
+
+    @Test
+    void undoneBatchKeepsTheOrderOfTheSubordinates() {
+        var ceo = new EmployeeEntity(1, JOHN, DOE, CEO_SALARY);
+        var first = new EmployeeEntity(2, JANE, DOE, MANAGER_SALARY);
+        var second = new EmployeeEntity(3, JACK, DOE, MANAGER_SALARY);
+        var third = new EmployeeEntity(4, DAN, DOE, MANAGER_SALARY);
+        var employee = new EmployeeEntity(5, NOAH, DOE, EMPLOYEE_SALARY);
+        ceo.addSubordinate(first);
+        ceo.addSubordinate(second);
+        ceo.addSubordinate(third);
+        third.addSubordinate(employee);
+        var engine = new IncrementalEngine(new BigDecimalSalaryChecker(LOWER_RANGE_COEFFICIENT, "20.0",
+                UPPER_RANGE_COEFFICIENT, "50.0"), List.of(ceo, first, second, third, employee));
+
+        assertThrows(IllegalArgumentException.class, () -> engine.apply(List.of(
+                new EmployeeDelta.Delete(2),
+                new EmployeeDelta.Move(3, 4),
+                new EmployeeDelta.Delete(99))));
+
+        assertEquals(List.of(2, 3, 4), ceo.getSubordinates().stream().map(EmployeeEntity::getId).toList());
+        assertEquals(List.of(employee), third.getSubordinates());
+    }
+
+    @Test
+    void randomChangesGiveTheSameViolationsAsTheReport() {
+        var random = new Random(42);
+        var employees = new HashMap<Integer, Employee>();
+        employees.put(1, new Employee(1, "First1", "Last1", salary(random), null));
+        for (int id = 2; id <= 300; id++) {
+            employees.put(id, new Employee(id, "First" + id, "Last" + id, salary(random), 1 + random.nextInt(id - 1)));
+        }
+        var engine = factory.createIncrementalEngine(employees);
+        var violations = new HashSet<>(engine.violations());
+        int nextId = 301;
+
+        for (int i = 0; i < 500; i++) {
+            var delta = randomDelta(random, employees, nextId);
+            if (delta == null) {
+                continue;
+            }
+            var changes = engine.apply(delta);
+            apply(delta, employees);
+            if (delta instanceof EmployeeDelta.Insert) {
+                nextId++;
+            }
+            changes.removed().forEach(violations::remove);
+            violations.addAll(changes.added());
+
+            assertEquals(Set.copyOf(factory.create(employees).report()), lines(engine.violations()));
+            assertEquals(Set.copyOf(engine.violations()), violations);
+        }
+    }
+
+    private static EmployeeDelta randomDelta(Random random, Map<Integer, Employee> employees, int nextId) {
+        var ids = new ArrayList<>(employees.keySet());
+        int id = ids.get(random.nextInt(ids.size()));
+        int other = ids.get(random.nextInt(ids.size()));
+        return switch (random.nextInt(4)) {
+            case 0 -> new EmployeeDelta.Insert(new Employee(nextId, "First" + nextId, "Last" + nextId, salary(random), id));
+            case 1 -> new EmployeeDelta.Update(id, salary(random));
+            case 2 -> id != 1 && employees.values().stream().noneMatch(employee -> Objects.equals(employee.managerId(), id))
+                    ? new EmployeeDelta.Delete(id) : null;
+            default -> id != 1 && !isInSubtree(employees, other, id) ? new EmployeeDelta.Move(id, other) : null;
+        };
+    }
+
+    private static boolean isInSubtree(Map<Integer, Employee> employees, Integer employee, int root) {
+        for (Integer current = employee; current != null; current = employees.get(current).managerId()) {
+            if (current == root) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void apply(EmployeeDelta delta, Map<Integer, Employee> employees) {
+        switch (delta) {
+            case EmployeeDelta.Insert insert -> employees.put(insert.employee().id(), insert.employee());
+            case EmployeeDelta.Update update -> employees.computeIfPresent(update.id(),
+                    (id, e) -> new Employee(id, e.firstName(), e.lastName(), update.salary(), e.managerId()));
+            case EmployeeDelta.Delete delete -> employees.remove(delete.id());
+            case EmployeeDelta.Move move -> employees.computeIfPresent(move.id(),
+                    (id, e) -> new Employee(id, e.firstName(), e.lastName(), e.salary(), move.managerId()));
+        }
+    }
+
+    private static BigDecimal salary(Random random) {
+        return BigDecimal.valueOf(50_000 + random.nextInt(50_000), random.nextInt(3));
+    }
+
+    private static Set<String> lines(List<Violation> violations) {
+        return violations.stream().map(Violation::line).collect(Collectors.toSet());
+    }
+
+    private static Map<Integer, Employee> chain() {
+        return records(
+                new Employee(1, JOHN, DOE, CEO_SALARY, null),
+                new Employee(2, JANE, DOE, DIRECTOR_SALARY, 1),
+                new Employee(3, DAN, DOE, DIVISION_DIRECTOR_SALARY, 2),
+                new Employee(4, NOAH, DOE, DEPARTMENT_MANAGER_SALARY, 3),
+                new Employee(5, ROBERT, DOE, SENIOR_MANAGER_SALARY, 4),
+                new Employee(6, EMILY, TAYLOR, MANAGER_SALARY, 5),
+                new Employee(7, JACK, DOE, EMPLOYEE_SALARY, 6));
+    }
+
+    private static Map<Integer, Employee> records(Employee... employees) {
+        var records = new HashMap<Integer, Employee>();
+        for (Employee employee : employees) {
+            records.put(employee.id(), employee);
+        }
+        return records;
+    }
+}
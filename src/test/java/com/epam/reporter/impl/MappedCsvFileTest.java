@@ -0,0 +1,155 @@
+package com.epam.reporter.impl;
+
+import com.epam.reporter.api.Employee;
+import com.epam.reporter.api.ErrorHandler;
+import com.epam.reporter.api.ParseError;
+import com.epam.reporter.api.ParseErrorCode;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedCsvFileTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void parsingMultipleEmployeesReturnsSuccessful() throws IOException {
+        String content = """
+                Id,firstName,lastName,salary,managerId
+                123,Joe,Doe,60000,
+                124,Martin,Chekov,45000,123
+                125,Bob,Ronstad,47000,123
+                300,Alice,Hasacat,50000,124
+                305,Brett,Hardleaf,34000,300""";
+
+        var employees = new MappedCsvFile(write(content)).parse();
+
+        assertEquals(5, employees.size());
+        assertNull(employees.get(123).managerId());
+        assertEquals(new Employee(124, "Martin", "Chekov", new BigDecimal("45000"), 123), employees.get(124));
+    }
+
+    @Test
+    void parseShouldThrowExceptionIfHeaderIsWrong() throws IOException {
+        String content = """
+                Id,firstName,lastName,salary
+                A1,Joe,Doe,60000,
+                """;
+
+        var csvFile = new MappedCsvFile(write(content), ParsingErrorHandlingStrategy.THROW_EXCEPTION);
+        var ex = assertThrows(CsvParsingException.class, csvFile::parse);
+        assertEquals("Invalid header: Id,firstName,lastName,salary!", ex.getMessage());
+    }
+
+    @Test
+    void parseShouldHandleNumberFormatException() throws IOException {
+        String content = """
+                Id,firstName,lastName,salary,managerId
+                A1,Joe,Doe,60000,
+                """;
+
+        var csvFile = new MappedCsvFile(write(content), ParsingErrorHandlingStrategy.THROW_EXCEPTION);
+        var ex = assertThrows(CsvParsingException.class, csvFile::parse);
+        assertEquals("Skipping line because invalid number: A1,Joe,Doe,60000,!", ex.getMessage());
+    }
+
+    @Test
+    void parseShouldThrowCsvFileNotFoundExceptionForMissingFile() {
+        var csvFile = new MappedCsvFile(tempDir.resolve("missing.csv"));
+        assertThrows(CsvFileNotFoundException.class, csvFile::parse);
+    }
+
+    @Test
+    void parseReturnsTheSameEmployeesAndErrorsAsSimpleCsvFile() throws IOException {
+        String content = "Id,firstName,lastName,salary,managerId\r\n"
+                + "1, Joe ,Doe,60000.50,\r\n"
+                + "\r\n"
+                + "2,Jürgen,Müller,+45000,1\r"
+                + "3,Bob,Ronstad,-1.5e3, 1 \n"
+                + "4,Alice,,.5,1,,\n"
+                + "5,Brett,Hardleaf,,\n"
+                + "6,Brett,Hardleaf, ,1\n"
+                + "2,Dup,Licate,1,1\n"
+                + "7,Too,Few\n"
+                + ",,,,\n"
+                + "8,Big,Number,123456789012345678901234.125,1\n"
+                + "9,Big,Id,1,99999999999\n"
+                + "-10,Negative,Id,0.00,+1\n"
+                + "11,Extra,Columns,1,1,2,3\n"
+                + "12,Bad,Manager,1,x1";
+
+        var expectedErrors = new ArrayList<String>();
+        var expected = new SimpleCsvFile(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), expectedErrors::add).parse();
+
+        var file = write(content);
+        for (int windowSize : new int[]{1 << 20, 64, 47}) {
+            var actualErrors = new ArrayList<String>();
+            Map<Integer, Employee> actual = new MappedCsvFile(file, actualErrors::add, windowSize).parse();
+
+            assertEquals(expected, actual);
+            assertEquals(expectedErrors, actualErrors);
+        }
+    }
+
+    @Test
+    void parseShouldPassStructuredErrorsWithTheirByteOffsets() throws IOException {
+        String content = "Id,firstName,lastName,salary,managerId\r\n"
+                + "1,Joe,Doe,60000,\r\n"
+                + "2,Short\n"
+                + "3,Bad,Salary,x,1\n"
+                + "1,Dup,Licate,1,1";
+
+        var file = write(content);
+        for (int windowSize : new int[]{1 << 20, 48}) {
+            var errors = new ArrayList<String>();
+            ErrorHandler handler = new ErrorHandler() {
+                @Override
+                public void handle(String message) {
+                    fail("Structured error expected: " + message);
+                }
+
+                @Override
+                public void handle(ParseError error) {
+                    errors.add(error.code() + " " + error.lineNumber() + " " + error.byteOffset() + " " + error.line());
+                }
+            };
+
+            new MappedCsvFile(file, handler, windowSize).parse();
+
+            assertEquals(List.of(
+                    ParseErrorCode.NOT_ENOUGH_COLUMNS + " 3 58 2,Short",
+                    ParseErrorCode.INVALID_NUMBER + " 4 66 3,Bad,Salary,x,1",
+                    ParseErrorCode.DUPLICATE_ID + " 5 83 1,Dup,Licate,1,1"), errors);
+            assertEquals('3', content.charAt(66));
+        }
+    }
+
+    @Test
+    void parseShouldThrowExceptionIfLineIsLongerThanTheWindow() throws IOException {
+        var file = write("Id,firstName,lastName,salary,managerId\n1,Joe,Doe,60000,\n");
+        var csvFile = new MappedCsvFile(file, ParsingErrorHandlingStrategy.NOOP, 8);
+        assertThrows(CsvParsingException.class, csvFile::parse);
+    }
+
+    @Test
+    void parseShouldHandleEmptyFile() throws IOException {
+        assertEquals(Map.of(), new MappedCsvFile(write("")).parse());
+        assertEquals(List.of(), List.copyOf(new MappedCsvFile(write("Id,firstName,lastName,salary,managerId")).parse().values()));
+    }
+
+    private Path write(String content) throws IOException {
+        return Files.writeString(Files.createTempFile(tempDir, "employees", ".csv"), content, StandardCharsets.UTF_8);
+    }
+}
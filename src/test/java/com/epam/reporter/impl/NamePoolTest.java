@@ -0,0 +1,67 @@
+package com.epam.reporter.impl;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NamePoolTest {
+    private static final String CONTENT = """
+            Id,firstName,lastName,salary,managerId
+            1,Joe,Doe,60000,
+            2,Jürgen,Doe,45000,1
+            3, Joe ,Müller,47000,1
+            4,Jürgen,Müller,50000,2
+            """;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void internReturnsTheSameInstanceForEqualNames() {
+        var pool = new NamePool();
+        String joe = pool.intern(new String("Joe"));
+
+        assertSame(joe, pool.intern(new String("Joe")));
+        assertSame(joe, pool.intern(ByteBuffer.wrap("xJoey".getBytes(StandardCharsets.UTF_8)), 1, 4));
+        assertSame(pool.intern("Jürgen"), pool.intern(ByteBuffer.wrap("Jürgen".getBytes(StandardCharsets.UTF_8)), 0, 7));
+        assertEquals("", pool.intern(ByteBuffer.allocate(0), 0, 0));
+        assertEquals(3, pool.size());
+    }
+
+    @Test
+    void internKeepsEveryNameWhenTheTableGrows() {
+        var pool = new NamePool();
+        for (int i = 0; i < 10_000; i++) {
+            pool.intern("Name" + i);
+        }
+        for (int i = 0; i < 10_000; i++) {
+            byte[] name = ("Name" + i).getBytes(StandardCharsets.UTF_8);
+            assertEquals("Name" + i, pool.intern(ByteBuffer.wrap(name), 0, name.length));
+        }
+        assertEquals(10_000, pool.size());
+    }
+
+    @Test
+    void parsersShareTheNameInstances() throws Exception {
+        Path file = Files.writeString(tempDir.resolve("employees.csv"), CONTENT, StandardCharsets.UTF_8);
+
+        var simple = new SimpleCsvFile(new ByteArrayInputStream(CONTENT.getBytes(StandardCharsets.UTF_8))).parse();
+        var mapped = new MappedCsvFile(file).parse();
+        var parallel = new ParallelCsvFile(file, ParsingErrorHandlingStrategy.NOOP, 2, 1).parse();
+
+        for (var employees : List.of(simple, mapped, parallel)) {
+            assertSame(employees.get(1).firstName(), employees.get(3).firstName());
+            assertSame(employees.get(2).firstName(), employees.get(4).firstName());
+            assertSame(employees.get(1).lastName(), employees.get(2).lastName());
+            assertSame(employees.get(3).lastName(), employees.get(4).lastName());
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.epam.reporter.impl;
+
+import com.epam.reporter.api.EmployeeTable;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static com.epam.reporter.impl.TestConstants.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class OffHeapReporterTest {
+
+    @Test
+    void reportIsTheSameAsSimpleReporterForRandomHierarchies() {
+        var random = new Random(5);
+        for (int i = 0; i < 10; i++) {
+            var employees = randomTable(random, 1 + random.nextInt(3_000));
+
+            assertEquals(new SimpleReporterFactory().create(employees).report(),
+                    new OffHeapReporterFactory().create(employees).report());
+        }
+    }
+
+    @Test
+    void reportIsTheSameAsSimpleReporterForParsedFile() {
+        String content = """
+                Id,firstName,lastName,salary,managerId
+                1,Joe,Doe,60000,
+                2,Zoë,Łukasz,45000,1
+                3,Martin,Chekov,45000,1
+                4,Ünal,Öztürk,99999999999999999999.99,2
+                2,Dup,Licate,1,1
+                5,Anna,Smith,10,4
+                6,Lauren,Smith,20,7
+                7,Blake,Thompson,30,6
+                8,Sam,Wise,40,7
+                """;
+
+        assertEquals(new SimpleReporterFactory().create(csvFile(content)).report(),
+                new OffHeapReporterFactory().create(csvFile(content)).report());
+    }
+
+    @Test
+    void reportLongReportingLinesAndCycles() {
+        var employees = new EmployeeTable();
+        employees.add(1, JOHN, DOE, MANAGER_SALARY, null);
+        for (int id = 2; id <= 8; id++) {
+            employees.add(id, JOHN + id, DOE, MANAGER_SALARY, id - 1);
+        }
+        employees.add(20, LAUREN, SMITH, EMPLOYEE_SALARY, 21);
+        employees.add(21, BLAKE, THOMPSON, EMPLOYEE_SALARY, 20);
+
+        var report = new OffHeapReporterFactory().create(employees).report();
+
+        assertEquals(new SimpleReporterFactory().create(employees).report(), report);
+        assertTrue(report.contains("Employee (John7 Doe) has more than 4 manager between him and the CEO!"));
+        assertTrue(report.contains("The following employees are not in the hierarchy, they form a reporting cycle:Lauren Smith, Blake Thompson."));
+    }
+
+    @Test
+    void reportThrowsIfThereIsNoSingleCeo() {
+        var withoutCeo = new EmployeeTable();
+        withoutCeo.add(1, JOHN, DOE, MANAGER_SALARY, 2);
+        withoutCeo.add(2, LAUREN, SMITH, EMPLOYEE_SALARY, 1);
+        var withTwoCeos = new EmployeeTable();
+        withTwoCeos.add(1, JOHN, DOE, MANAGER_SALARY, null);
+        withTwoCeos.add(2, LAUREN, SMITH, EMPLOYEE_SALARY, null);
+
+        assertThrows(CEONotFoundException.class, () -> new OffHeapReporterFactory().create(withoutCeo).report());
+        assertThrows(MultipleEmployeesWithoutManagerException.class, () -> new OffHeapReporterFactory().create(withTwoCeos).report());
+    }
+
+    @Test
+    void storeLinksSubordinatesInRowOrder() {
+        var store = new OffHeapEmployeeStore();
+        assertTrue(store.add(10, "Zoë", DOE, new BigDecimal("12345678901234567890.5"), 30));
+        assertTrue(store.add(30, JOHN, DOE, MANAGER_SALARY, null));
+        assertTrue(store.add(20, LAUREN, SMITH, EMPLOYEE_SALARY, 30));
+        assertFalse(store.add(20, BLAKE, THOMPSON, EMPLOYEE_SALARY, 30));
+        store.link();
+
+        assertEquals(3, store.size());
+        assertEquals(1, store.indexOf(30));
+        assertEquals(OffHeapEmployeeStore.NO_INDEX, store.managerIndex(1));
+        assertEquals(2, store.subordinateCount(1));
+        assertEquals(0, store.subordinate(1, 0));
+        assertEquals(2, store.subordinate(1, 1));
+        assertEquals("Zoë", store.firstName(0));
+        assertFalse(store.hasCompactSalary(0));
+        assertEquals(new BigDecimal("12345678901234567890.5"), store.salary(0));
+        assertEquals(EMPLOYEE_SALARY, store.salary(2));
+        assertTrue(store.offHeapBytes() > 0);
+        assertThrows(IllegalStateException.class, () -> store.add(40, JOHN, DOE, EMPLOYEE_SALARY, 30));
+    }
+
+    @Test
+    void storeFindsIdsSharingTheirLowBits() {
+        var store = new OffHeapEmployeeStore();
+        for (int k = 0; k < 200_000; k++) {
+            assertTrue(store.add(k << 12, JOHN, DOE, EMPLOYEE_SALARY, null));
+        }
+
+        for (int k = 0; k < 200_000; k++) {
+            assertEquals(k, store.indexOf(k << 12));
+        }
+        assertEquals(OffHeapEmployeeStore.NO_INDEX, store.indexOf(1 << 12 | 1));
+    }
+
+    @Test
+    void storeSizedForAnInputHoldsItsRowsWithoutGrowing() {
+        var store = OffHeapEmployeeStore.forInputSize(24 * 5_000L);
+        long bytes = store.offHeapBytes();
+
+        for (int id = 1; id <= 5_000; id++) {
+            assertTrue(store.add(id, JOHN, DOE, EMPLOYEE_SALARY, id == 1 ? null : 1));
+        }
+
+        assertEquals(bytes, store.offHeapBytes());
+        assertEquals(4_999, store.link().subordinateCount(0));
+    }
+
+    private static SimpleCsvFile csvFile(String content) {
+        return new SimpleCsvFile(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)),
+                ParsingErrorHandlingStrategy.NOOP);
+    }
+
+    private static EmployeeTable randomTable(Random random, int size) {
+        var employees = new EmployeeTable();
+        employees.add(1, JOHN, DOE, new BigDecimal(100_000 + random.nextInt(100_000)), null);
+        for (int id = 2; id <= size; id++) {
+            int managerId = 1 + random.nextInt(id - 1);
+            BigDecimal salary = random.nextInt(50) == 0
+                    ? new BigDecimal("1234567890123456789012.25")
+                    : BigDecimal.valueOf(30_000 + random.nextInt(150_000), random.nextInt(3));
+            employees.add(id, JOHN + id, DOE, salary, managerId);
+        }
+        if (size > 10) {
+            employees.add(size + 1, LAUREN, SMITH, EMPLOYEE_SALARY, size + 2);
+            employees.add(size + 2, BLAKE, THOMPSON, EMPLOYEE_SALARY, size + 1);
+            employees.add(size + 3, JOHN, SMITH, EMPLOYEE_SALARY, size + 2);
+        }
+        return employees;
+    }
+}
@@ -0,0 +1,125 @@
+package com.epam.reporter.impl;
+
+import com.epam.reporter.api.ErrorHandler;
+import com.epam.reporter.api.ParseError;
+import com.epam.reporter.api.ParseErrorCode;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelCsvFileTest {
+    private static final String HEADER = "Id,firstName,lastName,salary,managerId\n";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void parseReturnsTheSameEmployeesErrorsAndLineNumbersAsSimpleCsvFile() throws IOException {
+        var content = new StringBuilder(HEADER);
+        for (int i = 1; i <= 500; i++) {
+            switch (i % 7) {
+                case 0 -> content.append(i).append(",Too,Few\n");
+                case 1 -> content.append(i / 2).append(",Dup,Licate,100,1\r\n");
+                case 2 -> content.append("\n");
+                case 3 -> content.append(i).append(",Bad,Salary,x,1\n");
+                default -> content.append(i).append(",First").append(i).append(",Last,").append(i).append(".5,1\n");
+            }
+        }
+        var expectedErrors = new RecordingErrorHandler();
+        var expected = new SimpleCsvFile(new ByteArrayInputStream(content.toString().getBytes(StandardCharsets.UTF_8)), expectedErrors).parse();
+
+        var file = write(content.toString());
+        for (long chunkSize : new long[]{16, 100, 1 << 20}) {
+            var actualErrors = new RecordingErrorHandler();
+            var actual = new ParallelCsvFile(file, actualErrors, 4, chunkSize).parse();
+
+            assertEquals(expected, actual);
+            assertEquals(expectedErrors.errors, actualErrors.errors);
+        }
+    }
+
+    @Test
+    void parseShouldKeepTheFirstRecordForDuplicateIdsAcrossChunks() throws IOException {
+        var file = write(HEADER + "1,Joe,Doe,60000,\n2,Jane,Doe,50000,1\n1,Jack,Doe,40000,2\n");
+
+        var employees = new ParallelCsvFile(file, ParsingErrorHandlingStrategy.NOOP, 2, 1).parse();
+
+        assertEquals(2, employees.size());
+        assertEquals("Joe", employees.get(1).firstName());
+    }
+
+    @Test
+    void parseShouldPassStructuredErrorsWithTheirPositionInTheFile() throws IOException {
+        String content = HEADER + "1,Joe,Doe,60000,\n2,Short\n3,Jane,Doe,50000,1\n1,Jack,Doe,40000,2\n";
+        var file = write(content);
+        var errors = new ArrayList<ParseError>();
+
+        new ParallelCsvFile(file, new ErrorHandler() {
+            @Override
+            public void handle(String message) {
+                fail("Structured error expected: " + message);
+            }
+
+            @Override
+            public void handle(ParseError error) {
+                errors.add(new CsvParseError(error.code(), error.lineNumber(), error.byteOffset(), error.line().toString()));
+            }
+        }, 2, 1).parse();
+
+        assertEquals(List.of(
+                new CsvParseError(ParseErrorCode.NOT_ENOUGH_COLUMNS, 3, content.indexOf("2,Short"), "2,Short"),
+                new CsvParseError(ParseErrorCode.DUPLICATE_ID, 5, content.indexOf("1,Jack"), "1,Jack,Doe,40000,2")), errors);
+        assertEquals("File contains multiple records for id: 1!", errors.get(1).message());
+    }
+
+    @Test
+    void parseShouldThrowTheFirstErrorInFileOrder() throws IOException {
+        var file = write(HEADER + "1,Joe,Doe,60000,\nA2,Jane,Doe,50000,1\n3,Jack\n");
+        var csvFile = new ParallelCsvFile(file, ParsingErrorHandlingStrategy.THROW_EXCEPTION, 2, 1);
+
+        var ex = assertThrows(CsvParsingException.class, csvFile::parse);
+        assertEquals("Skipping line because invalid number: A2,Jane,Doe,50000,1!", ex.getMessage());
+    }
+
+    @Test
+    void parseShouldThrowExceptionIfHeaderIsWrong() throws IOException {
+        var file = write("Id,firstName,lastName,salary\n1,Joe,Doe,60000,\n");
+        var csvFile = new ParallelCsvFile(file, ParsingErrorHandlingStrategy.THROW_EXCEPTION, 2, 1);
+
+        var ex = assertThrows(CsvParsingException.class, csvFile::parse);
+        assertEquals("Invalid header: Id,firstName,lastName,salary!", ex.getMessage());
+    }
+
+    @Test
+    void parseShouldHandleEmptyFile() throws IOException {
+        assertEquals(Map.of(), new ParallelCsvFile(write("")).parse());
+    }
+
+    private Path write(String content) throws IOException {
+        return Files.writeString(Files.createTempFile(tempDir, "employees", ".csv"), content, StandardCharsets.UTF_8);
+    }
+
+    private static final class RecordingErrorHandler implements ErrorHandler {
+        private final List<String> errors = new ArrayList<>();
+
+        @Override
+        public void handle(String message) {
+            fail("Line number is missing for: " + message);
+        }
+
+        @Override
+        public void handle(String message, long lineNumber) {
+            errors.add(lineNumber + ": " + message);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.epam.reporter.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static com.epam.reporter.impl.TestConstants.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelReporterTest {
+    private static final String LOWER_RANGE_PERCENTAGE = "20.0";
+    private static final String UPPER_RANGE_PERCENTAGE = "50.0";
+    private static final SalaryChecker SALARY_CHECKER = new BigDecimalSalaryChecker(
+            LOWER_RANGE_COEFFICIENT, LOWER_RANGE_PERCENTAGE, UPPER_RANGE_COEFFICIENT, UPPER_RANGE_PERCENTAGE);
+
+    @Test
+    void reportIsTheSameAsSimpleReporterForRandomHierarchies() {
+        var random = new Random(7);
+        for (int i = 0; i < 10; i++) {
+            var employees = randomHierarchy(random, 1 + random.nextInt(2_000));
+            var expected = new SimpleReporter(SALARY_CHECKER, employees).report();
+
+            for (int threshold : new int[]{1, 2, 16, 1_000}) {
+                assertEquals(expected, new ParallelReporter(SALARY_CHECKER, employees, 4, threshold).report());
+            }
+        }
+    }
+
+    @Test
+    void reportHandlesDeepReportingLines() {
+        List<EmployeeEntity> employees = new ArrayList<>();
+        EmployeeEntity manager = new EmployeeEntity(1, JOHN, DOE, EMPLOYEE_SALARY);
+        employees.add(manager);
+        for (int id = 2; id <= 100_000; id++) {
+            EmployeeEntity employee = new EmployeeEntity(id, JOHN, DOE, EMPLOYEE_SALARY);
+            manager.addSubordinate(employee);
+            employees.add(employee);
+            manager = employee;
+        }
+
+        assertEquals(new SimpleReporter(SALARY_CHECKER, employees).report(),
+                new ParallelReporter(SALARY_CHECKER, employees, 4, 1).report());
+    }
+
+    @Test
+    void reportEmployeesNotInHierarchy() {
+        var employees = randomHierarchy(new Random(11), 100);
+        var dangling1 = new EmployeeEntity(1_000, LAUREN, SMITH, EMPLOYEE_SALARY);
+        var dangling2 = new EmployeeEntity(1_001, BLAKE, THOMPSON, EMPLOYEE_SALARY);
+        dangling1.addSubordinate(dangling2);
+        dangling2.addSubordinate(dangling1);
+        employees.add(dangling1);
+        employees.add(dangling2);
+
+        var report = new ParallelReporter(SALARY_CHECKER, employees, 2, 1).report();
+
+        assertEquals(new SimpleReporter(SALARY_CHECKER, employees).report(), report);
+        assertEquals("The following employees are not in the hierarchy, they form a reporting cycle:Lauren Smith, Blake Thompson.", report.getLast());
+    }
+
+    @Test
+    void constructorThrowsExceptionIfParallelismIsLessThan1() {
+        assertThrows(IllegalArgumentException.class, () -> new ParallelReporter(SALARY_CHECKER, List.of(), 0));
+    }
+
+    private static List<EmployeeEntity> randomHierarchy(Random random, int size) {
+        List<EmployeeEntity> employees = new ArrayList<>();
+        for (int id = 1; id <= size; id++) {
+            var employee = new EmployeeEntity(id, JOHN, DOE, BigDecimal.valueOf(50 + random.nextInt(200)));
+            if (!employees.isEmpty()) {
+                int from = Math.max(0, employees.size() - 1 - random.nextInt(20));
+                employees.get(from + random.nextInt(employees.size() - from)).addSubordinate(employee);
+            }
+            employees.add(employee);
+        }
+        return employees;
+    }
+}
@@ -1,7 +1,11 @@
 package com.epam.reporter.impl;
 
+import com.epam.reporter.api.ParseErrorCode;
 import org.junit.jupiter.api.Test;
 
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class ParsingErrorHandlingStrategyTest {
@@ -11,6 +15,45 @@ class ParsingErrorHandlingStrategyTest {
         assertDoesNotThrow(() -> ParsingErrorHandlingStrategy.NOOP.handle("message"));
     }
 
+    @Test
+    void testNoopDoesNotFormatTheErrorIfWarningsAreNotLogged() {
+        var logger = Logger.getLogger(ParsingErrorHandlingStrategy.class.getName());
+        Level level = logger.getLevel();
+        logger.setLevel(Level.SEVERE);
+        try {
+            ParsingErrorHandlingStrategy.NOOP.handle(new CsvParseError(ParseErrorCode.NOT_ENOUGH_COLUMNS, 2, 40, new CharSequence() {
+                @Override
+                public int length() {
+                    return fail("Line should not be used");
+                }
+
+                @Override
+                public char charAt(int index) {
+                    return fail("Line should not be used");
+                }
+
+                @Override
+                public CharSequence subSequence(int start, int end) {
+                    return fail("Line should not be used");
+                }
+
+                @Override
+                public String toString() {
+                    return fail("Line should not be used");
+                }
+            }));
+        } finally {
+            logger.setLevel(level);
+        }
+    }
+
+    @Test
+    void testThrowExceptionFormatsTheError() {
+        var error = new CsvParseError(ParseErrorCode.INVALID_NUMBER, 2, 40, "A1,Joe,Doe,60000,");
+        var ex = assertThrows(CsvParsingException.class, () -> ParsingErrorHandlingStrategy.THROW_EXCEPTION.handle(error));
+        assertEquals("Skipping line because invalid number: A1,Joe,Doe,60000,!", ex.getMessage());
+    }
+
     @Test
     void testThrowExceptionThrowsAnException() {
         var ex = assertThrows(CsvParsingException.class, () -> ParsingErrorHandlingStrategy.THROW_EXCEPTION.handle("message"));
@@ -1,9 +1,12 @@
 package com.epam.reporter.impl;
 
+import com.epam.reporter.api.CsvFile;
 import com.epam.reporter.api.Employee;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -11,6 +14,8 @@ import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import static com.epam.reporter.impl.TestConstants.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
@@ -39,6 +44,94 @@ class SimpleReporterFactoryTest {
         assertNotNull(result);
     }
 
+    @Test
+    void createFromCsvFileReportsTheSameAsCreateFromMap() {
+        String content = """
+                Id,firstName,lastName,salary,managerId
+                305,Brett,Hardleaf,34000,300
+                123,Joe,Doe,60000,
+                124,Martin,Chekov,45000,123
+                125,Bob,Ronstad,47000,123
+                300,Alice,Hasacat,50000,124""";
+
+        var fromMap = underTest.create(new SimpleCsvFile(toInputStream(content)).parse()).report();
+        var fromCsvFile = underTest.create(new SimpleCsvFile(toInputStream(content))).report();
+
+        assertEquals(List.of("Manager Martin Chekov salary (45000.00) is less than 20.0% of subordinates average salary by 15000.00"), fromCsvFile);
+        assertEquals(fromMap, fromCsvFile);
+    }
+
+    @Test
+    void createFromMapAndFromCsvFileListSubordinatesInFileOrder() {
+        String content = """
+                Id,firstName,lastName,salary,managerId
+                1,Joe,Doe,50000,
+                50,Zoe,Last,40000,1
+                17,Bob,First,40000,1
+                51,Ann,Worker,60000,50
+                18,Tim,Worker,60000,17""";
+        var expected = List.of(
+                "Manager Zoe Last salary (40000.00) is less than 20.0% of subordinates average salary by 32000.00",
+                "Manager Bob First salary (40000.00) is less than 20.0% of subordinates average salary by 32000.00");
+
+        var fromMap = underTest.create(new SimpleCsvFile(toInputStream(content)).parse()).report();
+        var fromCsvFile = underTest.create(new SimpleCsvFile(toInputStream(content))).report();
+
+        assertEquals(expected, fromMap);
+        assertEquals(expected, fromCsvFile);
+    }
+
+    @Test
+    void createFromEmployeeTableReportsTheSameAsCreateFromMap() {
+        String content = """
+                Id,firstName,lastName,salary,managerId
+                123,Joe,Doe,60000,
+                124,Martin,Chekov,45000,123
+                125,Bob,Ronstad,47000,123
+                300,Alice,Hasacat,50000,124
+                305,Brett,Hardleaf,34000,300""";
+
+        var employees = new SimpleCsvFile(toInputStream(content)).parse();
+        var table = new SimpleCsvFile(toInputStream(content)).parseTable();
+
+        assertEquals(employees, table.toMap());
+        assertEquals(underTest.create(employees).report(), underTest.create(table).report());
+    }
+
+    @Test
+    void createWithFixedPointArithmeticReportsTheSameAsBigDecimal() {
+        String content = """
+                Id,firstName,lastName,salary,managerId
+                123,Joe,Doe,60000.5,
+                124,Martin,Chekov,45000,123
+                125,Bob,Ronstad,47000.25,123
+                300,Alice,Hasacat,50000,124
+                305,Brett,Hardleaf,34000.125,300""";
+
+        var employees = new SimpleCsvFile(toInputStream(content)).parse();
+        var fixedPoint = new SimpleReporterFactory(SalaryArithmetic.FIXED_POINT);
+
+        assertEquals(underTest.create(employees).report(), fixedPoint.create(employees).report());
+    }
+
+    @Test
+    void createWithParallelismCreatesParallelReporter() {
+        var parallel = new SimpleReporterFactory(SalaryArithmetic.FIXED_POINT, 4);
+
+        assertInstanceOf(ParallelReporter.class, parallel.create(Map.of()));
+        assertThrows(IllegalArgumentException.class, () -> new SimpleReporterFactory(SalaryArithmetic.FIXED_POINT, 0));
+    }
+
+    @Test
+    void shouldThrowExceptionIfSalaryArithmeticIsNull() {
+        assertThrows(IllegalArgumentException.class, () -> new SimpleReporterFactory(null));
+    }
+
+    @Test
+    void shouldThrowExceptionIfCsvFileIsNull() {
+        assertThrows(IllegalArgumentException.class, () -> underTest.create(LOWER_RANGE_COEFFICIENT, UPPER_RANGE_COEFFICIENT, (CsvFile) null));
+    }
+
     @Test
     void shouldThrowExceptionIfLowerRangeGreaterThanUpper() {
         assertThrows(InvalidRangesException.class, () -> underTest.create(UPPER_RANGE_COEFFICIENT, LOWER_RANGE_COEFFICIENT, EMPTY_MAP));
@@ -66,6 +159,10 @@ class SimpleReporterFactoryTest {
 
     @Test
     void shouldThrowExceptionIfEmployeesIsNull() {
-        assertThrows(IllegalArgumentException.class, () -> underTest.create(LOWER_RANGE_COEFFICIENT, UPPER_RANGE_COEFFICIENT, null));
+        assertThrows(IllegalArgumentException.class, () -> underTest.create(LOWER_RANGE_COEFFICIENT, UPPER_RANGE_COEFFICIENT, (Map<Integer, Employee>) null));
+    }
+
+    private static ByteArrayInputStream toInputStream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
     }
 }
\ No newline at end of file
@@ -1,7 +1,9 @@
 package com.epam.reporter.impl;
 
+import com.epam.reporter.api.ReportSink;
 import org.junit.jupiter.api.Test;
 
+import java.io.StringWriter;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -121,7 +123,73 @@ class SimpleReporterTest {
         employees.put(5, danglingEmployee2);
 
         List<String> report = createReporterWithDefaults(employees);
-        assertEquals(List.of("The following employees are not in the hierarchy:Lauren Smith, Blake Thompson."), report);
+        assertEquals(List.of("The following employees are not in the hierarchy, they form a reporting cycle:Lauren Smith, Blake Thompson."), report);
+    }
+
+    @Test
+    void reportHandlesDeepReportingLines() {
+        int depth = 100_000;
+        Map<Integer, EmployeeEntity> employees = new HashMap<>();
+        EmployeeEntity manager = new EmployeeEntity(1, JOHN, DOE, EMPLOYEE_SALARY);
+        employees.put(1, manager);
+        for (int id = 2; id <= depth; id++) {
+            EmployeeEntity employee = new EmployeeEntity(id, JOHN, DOE, EMPLOYEE_SALARY);
+            manager.addSubordinate(employee);
+            employees.put(id, employee);
+            manager = employee;
+        }
+
+        List<String> report = createReporterWithDefaults(employees);
+
+        assertEquals(2 * depth - 1 - 6, report.size());
+        assertEquals("Employee (John Doe) has more than 4 manager between him and the CEO!", report.getLast());
+        assertEquals(depth - 1, manager.getLevel());
+    }
+
+    @Test
+    void reportListsLongReportingLinesAfterTheSubordinatesOfTheEmployee() {
+        EmployeeEntity ceo = new EmployeeEntity(1, JOHN, DOE, EMPLOYEE_SALARY);
+        EmployeeEntity manager = ceo;
+        for (int id = 2; id <= 6; id++) {
+            EmployeeEntity employee = new EmployeeEntity(id, JOHN, DOE, EMPLOYEE_SALARY);
+            manager.addSubordinate(employee);
+            manager = employee;
+        }
+        EmployeeEntity deepManager = new EmployeeEntity(7, EMILY, TAYLOR, EMPLOYEE_SALARY);
+        EmployeeEntity deepEmployee = new EmployeeEntity(8, JACK, DOE, EMPLOYEE_SALARY);
+        manager.addSubordinate(deepManager);
+        deepManager.addSubordinate(deepEmployee);
+
+        Map<Integer, EmployeeEntity> employees = new HashMap<>();
+        for (EmployeeEntity employee = deepEmployee; employee != null; employee = employee.getManager()) {
+            employees.put(employee.getId(), employee);
+        }
+
+        List<String> report = createReporterWithDefaults(employees);
+
+        assertEquals(List.of("Manager Emily Taylor salary ( 80.00) is less than 20.0% of subordinates average salary by  16.00",
+                "Employee (Jack Doe) has more than 4 manager between him and the CEO!",
+                "Employee (Emily Taylor) has more than 4 manager between him and the CEO!"), report.subList(report.size() - 3, report.size()));
+    }
+
+    @Test
+    void reportStreamsTheSameLinesToTheSink() {
+        EmployeeEntity ceo = new EmployeeEntity(1, JOHN, DOE, CEO_SALARY);
+        EmployeeEntity employee = new EmployeeEntity(2, JANE, DOE, EMPLOYEE_SALARY);
+        EmployeeEntity danglingEmployee1 = new EmployeeEntity(3, LAUREN, SMITH, EMPLOYEE_SALARY);
+        EmployeeEntity danglingEmployee2 = new EmployeeEntity(4, BLAKE, THOMPSON, EMPLOYEE_SALARY);
+        ceo.addSubordinate(employee);
+        danglingEmployee1.addSubordinate(danglingEmployee2);
+        danglingEmployee2.addSubordinate(danglingEmployee1);
+        List<EmployeeEntity> employees = List.of(ceo, employee, danglingEmployee1, danglingEmployee2);
+
+        var writer = new StringWriter();
+        new SimpleReporter(LOWER_RANGE_COEFFICIENT, LOWER_RANGE_PERCENTAGE, UPPER_RANGE_COEFFICIENT, UPPER_RANGE_PERCENTAGE, employees)
+                .report(ReportSink.of(writer));
+
+        String separator = System.lineSeparator();
+        assertEquals("Manager John Doe salary (239.00) is more than 50.0% of subordinates average salary by 119.00" + separator
+                + "The following employees are not in the hierarchy, they form a reporting cycle:Lauren Smith, Blake Thompson." + separator, writer.toString());
     }
 
     @Test
@@ -0,0 +1,127 @@
+package com.epam.reporter.impl;
+
+import com.epam.reporter.api.Employee;
+import com.epam.reporter.api.EmployeeTable;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnapshotFileTest {
+    private static final String CONTENT = """
+            Id,firstName,lastName,salary,managerId
+            305,Brett,Hardleaf,34000.5,300
+            123,Joe,Doe,60000,
+            124,Márton,Čechov,45000,123
+            125,Bob,Ronstad,47000.25,123
+            300,Alice,Hasacat,50000,124
+            """;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void snapshotContainsTheSameEmployeesAsTheCsvFile() throws IOException {
+        Path csv = writeCsv();
+        Path snapshot = SnapshotFile.snapshotOf(csv);
+
+        SnapshotFile.create(new MappedCsvFile(csv), csv, snapshot);
+
+        assertEquals(new MappedCsvFile(csv).parse(), new SnapshotFile(snapshot).parse());
+    }
+
+    @Test
+    void snapshotReportsTheSameAsTheCsvFile() throws IOException {
+        Path csv = writeCsv();
+        Path snapshot = SnapshotFile.snapshotOf(csv);
+        var factory = new SimpleReporterFactory();
+
+        SnapshotFile.create(new SimpleCsvFile(Files.newInputStream(csv)), csv, snapshot);
+
+        assertEquals(factory.create(new MappedCsvFile(csv)).report(), factory.create(new SnapshotFile(snapshot)).report());
+    }
+
+    @Test
+    void snapshotKeepsSalariesWhichDoNotFitIntoLong() throws IOException {
+        var employees = List.of(
+                new Employee(1, "Joe", "Doe", new BigDecimal("12345678901234567890.12"), null),
+                new Employee(2, "Jane", "Doe", new BigDecimal("1E+3"), 1));
+        Path snapshot = directory.resolve("large.snapshot");
+
+        SnapshotFile.write(EmployeeTable.of(employees), snapshot, 0, 0);
+
+        var loaded = new SnapshotFile(snapshot).parse();
+        assertEquals(employees.get(0), loaded.get(1));
+        assertEquals(employees.get(1), loaded.get(2));
+    }
+
+    @Test
+    void snapshotIsOnlyUpToDateWhileTheCsvFileIsUnchanged() throws IOException {
+        Path csv = writeCsv();
+        Path snapshot = SnapshotFile.snapshotOf(csv);
+
+        assertFalse(SnapshotFile.isUpToDate(snapshot, csv));
+        SnapshotFile.create(new MappedCsvFile(csv), csv, snapshot);
+        assertTrue(SnapshotFile.isUpToDate(snapshot, csv));
+        assertTrue(SnapshotFile.isIntact(snapshot));
+
+        Files.setLastModifiedTime(csv, FileTime.fromMillis(Files.getLastModifiedTime(csv).toMillis() + 1000));
+        assertFalse(SnapshotFile.isUpToDate(snapshot, csv));
+    }
+
+    @Test
+    void snapshotsOfTheSameCsvFileCanBeCreatedAtTheSameTime() throws Exception {
+        Path csv = writeCsv();
+        Path snapshot = SnapshotFile.snapshotOf(csv);
+
+        List<Future<?>> creates = new ArrayList<>();
+        try (var executor = Executors.newFixedThreadPool(8)) {
+            for (int i = 0; i < 50; i++) {
+                creates.add(executor.submit(() -> {
+                    SnapshotFile.create(new MappedCsvFile(csv), csv, snapshot);
+                    return null;
+                }));
+            }
+        }
+        for (Future<?> create : creates) {
+            create.get();
+        }
+
+        assertTrue(SnapshotFile.isIntact(snapshot));
+        assertEquals(new MappedCsvFile(csv).parse(), new SnapshotFile(snapshot).parse());
+        try (var files = Files.list(directory)) {
+            assertEquals(2, files.count());
+        }
+    }
+
+    @Test
+    void parseThrowsExceptionIfTheSnapshotIsCorrupted() throws IOException {
+        Path csv = writeCsv();
+        Path snapshot = SnapshotFile.snapshotOf(csv);
+        SnapshotFile.create(new MappedCsvFile(csv), csv, snapshot);
+        byte[] bytes = Files.readAllBytes(snapshot);
+        bytes[bytes.length - 1] ^= 1;
+        Files.write(snapshot, bytes);
+
+        assertTrue(SnapshotFile.isUpToDate(snapshot, csv));
+        assertFalse(SnapshotFile.isIntact(snapshot));
+        var exception = assertThrows(CsvParsingException.class, () -> new SnapshotFile(snapshot).parse());
+        assertEquals("Snapshot is corrupted: checksum mismatch!", exception.getMessage());
+        assertThrows(CsvParsingException.class, () -> new SnapshotFile(csv).parse());
+        assertThrows(CsvFileNotFoundException.class, () -> new SnapshotFile(directory.resolve("missing.snapshot")).parse());
+    }
+
+    private Path writeCsv() throws IOException {
+        return Files.writeString(directory.resolve("employees.csv"), CONTENT);
+    }
+}
@@ -0,0 +1,98 @@
+package com.epam.reporter.impl;
+
+import com.epam.reporter.api.Employee;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static com.epam.reporter.impl.TestConstants.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class SubtreeIndexTest {
+
+    @Test
+    void queriesMatchWalkingTheHierarchy() {
+        var random = new Random(3);
+        List<EmployeeEntity> employees = new ArrayList<>();
+        employees.add(new EmployeeEntity(1, JOHN, DOE, CEO_SALARY));
+        for (int id = 2; id <= 500; id++) {
+            var employee = new EmployeeEntity(id, JOHN, DOE, BigDecimal.valueOf(1 + random.nextInt(100_000), random.nextInt(3)));
+            employees.get(random.nextInt(employees.size())).addSubordinate(employee);
+            employees.add(employee);
+        }
+
+        var index = new SubtreeIndex(employees);
+        int scale = employees.stream().mapToInt(employee -> employee.getSalary().scale()).max().orElseThrow();
+
+        for (EmployeeEntity manager : employees) {
+            List<EmployeeEntity> under = new ArrayList<>();
+            collect(manager, under);
+            BigDecimal cost = under.stream().map(EmployeeEntity::getSalary).reduce(BigDecimal.ZERO, BigDecimal::add).setScale(scale);
+            assertEquals(under.size(), index.headcount(manager.getId()));
+            assertEquals(cost, index.salaryCost(manager.getId()));
+            if (!under.isEmpty()) {
+                assertEquals(cost.divide(BigDecimal.valueOf(under.size()), RoundingMode.HALF_UP), index.averageSalary(manager.getId()));
+            }
+            for (EmployeeEntity employee : employees) {
+                assertEquals(under.contains(employee), index.isInReportingLine(manager.getId(), employee.getId()));
+            }
+        }
+    }
+
+    @Test
+    void employeesInCyclesAreNotInTheIndex() {
+        String content = """
+                Id,firstName,lastName,salary,managerId
+                1,Joe,Doe,60000,
+                2,Jane,Doe,45000,1
+                3,Dan,Doe,30000,2
+                4,Lauren,Smith,20,5
+                5,Blake,Thompson,30,4
+                """;
+
+        var index = new SimpleReporterFactory().createSubtreeIndex(
+                new SimpleCsvFile(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8))));
+
+        assertTrue(index.contains(3));
+        assertFalse(index.contains(4));
+        assertEquals(2, index.headcount(1));
+        assertEquals(new BigDecimal("75000"), index.salaryCost(1));
+        assertEquals(new BigDecimal("37500"), index.averageSalary(1));
+        assertEquals(0, index.headcount(3));
+        assertEquals(BigDecimal.ZERO, index.averageSalary(3));
+        assertTrue(index.isInReportingLine(1, 3));
+        assertFalse(index.isInReportingLine(3, 1));
+        assertFalse(index.isInReportingLine(2, 2));
+        assertThrows(IllegalArgumentException.class, () -> index.headcount(4));
+    }
+
+    @Test
+    void createSubtreeIndexFromMap() {
+        Map<Integer, Employee> employees = new HashMap<>();
+        employees.put(1, new Employee(1, JOHN, DOE, CEO_SALARY, null));
+        employees.put(2, new Employee(2, JANE, DOE, MANAGER_SALARY, 1));
+        employees.put(3, new Employee(3, DAN, DOE, EMPLOYEE_SALARY, 2));
+
+        var index = new SimpleReporterFactory().createSubtreeIndex(employees);
+
+        assertEquals(MANAGER_SALARY.add(EMPLOYEE_SALARY), index.salaryCost(1));
+        assertTrue(index.isInReportingLine(2, 3));
+        assertThrows(MultipleEmployeesWithoutManagerException.class, () -> new SimpleReporterFactory().createSubtreeIndex(
+                Map.of(1, new Employee(1, JOHN, DOE, CEO_SALARY, null), 2, new Employee(2, JANE, DOE, CEO_SALARY, null))));
+    }
+
+    private static void collect(EmployeeEntity manager, List<EmployeeEntity> under) {
+        for (EmployeeEntity subordinate : manager.getSubordinates()) {
+            under.add(subordinate);
+            collect(subordinate, under);
+        }
+    }
+}
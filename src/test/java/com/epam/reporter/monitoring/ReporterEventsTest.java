@@ -0,0 +1,108 @@
+package com.epam.reporter.monitoring;
+
+import com.epam.reporter.api.ReportExecutor;
+import com.epam.reporter.api.ReporterFactory;
+import com.epam.reporter.impl.SalaryArithmetic;
+import com.epam.reporter.impl.SimpleCsvFile;
+import com.epam.reporter.impl.SimpleReporterFactory;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStreamReader;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReporterEventsTest {
+    private static final String CONTENT = """
+            Id,firstName,lastName,salary,managerId
+            1,Joe,Doe,60000,
+            2,Martin,Chekov,45000,1
+            3,Bob,Ronstad,47000,1
+            4,Alice,Hasacat,50000,2
+            4,Alice,Again,50000,2
+            5,Short,Line
+            """;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void pipelineEmitsTheEventsEnabledByTheSettings() throws Exception {
+        List<RecordedEvent> events = record(new SimpleReporterFactory());
+
+        RecordedEvent chunk = single(events, "com.epam.reporter.CsvParseChunk");
+        assertEquals(2, chunk.getLong("firstLine"));
+        assertEquals(6, chunk.getLong("rows"));
+        assertEquals(2, chunk.getLong("errors"));
+        assertEquals(CONTENT.length(), chunk.getLong("bytes"));
+        RecordedEvent build = single(events, "com.epam.reporter.HierarchyBuild");
+        assertEquals(4, build.getInt("employees"));
+        assertTrue(build.getBoolean("whileParsing"));
+        RecordedEvent check = single(events, "com.epam.reporter.ManagerCheck");
+        assertEquals(1, check.getInt("managerId"));
+        assertEquals(2, check.getInt("subordinates"));
+        assertEquals(0, check.getInt("level"));
+        RecordedEvent write = single(events, "com.epam.reporter.ReportWrite");
+        assertTrue(write.getLong("characters") > 0);
+    }
+
+    @Test
+    void parallelReporterEmitsManagerChecks() throws Exception {
+        List<RecordedEvent> events = record(new SimpleReporterFactory(SalaryArithmetic.FIXED_POINT, 4));
+
+        RecordedEvent check = single(events, "com.epam.reporter.ManagerCheck");
+        assertEquals(1, check.getInt("managerId"));
+        assertEquals(2, check.getInt("subordinates"));
+    }
+
+    @Test
+    void settingsEnableEveryReporterEvent() throws Exception {
+        Configuration configuration = settings();
+
+        assertEquals("true", configuration.getSettings().get("com.epam.reporter.ManagerCheck#enabled"));
+        assertEquals(4, configuration.getSettings().entrySet().stream()
+                .filter(setting -> setting.getKey().endsWith("#enabled"))
+                .map(Map.Entry::getValue)
+                .filter("true"::equals)
+                .count());
+    }
+
+    private List<RecordedEvent> record(ReporterFactory factory) throws Exception {
+        Path file = directory.resolve("report.jfr");
+        try (var recording = new Recording(settings())) {
+            recording.start();
+            new ReportExecutor(new SimpleCsvFile(new ByteArrayInputStream(CONTENT.getBytes(StandardCharsets.UTF_8))),
+                    factory, Channels.newChannel(new ByteArrayOutputStream())).execute();
+            recording.stop();
+            recording.dump(file);
+        }
+        return RecordingFile.readAllEvents(file).stream()
+                .filter(event -> event.getEventType().getName().startsWith("com.epam.reporter."))
+                .toList();
+    }
+
+    private static Configuration settings() throws Exception {
+        try (var reader = new InputStreamReader(Objects.requireNonNull(
+                ReporterEventsTest.class.getResourceAsStream("/reporter.jfc")), StandardCharsets.UTF_8)) {
+            return Configuration.create(reader);
+        }
+    }
+
+    private static RecordedEvent single(List<RecordedEvent> events, String name) {
+        List<RecordedEvent> matching = events.stream().filter(event -> event.getEventType().getName().equals(name)).toList();
+        assertEquals(1, matching.size(), name);
+        return matching.getFirst();
+    }
+}
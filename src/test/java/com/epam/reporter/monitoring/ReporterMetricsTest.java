@@ -0,0 +1,88 @@
+package com.epam.reporter.monitoring;
+
+import com.epam.reporter.api.ReportExecutor;
+import com.epam.reporter.impl.SimpleCsvFile;
+import com.epam.reporter.impl.SimpleReporterFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.management.ObjectName;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReporterMetricsTest {
+    private static final String CONTENT = """
+            Id,firstName,lastName,salary,managerId
+            1,Joe,Doe,60000,
+            2,Martin,Chekov,45000,1
+            3,Bob,Ronstad,47000,1
+
+            4,Alice,Hasacat,50000,2
+            5,Brett,Hardleaf,34000,4
+            5,Brett,Again,34000,4
+            6,Short,Line
+            7,Bad,Salary,abc,1
+            """;
+
+    private final ReporterMetrics metrics = ReporterMetrics.get();
+
+    @BeforeEach
+    void setUp() {
+        metrics.reset();
+    }
+
+    @Test
+    void executorRecordsTheCountersOfTheRun() {
+        byte[] bytes = CONTENT.getBytes(StandardCharsets.UTF_8);
+
+        new ReportExecutor(new SimpleCsvFile(new ByteArrayInputStream(bytes)), new SimpleReporterFactory(),
+                Channels.newChannel(new ByteArrayOutputStream())).execute();
+
+        assertEquals(1, metrics.getRuns());
+        assertEquals(8, metrics.getRowsRead());
+        assertEquals(bytes.length, metrics.getBytesProcessed());
+        assertEquals(1, metrics.getSkippedNotEnoughColumns());
+        assertEquals(1, metrics.getSkippedInvalidNumber());
+        assertEquals(1, metrics.getDuplicateIds());
+        assertEquals(5, metrics.getEmployeeCount());
+        assertEquals(3, metrics.getManagerCount());
+        assertEquals(3, metrics.getMaxDepth());
+        assertTrue(metrics.getRowsPerSecond() > 0);
+    }
+
+    @Test
+    void metricsAreRegisteredAsMBean() throws Exception {
+        new ReportExecutor(new SimpleCsvFile(new ByteArrayInputStream(CONTENT.getBytes(StandardCharsets.UTF_8))),
+                new SimpleReporterFactory(), Channels.newChannel(new ByteArrayOutputStream())).execute();
+
+        var server = ManagementFactory.getPlatformMBeanServer();
+        var name = new ObjectName(ReporterMetrics.OBJECT_NAME);
+        assertEquals(1L, server.getAttribute(name, "Runs"));
+        assertEquals(8L, server.getAttribute(name, "RowsRead"));
+
+        server.invoke(name, "reset", null, null);
+
+        assertEquals(0L, server.getAttribute(name, "Runs"));
+        assertEquals(0L, server.getAttribute(name, "ManagerCount"));
+    }
+
+    @Test
+    void phaseTimesAreSummed() {
+        metrics.recordPhase(ReporterMetrics.Phase.PARSE, 2_000_000_000L);
+        metrics.recordPhase(ReporterMetrics.Phase.PARSE, 1_000_000_000L);
+        metrics.recordPhase(ReporterMetrics.Phase.OUTPUT, 5_000_000L);
+        metrics.recordRow();
+        metrics.recordRow();
+        metrics.recordRow();
+
+        assertEquals(3000, metrics.getParseMillis());
+        assertEquals(0, metrics.getBuildMillis());
+        assertEquals(5, metrics.getOutputMillis());
+        assertEquals(1.0, metrics.getRowsPerSecond());
+    }
+}
@@ -0,0 +1,107 @@
+package com.epam.reporter.tools;
+
+import com.epam.reporter.api.Employee;
+import com.epam.reporter.api.ErrorHandler;
+import com.epam.reporter.impl.SimpleCsvFile;
+import com.epam.reporter.impl.SimpleReporterFactory;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrganisationGeneratorTest {
+
+    @Test
+    void generateIsDeterministic() throws IOException {
+        var settings = OrganisationSettings.parse("--employees=1000", "--cycles=2", "--duplicateShare=0.1", "--malformedShare=0.1");
+
+        assertEquals(generate(settings), generate(settings));
+        assertNotEquals(generate(settings), generate(OrganisationSettings.parse("--employees=1000", "--seed=7")));
+    }
+
+    @Test
+    void generatedFileCanBeParsedAndReported() throws IOException {
+        var settings = OrganisationSettings.parse("--employees=5000", "--minFanOut=1", "--maxFanOut=4", "--maxDepth=5");
+        List<String> errors = new ArrayList<>();
+
+        var employees = parse(generate(settings), errors::add);
+        var report = new SimpleReporterFactory().create(employees).report();
+
+        assertEquals(5000, employees.size());
+        assertTrue(errors.isEmpty());
+        assertTrue(report.stream().noneMatch(line -> line.contains("more than 4 manager")));
+    }
+
+    @Test
+    void generatedFileRespectsMaxDepth() throws IOException {
+        var settings = OrganisationSettings.parse("--employees=2000", "--minFanOut=1", "--maxFanOut=1", "--maxDepth=6");
+
+        var report = new SimpleReporterFactory().create(parse(generate(settings), message -> { })).report();
+
+        assertEquals(2000 - 6, report.stream().filter(line -> line.contains("more than 4 manager")).count());
+    }
+
+    @Test
+    void generatedFileRespectsMaxLevelWidth() throws IOException {
+        var settings = OrganisationSettings.parse("--employees=1000", "--minFanOut=3", "--maxFanOut=3", "--maxDepth=1000",
+                "--maxLevelWidth=10");
+
+        var employees = parse(generate(settings), message -> { });
+        Map<Integer, Integer> levels = new HashMap<>();
+        Map<Integer, Integer> widths = new HashMap<>();
+        for (int id = 1; id <= employees.size(); id++) {
+            Integer managerId = employees.get(id).managerId();
+            int level = managerId == null ? 0 : levels.get(managerId) + 1;
+            levels.put(id, level);
+            widths.merge(level, 1, Integer::sum);
+        }
+
+        assertEquals(List.of(1, 3, 9, 10, 10), List.of(widths.get(0), widths.get(1), widths.get(2), widths.get(3), widths.get(4)));
+        assertEquals(3 + 99, widths.size());
+        assertTrue(widths.values().stream().allMatch(width -> width <= 10));
+    }
+
+    @Test
+    void generatedFileContainsCyclesDuplicatesAndMalformedLines() throws IOException {
+        var settings = OrganisationSettings.parse("--employees=1000", "--cycles=2", "--duplicateShare=0.05", "--malformedShare=0.05");
+        List<String> errors = new ArrayList<>();
+
+        var employees = parse(generate(settings), errors::add);
+        var report = new SimpleReporterFactory().create(employees).report();
+
+        assertEquals(1000, employees.size());
+        assertTrue(errors.stream().anyMatch(error -> error.startsWith("File contains multiple records")));
+        assertTrue(errors.stream().anyMatch(error -> error.startsWith("Invalid line")));
+        assertTrue(errors.stream().anyMatch(error -> error.startsWith("Skipping line")));
+        assertEquals(List.of(
+                "The following employees are not in the hierarchy, they form a reporting cycle:First995 Last995, First996 Last996, First997 Last997.",
+                "The following employees are not in the hierarchy, they form a reporting cycle:First998 Last998, First999 Last999, First1000 Last1000."),
+                report.subList(report.size() - 2, report.size()));
+    }
+
+    @Test
+    void parseThrowsExceptionForInvalidSettings() {
+        assertThrows(IllegalArgumentException.class, () -> OrganisationSettings.parse("--unknown=1"));
+        assertThrows(IllegalArgumentException.class, () -> OrganisationSettings.parse("--maxDepth=0"));
+        assertThrows(IllegalArgumentException.class, () -> OrganisationSettings.parse("--maxLevelWidth=0"));
+        assertThrows(IllegalArgumentException.class, () -> OrganisationSettings.parse("--employees=3", "--cycles=1"));
+    }
+
+    private static String generate(OrganisationSettings settings) throws IOException {
+        var writer = new StringWriter();
+        new OrganisationGenerator(settings).write(writer);
+        return writer.toString();
+    }
+
+    private static Map<Integer, Employee> parse(String content, ErrorHandler errorHandler) {
+        return new SimpleCsvFile(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), errorHandler).parse();
+    }
+}